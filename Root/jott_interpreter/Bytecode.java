@@ -0,0 +1,128 @@
+package jott_interpreter;
+
+import jott_interpreter.nodes.BytecodeWriter;
+
+/**
+ * <h1>Bytecode</h1>
+ *
+ * <p>
+ * A validated Jott program compiled for the {@link BytecodeVM} (by
+ * {@link BytecodeWriter}): the code of every function reachable from main, in
+ * one array of instructions, each an opcode followed by its operands.
+ * </p>
+ *
+ * <p>
+ * The instructions are typed, like the frame stack of the tree walker: Integer
+ * and Boolean values (1 or 0) are on the {@code int} operand stack and in the
+ * {@code int} frame slots, Double values in the {@code double} ones, and String
+ * values in the {@code Object} ones. Literals are loaded from the constant pool of
+ * the program ({@link ConstantPool}) by index. A call pushes the frame of the
+ * function called, whose code starts by storing its arguments (left on the
+ * operand stacks by the caller) in its parameter slots; a return leaves the value
+ * returned on the operand stack, for the caller.
+ * </p>
+ *
+ * <p>
+ * The most frequent sequences of a loop (the loads of the two Integer operands of
+ * an operation, the Integer comparison of its condition and the jump after it, the
+ * increment of its counter) are fused into one instruction each, so the VM
+ * dispatches fewer instructions per iteration.
+ * </p>
+ */
+public final class Bytecode {
+
+    //* The opcodes (operands in the comments: k a constant index, s a frame slot, t a code index)
+    public static final int ICONST = 0;         // k: push the Integer (or Boolean) constant k
+    public static final int DCONST = 1;         // k: push the Double constant k
+    public static final int SCONST = 2;         // k: push the String constant k
+    public static final int ILOAD = 3;          // s
+    public static final int DLOAD = 4;          // s
+    public static final int OLOAD = 5;          // s
+    public static final int ISTORE = 6;         // s
+    public static final int DSTORE = 7;         // s
+    public static final int OSTORE = 8;         // s
+    public static final int IADD = 9;
+    public static final int ISUB = 10;
+    public static final int IMUL = 11;
+    public static final int IDIV = 12;          // line: of the division by zero error
+    public static final int DADD = 13;
+    public static final int DSUB = 14;
+    public static final int DMUL = 15;
+    public static final int DDIV = 16;          // line
+    public static final int IGT = 17;
+    public static final int IGE = 18;
+    public static final int ILT = 19;
+    public static final int ILE = 20;
+    public static final int IEQ = 21;
+    public static final int DGT = 22;
+    public static final int DGE = 23;
+    public static final int DLT = 24;
+    public static final int DLE = 25;
+    public static final int DEQ = 26;
+    public static final int JUMP = 27;          // t
+    public static final int JUMP_IF_FALSE = 28; // t: pops the Boolean condition
+    public static final int CALL = 29;          // f: the index of the function called
+    public static final int RETURN = 30;        // (the value returned, if any, stays on its operand stack)
+    public static final int POP_I = 31;
+    public static final int POP_D = 32;
+    public static final int POP_O = 33;
+    public static final int PRINT_I = 34;
+    public static final int PRINT_D = 35;
+    public static final int PRINT_B = 36;
+    public static final int PRINT_O = 37;
+    public static final int CONCAT = 38;
+    public static final int LENGTH = 39;
+    public static final int HALT = 40;
+
+    //* Superinstructions (emitted by the writer in place of the instructions in the comments)
+    public static final int IINC = 41;          // s v: add the value v to slot s (ILOADK s v, IADD or ISUB, ISTORE s)
+    public static final int JUMP_IF_ILE = 42;   // t: pops two Integers (IGT, JUMP_IF_FALSE t)
+    public static final int JUMP_IF_ILT = 43;   // t (IGE, JUMP_IF_FALSE t)
+    public static final int JUMP_IF_IGE = 44;   // t (ILT, JUMP_IF_FALSE t)
+    public static final int JUMP_IF_IGT = 45;   // t (ILE, JUMP_IF_FALSE t)
+    public static final int JUMP_IF_INE = 46;   // t (IEQ, JUMP_IF_FALSE t)
+    public static final int ILOAD2 = 47;        // s1 s2 (ILOAD s1, ILOAD s2)
+    public static final int ILOADK = 48;        // s v: push slot s, then the value v (ILOAD s, ICONST)
+
+    /** The instructions */
+    final int[] code;
+    /** The index of the first instruction of each function, by function index */
+    final int[] entries;
+    /** The number of frame slots of each function, by function index */
+    final int[] frame_sizes;
+    /** Whether each function has String variables (its frame slots are cleared by a call), by function index */
+    final boolean[] object_frames;
+
+    /** The constants of the program, by index (copies of its {@link ConstantPool}) */
+    final int[] ints;
+    final double[] doubles;
+    final String[] strings;
+
+    /**
+     * Constructs a compiled program (see {@link BytecodeWriter#compile}).
+     * @param code          the instructions (starting with the call of main)
+     * @param entries       the index of the first instruction of each function
+     * @param frame_sizes   the number of frame slots of each function
+     * @param object_frames whether each function has String variables
+     * @param constants     the constants the instructions load by index
+     */
+    public Bytecode(int[] code, int[] entries, int[] frame_sizes, boolean[] object_frames, ConstantPool constants) {
+        this.code = code;
+        this.entries = entries;
+        this.frame_sizes = frame_sizes;
+        this.object_frames = object_frames;
+        this.ints = constants.toIntArray();
+        this.doubles = constants.toDoubleArray();
+        this.strings = constants.toStringArray();
+    }
+
+    /** @return the number of ints of the instructions (opcodes and operands) */
+    public int size() {
+        return this.code.length;
+    }
+
+    /** @return the number of functions compiled (the functions reachable from main) */
+    public int getFunctionCount() {
+        return this.entries.length;
+    }
+}
@@ -0,0 +1,210 @@
+package jott_interpreter;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * <h1>BytecodeVM</h1>
+ *
+ * <p>
+ * Executes a compiled Jott program ({@link Bytecode}): one loop dispatching on
+ * the opcode of each instruction with a switch, over typed operand stacks and a
+ * frame stack of typed slots (the frames of the functions not returned yet, one
+ * after the other, in three parallel arrays as in the tree walker).
+ * </p>
+ *
+ * <p>
+ * The operand stacks have room for {@link #STACK_MARGIN} more values of each type
+ * after every call: the compiler only compiles the functions needing less
+ * ({@link jott_interpreter.nodes.BytecodeWriter}), so pushes are not checked.
+ * </p>
+ */
+public final class BytecodeVM {
+
+    /** The number of values of each operand stack a function can use (checked by the compiler) */
+    public static final int STACK_MARGIN = 64;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private BytecodeVM() {}
+
+    /**
+     * Executes a compiled program, printing to {@link System#out}.
+     * @param program the program compiled by {@link jott_interpreter.nodes.BytecodeWriter#compile}
+     * @throws SemanticError Runtime Exception (a division by zero)
+     */
+    public static void execute(Bytecode program) throws SemanticError {
+        final int[] code = program.code;
+        final int[] entries = program.entries;
+        final int[] frame_sizes = program.frame_sizes;
+        final boolean[] object_frames = program.object_frames;
+        final int[] int_constants = program.ints;
+        final double[] double_constants = program.doubles;
+        final String[] string_constants = program.strings;
+        final PrintStream out = System.out;
+
+        // The operand stacks (the index of the top value, -1 if empty)
+        int[] istack = new int[INITIAL_CAPACITY];
+        double[] dstack = new double[INITIAL_CAPACITY];
+        Object[] ostack = new Object[INITIAL_CAPACITY];
+        int isp = -1;
+        int dsp = -1;
+        int osp = -1;
+
+        // The frame stack (the frame of the function executed starts at fp, the next one at top)
+        int[] ints = new int[INITIAL_CAPACITY];
+        double[] doubles = new double[INITIAL_CAPACITY];
+        Object[] objects = new Object[INITIAL_CAPACITY];
+        int fp = 0;
+        int top = 0;
+
+        // The call stack: the code index and frame of each caller
+        int[] return_pcs = new int[INITIAL_CAPACITY];
+        int[] return_fps = new int[INITIAL_CAPACITY];
+        int calls = 0;
+
+        int pc = 0;
+        while(true) {
+            switch(code[pc++]) {
+                case Bytecode.ICONST :  istack[++isp] = int_constants[code[pc++]]; break;
+                case Bytecode.DCONST :  dstack[++dsp] = double_constants[code[pc++]]; break;
+                case Bytecode.SCONST :  ostack[++osp] = string_constants[code[pc++]]; break;
+                case Bytecode.ILOAD :   istack[++isp] = ints[fp + code[pc++]]; break;
+                case Bytecode.DLOAD :   dstack[++dsp] = doubles[fp + code[pc++]]; break;
+                case Bytecode.OLOAD :   ostack[++osp] = objects[fp + code[pc++]]; break;
+                case Bytecode.ISTORE :  ints[fp + code[pc++]] = istack[isp--]; break;
+                case Bytecode.DSTORE :  doubles[fp + code[pc++]] = dstack[dsp--]; break;
+                case Bytecode.OSTORE :  objects[fp + code[pc++]] = ostack[osp]; ostack[osp--] = null; break;
+
+                //! MATH OPERATIONS (exact 32-bit Integer arithmetic)
+                case Bytecode.IADD :    isp--; istack[isp] += istack[isp + 1]; break;
+                case Bytecode.ISUB :    isp--; istack[isp] -= istack[isp + 1]; break;
+                case Bytecode.IMUL :    isp--; istack[isp] *= istack[isp + 1]; break;
+                case Bytecode.IDIV : {
+                    final int line = code[pc++];
+                    isp--;
+                    if(istack[isp + 1] == 0) { throw new SemanticError("Division by zero", line); }
+                    istack[isp] /= istack[isp + 1];
+                    break;
+                }
+                case Bytecode.DADD :    dsp--; dstack[dsp] += dstack[dsp + 1]; break;
+                case Bytecode.DSUB :    dsp--; dstack[dsp] -= dstack[dsp + 1]; break;
+                case Bytecode.DMUL :    dsp--; dstack[dsp] *= dstack[dsp + 1]; break;
+                case Bytecode.DDIV : {
+                    final int line = code[pc++];
+                    dsp--;
+                    if(dstack[dsp + 1] == 0) { throw new SemanticError("Division by zero", line); }
+                    dstack[dsp] /= dstack[dsp + 1];
+                    break;
+                }
+
+                //! RELATIVE OPERATIONS (Booleans are 1 or 0)
+                case Bytecode.IGT :     isp--; istack[isp] = istack[isp] > istack[isp + 1] ? 1 : 0; break;
+                case Bytecode.IGE :     isp--; istack[isp] = istack[isp] >= istack[isp + 1] ? 1 : 0; break;
+                case Bytecode.ILT :     isp--; istack[isp] = istack[isp] < istack[isp + 1] ? 1 : 0; break;
+                case Bytecode.ILE :     isp--; istack[isp] = istack[isp] <= istack[isp + 1] ? 1 : 0; break;
+                case Bytecode.IEQ :     isp--; istack[isp] = istack[isp] == istack[isp + 1] ? 1 : 0; break;
+                case Bytecode.DGT :     istack[++isp] = dstack[dsp - 1] > dstack[dsp] ? 1 : 0; dsp -= 2; break;
+                case Bytecode.DGE :     istack[++isp] = dstack[dsp - 1] >= dstack[dsp] ? 1 : 0; dsp -= 2; break;
+                case Bytecode.DLT :     istack[++isp] = dstack[dsp - 1] < dstack[dsp] ? 1 : 0; dsp -= 2; break;
+                case Bytecode.DLE :     istack[++isp] = dstack[dsp - 1] <= dstack[dsp] ? 1 : 0; dsp -= 2; break;
+                case Bytecode.DEQ :     istack[++isp] = dstack[dsp - 1] == dstack[dsp] ? 1 : 0; dsp -= 2; break;
+
+                case Bytecode.JUMP :    pc = code[pc]; break;
+                case Bytecode.JUMP_IF_FALSE :
+                    pc = istack[isp--] == 0 ? code[pc] : pc + 1;
+                    break;
+
+                case Bytecode.CALL : {
+                    final int function = code[pc++];
+                    if(calls == return_pcs.length) {
+                        return_pcs = Arrays.copyOf(return_pcs, calls * 2);
+                        return_fps = Arrays.copyOf(return_fps, calls * 2);
+                    }
+                    return_pcs[calls] = pc;
+                    return_fps[calls++] = fp;
+
+                    // The frame of the call, after the caller's (its Strings are null, as in the tree walker)
+                    final int size = frame_sizes[function];
+                    if(top + size > ints.length) {
+                        final int length = Math.max(ints.length * 2, top + size);
+                        ints = Arrays.copyOf(ints, length);
+                        doubles = Arrays.copyOf(doubles, length);
+                        objects = Arrays.copyOf(objects, length);
+                    }
+                    if(object_frames[function]) { Arrays.fill(objects, top, top + size, null); }
+                    fp = top;
+                    top += size;
+
+                    // Room for the operand stacks of the function
+                    if(isp + STACK_MARGIN >= istack.length) { istack = Arrays.copyOf(istack, istack.length * 2); }
+                    if(dsp + STACK_MARGIN >= dstack.length) { dstack = Arrays.copyOf(dstack, dstack.length * 2); }
+                    if(osp + STACK_MARGIN >= ostack.length) { ostack = Arrays.copyOf(ostack, ostack.length * 2); }
+                    pc = entries[function];
+                    break;
+                }
+                case Bytecode.RETURN :
+                    top = fp;
+                    pc = return_pcs[--calls];
+                    fp = return_fps[calls];
+                    break;
+
+                case Bytecode.POP_I :   isp--; break;
+                case Bytecode.POP_D :   dsp--; break;
+                case Bytecode.POP_O :   ostack[osp--] = null; break;
+
+                //! BUILTIN FUNCTIONS
+                case Bytecode.PRINT_I : out.println(istack[isp--]); break;
+                case Bytecode.PRINT_D : out.println(dstack[dsp--]); break;
+                case Bytecode.PRINT_B : out.println(istack[isp--] != 0 ? "True" : "False"); break;
+                case Bytecode.PRINT_O : out.println(ostack[osp]); ostack[osp--] = null; break;
+                case Bytecode.CONCAT :
+                    ostack[osp - 1] = (String)ostack[osp - 1] + (String)ostack[osp];
+                    ostack[osp--] = null;
+                    break;
+                case Bytecode.LENGTH :
+                    istack[++isp] = ((String)ostack[osp]).length();
+                    ostack[osp--] = null;
+                    break;
+
+                case Bytecode.HALT :    return;
+
+                //! SUPERINSTRUCTIONS
+                case Bytecode.IINC :    ints[fp + code[pc]] += code[pc + 1]; pc += 2; break;
+                case Bytecode.JUMP_IF_ILE :
+                    isp -= 2;
+                    pc = istack[isp + 1] <= istack[isp + 2] ? code[pc] : pc + 1;
+                    break;
+                case Bytecode.JUMP_IF_ILT :
+                    isp -= 2;
+                    pc = istack[isp + 1] < istack[isp + 2] ? code[pc] : pc + 1;
+                    break;
+                case Bytecode.JUMP_IF_IGE :
+                    isp -= 2;
+                    pc = istack[isp + 1] >= istack[isp + 2] ? code[pc] : pc + 1;
+                    break;
+                case Bytecode.JUMP_IF_IGT :
+                    isp -= 2;
+                    pc = istack[isp + 1] > istack[isp + 2] ? code[pc] : pc + 1;
+                    break;
+                case Bytecode.JUMP_IF_INE :
+                    isp -= 2;
+                    pc = istack[isp + 1] != istack[isp + 2] ? code[pc] : pc + 1;
+                    break;
+                case Bytecode.ILOAD2 :
+                    istack[++isp] = ints[fp + code[pc]];
+                    istack[++isp] = ints[fp + code[pc + 1]];
+                    pc += 2;
+                    break;
+                case Bytecode.ILOADK :
+                    istack[++isp] = ints[fp + code[pc]];
+                    istack[++isp] = code[pc + 1];
+                    pc += 2;
+                    break;
+
+                default :
+                    throw new IllegalStateException("Invalid opcode " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package jott_interpreter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import jott_interpreter.nodes.Jott_Node;
+
+/**
+ * <h1>ConstantPool</h1>
+ *
+ * <p>
+ * The literals of a Jott program, decoded once when they are parsed. Each
+ * distinct constant is stored once, in the array of its type (Integer and
+ * Boolean constants in the {@code int} array, as the frame stack stores them,
+ * Double constants in the {@code double} array, and String constants in the
+ * {@code String} array), and the literal nodes refer to it by its index in
+ * that array, so executing a literal is an array read.
+ * </p>
+ *
+ * <p>
+ * There is one pool per program ({@link Jott_Node#getConstants}). Constants are
+ * only ever added (an incremental re-parse keeps the pool of the functions it
+ * reuses), and can be added by the threads parsing functions concurrently:
+ * the arrays are replaced when they grow, and published to the readers by
+ * volatile writes.
+ * </p>
+ */
+public final class ConstantPool {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The index of each constant added, keyed by its boxed value (an Integer, Double or String) */
+    private final HashMap<Object, Integer> indices = new HashMap<>();
+
+    private volatile int[] ints = new int[INITIAL_CAPACITY];
+    private volatile double[] doubles = new double[INITIAL_CAPACITY];
+    private volatile String[] strings = new String[INITIAL_CAPACITY];
+    private int int_count = 0;
+    private int double_count = 0;
+    private int string_count = 0;
+
+    /**
+     * Adds an Integer constant (if it is not in the pool yet).
+     * @param value the value of the constant
+     * @return the index of the constant ({@link #getInt})
+     */
+    public synchronized int addInt(int value) {
+        Integer index = this.indices.get(value);
+        if(index != null) { return index; }
+        int[] values = this.ints;
+        if(this.int_count == values.length) { values = Arrays.copyOf(values, values.length * 2); }
+        values[this.int_count] = value;
+        this.ints = values;
+        this.indices.put(value, this.int_count);
+        return this.int_count++;
+    }
+
+    /**
+     * Adds a Boolean constant, as the Integer 1 (True) or 0 (False).
+     * @param value the value of the constant
+     * @return the index of the constant ({@link #getBoolean})
+     */
+    public int addBoolean(boolean value) {
+        return this.addInt(value ? 1 : 0);
+    }
+
+    /**
+     * Adds a Double constant (if it is not in the pool yet). Constants are
+     * compared as {@link Double#equals} does, so 0.0 and -0.0 are distinct.
+     * @param value the value of the constant
+     * @return the index of the constant ({@link #getDouble})
+     */
+    public synchronized int addDouble(double value) {
+        Integer index = this.indices.get(value);
+        if(index != null) { return index; }
+        double[] values = this.doubles;
+        if(this.double_count == values.length) { values = Arrays.copyOf(values, values.length * 2); }
+        values[this.double_count] = value;
+        this.doubles = values;
+        this.indices.put(value, this.double_count);
+        return this.double_count++;
+    }
+
+    /**
+     * Adds a String constant (if it is not in the pool yet).
+     * @param value the value of the constant
+     * @return the index of the constant ({@link #getString})
+     */
+    public synchronized int addString(String value) {
+        Integer index = this.indices.get(value);
+        if(index != null) { return index; }
+        String[] values = this.strings;
+        if(this.string_count == values.length) { values = Arrays.copyOf(values, values.length * 2); }
+        values[this.string_count] = value;
+        this.strings = values;
+        this.indices.put(value, this.string_count);
+        return this.string_count++;
+    }
+
+    /** @return the Integer constant at an index ({@link #addInt}) */
+    public int getInt(int index) {
+        return this.ints[index];
+    }
+
+    /** @return the Boolean constant at an index ({@link #addBoolean}) */
+    public boolean getBoolean(int index) {
+        return this.ints[index] != 0;
+    }
+
+    /** @return the Double constant at an index ({@link #addDouble}) */
+    public double getDouble(int index) {
+        return this.doubles[index];
+    }
+
+    /** @return the String constant at an index ({@link #addString}) */
+    public String getString(int index) {
+        return this.strings[index];
+    }
+
+    /** @return a copy of the Integer (and Boolean) constants, by index */
+    public synchronized int[] toIntArray() {
+        return Arrays.copyOf(this.ints, this.int_count);
+    }
+
+    /** @return a copy of the Double constants, by index */
+    public synchronized double[] toDoubleArray() {
+        return Arrays.copyOf(this.doubles, this.double_count);
+    }
+
+    /** @return a copy of the String constants, by index */
+    public synchronized String[] toStringArray() {
+        return Arrays.copyOf(this.strings, this.string_count);
+    }
+
+    /** @return the number of distinct constants in the pool */
+    public synchronized int size() {
+        return this.int_count + this.double_count + this.string_count;
+    }
+}
@@ -1,178 +1,327 @@
 package jott_interpreter;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.util.Arrays;
 
 import jott_interpreter.nodes.function_nodes.customFunc_Node;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 
 // Usage: documentation
 import provided.JottTree;
 
 /**
  * <h1>IdMap</h1>
- * 
+ *
  * <p>
  * A map of the defined variables or functions in a given scope within the Jott interpreter.
  * </p>
- * 
+ *
  * <p>
  * This is built directly into the node structure, certain nodes have a scope.
  *  ->  The {@link Jott_Node} contains a static {@link IdMap} for functions and
- *      a non-static {@link IdMap} from a hashmap for scope. Each function 
+ *      a non-static {@link IdMap} from a hashmap for scope. Each function
  *      contains an {@link IdMap} referencing the variables declared in the scope.
  * </p>
- * 
+ *
+ * <p>
+ * Ids are interned {@link SymbolTable} symbols, stored in an open addressing
+ * table (linear probing) of primitive {@code int} keys with parallel value arrays.
+ * </p>
+ *
+ * <p>
+ * Each id also gets a frame slot when it is added, in the order the ids were
+ * added (the parameters of a function first). The validation resolves the
+ * variables of a function to their frame slots, so the execution reads and
+ * writes their values with an array index, in the frame of each invocation of
+ * the function ({@link Jott_Node#pushFrame}).
+ * </p>
+ *
  * @see {@link Jott_Node}
+ * @see {@link SymbolTable}
  */
 public class IdMap {
 
-    /** A linked hash map assigning an id to an executable node in the {@link JottTree} */
-    private final LinkedHashMap<String, Jott_Node> id_map;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = -1;
+
+    //* Slot flags
+    private static final byte DYNAMIC = 1;
+    private static final byte DEFINED = 2;
+
+    /** The id (symbol) of every slot, or {@link #EMPTY} */
+    private int[] keys;
+
+    /** The frame slot of the id of each slot */
+    private int[] frame_slots;
+
+    /** The executable node in the {@link JottTree} assigned to each id, by frame slot */
+    private Jott_Node[] frame;
+    /** The number of frame slots given to ids (slots of removed ids are not reused) */
+    private int frame_size;
 
-    /** 
-     * <p> A linked hash map referencing just the dynamic variables in {@link #id_map} </p>
-     * <p> 
-     * This map is used for function parameters, and would be used for 
-     * global dynamic variables, if those were present in the language. 
+    /**
+     * <p> The declaration of the dynamic variable of each slot (null if not dynamic) </p>
+     * <p>
+     * Dynamic variables are used for function parameters, and would be used for
+     * global dynamic variables, if those were present in the language.
      * </p>
      */
-    private final LinkedHashMap<String, Jott_Node> dynamic_var_map;
+    private Jott_Node[] dynamic_nodes;
+
+    /** The {@link #DYNAMIC} and {@link #DEFINED} flags of each slot */
+    private byte[] flags;
+
+    /** The number of ids in the map */
+    private int size;
 
-    /** A hash map referencing whether an id has been defined or not */
-    private final HashMap<String, Boolean> defined_vars;
+    /** The dynamic variable ids, in declaration order */
+    private int[] dynamic_ids;
+    private int dynamic_count;
 
     /**
      * Constructs a new {@link IdMap} instance with an empty identifier map.
      */
     public IdMap() {
-        this.id_map = new LinkedHashMap<>();
-        this.dynamic_var_map = new LinkedHashMap<>();
-        this.defined_vars = new HashMap<>();
+        this.keys = new int[INITIAL_CAPACITY];
+        Arrays.fill(this.keys, EMPTY);
+        this.frame_slots = new int[INITIAL_CAPACITY];
+        this.frame = new Jott_Node[INITIAL_CAPACITY];
+        this.frame_size = 0;
+        this.dynamic_nodes = new Jott_Node[INITIAL_CAPACITY];
+        this.flags = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+        this.dynamic_ids = new int[INITIAL_CAPACITY];
+        this.dynamic_count = 0;
     }
 
-    private IdMap(
-            LinkedHashMap<String, Jott_Node> idm,
-            LinkedHashMap<String, Jott_Node> dvm,
-            HashMap<String, Boolean> def_vars
-        ) {
-            this.id_map = idm;
-            this.dynamic_var_map = dvm;
-            this.defined_vars = def_vars;
+    private IdMap(IdMap other) {
+        this.keys = other.keys.clone();
+        this.frame_slots = other.frame_slots.clone();
+        this.frame = other.frame.clone();
+        this.frame_size = other.frame_size;
+        this.dynamic_nodes = other.dynamic_nodes.clone();
+        this.flags = other.flags.clone();
+        this.size = other.size;
+        this.dynamic_ids = other.dynamic_ids.clone();
+        this.dynamic_count = other.dynamic_count;
     }
 
     /**
      * Declares built-in functions and maps them to their respective identifiers.
-     * 
+     *
      * <p>
      * This method initializes the built-in functions that the interpreter can use, such as
-     * print, concat, and length. 
+     * print, concat, and length.
      * </p>
-     * 
-     * @throws AssertionError if {@link #id_map} is not empty.
-     * @implSpec    This method should only be called at the creation 
+     *
+     * @throws AssertionError if the map is not empty.
+     * @implSpec    This method should only be called at the creation
      *              of the node-based parse tree.
      * @implNote    If there are functions already defined in the parse tree,
      *              this function will throw an {@code AssertionError}
      */
     public void declareBuiltinFunctions() {
-        assert (this.id_map.isEmpty()); // Should only be called at the start of a program
+        assert (this.size == 0); // Should only be called at the start of a program
 
         // Assigning the custom functions per an id
-        Jott_Node print = new customFunc_Node("print");
-        Jott_Node concat = new customFunc_Node("concat");
-        Jott_Node length = new customFunc_Node("length");
+        Jott_Node print = new customFunc_Node(SymbolTable.PRINT);
+        Jott_Node concat = new customFunc_Node(SymbolTable.CONCAT);
+        Jott_Node length = new customFunc_Node(SymbolTable.LENGTH);
 
         // Putting the functions into this map
-        this.id_map.put("print", print);
-        this.id_map.put("concat", concat);
-        this.id_map.put("length", length);
+        this.put(SymbolTable.PRINT, print);
+        this.put(SymbolTable.CONCAT, concat);
+        this.put(SymbolTable.LENGTH, length);
+    }
+
+    /**
+     * Finds the slot of an id.
+     * @param id the symbol of the identifier
+     * @return the slot of the id, or the empty slot it would be added to
+     */
+    private int slotOf(int id) {
+        final int mask = this.keys.length - 1;
+        int slot = this.homeSlot(id);
+        while(this.keys[slot] != EMPTY && this.keys[slot] != id) { slot = (slot + 1) & mask; }
+        return slot;
+    }
+
+    /** @return the first slot probed for an id */
+    private int homeSlot(int id) {
+        return (id * 0x9E3779B9 >>> 16) & (this.keys.length - 1);
+    }
+
+    /**
+     * Gets the slot of an id, adding the id if it is not in the map.
+     * @param id the symbol of the identifier
+     * @return the slot of the id
+     */
+    private int claimSlot(int id) {
+        int slot = this.slotOf(id);
+        if(this.keys[slot] == EMPTY) {
+            if((this.size + 1) * 2 > this.keys.length) {
+                this.grow();
+                slot = this.slotOf(id);
+            }
+            this.keys[slot] = id;
+            this.size++;
+            if(this.frame_size == this.frame.length) { this.frame = Arrays.copyOf(this.frame, this.frame_size * 2); }
+            this.frame_slots[slot] = this.frame_size++;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = this.keys;
+        int[] oldFrameSlots = this.frame_slots;
+        Jott_Node[] oldDynamicNodes = this.dynamic_nodes;
+        byte[] oldFlags = this.flags;
+
+        int capacity = oldKeys.length * 2;
+        this.keys = new int[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.frame_slots = new int[capacity];
+        this.dynamic_nodes = new Jott_Node[capacity];
+        this.flags = new byte[capacity];
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] == EMPTY) { continue; }
+            int slot = this.slotOf(oldKeys[i]);
+            this.keys[slot] = oldKeys[i];
+            this.frame_slots[slot] = oldFrameSlots[i];
+            this.dynamic_nodes[slot] = oldDynamicNodes[i];
+            this.flags[slot] = oldFlags[i];
+        }
+    }
+
+    private void put(int id, Jott_Node node) {
+        this.frame[this.frame_slots[this.claimSlot(id)]] = node;
     }
 
     /**
      * Retrieves the return type of the function or variable associated with the given identifier.
-     * @param id the identifier of the function or variable.
-     * @return the {@link ReturnType} of the function or variable, as stored in the {@link #id_map}.
-     * @throws NullPointerException if the identifier does not exist in the {@link #id_map}.
+     * @param id the symbol of the function or variable.
+     * @return the {@link ReturnType} of the function or variable.
+     * @throws NullPointerException if the identifier does not exist in the map.
      */
-    public ReturnType getReturnType(String id) {
-        if(this.id_map.get(id) == null) {
-            return this.dynamic_var_map.get(id).getType();
+    public ReturnType getReturnType(int id) {
+        Jott_Node node = this.getNode(id);
+        if(node == null) {
+            return this.dynamic_nodes[this.slotOf(id)].getType();
         } else {
-            return this.id_map.get(id).getType();
+            return node.getType();
         }
     }
 
     /**
      * Retrieves the {@link Jott_Node} (function or variable) associated with the given identifier.
-     * @param id the identifier of the function or variable.
+     * @param id the symbol of the function or variable.
      * @return the {@link Jott_Node} associated with the id, or null if not found.
      */
-    public Jott_Node getNode(String id) {
-        return this.id_map.get(id);
+    public Jott_Node getNode(int id) {
+        int slot = this.slotOf(id);
+        return this.keys[slot] == EMPTY ? null : this.frame[this.frame_slots[slot]];
+    }
+
+    /**
+     * Gets the frame slot of an id: its index in the frame of an invocation of
+     * the function of this scope ({@link Jott_Node#pushFrame}). The dynamic variables
+     * (the parameters of a function) are the first slots, in order.
+     * @param id the symbol of the function or variable.
+     * @return the frame slot of the id, or -1 if the id is not in the map.
+     */
+    public int getFrameSlot(int id) {
+        int slot = this.slotOf(id);
+        return this.keys[slot] == EMPTY ? -1 : this.frame_slots[slot];
+    }
+
+    /** @return the number of frame slots given to the ids ({@link #getFrameSlot}) */
+    public int getFrameSize() {
+        return this.frame_size;
+    }
+
+    /**
+     * Checks if the given identifier exists in the map.
+     * @param id the symbol to check for.
+     * @return true if the identifier exists in the map, false otherwise.
+     */
+    public boolean contains(int id) {
+        return this.keys[this.slotOf(id)] == id;
     }
 
     /**
-     * Checks if the given identifier exists in the {@link #id_map}.
-     * @param id the identifier to check for.
-     * @return true if the identifier exists in the {@link #id_map}, false otherwise.
+     * Checks if an id of this map is also an id of another map.
+     * @param other the other map
+     * @return true if the maps have an id in common
      */
-    public boolean contains(String id) {
-        return this.id_map.keySet().contains(id);
+    public boolean containsAny(IdMap other) {
+        for(int slot = 0; slot < this.keys.length; slot++) {
+            if(this.keys[slot] != EMPTY && other.contains(this.keys[slot])) { return true; }
+        }
+        return false;
     }
 
     /**
      * Checks if the given identifier is a dynamic reference variable.
-     * @param id the identifier to check for.
+     * @param id the symbol to check for.
      * @return true if the identifier is dynamic, false otherwise.
      */
-    public boolean isDynamic(String id) {
-        return this.dynamic_var_map.keySet().contains(id);
+    public boolean isDynamic(int id) {
+        return (this.flags[this.slotOf(id)] & DYNAMIC) != 0;
     }
 
-    public boolean isDefined(String id) {
-        return this.defined_vars.get(id);
+    public boolean isDefined(int id) {
+        return (this.flags[this.slotOf(id)] & DEFINED) != 0;
     }
 
     /**
-     * Adds a node reference to an id in the {@link #id_map}.
-     * @param id the identifier of the function or variable.
+     * Adds a node reference to an id in the map.
+     * @param id the symbol of the function or variable.
      * @param node the {@link Jott_Node} referenced to the id
      */
-    public void add(String id, Jott_Node node) {
-        this.id_map.put(id, node);
-        this.defined_vars.put(id, false); // defined_vars should only be used for variables
+    public void add(int id, Jott_Node node) {
+        int slot = this.claimSlot(id);
+        this.frame[this.frame_slots[slot]] = node;
+        this.flags[slot] &= ~DEFINED; // defined flag should only be used for variables
     }
 
     /**
-     * Adds a dynamic (undefined) variable to the {@link #id_map}.
-     * @param id the identifier of the variable.
+     * Adds a dynamic (undefined) variable to the map.
+     * @param id the symbol of the variable.
      * @param node a reference to the parameter (or global variable) declaration.
      */
-    public void addDynamicVar(String id, Jott_Node node) {
-        this.id_map.put(id, null);
-        this.dynamic_var_map.put(id, node);
-        this.defined_vars.put(id, false);
+    public void addDynamicVar(int id, Jott_Node node) {
+        int slot = this.claimSlot(id);
+        this.frame[this.frame_slots[slot]] = null;
+        this.dynamic_nodes[slot] = node;
+        if((this.flags[slot] & DYNAMIC) == 0) {
+            if(this.dynamic_count == this.dynamic_ids.length) {
+                this.dynamic_ids = Arrays.copyOf(this.dynamic_ids, this.dynamic_count * 2);
+            }
+            this.dynamic_ids[this.dynamic_count++] = id;
+        }
+        this.flags[slot] = DYNAMIC;
     }
 
-    public void define_var(String id) {
+    public void define_var(int id) {
         assert this.contains(id);
-        // this.id_map.put(id, node); // PROBLEM: x = x + 1 (circular reference)
-        this.defined_vars.replace(id, true); 
+        // this.nodes[slot] = node; // PROBLEM: x = x + 1 (circular reference)
+        this.flags[this.slotOf(id)] |= DEFINED;
     }
 
     /**
-     * Sets the value of a variable to some expression node. 
+     * Sets the value of a variable to some expression node.
      *  (replacing a varDec_node or previously assigned expr_node)
      * @param id
      * @param node
-     * @hidden This function is for the assignment node, it can be achieved with 
+     * @hidden This function is for the assignment node, it can be achieved with
      *      an add() and define_var() call on the id, but this is obviously cleaner.
      */
-    public void assign_var(String id, Jott_Node node) {
+    public void assign_var(int id, Jott_Node node) {
         assert (this.contains(id));
-        this.id_map.put(id, node);
+        this.frame[this.frame_slots[this.slotOf(id)]] = node;
     }
 
     /**
@@ -180,24 +329,101 @@ public class IdMap {
      * @return the array of ordered {@link Jott_Node} variable declarations
      */
     public Jott_Node[] getOrderedDynamicNodes() {
-        ArrayList<Jott_Node> orderedNodes = new ArrayList<>();
-        this.dynamic_var_map.forEach(
-            (@SuppressWarnings("unused") String id, Jott_Node node) -> { 
-                orderedNodes.add(node); 
-            }
-        );
-        return orderedNodes.toArray(new Jott_Node[orderedNodes.size()]);
+        Jott_Node[] orderedNodes = new Jott_Node[this.dynamic_count];
+        for(int i = 0; i < this.dynamic_count; i++) {
+            orderedNodes[i] = this.dynamic_nodes[this.slotOf(this.dynamic_ids[i])];
+        }
+        return orderedNodes;
+    }
+
+    /**
+     * Gets the ids of all the declared dynamic variables in order
+     * @return the array of ordered dynamic variable symbols
+     */
+    public int[] getOrderedDynamicIds() {
+        return Arrays.copyOf(this.dynamic_ids, this.dynamic_count);
     }
 
-    public LinkedHashMap<String, Jott_Node> getDynamicVars() {
-        return this.dynamic_var_map;
+    /**
+     * Removes an id (and its node) from the map, if it is in the map.
+     * @param id the symbol of the function or variable
+     * @implNote    The ids probed after the removed slot are shifted back into
+     *              it, as the table has no deleted markers.
+     */
+    public void remove(int id) {
+        int hole = this.slotOf(id);
+        if(this.keys[hole] != id) { return; }
+        if((this.flags[hole] & DYNAMIC) != 0) {
+            int index = 0;
+            while(this.dynamic_ids[index] != id) { index++; }
+            System.arraycopy(this.dynamic_ids, index + 1, this.dynamic_ids, index, --this.dynamic_count - index);
+        }
+        this.size--;
+        this.frame[this.frame_slots[hole]] = null;
+
+        final int mask = this.keys.length - 1;
+        for(int slot = (hole + 1) & mask; this.keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            // an id can fill the hole if the hole is between its home slot and its slot
+            if(((slot - this.homeSlot(this.keys[slot])) & mask) < ((slot - hole) & mask)) { continue; }
+            this.keys[hole] = this.keys[slot];
+            this.frame_slots[hole] = this.frame_slots[slot];
+            this.dynamic_nodes[hole] = this.dynamic_nodes[slot];
+            this.flags[hole] = this.flags[slot];
+            hole = slot;
+        }
+        this.keys[hole] = EMPTY;
+        this.frame_slots[hole] = 0;
+        this.dynamic_nodes[hole] = null;
+        this.flags[hole] = 0;
     }
 
     public IdMap copy() {
-        LinkedHashMap<String, Jott_Node> copy_id_map = new LinkedHashMap<>(this.id_map); 
-        LinkedHashMap<String, Jott_Node> copy_dv_map = new LinkedHashMap<>(this.dynamic_var_map);
-        HashMap<String, Boolean> copy_d_vars = new HashMap<>(this.defined_vars);
+        return new IdMap(this);
+    }
 
-        return new IdMap(copy_id_map, copy_dv_map, copy_d_vars);
+    /**
+     * Writes this map for a cached program (ids are written by name, as symbols
+     * are numbered again by every program tokenized).
+     * @param out the writer of the cached program, which wrote the tree first
+     * @throws IOException if the stream can not be written
+     */
+    public void write(ProgramWriter out) throws IOException {
+        out.writeInt(this.size);
+        out.writeInt(this.frame_size);
+        for(int slot = 0; slot < this.keys.length; slot++) {
+            if(this.keys[slot] == EMPTY) { continue; }
+            out.writeSymbol(this.keys[slot]);
+            out.writeInt(this.frame_slots[slot]);
+            out.writeNode(this.frame[this.frame_slots[slot]]);
+            out.writeNode(this.dynamic_nodes[slot]);
+            out.writeInt(this.flags[slot]);
+        }
+        out.writeInt(this.dynamic_count);
+        for(int i = 0; i < this.dynamic_count; i++) { out.writeSymbol(this.dynamic_ids[i]); }
+    }
+
+    /**
+     * Reads a map written by {@link #write}.
+     * @param in the reader of the cached program
+     * @return the map read
+     * @throws IOException if the stream can not be read
+     */
+    public static IdMap read(ProgramReader in) throws IOException {
+        IdMap map = new IdMap();
+        int count = in.readInt();
+        int frame_size = in.readInt();
+        map.frame = new Jott_Node[Math.max(frame_size, INITIAL_CAPACITY)];
+        for(; count > 0; count--) {
+            int slot = map.claimSlot(in.readSymbol());
+            map.frame_slots[slot] = in.readInt();
+            map.frame[map.frame_slots[slot]] = in.readNode();
+            map.dynamic_nodes[slot] = in.readNode();
+            map.flags[slot] = (byte)in.readInt();
+        }
+        map.frame_size = frame_size;
+        map.dynamic_count = in.readInt();
+        map.dynamic_ids = new int[Math.max(map.dynamic_count, INITIAL_CAPACITY)];
+        for(int i = 0; i < map.dynamic_count; i++) { map.dynamic_ids[i] = in.readSymbol(); }
+        return map;
     }
 }
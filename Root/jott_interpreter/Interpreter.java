@@ -2,10 +2,36 @@ package jott_interpreter;
 
 import java.util.ArrayList;
 
+import jott_interpreter.nodes.BytecodeWriter;
+import jott_interpreter.nodes.grammar_nodes.program_Node;
 import provided.*;
 
 public class Interpreter {
     public static ArrayList<Token> tokenize(String filename) {
-        return JottTokenizer.tokenize(filename);
+        return SourceTokenizer.tokenize(filename);
+    }
+
+    public static PackedTokenBuffer tokenizePacked(String filename) {
+        return SourceTokenizer.tokenizePacked(filename);
+    }
+
+    public static TokenEdit retokenize(PackedTokenBuffer previous, int offset, int removedLength, String insertedText) {
+        return SourceTokenizer.retokenize(previous, offset, removedLength, insertedText);
+    }
+
+    public static TokenStream stream(String filename) {
+        return new LazyTokenStream(filename);
+    }
+
+    public static String[] eliminateDeadFunctions(JottTree program) {
+        return ((program_Node)program).eliminateDeadFunctions();
+    }
+
+    public static String[] getRemovedFunctions(JottTree program) {
+        return ((program_Node)program).getRemovedFunctions();
+    }
+
+    public static Bytecode compileBytecode(JottTree program) {
+        return BytecodeWriter.compile((program_Node)program);
     }
 }
\ No newline at end of file
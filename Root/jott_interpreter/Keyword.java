@@ -0,0 +1,115 @@
+package jott_interpreter;
+
+import provided.TokenType;
+
+/**
+ * <h1>Keyword</h1>
+ *
+ * <p>
+ * The keyword of an {@link TokenType#ID_KEYWORD} token, identified once when
+ * the token is created, so the parser can switch on it instead of comparing
+ * token strings.
+ * </p>
+ *
+ * <p>
+ * Jott reserves every word starting with an upper case letter:
+ * <ul>
+ *  <li>{@link #NONE}: not a keyword (an id, or a token of another type)</li>
+ *  <li>{@link #RESERVED}: starts with an upper case letter, but is not a Jott keyword</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Keywords are looked up with a perfect hash of the first character and the
+ * length ({@code (3 * first + length) & 31}), then confirmed with one comparison.
+ * </p>
+ */
+public enum Keyword {
+    NONE(null),
+    RESERVED(null),
+
+    DEF("Def"),
+    RETURN("Return"),
+    IF("If"),
+    ELSEIF("Elseif"),
+    ELSE("Else"),
+    WHILE("While"),
+    TRUE("True"),
+    FALSE("False"),
+    VOID("Void"),
+    INTEGER("Integer"),
+    DOUBLE("Double"),
+    STRING("String"),
+    BOOLEAN("Boolean");
+
+    private static final Keyword[] VALUES = values();
+    private static final Keyword[] TABLE = new Keyword[32];
+
+    static {
+        for(Keyword keyword : VALUES) {
+            if(keyword.word == null) { continue; }
+            int slot = hash(keyword.word.charAt(0), keyword.word.length());
+            assert (TABLE[slot] == null); // the hash must stay perfect
+            TABLE[slot] = keyword;
+        }
+    }
+
+    /** The keyword as written in Jott source (null for NONE and RESERVED) */
+    private final String word;
+
+    private Keyword(String word) {
+        this.word = word;
+    }
+
+    /** @return the keyword as written in Jott source, or null if not a keyword */
+    public String getWord() {
+        return this.word;
+    }
+
+    /** @return true for a type keyword: Double, Integer, String or Boolean */
+    public boolean isVariableType() {
+        return this == DOUBLE || this == INTEGER || this == STRING || this == BOOLEAN;
+    }
+
+    private static int hash(int first, int length) {
+        return (3 * first + length) & 31;
+    }
+
+    /**
+     * Identifies the keyword of an {@code ID_KEYWORD} token string.
+     * @param token the token string (not empty)
+     * @return the keyword, {@link #RESERVED} or {@link #NONE}
+     */
+    public static Keyword of(String token) {
+        if(!Character.isUpperCase(token.charAt(0))) { return NONE; }
+        Keyword keyword = TABLE[hash(token.charAt(0), token.length())];
+        return keyword != null && keyword.word.equals(token) ? keyword : RESERVED;
+    }
+
+    /**
+     * Identifies the keyword of an (ASCII) {@code ID_KEYWORD} token in a byte array.
+     * @param source    the source bytes
+     * @param start     the index of the first byte of the token
+     * @param length    the number of bytes in the token
+     * @return the keyword, {@link #RESERVED} or {@link #NONE}
+     */
+    public static Keyword of(byte[] source, int start, int length) {
+        int first = source[start];
+        if(first < 'A' || first > 'Z') { return NONE; }
+        Keyword keyword = TABLE[hash(first, length)];
+        if(keyword == null || keyword.word.length() != length) { return RESERVED; }
+        for(int i = 1; i < length; i++) {
+            if(source[start + i] != keyword.word.charAt(i)) { return RESERVED; }
+        }
+        return keyword;
+    }
+
+    /**
+     * Gets a keyword by its ordinal (as stored by {@link PackedTokenBuffer}).
+     * @param ordinal the ordinal of the keyword
+     * @return the keyword
+     */
+    public static Keyword fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
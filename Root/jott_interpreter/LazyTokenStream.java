@@ -0,0 +1,132 @@
+package jott_interpreter;
+
+import provided.JottTokenizer;
+import provided.Token;
+
+/**
+ * <h1>LazyTokenStream</h1>
+ *
+ * <p>
+ * A {@link TokenStream} that tokenizes the file while it is parsed. Tokens are
+ * pulled from a {@link JottTokenizer} only when the parser looks at them,
+ * and are dropped once consumed, so only the parser's lookahead is ever held.
+ * </p>
+ *
+ * <p>
+ * A tokenizer syntax error ends the stream: the parser sees no more tokens,
+ * and {@link #reportTokenizerError} prints the error. Tokens before the error
+ * are parsed first, so a syntax error earlier in the file is reported without
+ * tokenizing the rest of it.
+ * </p>
+ *
+ * @see {@link JottTokenizer#next}
+ */
+public class LazyTokenStream extends TokenStream {
+
+    private static final int INITIAL_LOOKAHEAD = 4;
+
+    /** The tokenizer the tokens are pulled from */
+    private final JottTokenizer tokenizer;
+
+    /** Ring buffer of the tokens read but not yet consumed */
+    private Token[] lookahead;
+    private int head;
+    private int count;
+
+    /** The number of tokens consumed so far */
+    private int position;
+
+    /** True once the tokenizer has no more tokens (end of file or syntax error) */
+    private boolean exhausted;
+    /** The syntax error that ended the tokens early, or null */
+    private SyntaxError error;
+    private int errorLine;
+
+    /**
+     * Opens a file to be tokenized as it is parsed.
+     * @param filename the name of the file to tokenize; can be relative or absolute
+     *                 path
+     */
+    public LazyTokenStream(String filename) {
+        this.tokenizer = new JottTokenizer(filename);
+        this.lookahead = new Token[INITIAL_LOOKAHEAD];
+        this.head = 0;
+        this.count = 0;
+        this.position = 0;
+        this.exhausted = false;
+        this.error = null;
+    }
+
+    /**
+     * Pulls tokens from the tokenizer until {@code needed} tokens are buffered
+     * or the tokenizer has no more tokens.
+     * @param needed the number of unconsumed tokens wanted
+     */
+    private void fill(int needed) {
+        while(this.count < needed && !this.exhausted) {
+            Token token;
+            try {
+                token = this.tokenizer.next();
+            } catch(SyntaxError E) {
+                this.error = E;
+                this.errorLine = this.tokenizer.getLineNum();
+                token = null;
+            }
+            if(token == null) {
+                this.exhausted = true;
+                this.tokenizer.close();
+                return;
+            }
+            if(this.count == this.lookahead.length) { this.grow(); }
+            this.lookahead[(this.head + this.count) & (this.lookahead.length - 1)] = token;
+            this.count++;
+        }
+    }
+
+    /** Doubles the ring buffer (only if the parser looks further ahead than usual) */
+    private void grow() {
+        Token[] larger = new Token[this.lookahead.length * 2];
+        for(int i = 0; i < this.count; i++) {
+            larger[i] = this.lookahead[(this.head + i) & (this.lookahead.length - 1)];
+        }
+        this.lookahead = larger;
+        this.head = 0;
+    }
+
+    @Override
+    public boolean hasRemaining(int count) {
+        this.fill(count);
+        return this.count >= count;
+    }
+
+    @Override
+    public Token peek(int ahead) {
+        this.fill(ahead + 1);
+        if(ahead >= this.count) {
+            throw new IndexOutOfBoundsException("Token " + (this.position + ahead) + " past end of stream");
+        }
+        return this.lookahead[(this.head + ahead) & (this.lookahead.length - 1)];
+    }
+
+    @Override
+    public Token advance() {
+        Token token = this.peek(0);
+        this.lookahead[this.head] = null;
+        this.head = (this.head + 1) & (this.lookahead.length - 1);
+        this.count--;
+        this.position++;
+        return token;
+    }
+
+    @Override
+    public int position() {
+        return this.position;
+    }
+
+    @Override
+    public boolean reportTokenizerError() {
+        if(this.error == null) { return false; }
+        this.error.print(this.tokenizer.getFilename(), this.errorLine);
+        return true;
+    }
+}
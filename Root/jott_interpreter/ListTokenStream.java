@@ -0,0 +1,113 @@
+package jott_interpreter;
+
+import java.util.List;
+
+import provided.Token;
+
+/**
+ * <h1>ListTokenStream</h1>
+ *
+ * <p>
+ * An index-based {@link TokenStream} over a list of Jott {@link Token}s.
+ * </p>
+ *
+ * <p>
+ * Consuming a token only moves the cursor forward, so parsing a program is
+ * linear in the number of tokens (removing from the front of an
+ * {@code ArrayList} shifts every remaining element, which made parsing quadratic).
+ * The underlying list is never modified.
+ * </p>
+ *
+ * <p>
+ * The current token is cached, so a {@link PackedTokenBuffer} (which creates a new
+ * {@link Token} view on every {@code get}) only creates one view per parsed token,
+ * no matter how many times the parser peeks at it.
+ * </p>
+ *
+ * @see {@link TokenStream}
+ */
+public class ListTokenStream extends TokenStream {
+
+    /** The tokens being parsed (read only) */
+    private final List<Token> tokens;
+
+    /** The packed tokens at the same indices as {@link #tokens} (source offsets), or null */
+    private final PackedTokenBuffer buffer;
+
+    /** The index of the current (next unconsumed) token */
+    private int position;
+
+    /** The cached current token, valid while {@code currentIndex == position} */
+    private Token current;
+    private int currentIndex;
+
+    /**
+     * Constructs a new {@link ListTokenStream} positioned at the first token of the list.
+     * @param tokens the list of tokens to be parsed
+     */
+    public ListTokenStream(final List<Token> tokens) {
+        this(tokens, tokens instanceof PackedTokenBuffer ? (PackedTokenBuffer)tokens : null);
+    }
+
+    /**
+     * Constructs a new {@link ListTokenStream} over copies of packed tokens
+     * (such as {@link PackedTokenBuffer#standaloneTokens}).
+     * @param tokens the list of tokens to be parsed
+     * @param buffer the packed tokens the list was made from (for the source offsets)
+     */
+    public ListTokenStream(final List<Token> tokens, final PackedTokenBuffer buffer) {
+        this.tokens = tokens;
+        this.buffer = buffer;
+        this.position = 0;
+        this.current = null;
+        this.currentIndex = -1;
+    }
+
+    /**
+     * Moves the cursor to a token of the list (forwards or backwards).
+     * @param position the index of the token to parse next
+     */
+    public void seek(int position) {
+        if(position < 0 || position > this.tokens.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + this.tokens.size());
+        }
+        this.position = position;
+    }
+
+    @Override
+    public boolean hasRemaining(int count) {
+        return this.tokens.size() - this.position >= count;
+    }
+
+    @Override
+    public Token peek() {
+        if(this.currentIndex != this.position) {
+            this.current = this.tokens.get(this.position);
+            this.currentIndex = this.position;
+        }
+        return this.current;
+    }
+
+    @Override
+    public Token peek(int ahead) {
+        if(ahead == 0) { return this.peek(); }
+        return this.tokens.get(this.position + ahead);
+    }
+
+    @Override
+    public Token advance() {
+        Token token = this.peek();
+        this.position++;
+        return token;
+    }
+
+    @Override
+    public int position() {
+        return this.position;
+    }
+
+    @Override
+    public PackedTokenBuffer getBuffer() {
+        return this.buffer;
+    }
+}
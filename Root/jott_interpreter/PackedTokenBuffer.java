@@ -0,0 +1,387 @@
+package jott_interpreter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import provided.Token;
+import provided.TokenType;
+
+/**
+ * <h1>PackedTokenBuffer</h1>
+ *
+ * <p>
+ * A struct-of-arrays store for the tokens of a single Jott source file.
+ * Each token is six parallel array entries (type ordinal, {@link Keyword}
+ * ordinal, {@link SymbolTable} symbol, source offset, lexeme length and line
+ * number), about 18 bytes per token, instead of a
+ * {@link Token} object, a lexeme {@code String} and its backing array.
+ * </p>
+ *
+ * <p>
+ * The symbols are interned in the {@link SymbolTable} of the buffer
+ * ({@link #getSymbols}), which the buffers of its edits share.
+ * </p>
+ *
+ * <p>
+ * Lexeme strings are only created on demand ({@link #getLexeme}).
+ * As a {@code List<Token>}, {@link #get} returns a lightweight {@link Token}
+ * view of a single entry, so the buffer can be handed to anything that reads
+ * tokens (the parser's {@link TokenStream}, the testers) without copying.
+ * </p>
+ *
+ * @see {@link Token}
+ * @see {@link SourceTokenizer}
+ */
+public class PackedTokenBuffer extends AbstractList<Token> implements RandomAccess {
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The name of the file the tokens came from */
+    private final String filename;
+    /** The source text; every lexeme is a substring of it */
+    private final String source;
+    /** True if {@link #source} is the text of the file (not just its lexemes joined) */
+    private boolean verbatim;
+    /** The table the symbols of the tokens are interned in */
+    private final SymbolTable symbol_table;
+
+    //* Parallel token arrays
+    private byte[] types;
+    private byte[] keywords;
+    private int[] symbols;
+    private int[] offsets;
+    private int[] lengths;
+    private int[] lines;
+
+    /** The number of tokens in the buffer */
+    private int size;
+
+    /**
+     * Constructs an empty buffer for the tokens of a source file.
+     * @param filename          the name of the file the tokens came from
+     * @param source            the source text of the file
+     * @param expectedTokens    an estimate of the number of tokens (initial capacity)
+     */
+    public PackedTokenBuffer(String filename, String source, int expectedTokens) {
+        this(filename, source, expectedTokens, new SymbolTable());
+    }
+
+    /**
+     * Constructs an empty buffer for the tokens of a source file, interning in an
+     * existing table (the tokens of an edit of the source, see {@link #splice}).
+     * @param filename          the name of the file the tokens came from
+     * @param source            the source text of the file
+     * @param expectedTokens    an estimate of the number of tokens (initial capacity)
+     * @param symbols           the table the symbols of the tokens are interned in
+     */
+    public PackedTokenBuffer(String filename, String source, int expectedTokens, SymbolTable symbols) {
+        int capacity = Math.max(expectedTokens, INITIAL_CAPACITY);
+        this.filename = filename;
+        this.source = source;
+        this.symbol_table = symbols;
+        this.types = new byte[capacity];
+        this.keywords = new byte[capacity];
+        this.symbols = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.lines = new int[capacity];
+        this.size = 0;
+        this.verbatim = true;
+    }
+
+    /**
+     * Packs an existing list of tokens (e.g. from {@link provided.JottTokenizer}).
+     * The lexemes are concatenated into a new source string.
+     * @param filename  the name of the file the tokens came from
+     * @param tokens    the tokens to pack
+     * @return a buffer holding the same tokens
+     */
+    public static PackedTokenBuffer of(String filename, List<Token> tokens) {
+        StringBuilder text = new StringBuilder();
+        for(Token token : tokens) { text.append(token.getToken()); }
+
+        PackedTokenBuffer buffer = new PackedTokenBuffer(filename, text.toString(), tokens.size());
+        int offset = 0;
+        for(Token token : tokens) {
+            int length = token.getToken().length();
+            buffer.add(token.getTokenType(), offset, length, token.getLineNum(),
+                token.getKeyword(), token.getSymbol(buffer.symbol_table));
+            offset += length;
+        }
+        buffer.verbatim = false;
+        return buffer;
+    }
+
+    /**
+     * Appends a token to the buffer.
+     * @param type      the type of the token
+     * @param offset    the index of the first character of the lexeme in the source
+     * @param length    the number of characters in the lexeme
+     * @param line      the line number of the token
+     */
+    public void add(TokenType type, int offset, int length, int line) {
+        this.add(type, offset, length, line, Keyword.NONE, SymbolTable.NONE);
+    }
+
+    /**
+     * Appends an {@code ID_KEYWORD} token to the buffer.
+     * @param type      the type of the token
+     * @param offset    the index of the first character of the lexeme in the source
+     * @param length    the number of characters in the lexeme
+     * @param line      the line number of the token
+     * @param keyword   the keyword of the token ({@link Keyword#NONE} if not a keyword)
+     * @param symbol    the id of the token interned in {@link #getSymbols} ({@link SymbolTable#NONE} if not an id)
+     */
+    public void add(TokenType type, int offset, int length, int line, Keyword keyword, int symbol) {
+        if(this.size == this.types.length) { this.grow(); }
+        this.types[this.size] = (byte)(type.ordinal());
+        this.keywords[this.size] = (byte)(keyword.ordinal());
+        this.symbols[this.size] = symbol;
+        this.offsets[this.size] = offset;
+        this.lengths[this.size] = length;
+        this.lines[this.size] = line;
+        this.size++;
+    }
+
+    /**
+     * Appends every token of another buffer over the same source. The symbols of
+     * a buffer with a table of its own (a chunk tokenized in parallel) are
+     * interned in the table of this buffer ({@link SymbolTable#merge}).
+     * @param other         the buffer to append
+     * @param lineOffset    the number added to the line of every appended token
+     */
+    public void addAll(PackedTokenBuffer other, int lineOffset) {
+        assert (other.source == this.source); // offsets are into the same source
+        while(this.types.length - this.size < other.size) { this.grow(); }
+        System.arraycopy(other.types, 0, this.types, this.size, other.size);
+        System.arraycopy(other.keywords, 0, this.keywords, this.size, other.size);
+        if(other.symbol_table == this.symbol_table) {
+            System.arraycopy(other.symbols, 0, this.symbols, this.size, other.size);
+        } else {
+            final int[] merged = this.symbol_table.merge(other.symbol_table);
+            for(int i = 0; i < other.size; i++) {
+                final int symbol = other.symbols[i];
+                this.symbols[this.size + i] = symbol == SymbolTable.NONE ? SymbolTable.NONE : merged[symbol];
+            }
+        }
+        System.arraycopy(other.offsets, 0, this.offsets, this.size, other.size);
+        System.arraycopy(other.lengths, 0, this.lengths, this.size, other.size);
+        for(int i = 0; i < other.size; i++) {
+            this.lines[this.size + i] = other.lines[i] + lineOffset;
+        }
+        this.size += other.size;
+    }
+
+    /**
+     * Creates the tokens of an edited source from this buffer: the tokens before
+     * {@code first} are copied as they are, the tokens from {@code oldEnd} on are
+     * moved by {@code offsetDelta} characters and {@code lineDelta} lines,
+     * and the tokens of {@code relexed} are placed between them.
+     * @param source        the edited source text
+     * @param first         the index of the first replaced token
+     * @param oldEnd        the index after the last replaced token
+     * @param relexed       the tokens replacing them (offsets relative to {@code relexedStart}),
+     *                      interned in the table of this buffer
+     * @param relexedStart  the offset of the re-lexed text in the edited source
+     * @param offsetDelta   the change in the length of the source
+     * @param lineDelta     the change in the line of the tokens after the replaced tokens
+     * @return a new buffer over {@code source}, sharing the table of this buffer
+     */
+    PackedTokenBuffer splice(String source, int first, int oldEnd, PackedTokenBuffer relexed,
+            int relexedStart, int offsetDelta, int lineDelta) {
+        assert (relexed.symbol_table == this.symbol_table);
+        final int tail = this.size - oldEnd;
+        final int newEnd = first + relexed.size;
+        PackedTokenBuffer edited = new PackedTokenBuffer(this.filename, source, newEnd + tail, this.symbol_table);
+
+        System.arraycopy(this.types, 0, edited.types, 0, first);
+        System.arraycopy(this.keywords, 0, edited.keywords, 0, first);
+        System.arraycopy(this.symbols, 0, edited.symbols, 0, first);
+        System.arraycopy(this.offsets, 0, edited.offsets, 0, first);
+        System.arraycopy(this.lengths, 0, edited.lengths, 0, first);
+        System.arraycopy(this.lines, 0, edited.lines, 0, first);
+
+        System.arraycopy(relexed.types, 0, edited.types, first, relexed.size);
+        System.arraycopy(relexed.keywords, 0, edited.keywords, first, relexed.size);
+        System.arraycopy(relexed.symbols, 0, edited.symbols, first, relexed.size);
+        System.arraycopy(relexed.lengths, 0, edited.lengths, first, relexed.size);
+        System.arraycopy(relexed.lines, 0, edited.lines, first, relexed.size);
+        for(int i = 0; i < relexed.size; i++) {
+            edited.offsets[first + i] = relexed.offsets[i] + relexedStart;
+        }
+
+        System.arraycopy(this.types, oldEnd, edited.types, newEnd, tail);
+        System.arraycopy(this.keywords, oldEnd, edited.keywords, newEnd, tail);
+        System.arraycopy(this.symbols, oldEnd, edited.symbols, newEnd, tail);
+        System.arraycopy(this.lengths, oldEnd, edited.lengths, newEnd, tail);
+        for(int i = 0; i < tail; i++) {
+            edited.offsets[newEnd + i] = this.offsets[oldEnd + i] + offsetDelta;
+            edited.lines[newEnd + i] = this.lines[oldEnd + i] + lineDelta;
+        }
+
+        edited.size = newEnd + tail;
+        return edited;
+    }
+
+    private void grow() {
+        int capacity = Math.max(this.types.length * 2, INITIAL_CAPACITY);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.keywords = Arrays.copyOf(this.keywords, capacity);
+        this.symbols = Arrays.copyOf(this.symbols, capacity);
+        this.offsets = Arrays.copyOf(this.offsets, capacity);
+        this.lengths = Arrays.copyOf(this.lengths, capacity);
+        this.lines = Arrays.copyOf(this.lines, capacity);
+    }
+
+    /**
+     * Shrinks the token arrays to the number of tokens in the buffer.
+     * Called once the tokenizer is done adding tokens.
+     */
+    public void trimToSize() {
+        if(this.size == this.types.length) { return; }
+        this.types = Arrays.copyOf(this.types, this.size);
+        this.keywords = Arrays.copyOf(this.keywords, this.size);
+        this.symbols = Arrays.copyOf(this.symbols, this.size);
+        this.offsets = Arrays.copyOf(this.offsets, this.size);
+        this.lengths = Arrays.copyOf(this.lengths, this.size);
+        this.lines = Arrays.copyOf(this.lines, this.size);
+    }
+
+    /** @return the name of the file the tokens came from */
+    public String getFilename() { return this.filename; }
+
+    /** @return the table the symbols of the tokens are interned in */
+    public SymbolTable getSymbols() { return this.symbol_table; }
+
+    /** @return the source text the lexemes are sliced from */
+    public String getSource() { return this.source; }
+
+    /**
+     * @return true if {@link #getSource} is the text of the file, false if the
+     *         buffer was packed from a token list ({@link #of})
+     */
+    public boolean isVerbatim() { return this.verbatim; }
+
+    /**
+     * Finds the first token starting at or after a source offset (binary search).
+     * @param offset the source offset
+     * @return the index of the token, or {@link #size} if every token starts before {@code offset}
+     */
+    public int indexAtOffset(int offset) {
+        int low = 0;
+        int high = this.size;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(this.offsets[mid] < offset) { low = mid + 1; }
+            else { high = mid; }
+        }
+        return low;
+    }
+
+    /** @return the type of the token at {@code index} */
+    public TokenType getTokenType(int index) {
+        checkIndex(index);
+        return TOKEN_TYPES[this.types[index]];
+    }
+
+    /** @return the keyword of the token at {@code index} */
+    public Keyword getKeyword(int index) {
+        checkIndex(index);
+        return Keyword.fromOrdinal(this.keywords[index]);
+    }
+
+    /** @return the symbol of the (id) token at {@code index}, in {@link #getSymbols} */
+    public int getSymbol(int index) {
+        checkIndex(index);
+        return this.symbols[index];
+    }
+
+    /** @return the line number of the token at {@code index} */
+    public int getLineNum(int index) {
+        checkIndex(index);
+        return this.lines[index];
+    }
+
+    /** @return the source offset of the token at {@code index} */
+    public int getOffset(int index) {
+        checkIndex(index);
+        return this.offsets[index];
+    }
+
+    /** @return the lexeme length of the token at {@code index} */
+    public int getLength(int index) {
+        checkIndex(index);
+        return this.lengths[index];
+    }
+
+    /**
+     * Creates the lexeme string of a token (a new string on every call).
+     * @param index the index of the token
+     * @return the token string
+     */
+    public String getLexeme(int index) {
+        checkIndex(index);
+        return this.source.substring(this.offsets[index], this.offsets[index] + this.lengths[index]);
+    }
+
+    /**
+     * Compares the lexeme of a token with a string without creating the lexeme.
+     * @param index the index of the token
+     * @param text  the string to compare with
+     * @return true if the lexeme is equal to {@code text}
+     */
+    public boolean lexemeEquals(int index, String text) {
+        checkIndex(index);
+        return this.lengths[index] == text.length() &&
+            this.source.regionMatches(this.offsets[index], text, 0, text.length());
+    }
+
+    /**
+     * Gets a {@link Token} view of the token at {@code index}.
+     * The view is a new object; its lexeme is created on its first use.
+     * @param index the index of the token
+     * @return a token view
+     */
+    @Override
+    public Token get(int index) {
+        checkIndex(index);
+        return new Token(this, index);
+    }
+
+    /**
+     * Gets a list of the tokens in the buffer as standalone {@link Token}s
+     * (each holding its own lexeme), which do not keep the buffer alive.
+     * Used for the parts of a parse tree that outlive the buffer they were
+     * parsed from (an incremental re-parse). Their ids are interned again
+     * when they are parsed ({@link Token#getSymbol}), in the table of this buffer.
+     * @return a read only list creating a standalone token on every {@code get}
+     */
+    public List<Token> standaloneTokens() {
+        return new AbstractList<Token>() {
+            @Override
+            public Token get(int index) {
+                return new Token(getLexeme(index), filename, getLineNum(index), getTokenType(index),
+                    getKeyword(index));
+            }
+
+            @Override
+            public int size() {
+                return PackedTokenBuffer.this.size;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package jott_interpreter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
+import provided.JottTree;
+
+/**
+ * <h1>ProgramCache</h1>
+ *
+ * <p>
+ * A directory of validated Jott programs, so running an unchanged file again
+ * skips tokenizing, parsing and validating it. A program is stored after it is
+ * validated, and before it is executed, along with the state the validation
+ * left for the execution (see {@link Jott_Node#writeState}), in the binary
+ * format of {@link ProgramWriter}.
+ * </p>
+ *
+ * <p>
+ * Programs are keyed by the CRC32C checksum and the length of the source file,
+ * and the cache {@link #VERSION}, so an edited file is a new entry. An entry
+ * also holds the source it was compiled from, which must match the file
+ * exactly: two files with the same checksum are only a miss.
+ * </p>
+ *
+ * <p>
+ * Entries are written to a temporary file and moved into place, so concurrent
+ * runs of the interpreter never read a partial entry. An entry that can not be
+ * read is treated as a miss.
+ * </p>
+ */
+public class ProgramCache {
+
+    /** The version of the cached programs (part of the key, change it when the cache format changes) */
+    public static final int VERSION = 4;
+
+    /** The first bytes of a cached program */
+    private static final int MAGIC = 0x4A4F5443; // "JOTC"
+
+    /** The file extension of a cached program */
+    private static final String EXTENSION = ".jottc";
+
+    /** The directory of the cached programs */
+    private final File directory;
+    /** The path of the Jott file */
+    private final String filename;
+    /** The contents of the Jott file, or null if it can not be read */
+    private final byte[] source;
+    /** The name of the entry of the Jott file in the directory */
+    private final String key;
+
+    /**
+     * Constructs the cache of a Jott file, in a directory (created by the first {@link #store}).
+     * @param directory the directory of the cached programs
+     * @param filename  the path of the Jott file
+     */
+    public ProgramCache(File directory, String filename) {
+        this(directory, filename, null);
+    }
+
+    /**
+     * Constructs the cache of a Jott file, in a directory (created by the first {@link #store}).
+     * @param directory the directory of the cached programs
+     * @param filename  the path of the Jott file
+     * @param variant   the options that change the stored program, or null: each variant
+     *                  is a separate entry (such as "lazy", for the programs parsed with
+     *                  {@link provided.JottParser#parseLazy}, where only the functions
+     *                  reachable from main were validated)
+     */
+    public ProgramCache(File directory, String filename, String variant) {
+        this.directory = directory;
+        this.filename = filename;
+
+        byte[] contents;
+        try {
+            contents = Files.readAllBytes(new File(filename).toPath());
+        } catch(IOException E) {
+            contents = null; // the tokenizer reports the missing file
+        }
+        this.source = contents;
+
+        if(contents == null) {
+            this.key = null;
+        } else {
+            CRC32C checksum = new CRC32C();
+            checksum.update(contents);
+            this.key = String.format("%08x-%x-v%d%s", checksum.getValue(), contents.length, VERSION,
+                variant == null || variant.isEmpty() ? "" : "-" + variant);
+        }
+    }
+
+    /**
+     * Reads the cached program of the file, restoring the state of its
+     * validation, so it can be executed right away.
+     * @return the validated program, or null if it is not in the cache (or can not be read)
+     */
+    public JottTree load() {
+        if(this.key == null) { return null; }
+        File file = new File(this.directory, this.key + EXTENSION);
+        if(!file.isFile()) { return null; }
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION) { return null; }
+            byte[] cached = new byte[in.readInt()];
+            in.readFully(cached);
+            if(!Arrays.equals(cached, this.source)) { return null; } // checksum collision
+
+            ProgramReader reader = new ProgramReader(in, this.filename);
+            JottTree program = reader.readNode();
+            Jott_Node.readState(reader, this.filename);
+            return program;
+        } catch(IOException | RuntimeException | StackOverflowError E) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the program of the file, that was just validated (and not executed yet).
+     * @param program the validated program
+     * @return true if the program was stored
+     * @implNote    A program too deeply nested to be written is not stored.
+     */
+    public boolean store(JottTree program) {
+        if(this.key == null || !(program instanceof Jott_Node)) { return false; }
+        File temp = null;
+        try {
+            Files.createDirectories(this.directory.toPath());
+            temp = File.createTempFile(this.key, ".tmp", this.directory);
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(this.source.length);
+                out.write(this.source);
+
+                ProgramWriter writer = new ProgramWriter(out);
+                writer.writeNode((Jott_Node)program);
+                Jott_Node.writeState(writer);
+            }
+            Files.move(temp.toPath(), new File(this.directory, this.key + EXTENSION).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch(IOException | RuntimeException | StackOverflowError E) {
+            if(temp != null) { temp.delete(); }
+            return false;
+        }
+    }
+}
@@ -3,14 +3,46 @@ package jott_interpreter;
 public class SemanticError extends Exception{
     final int line;
 
+    /**
+     * The errors printed by the current thread while it collects them ({@link #startCollecting}),
+     * so errors found concurrently can be printed in source order.
+     */
+    private static final ThreadLocal<StringBuilder> collected = new ThreadLocal<>();
+
     public SemanticError(String message, int line_number) {
         super(message);
         this.line = line_number;
     }
-    
+
     public void print(String file) {
+        StringBuilder errors = collected.get();
+        if(errors != null) {
+            String newline = System.lineSeparator();
+            errors.append("Semantic Error:").append(newline)
+                .append(this.getMessage()).append(newline)
+                .append(file).append(':').append(this.line).append(newline);
+            return;
+        }
         System.err.println("Semantic Error:");
         System.err.println(this.getMessage());
         System.err.println(file + ":" + this.line);
     }
+
+    /**
+     * Collects the errors the current thread prints, instead of printing them to
+     * System.err, until {@link #stopCollecting}.
+     */
+    public static void startCollecting() {
+        collected.set(new StringBuilder());
+    }
+
+    /**
+     * Stops collecting the errors of the current thread ({@link #startCollecting}).
+     * @return the errors collected, as they would have been printed
+     */
+    public static String stopCollecting() {
+        StringBuilder errors = collected.get();
+        collected.remove();
+        return errors == null ? "" : errors.toString();
+    }
 }
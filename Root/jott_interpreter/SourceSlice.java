@@ -0,0 +1,70 @@
+package jott_interpreter;
+
+/**
+ * <h1>SourceSlice</h1>
+ *
+ * <p>
+ * A read only view of a range of a source text, as a {@link CharSequence}.
+ * Creating a slice copies nothing; only {@link #toString} creates a string.
+ * </p>
+ *
+ * @see {@link jott_interpreter.nodes.Jott_Node#getText}
+ */
+public final class SourceSlice implements CharSequence {
+
+    private final String source;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Constructs a view of {@code source[offset, offset + length)}.
+     * @param source    the source text
+     * @param offset    the offset of the first character of the slice
+     * @param length    the number of characters in the slice
+     * @throws IndexOutOfBoundsException if the range is not inside the source
+     */
+    public SourceSlice(String source, int offset, int length) {
+        if(offset < 0 || length < 0 || offset + length > source.length()) {
+            throw new IndexOutOfBoundsException("Slice [" + offset + ", " + (offset + length)
+                + ") outside of source of length " + source.length());
+        }
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if(index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length);
+        }
+        return this.source.charAt(this.offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if(start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + "), Length: " + this.length);
+        }
+        return new SourceSlice(this.source, this.offset + start, end - start);
+    }
+
+    /**
+     * Compares the slice with a string without creating a string.
+     * @param text the string to compare with
+     * @return true if the slice has the same characters as {@code text}
+     */
+    public boolean contentEquals(String text) {
+        return this.length == text.length() && this.source.regionMatches(this.offset, text, 0, this.length);
+    }
+
+    @Override
+    public String toString() {
+        return this.source.substring(this.offset, this.offset + this.length);
+    }
+}
@@ -0,0 +1,558 @@
+package jott_interpreter;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import jott_interpreter.nodes.Jott_Node;
+import provided.JottTokenizer;
+import provided.Token;
+import provided.TokenType;
+
+/**
+ * <h1>SourceTokenizer</h1>
+ *
+ * <p>
+ * An allocation-light front end for the Jott tokenizer. The source file is read
+ * whole into a {@code byte[]}, pure-ASCII sources are lexed straight from the
+ * bytes, and every character is classified with a precomputed table
+ * ({@link #CHAR_CLASS}) instead of the {@link Character} methods.
+ * The tokens are stored in a {@link PackedTokenBuffer}, which only creates
+ * lexeme strings on demand.
+ * </p>
+ *
+ * <p>
+ * Large sources are split into chunks that are tokenized in parallel.
+ * No Jott token (or comment) continues past a '\n', so a chunk can start at
+ * any line; chunks are lexed with line numbers relative to their first line,
+ * and the lines are corrected when the chunks are joined.
+ * </p>
+ *
+ * <p>
+ * The tokens (and syntax errors) produced are identical to
+ * {@link JottTokenizer#tokenize}, which is still used for sources that are not
+ * pure ASCII.
+ * </p>
+ *
+ * @see {@link JottTokenizer}
+ */
+public class SourceTokenizer {
+
+    //* Character classes (ASCII only)
+    private static final byte INVALID     = 0;
+    private static final byte WHITESPACE  = 1;
+    private static final byte NEWLINE     = 2;
+    private static final byte COMMENT     = 3;
+    private static final byte DIGIT       = 4;
+    private static final byte DOT         = 5;
+    private static final byte LETTER      = 6;
+    private static final byte SINGLE      = 7;  // single character token: , [ ] { } ;
+    private static final byte MATH_OP     = 8;  // + - * /
+    private static final byte EQUALS      = 9;
+    private static final byte ANGLE       = 10; // < >
+    private static final byte COLON       = 11;
+    private static final byte BANG        = 12;
+    private static final byte QUOTE       = 13;
+
+    /** The character class of every ASCII character */
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+        for(int c = 0; c < 128; c++) {
+            if(Character.isWhitespace(c))       { CHAR_CLASS[c] = WHITESPACE; }
+            else if(Character.isDigit(c))       { CHAR_CLASS[c] = DIGIT; }
+            else if(Character.isLetter(c))      { CHAR_CLASS[c] = LETTER; }
+            else                                { CHAR_CLASS[c] = INVALID; }
+        }
+        CHAR_CLASS['\n'] = NEWLINE;
+        CHAR_CLASS['#'] = COMMENT;
+        CHAR_CLASS['.'] = DOT;
+        CHAR_CLASS[','] = SINGLE;
+        CHAR_CLASS['['] = SINGLE;
+        CHAR_CLASS[']'] = SINGLE;
+        CHAR_CLASS['{'] = SINGLE;
+        CHAR_CLASS['}'] = SINGLE;
+        CHAR_CLASS[';'] = SINGLE;
+        CHAR_CLASS['+'] = MATH_OP;
+        CHAR_CLASS['-'] = MATH_OP;
+        CHAR_CLASS['*'] = MATH_OP;
+        CHAR_CLASS['/'] = MATH_OP;
+        CHAR_CLASS['='] = EQUALS;
+        CHAR_CLASS['<'] = ANGLE;
+        CHAR_CLASS['>'] = ANGLE;
+        CHAR_CLASS[':'] = COLON;
+        CHAR_CLASS['!'] = BANG;
+        CHAR_CLASS['"'] = QUOTE;
+    }
+
+    /** Sources smaller than this are always tokenized sequentially */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    /** The number of chunks per worker thread (for load balancing) */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** The (ASCII) source bytes of the file */
+    private final byte[] source;
+    /** The index of the next unread source byte */
+    private int pos;
+    /** The index after the last source byte to tokenize */
+    private final int end;
+    /** The current line number (relative to the first line of the chunk) */
+    private int linenum;
+
+    private SourceTokenizer(byte[] source, int start, int end) {
+        this.source = source;
+        this.pos = start;
+        this.end = end;
+        this.linenum = 1;
+    }
+
+    /**
+     * Takes in a filename and tokenizes that file into Tokens
+     * based on the rules of the Jott Language
+     *
+     * @param filename the name of the file to tokenize; can be relative or absolute
+     *                 path
+     * @exception SyntaxError Exception caught in method; Error output to System.err
+     *          Error format: Syntax Error
+     *                        {Error Message}
+     *                        {filename}:{linenum}
+     * @return an ArrayList of Jott Tokens (views of a {@link PackedTokenBuffer}),
+     *         or null upon a syntax error
+     * @see {@link JottTokenizer#tokenize}
+     */
+    public static ArrayList<Token> tokenize(String filename) {
+        PackedTokenBuffer tokens = tokenizePacked(filename);
+        return tokens == null ? null : new ArrayList<>(tokens);
+    }
+
+    /**
+     * Takes in a filename and tokenizes that file into a {@link PackedTokenBuffer}
+     * based on the rules of the Jott Language
+     *
+     * @param filename the name of the file to tokenize; can be relative or absolute
+     *                 path
+     * @exception SyntaxError Exception caught in method; Error output to System.err
+     *          Error format: Syntax Error
+     *                        {Error Message}
+     *                        {filename}:{linenum}
+     * @return the packed Jott Tokens, or null upon a syntax error
+     */
+    public static PackedTokenBuffer tokenizePacked(String filename) {
+        Jott_Node.filename = filename;
+
+        byte[] source = readSource(filename);
+        if(!isAscii(source)) {
+            ArrayList<Token> tokens = JottTokenizer.tokenize(filename);
+            return tokens == null ? null : PackedTokenBuffer.of(filename, tokens);
+        }
+
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        if(source.length >= PARALLEL_THRESHOLD && threads > 1) {
+            return tokenizeChunks(filename, source, source.length / (threads * CHUNKS_PER_THREAD));
+        }
+
+        SourceTokenizer tokenizer = new SourceTokenizer(source, 0, source.length);
+        PackedTokenBuffer tokens = new PackedTokenBuffer(
+            filename, new String(source, StandardCharsets.ISO_8859_1), source.length / 4);
+        try {
+            tokenizer.lex(tokens);
+        } catch(SyntaxError E) {
+            E.print(filename, tokenizer.linenum);
+            return null;
+        }
+        tokens.trimToSize();
+        return tokens;
+    }
+
+    /**
+     * Tokenizes a file in parallel, in chunks of (about) {@code chunkSize} bytes.
+     * The tokens and syntax errors are the same as {@link #tokenizePacked}.
+     * Non-ASCII sources are tokenized by {@link JottTokenizer} (sequentially).
+     *
+     * @param filename  the name of the file to tokenize; can be relative or absolute
+     *                  path
+     * @param chunkSize the minimum number of bytes in a chunk (chunks end at a line break)
+     * @return the packed Jott Tokens, or null upon a syntax error
+     */
+    public static PackedTokenBuffer tokenizeParallel(String filename, int chunkSize) {
+        Jott_Node.filename = filename;
+
+        byte[] source = readSource(filename);
+        if(!isAscii(source)) {
+            ArrayList<Token> tokens = JottTokenizer.tokenize(filename);
+            return tokens == null ? null : PackedTokenBuffer.of(filename, tokens);
+        }
+        return tokenizeChunks(filename, source, chunkSize);
+    }
+
+    /**
+     * Re-tokenizes a source after a text edit, re-lexing only the damaged lines:
+     * from the start of the line the edit starts on, to the end of the line the
+     * inserted text ends on. The other tokens are copied from {@code previous}
+     * (the ones after the edit moved to their new offset and line).
+     * The tokens (and syntax errors) are the same as tokenizing the whole edited source.
+     *
+     * @param previous      the tokens of the source before the edit
+     *                      (from {@link #tokenizePacked}, or a previous edit)
+     * @param offset        the offset of the edit in the previous source
+     * @param removedLength the number of characters removed at {@code offset}
+     * @param insertedText  the text inserted at {@code offset}
+     * @exception SyntaxError Exception caught in method; Error output to System.err
+     * @return the edited tokens and the range of re-lexed tokens, or null upon a syntax error
+     * @throws IllegalArgumentException if {@code previous} does not hold the source text
+     *                                  (a non-ASCII file), or the damaged lines are not ASCII
+     * @see {@link TokenEdit}
+     */
+    public static TokenEdit retokenize(PackedTokenBuffer previous, int offset, int removedLength, String insertedText) {
+        final String filename = previous.getFilename();
+        Jott_Node.filename = filename;
+
+        if(!previous.isVerbatim()) {
+            throw new IllegalArgumentException("Tokens of a non-ASCII source can not be edited: " + filename);
+        }
+        final String old = previous.getSource();
+        if(offset < 0 || removedLength < 0 || offset + removedLength > old.length()) {
+            throw new IndexOutOfBoundsException("Edit [" + offset + ", " + (offset + removedLength)
+                + ") outside of source of length " + old.length());
+        }
+        final String source = old.substring(0, offset) + insertedText + old.substring(offset + removedLength);
+        final int delta = insertedText.length() - removedLength;
+
+        // The damaged lines (no token or comment continues past a '\n')
+        final int start = old.lastIndexOf('\n', offset - 1) + 1;
+        int end = source.indexOf('\n', offset + insertedText.length());
+        end = end < 0 ? source.length() : end + 1;
+        final int oldEndOffset = end - delta;
+
+        final int first = previous.indexAtOffset(start);
+        final int oldEnd = previous.indexAtOffset(oldEndOffset);
+
+        // The line number at the start of the damaged lines
+        int line;
+        if(first == 0) {
+            line = 1 + countLines(old, 0, start);
+        } else {
+            final int before = first - 1;
+            line = previous.getLineNum(before) +
+                countLines(old, previous.getOffset(before) + previous.getLength(before), start);
+        }
+
+        final String region = source.substring(start, end);
+        for(int i = 0; i < region.length(); i++) {
+            if(region.charAt(i) >= 128) {
+                throw new IllegalArgumentException("Edited lines are not ASCII: " + filename + ":" + line);
+            }
+        }
+        final byte[] bytes = region.getBytes(StandardCharsets.US_ASCII);
+
+        SourceTokenizer tokenizer = new SourceTokenizer(bytes, 0, bytes.length);
+        tokenizer.linenum = line;
+        PackedTokenBuffer relexed = new PackedTokenBuffer(filename, region, bytes.length / 4, previous.getSymbols());
+        try {
+            tokenizer.lex(relexed);
+        } catch(SyntaxError E) {
+            E.print(filename, tokenizer.linenum);
+            return null;
+        }
+
+        final int lineDelta = tokenizer.linenum - (line + countLines(old, start, oldEndOffset));
+        PackedTokenBuffer tokens = previous.splice(source, first, oldEnd, relexed, start, delta, lineDelta);
+        return new TokenEdit(tokens, first, oldEnd, first + relexed.size(), lineDelta, delta);
+    }
+
+    /**
+     * Counts the lines {@link #lex} moves over between two offsets of a valid source
+     * (a '\n', or the end of a comment). No token contains a '#' or a line break,
+     * so the text does not need to be tokenized.
+     * @param text  the source text
+     * @param from  the offset to start counting at (not inside a token or comment)
+     * @param to    the offset to stop counting at
+     * @return the number of lines
+     */
+    private static int countLines(String text, int from, int to) {
+        int lines = 0;
+        for(int i = from; i < to; i++) {
+            final char c = text.charAt(i);
+            if(c == '\n') {
+                lines++;
+            } else if(c == '#') {
+                while(i + 1 < to && text.charAt(i + 1) != '\n' && text.charAt(i + 1) != '\r') { i++; }
+                if(i + 1 < to && text.charAt(++i) == '\r' && i + 1 < to && text.charAt(i + 1) == '\n') { i++; }
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Splits the source at line breaks into chunks, tokenizes the chunks on the
+     * common {@link ForkJoinPool}, and joins their tokens in order. Each chunk
+     * interns in a {@link SymbolTable} of its own, merged into the table of the
+     * source when the chunk is joined ({@link PackedTokenBuffer#addAll}).
+     * The syntax error of the first failed chunk (in source order) is printed,
+     * as it is the error a sequential tokenizer would stop at.
+     */
+    private static PackedTokenBuffer tokenizeChunks(String filename, byte[] source, int chunkSize) {
+        String text = new String(source, StandardCharsets.ISO_8859_1);
+        chunkSize = Math.max(chunkSize, 1);
+
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while(start < source.length) {
+            int end = findSplit(source, start + chunkSize, chunkSize / 4);
+            chunks.add(new Chunk(filename, text, source, start, end));
+            start = end;
+        }
+        for(Chunk chunk : chunks) { chunk.fork(); }
+
+        PackedTokenBuffer tokens = new PackedTokenBuffer(filename, text, source.length / 4);
+        int lineOffset = 0;
+        for(Chunk chunk : chunks) {
+            chunk.join();
+            if(chunk.error != null) {
+                chunk.error.print(filename, lineOffset + chunk.tokenizer.linenum);
+                return null;
+            }
+            tokens.addAll(chunk.tokens, lineOffset);
+            lineOffset += chunk.tokenizer.linenum - 1;
+        }
+        tokens.trimToSize();
+        return tokens;
+    }
+
+    /**
+     * Finds the start of a chunk: the start of the first line at or after {@code from}.
+     * A line starting with a function definition ({@code Def}) is preferred,
+     * if one starts within {@code window} bytes.
+     * @return the index of the start of the line, or the source length
+     */
+    private static int findSplit(byte[] source, int from, int window) {
+        int lineStart = -1;
+        int limit = Math.min(source.length, from + window);
+        for(int i = from - 1; i < source.length - 1; i++) {
+            if(source[i] != '\n') { continue; }
+            if(isDefinition(source, i + 1)) { return i + 1; }
+            if(lineStart < 0) { lineStart = i + 1; }
+            if(i >= limit) { break; }
+        }
+        return lineStart < 0 ? source.length : lineStart;
+    }
+
+    /** @return true if the source has the keyword {@code Def} at {@code index} */
+    private static boolean isDefinition(byte[] source, int index) {
+        if(index + 3 >= source.length) { return false; }
+        byte after = CHAR_CLASS[source[index + 3]];
+        return source[index] == 'D' && source[index + 1] == 'e' && source[index + 2] == 'f' &&
+            after != LETTER && after != DIGIT;
+    }
+
+    /** A range of source lines tokenized by a single fork/join task */
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SourceTokenizer tokenizer;
+        private final PackedTokenBuffer tokens;
+        private SyntaxError error;
+
+        Chunk(String filename, String text, byte[] source, int start, int end) {
+            this.tokenizer = new SourceTokenizer(source, start, end);
+            this.tokens = new PackedTokenBuffer(filename, text, (end - start) / 4);
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                this.tokenizer.lex(this.tokens);
+            } catch(SyntaxError E) {
+                this.error = E;
+            }
+        }
+    }
+
+    /**
+     * Reads the entire source file into a byte array.
+     * Exits the program if the file cannot be read (same as {@link JottTokenizer}).
+     * @param filename the name of the file to read
+     * @return the bytes of the file
+     */
+    private static byte[] readSource(String filename) {
+        try (FileInputStream input = new FileInputStream(filename)) {
+            return input.readAllBytes();
+        } catch (FileNotFoundException fnfE) {
+            System.err.println("File: '" + filename + "' not found.");
+            System.exit(1);
+        } catch (IOException ioE) {
+            System.err.println("IO Operation Failed/Interrupted");
+            System.exit(1);
+        }
+        return null; // unreachable
+    }
+
+    /**
+     * Checks if every byte of the source is a 7-bit ASCII character.
+     * @param source the source bytes
+     * @return true if the source is pure ASCII, false otherwise
+     */
+    private static boolean isAscii(byte[] source) {
+        for(byte b : source) {
+            if(b < 0) { return false; }
+        }
+        return true;
+    }
+
+    private static TokenType singleCharType(int c) {
+        switch(c) {
+            case ',' : return TokenType.COMMA;
+            case '[' : return TokenType.L_BRACKET;
+            case ']' : return TokenType.R_BRACKET;
+            case '{' : return TokenType.L_BRACE;
+            case '}' : return TokenType.R_BRACE;
+            default  : return TokenType.SEMICOLON;
+        }
+    }
+
+    /** @return the class of the byte at {@code index}, or INVALID past the end of the source */
+    private byte classAt(int index) {
+        return index < this.end ? CHAR_CLASS[this.source[index]] : INVALID;
+    }
+
+    /** @return true if the byte at {@code index} is {@code c} */
+    private boolean charAt(int index, char c) {
+        return index < this.end && this.source[index] == c;
+    }
+
+    /**
+     * Lexes the source into tokens, mirroring the rules of {@link JottTokenizer#tokenize}.
+     * @param tokens the buffer the tokens are added to
+     * @throws SyntaxError on an invalid token ({@link #linenum} is the line of the error)
+     */
+    private void lex(final PackedTokenBuffer tokens) throws SyntaxError {
+        final byte[] src = this.source;
+        final int end = this.end;
+        final SymbolTable symbols = tokens.getSymbols();
+
+        //! Main While Loop
+        while (this.pos < end) {
+            final int start = this.pos;
+            final int c = src[this.pos++];
+
+            switch (CHAR_CLASS[c]) {
+                /* Whitespaces (and Newline) */
+                case NEWLINE :
+                    this.linenum++;
+                    break;
+                case WHITESPACE :
+                    break;
+
+                /* Comments: skip to the end of the line ('\n', '\r' or "\r\n") */
+                case COMMENT :
+                    while (this.pos < end && src[this.pos] != '\n' && src[this.pos] != '\r') { this.pos++; }
+                    if (this.pos < end) {
+                        if (src[this.pos++] == '\r' && charAt(this.pos, '\n')) { this.pos++; }
+                    }
+                    this.linenum++;
+                    break;
+
+                /* Comma | Brackets | Braces | Semicolon */
+                case SINGLE :
+                    tokens.add(singleCharType(c), start, 1, this.linenum);
+                    break;
+
+                /* Division | Multiplication | Addition | Subtraction */
+                case MATH_OP :
+                    tokens.add(TokenType.MATH_OP, start, 1, this.linenum);
+                    break;
+
+                /* Equals | Double Equals */
+                case EQUALS :
+                    if (charAt(this.pos, '=')) {
+                        this.pos++;
+                        tokens.add(TokenType.REL_OP, start, this.pos - start, this.linenum);
+                    } else {
+                        tokens.add(TokenType.ASSIGN, start, this.pos - start, this.linenum);
+                    }
+                    break;
+
+                /* Greater Than | Greater Than or Equal To */
+                /* Less Than    | Less Than or Equal To */
+                case ANGLE :
+                    if (charAt(this.pos, '=')) { this.pos++; }
+                    tokens.add(TokenType.REL_OP, start, this.pos - start, this.linenum);
+                    break;
+
+                /* Digits (and Dots) */
+                case DIGIT :
+                case DOT :
+                    boolean contains_dot = (c == '.');
+                    while (this.pos < end) {
+                        byte type = CHAR_CLASS[src[this.pos]];
+                        if (type == DIGIT) { this.pos++; }
+                        else if (type == DOT) {
+                            if (contains_dot) { throw new SyntaxError("Duplicate token \".\" is invalid"); }
+                            contains_dot = true;
+                            this.pos++;
+                        } else { break; }
+                    }
+                    if (this.pos - start == 1 && c == '.') {
+                        throw new SyntaxError("Invalid token \".\". \".\" expects following digit");
+                    }
+                    tokens.add(TokenType.NUMBER, start, this.pos - start, this.linenum);
+                    break;
+
+                /* String */
+                case QUOTE :
+                    while (true) {
+                        if (this.pos >= end) {
+                            throw new SyntaxError("Incomplete string token. String must end with '\"'.");
+                        }
+                        final int character = src[this.pos++];
+                        if (character == '"') { break; }
+                        // If character is NOT a letter, digit, or space; SyntaxError
+                        final byte type = CHAR_CLASS[character];
+                        if (!(type == DIGIT || type == LETTER || character == ' ')) {
+                            throw new SyntaxError("Invalid string token. String must contain only letters, digits, or spaces.");
+                        }
+                    }
+                    tokens.add(TokenType.STRING, start, this.pos - start, this.linenum);
+                    break;
+
+                /* Colon | Function Call Header */
+                case COLON :
+                    if (charAt(this.pos, ':')) {
+                        this.pos++;
+                        tokens.add(TokenType.FC_HEADER, start, this.pos - start, this.linenum);
+                    } else {
+                        tokens.add(TokenType.COLON, start, this.pos - start, this.linenum);
+                    }
+                    break;
+
+                /* Id | Keyword */
+                case LETTER :
+                    byte type;
+                    while ((type = classAt(this.pos)) == LETTER || type == DIGIT) { this.pos++; }
+                    final Keyword keyword = Keyword.of(src, start, this.pos - start);
+                    tokens.add(TokenType.ID_KEYWORD, start, this.pos - start, this.linenum, keyword,
+                        keyword == Keyword.NONE ? symbols.intern(src, start, this.pos - start) : SymbolTable.NONE);
+                    break;
+
+                /* Not Equals */
+                case BANG :
+                    // the following character is consumed either way (same as JottTokenizer)
+                    if (this.pos < end && src[this.pos++] == '=') {
+                        tokens.add(TokenType.REL_OP, start, this.pos - start, this.linenum);
+                    } else {
+                        throw new SyntaxError("Invalid token \"!\". \"!\" expects following \"=\"");
+                    }
+                    break;
+
+                /* Invalid Token */
+                default :
+                    throw new SyntaxError("Invalid Token: " + (char)(c));
+            }
+        }
+    }
+}
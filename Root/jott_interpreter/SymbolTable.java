@@ -0,0 +1,163 @@
+package jott_interpreter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <h1>SymbolTable</h1>
+ *
+ * <p>
+ * The table of the identifiers of a program. Every identifier is interned once
+ * (by the tokenizer) to a dense {@code int} symbol, starting at 0, so scopes
+ * ({@link IdMap}) and the call stack compare and hash ints instead of strings.
+ * Each source tokenized gets a table of its own ({@link PackedTokenBuffer#getSymbols}),
+ * which the tokens of its edits keep using, and the program parsed from the
+ * tokens uses to size its per-function arrays ({@link #size}).
+ * </p>
+ *
+ * <p>
+ * Symbols are never removed, and a table is not synchronized: it is written
+ * by one thread at a time. The chunks of a source tokenized in parallel intern
+ * into tables of their own, merged into the table of the source when the
+ * chunks are joined ({@link #merge}).
+ * </p>
+ *
+ * @see {@link IdMap}
+ */
+public final class SymbolTable {
+
+    /** The symbol of a token that is not an identifier */
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The identifier of every symbol (indexed by symbol) */
+    private String[] names = new String[INITIAL_CAPACITY];
+    /** The hash code of every symbol (indexed by symbol) */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    /** Open addressing hash table of {@code symbol + 1} (0 is an empty slot) */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    /** The number of symbols */
+    private int count = 0;
+
+    //* Symbols used by the interpreter itself (interned first, in every table)
+    public static final int MAIN = 0;
+    public static final int PRINT = 1;
+    public static final int CONCAT = 2;
+    public static final int LENGTH = 3;
+    /** The (unnamed) input parameters of the built-in functions */
+    public static final int INPUT_A = 4;
+    public static final int INPUT_B = 5;
+
+    private static final String[] PREDEFINED = { "main", "print", "concat", "length", "input_a", "input_b" };
+
+    /** Constructs a table of the symbols used by the interpreter itself */
+    public SymbolTable() {
+        for(String name : PREDEFINED) { this.intern(name); }
+    }
+
+    /**
+     * Interns an identifier.
+     * @param name the identifier
+     * @return the symbol of the identifier
+     */
+    public int intern(String name) {
+        return this.intern(name, name.hashCode());
+    }
+
+    private int intern(String name, int hash) {
+        final int mask = this.table.length - 1;
+        for(int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int symbol = this.table[slot] - 1;
+            if(symbol == NONE) { return this.add(name, hash, slot); }
+            if(this.hashes[symbol] == hash && this.names[symbol].equals(name)) { return symbol; }
+        }
+    }
+
+    /**
+     * Interns an ASCII identifier straight from the source bytes.
+     * A string is only created for an identifier seen for the first time.
+     * @param source    the source bytes
+     * @param start     the index of the first byte of the identifier
+     * @param length    the number of bytes in the identifier
+     * @return the symbol of the identifier
+     */
+    public int intern(byte[] source, int start, int length) {
+        int hash = 0;
+        for(int i = start; i < start + length; i++) { hash = 31 * hash + source[i]; } // String.hashCode
+
+        final int mask = this.table.length - 1;
+        for(int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int symbol = this.table[slot] - 1;
+            if(symbol == NONE) {
+                return this.add(new String(source, start, length, StandardCharsets.ISO_8859_1), hash, slot);
+            }
+            if(this.hashes[symbol] == hash && matches(this.names[symbol], source, start, length)) { return symbol; }
+        }
+    }
+
+    /**
+     * Gets the identifier of a symbol.
+     * @param symbol the symbol
+     * @return the identifier
+     */
+    public String name(int symbol) {
+        return this.names[symbol];
+    }
+
+    /**
+     * Interns every identifier of another table in this table (the table of a
+     * chunk of a source, when the chunks are joined).
+     * @param other the other table
+     * @return the symbol in this table of every symbol of {@code other} (indexed by symbol)
+     */
+    public int[] merge(SymbolTable other) {
+        int[] symbols = new int[other.count];
+        for(int symbol = 0; symbol < other.count; symbol++) {
+            symbols[symbol] = this.intern(other.names[symbol], other.hashes[symbol]);
+        }
+        return symbols;
+    }
+
+    /** @return the number of interned symbols (every symbol is less than this) */
+    public int size() {
+        return this.count;
+    }
+
+    private static boolean matches(String name, byte[] source, int start, int length) {
+        if(name.length() != length) { return false; }
+        for(int i = 0; i < length; i++) {
+            if(name.charAt(i) != source[start + i]) { return false; }
+        }
+        return true;
+    }
+
+    private int add(String name, int hash, int slot) {
+        final int symbol = this.count++;
+        if(symbol == this.names.length) {
+            this.names = Arrays.copyOf(this.names, symbol * 2);
+            this.hashes = Arrays.copyOf(this.hashes, symbol * 2);
+        }
+        this.names[symbol] = name;
+        this.hashes[symbol] = hash;
+        this.table[slot] = symbol + 1;
+        if(this.count * 2 > this.table.length) { this.rehash(); }
+        return symbol;
+    }
+
+    private void rehash() {
+        this.table = new int[this.table.length * 2];
+        final int mask = this.table.length - 1;
+        for(int symbol = 0; symbol < this.count; symbol++) {
+            int slot = mix(this.hashes[symbol]) & mask;
+            while(this.table[slot] != 0) { slot = (slot + 1) & mask; }
+            this.table[slot] = symbol + 1;
+        }
+    }
+
+    /** Spreads the bits of a string hash code (similar identifiers hash closely) */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
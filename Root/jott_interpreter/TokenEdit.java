@@ -0,0 +1,68 @@
+package jott_interpreter;
+
+/**
+ * <h1>TokenEdit</h1>
+ *
+ * <p>
+ * The result of re-tokenizing an edited source ({@link SourceTokenizer#retokenize}):
+ * the tokens of the edited source, and which of them replaced tokens of the
+ * previous {@link PackedTokenBuffer}.
+ * </p>
+ *
+ * <p>
+ * The tokens are unchanged outside of the damaged range:
+ * <ul>
+ *  <li>tokens before {@link #getFirst} are the previous tokens, at the same index and line</li>
+ *  <li>tokens from {@link #getNewEnd} on are the previous tokens from {@link #getOldEnd} on,
+ *      moved by {@link #getTokenDelta} indices, {@link #getLineDelta} lines
+ *      and {@link #getOffsetDelta} characters</li>
+ * </ul>
+ * </p>
+ *
+ * @see {@link SourceTokenizer#retokenize}
+ */
+public final class TokenEdit {
+
+    /** The tokens of the edited source */
+    private final PackedTokenBuffer tokens;
+    /** The index of the first re-lexed token (in both the previous and the edited tokens) */
+    private final int first;
+    /** The index after the last replaced token in the previous tokens */
+    private final int oldEnd;
+    /** The index after the last re-lexed token in the edited tokens */
+    private final int newEnd;
+    /** The number of lines the tokens after the damaged range moved by */
+    private final int lineDelta;
+    /** The number of characters the tokens after the damaged range moved by */
+    private final int offsetDelta;
+
+    TokenEdit(PackedTokenBuffer tokens, int first, int oldEnd, int newEnd, int lineDelta, int offsetDelta) {
+        this.tokens = tokens;
+        this.first = first;
+        this.oldEnd = oldEnd;
+        this.newEnd = newEnd;
+        this.lineDelta = lineDelta;
+        this.offsetDelta = offsetDelta;
+    }
+
+    /** @return the tokens of the edited source */
+    public PackedTokenBuffer getTokens() { return this.tokens; }
+
+    /** @return the index of the first re-lexed token */
+    public int getFirst() { return this.first; }
+
+    /** @return the index after the last replaced token of the previous tokens */
+    public int getOldEnd() { return this.oldEnd; }
+
+    /** @return the index after the last re-lexed token of the edited tokens */
+    public int getNewEnd() { return this.newEnd; }
+
+    /** @return the number of indices the tokens after the damaged range moved by */
+    public int getTokenDelta() { return this.newEnd - this.oldEnd; }
+
+    /** @return the number of lines the tokens after the damaged range moved by */
+    public int getLineDelta() { return this.lineDelta; }
+
+    /** @return the number of characters the tokens after the damaged range moved by */
+    public int getOffsetDelta() { return this.offsetDelta; }
+}
@@ -0,0 +1,122 @@
+package jott_interpreter;
+
+import provided.Token;
+import provided.TokenType;
+
+/**
+ * <h1>TokenStream</h1>
+ *
+ * <p>
+ * A forward-only cursor over Jott {@link Token}s, used by every
+ * {@code parse*Node} method in place of the raw token list.
+ * The parser never looks more than a few tokens past the current token.
+ * </p>
+ *
+ * <p>
+ * Implementations:
+ * <ul>
+ *  <li>{@link ListTokenStream}: an index over an already tokenized list</li>
+ *  <li>{@link LazyTokenStream}: pulls tokens from the file as the parser needs them</li>
+ * </ul>
+ * </p>
+ *
+ * @see {@link Token}
+ * @see {@link TokenType}
+ */
+public abstract class TokenStream {
+
+    /** The symbol table of the program parsed from this stream ({@link #getSymbols}), or null */
+    private SymbolTable symbols = null;
+
+    /**
+     * Checks if at least {@code count} unconsumed tokens remain in the stream.
+     * @param count the number of tokens needed
+     * @return true if {@code count} or more tokens remain, false otherwise
+     */
+    public abstract boolean hasRemaining(int count);
+
+    /**
+     * Retrieves a token ahead of the current token without consuming anything.
+     * @param ahead the number of tokens past the current token ({@code peek(0) == peek()})
+     * @return the token {@code ahead} tokens past the current token
+     * @throws IndexOutOfBoundsException if there are not enough tokens remaining
+     */
+    public abstract Token peek(int ahead);
+
+    /**
+     * Consumes the current token.
+     * @return the consumed token
+     * @throws IndexOutOfBoundsException if the stream is empty
+     */
+    public abstract Token advance();
+
+    /**
+     * Gets the number of tokens consumed so far.
+     * @return the index of the current token in the whole token sequence
+     */
+    public abstract int position();
+
+    /**
+     * Checks if every token in the stream has been consumed.
+     * @return true if there are no tokens left, false otherwise
+     */
+    public boolean isEmpty() {
+        return !this.hasRemaining(1);
+    }
+
+    /**
+     * Retrieves the current token without consuming it.
+     * @return the current token
+     * @throws IndexOutOfBoundsException if the stream is empty
+     */
+    public Token peek() {
+        return this.peek(0);
+    }
+
+    /**
+     * Consumes the current token if it is of the expected type.
+     * @param type      the expected {@link TokenType} of the current token
+     * @param message   the detail message of the {@link SyntaxError} thrown on a mismatch
+     * @return the consumed token
+     * @throws SyntaxError  {@code Unexpected EOF}: no token to consume
+     * @throws SyntaxError  {@code message}: current token is not of the expected type
+     */
+    public Token expect(TokenType type, String message) throws SyntaxError {
+        if(this.isEmpty()) { throw new SyntaxError("Unexpected EOF"); }
+        if(this.peek().getTokenType() != type) { throw new SyntaxError(message); }
+        return this.advance();
+    }
+
+    /**
+     * Prints the syntax error that stopped the tokens early, if any.
+     * Only a stream that tokenizes while parsing can hit one; the parser
+     * reports it in place of its own error (the stream just looked empty).
+     * @return true if a tokenizer error was printed, false otherwise
+     */
+    public boolean reportTokenizerError() {
+        return false;
+    }
+
+    /**
+     * Gets the packed tokens this stream reads, if any, so parsed nodes can
+     * record where they are in the source ({@link jott_interpreter.nodes.Jott_Node#getText}).
+     * @return the buffer whose token indices are the positions of this stream,
+     *         or null if the tokens have no source offsets
+     */
+    public PackedTokenBuffer getBuffer() {
+        return null;
+    }
+
+    /**
+     * Gets the symbol table of the program parsed from this stream: the table of
+     * its packed tokens ({@link #getBuffer}), or a new table, in which the ids of
+     * its tokens are interned as they are parsed ({@link Token#getSymbol}).
+     * @return the same table on every call
+     */
+    public SymbolTable getSymbols() {
+        if(this.symbols == null) {
+            this.symbols = this.getBuffer() != null ? this.getBuffer().getSymbols() : new SymbolTable();
+        }
+        return this.symbols;
+    }
+}
@@ -0,0 +1,496 @@
+package jott_interpreter.nodes;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import jott_interpreter.Bytecode;
+import jott_interpreter.BytecodeVM;
+import jott_interpreter.ConstantPool;
+import jott_interpreter.IdMap;
+import jott_interpreter.ReturnType;
+import jott_interpreter.SymbolTable;
+import jott_interpreter.nodes.function_nodes.funcDef_Node;
+import jott_interpreter.nodes.grammar_nodes.program_Node;
+
+/**
+ * <h1>BytecodeWriter</h1>
+ *
+ * <p>
+ * Compiles a validated parse tree to {@link Bytecode}, for the {@link BytecodeVM}.
+ * Each node emits its own instructions ({@link Jott_Node#compile}): a statement
+ * the code executing it, an expression the code pushing its value. The functions
+ * are compiled when a call to them is compiled, starting from main, so only the
+ * functions reachable from main are compiled.
+ * </p>
+ *
+ * <p>
+ * The code does what the tree walker does, including where a {@code Return}
+ * returns ({@link #emitReturn}), and an {@code Elseif} taken without returning,
+ * after which the next {@code Elseif} conditions (and the {@code Else}) are
+ * still executed. A program the VM can not execute the same way (a
+ * {@code !=} operator, or a variable named like a function) is not compiled:
+ * each function is checked before it is compiled ({@link Jott_Node#isCompilable}).
+ * </p>
+ */
+public final class BytecodeWriter {
+
+    private int[] code = new int[256];
+    private int size = 0;
+
+    /** The constants of the program (the literal nodes refer to them by index) */
+    private final ConstantPool constants;
+
+    /** The index of each function called, by function id, or -1 */
+    private int[] functions;
+    /** The function ids (symbols) of the function indexes */
+    private int[] symbols = new int[16];
+    private int function_count = 0;
+    /** The functions called but not compiled yet (their indexes) */
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+
+    /** The first instruction and the number of frame slots of each function, by index */
+    private int[] entries = new int[16];
+    private int[] frame_sizes = new int[16];
+    /** Whether each function has String variables, by index (and the function being compiled) */
+    private boolean[] object_frames = new boolean[16];
+    private boolean objects;
+
+    /**
+     * The first instruction of every While loop around the code being compiled
+     * (of the function being compiled), innermost last ({@link #emitReturn})
+     */
+    private int[] loops = new int[8];
+    private int loop_count = 0;
+
+    /** The number of values on each operand stack (Integer, Double, Object) at the code being compiled */
+    private int int_depth;
+    private int double_depth;
+    private int object_depth;
+    /** The most values on an operand stack in the function being compiled */
+    private int max_depth;
+
+    /**
+     * The first index of the last instructions emitted (last at the end), to fuse
+     * them into a superinstruction, and the last index a jump goes to (the
+     * instructions before it can not be fused with the ones after it)
+     */
+    private final int[] starts = new int[2];
+    private int start_count = 0;
+    private int label = 0;
+
+    private BytecodeWriter(ConstantPool constants, SymbolTable symbols) {
+        this.constants = constants;
+        this.functions = new int[symbols.size()];
+        Arrays.fill(this.functions, -1);
+    }
+
+    /**
+     * Compiles a validated program, from its main function.
+     * @param program the program, validated (or read from a cache)
+     * @return the compiled program, or null if the program can not be compiled
+     *         (it is executed by the tree walker instead)
+     */
+    public static Bytecode compile(program_Node program) {
+        if(program.getFunctionCount() == 0 || Jott_Node.hasShadowedVariables()) { return null; }
+        if(!(Jott_Node.declared_functions.getNode(SymbolTable.MAIN) instanceof funcDef_Node)) { return null; }
+        BytecodeWriter out = new BytecodeWriter(program.getConstantPool(), program.getSymbolTable());
+        out.emit(Bytecode.CALL, out.function(SymbolTable.MAIN));
+        out.emit(Bytecode.HALT);
+        while(!out.pending.isEmpty()) {
+            if(!out.compileFunction(out.pending.poll())) { return null; }
+        }
+        return new Bytecode(Arrays.copyOf(out.code, out.size), Arrays.copyOf(out.entries, out.function_count),
+            Arrays.copyOf(out.frame_sizes, out.function_count), Arrays.copyOf(out.object_frames, out.function_count),
+            out.constants);
+    }
+
+    /**
+     * Gets the index of a declared function (compiled after the function being compiled).
+     * @param function_id the function id (symbol) of a {@link funcDef_Node}
+     * @return the index of the function, for {@link Bytecode#CALL}
+     */
+    private int function(int function_id) {
+        if(this.functions[function_id] >= 0) { return this.functions[function_id]; }
+        assert (Jott_Node.declared_functions.getNode(function_id) instanceof funcDef_Node); // (see funcCall_Node#isCompilable)
+        if(this.function_count == this.symbols.length) {
+            this.symbols = Arrays.copyOf(this.symbols, this.function_count * 2);
+            this.entries = Arrays.copyOf(this.entries, this.function_count * 2);
+            this.frame_sizes = Arrays.copyOf(this.frame_sizes, this.function_count * 2);
+            this.object_frames = Arrays.copyOf(this.object_frames, this.function_count * 2);
+        }
+        this.symbols[this.function_count] = function_id;
+        this.functions[function_id] = this.function_count;
+        this.pending.add(this.function_count);
+        return this.function_count++;
+    }
+
+    /**
+     * Compiles a function: the instructions storing its arguments in its parameter
+     * slots (the last argument is on top of its operand stack), then its body.
+     * @param index the index of the function
+     * @return false if the function can not be compiled ({@link Jott_Node#isCompilable}),
+     *         or needs deeper operand stacks than the VM checks for
+     */
+    private boolean compileFunction(int index) {
+        final int function_id = this.symbols[index];
+        final Jott_Node function = Jott_Node.declared_functions.getNode(function_id);
+        if(!function.isCompilable()) { return false; }
+        final IdMap scope = Jott_Node.getScope(function_id);
+        this.entries[index] = this.size;
+        this.frame_sizes[index] = scope.getFrameSize();
+        this.label = this.size;
+        this.objects = false;
+        this.loop_count = 0;
+        this.int_depth = 0;
+        this.double_depth = 0;
+        this.object_depth = 0;
+        this.max_depth = 0;
+
+        final int[] parameters = scope.getOrderedDynamicIds();
+        for(int parameter : parameters) { this.push(scope.getReturnType(parameter)); }
+        for(int i = parameters.length - 1; i >= 0; i--) {
+            this.emitStore(scope.getReturnType(parameters[i]), scope.getFrameSlot(parameters[i]));
+        }
+
+        function.compile(this);
+        if(function.getType() == ReturnType.Void) { this.emit(Bytecode.RETURN); }
+        this.object_frames[index] = this.objects;
+        return this.max_depth <= BytecodeVM.STACK_MARGIN;
+    }
+
+    //* Operand stack depths (only checked: the code of a statement leaves the stacks as they were)
+
+    private void push(ReturnType type) {
+        switch(type) {
+            case Integer :
+            case Boolean :  this.max_depth = Math.max(this.max_depth, ++this.int_depth); break;
+            case Double :   this.max_depth = Math.max(this.max_depth, ++this.double_depth); break;
+            case String :   this.max_depth = Math.max(this.max_depth, ++this.object_depth); break;
+            default :       break; // Void
+        }
+    }
+
+    private void pop(ReturnType type) {
+        switch(type) {
+            case Integer :
+            case Boolean :  this.int_depth--; break;
+            case Double :   this.double_depth--; break;
+            case String :   this.object_depth--; break;
+            default :       break; // Void
+        }
+    }
+
+    //* Instructions
+
+    /** @return the index of the next instruction (the target of a jump back to it) */
+    public int position() {
+        this.label = this.size;
+        return this.size;
+    }
+
+    private void append(int value) {
+        if(this.size == this.code.length) { this.code = Arrays.copyOf(this.code, this.size * 2); }
+        this.code[this.size++] = value;
+    }
+
+    /** Appends the opcode of an instruction (its operands are appended after it) */
+    private void instruction(int opcode) {
+        System.arraycopy(this.starts, 1, this.starts, 0, this.starts.length - 1);
+        this.starts[this.starts.length - 1] = this.size;
+        this.start_count = Math.min(this.start_count + 1, this.starts.length);
+        this.append(opcode);
+    }
+
+    /**
+     * Gets the first index of one of the last instructions, if it can be fused
+     * with the instructions after it (no jump goes to them).
+     * @param n the instruction (1 for the last one)
+     * @return the index of its opcode, or -1
+     */
+    private int last(int n) {
+        if(n > this.start_count) { return -1; }
+        final int start = this.starts[this.starts.length - n];
+        return start >= this.label ? start : -1;
+    }
+
+    /**
+     * Removes the last instructions (replaced by a superinstruction).
+     * @param n the number of instructions ({@link #last})
+     */
+    private void remove(int n) {
+        this.size = this.last(n);
+        for(int i = this.starts.length - 1; i >= n; i--) { this.starts[i] = this.starts[i - n]; }
+        this.start_count -= n;
+    }
+
+    /**
+     * Emits an instruction without operands, or with operands its type does not
+     * depend on (an operation of two operands, {@link Bytecode#IDIV} with a line).
+     * @param opcode    the opcode ({@link Bytecode})
+     * @param operands  the operands
+     */
+    public void emit(int opcode, int... operands) {
+        this.instruction(opcode);
+        for(int operand : operands) { this.append(operand); }
+        switch(opcode) {
+            case Bytecode.IADD : case Bytecode.ISUB : case Bytecode.IMUL : case Bytecode.IDIV :
+            case Bytecode.IGT : case Bytecode.IGE : case Bytecode.ILT : case Bytecode.ILE : case Bytecode.IEQ :
+                this.int_depth--;
+                break;
+            case Bytecode.DADD : case Bytecode.DSUB : case Bytecode.DMUL : case Bytecode.DDIV :
+                this.double_depth--;
+                break;
+            case Bytecode.DGT : case Bytecode.DGE : case Bytecode.DLT : case Bytecode.DLE : case Bytecode.DEQ :
+                this.double_depth -= 2;
+                this.push(ReturnType.Boolean);
+                break;
+            case Bytecode.CONCAT :
+                this.object_depth--;
+                break;
+            case Bytecode.LENGTH :
+                this.object_depth--;
+                this.push(ReturnType.Integer);
+                break;
+            default :
+                break;
+        }
+    }
+
+    /**
+     * Emits a jump to an instruction not emitted yet ({@link #patch} it once it is).
+     * @param opcode    {@link Bytecode#JUMP} or {@link Bytecode#JUMP_IF_FALSE}
+     * @return the index of the target of the jump
+     */
+    public int emitJump(int opcode) {
+        if(opcode == Bytecode.JUMP_IF_FALSE) {
+            this.int_depth--;
+            // an Integer comparison and the jump: jump if the comparison is false
+            final int compare = this.last(1);
+            if(compare >= 0) {
+                switch(this.code[compare]) {
+                    case Bytecode.IGT : opcode = Bytecode.JUMP_IF_ILE; break;
+                    case Bytecode.IGE : opcode = Bytecode.JUMP_IF_ILT; break;
+                    case Bytecode.ILT : opcode = Bytecode.JUMP_IF_IGE; break;
+                    case Bytecode.ILE : opcode = Bytecode.JUMP_IF_IGT; break;
+                    case Bytecode.IEQ : opcode = Bytecode.JUMP_IF_INE; break;
+                    default :           break;
+                }
+                if(opcode != Bytecode.JUMP_IF_FALSE) { this.remove(1); }
+            }
+        }
+        this.instruction(opcode);
+        this.append(-1);
+        return this.size - 1;
+    }
+
+    /**
+     * Emits a jump to an instruction already emitted (a loop).
+     * @param opcode    {@link Bytecode#JUMP} or {@link Bytecode#JUMP_IF_FALSE}
+     * @param target    the index of the instruction ({@link #position})
+     */
+    public void emitJump(int opcode, int target) {
+        this.patch(this.emitJump(opcode), target);
+    }
+
+    /**
+     * Makes a jump ({@link #emitJump}) jump to the next instruction emitted.
+     * @param jump the index of the target of the jump
+     */
+    public void patch(int jump) {
+        this.patch(jump, this.size);
+        this.label = this.size;
+    }
+
+    private void patch(int jump, int target) {
+        this.code[jump] = target;
+    }
+
+    /**
+     * Emits the loading of a literal (or folded) constant of the program.
+     * @param pool  the constants the index is in (the constants of the program,
+     *              unless the node is from another program)
+     * @param index the index of the constant in {@code pool}
+     * @param type  the type of the constant
+     */
+    public void emitConstant(ConstantPool pool, int index, ReturnType type) {
+        if(pool != this.constants) { // (the value, added to the constants of this program)
+            switch(type) {
+                case Double :   index = this.constants.addDouble(pool.getDouble(index)); break;
+                case String :   index = this.constants.addString(pool.getString(index)); break;
+                default :       index = this.constants.addInt(pool.getInt(index)); break;
+            }
+        }
+        final int load = this.last(1);
+        if((type == ReturnType.Integer || type == ReturnType.Boolean) && load >= 0 && this.code[load] == Bytecode.ILOAD) {
+            final int slot = this.code[load + 1];
+            this.remove(1);
+            this.instruction(Bytecode.ILOADK);
+            this.append(slot);
+            this.append(this.constants.getInt(index));
+            this.push(type);
+            return;
+        }
+        switch(type) {
+            case Double :   this.instruction(Bytecode.DCONST); break;
+            case String :   this.instruction(Bytecode.SCONST); break;
+            default :       this.instruction(Bytecode.ICONST); break;
+        }
+        this.append(index);
+        this.push(type);
+    }
+
+    /**
+     * Emits the loading of a constant value (a negative number, or the value of an
+     * expression computed when it was parsed), added to the constants of the program.
+     * @param value the Integer, Double, Boolean or String value
+     */
+    public void emitConstant(Object value) {
+        if(value instanceof Integer) {
+            this.emitConstant(this.constants, this.constants.addInt((Integer)value), ReturnType.Integer);
+        } else if(value instanceof Double) {
+            this.emitConstant(this.constants, this.constants.addDouble((Double)value), ReturnType.Double);
+        } else if(value instanceof Boolean) {
+            this.emitConstant(this.constants, this.constants.addBoolean((Boolean)value), ReturnType.Boolean);
+        } else if(value instanceof String) {
+            this.emitConstant(this.constants, this.constants.addString((String)value), ReturnType.String);
+        } else {
+            throw new IllegalStateException("Not a constant: " + value);
+        }
+    }
+
+    /**
+     * Emits the loading of a variable of the function being compiled.
+     * @param type  the type of the variable
+     * @param slot  its frame slot ({@link IdMap#getFrameSlot})
+     */
+    public void emitLoad(ReturnType type, int slot) {
+        assert (slot >= 0); // (resolved by validation, see id_Node#isCompilable)
+        final int load = this.last(1);
+        if((type == ReturnType.Integer || type == ReturnType.Boolean) && load >= 0 && this.code[load] == Bytecode.ILOAD) {
+            final int first = this.code[load + 1];
+            this.remove(1);
+            this.instruction(Bytecode.ILOAD2);
+            this.append(first);
+            this.append(slot);
+            this.push(type);
+            return;
+        }
+        switch(type) {
+            case Integer :
+            case Boolean :  this.instruction(Bytecode.ILOAD); break;
+            case Double :   this.instruction(Bytecode.DLOAD); break;
+            case String :   this.instruction(Bytecode.OLOAD); this.objects = true; break;
+            default :       throw new IllegalStateException("Variable of type " + type);
+        }
+        this.append(slot);
+        this.push(type);
+    }
+
+    /**
+     * Emits the storing of the value on top of its operand stack in a variable
+     * of the function being compiled.
+     * @param type  the type of the variable
+     * @param slot  its frame slot ({@link IdMap#getFrameSlot})
+     */
+    public void emitStore(ReturnType type, int slot) {
+        assert (slot >= 0); // (resolved by validation, see assignment_Node#isCompilable)
+
+        // an Integer variable plus or minus a constant, stored in the variable: an increment
+        final int load = this.last(2);
+        if(type == ReturnType.Integer && load >= 0 && this.code[load] == Bytecode.ILOADK && this.code[load + 1] == slot
+                && (this.code[load + 3] == Bytecode.IADD || this.code[load + 3] == Bytecode.ISUB)) {
+            final int constant = this.code[load + 2];
+            final int value = this.code[load + 3] == Bytecode.IADD ? constant : -constant; // (wraps around, as x - y does)
+            this.remove(2);
+            this.instruction(Bytecode.IINC);
+            this.append(slot);
+            this.append(value);
+            this.pop(type);
+            return;
+        }
+        switch(type) {
+            case Integer :
+            case Boolean :  this.instruction(Bytecode.ISTORE); break;
+            case Double :   this.instruction(Bytecode.DSTORE); break;
+            case String :   this.instruction(Bytecode.OSTORE); this.objects = true; break;
+            default :       throw new IllegalStateException("Variable of type " + type);
+        }
+        this.append(slot);
+        this.pop(type);
+    }
+
+    /**
+     * Emits the removal of the value of an expression not used (a function call statement).
+     * @param type the type of the value (nothing is emitted for Void)
+     */
+    public void emitPop(ReturnType type) {
+        switch(type) {
+            case Integer :
+            case Boolean :  this.instruction(Bytecode.POP_I); break;
+            case Double :   this.instruction(Bytecode.POP_D); break;
+            case String :   this.instruction(Bytecode.POP_O); break;
+            default :       return; // Void
+        }
+        this.pop(type);
+    }
+
+    /**
+     * Emits the printing of the value on top of its operand stack (print typecasts
+     * its input: a Boolean prints as True or False).
+     * @param type the type of the value printed
+     */
+    public void emitPrint(ReturnType type) {
+        switch(type) {
+            case Integer :  this.instruction(Bytecode.PRINT_I); break;
+            case Double :   this.instruction(Bytecode.PRINT_D); break;
+            case Boolean :  this.instruction(Bytecode.PRINT_B); break;
+            case String :   this.instruction(Bytecode.PRINT_O); break;
+            default :       throw new IllegalStateException("Printing a value of type " + type);
+        }
+        this.pop(type);
+    }
+
+    /**
+     * Emits a call of a declared function, whose arguments are on the operand stacks.
+     * @param function_id the function id (symbol)
+     */
+    public void emitCall(int function_id) {
+        this.emit(Bytecode.CALL, this.function(function_id));
+        IdMap scope = Jott_Node.getScope(function_id);
+        for(int parameter : scope.getOrderedDynamicIds()) { this.pop(scope.getReturnType(parameter)); }
+        this.push(Jott_Node.declared_functions.getReturnType(function_id));
+    }
+
+    /**
+     * Starts the code of the body of a While loop, where a {@code Return} only ends
+     * the iteration ({@link #emitReturn}).
+     * @param head the first instruction of the loop (its condition)
+     */
+    public void startLoop(int head) {
+        if(this.loop_count == this.loops.length) { this.loops = Arrays.copyOf(this.loops, this.loop_count * 2); }
+        this.loops[this.loop_count++] = head;
+    }
+
+    /** Ends the code of the body of the innermost While loop ({@link #startLoop}) */
+    public void endLoop() {
+        this.loop_count--;
+    }
+
+    /**
+     * Emits a {@code Return} of the value on top of its operand stack. As in the tree
+     * walker, a body ends with the statement returning (its value stops the bodies
+     * around it), up to the body of the function, which returns the value, or up
+     * to the body of a While loop, where the value is dropped and the loop goes on
+     * with its next iteration.
+     * @param type the type of the value returned
+     */
+    public void emitReturn(ReturnType type) {
+        if(this.loop_count == 0) {
+            this.instruction(Bytecode.RETURN);
+            this.pop(type);
+        } else {
+            this.emitPop(type);
+            this.emitJump(Bytecode.JUMP, this.loops[this.loop_count - 1]);
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package jott_interpreter.nodes;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
+import jott_interpreter.ConstantPool;
 import jott_interpreter.IdMap;
+import jott_interpreter.PackedTokenBuffer;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SourceSlice;
+import jott_interpreter.SymbolTable;
+import jott_interpreter.TokenStream;
 import provided.*;
 
 /* Used only by documentation */
+import jott_interpreter.nodes.function_nodes.funcDef_Node;
 import jott_interpreter.nodes.grammar_nodes.program_Node;
 
 /**
@@ -38,17 +45,135 @@ import jott_interpreter.nodes.grammar_nodes.program_Node;
 public abstract class Jott_Node implements JottTree{
     /** The functions available to this {@code Jott_Node} (scope) */
     protected static IdMap declared_functions;
-    /** The mapping of all available function ids to their variable Nodes */
-    protected static HashMap<String, IdMap> function_scope;
-    /** The "Call Stack" of the execution tree */
-    protected static Stack<String> current_function_ID;
+    /** The variable Nodes of all available functions, indexed by function id ({@link SymbolTable} symbol) */
+    private static IdMap[] function_scope;
+
+    /**
+     * The order the functions were declared in (1 for the first declared function,
+     * 0 for the built-in functions), indexed by function id. A function only
+     * calls the functions declared before it ({@link #isFunction}).
+     */
+    private static int[] declaration_order;
+    private static int declared_count;
+
+    /**
+     * The state of the function a thread is validating or executing: the call
+     * stack, and what is moved or hidden for the function. There is one context
+     * ({@link #main_context}), unless function bodies are validated concurrently
+     * ({@link #setConcurrent}), where each thread has its own ({@link #thread_context}).
+     */
+    private static final class FunctionContext {
+        /** The "Call Stack" of the execution tree (function id symbols) */
+        final Stack<Integer> call_stack = new Stack<>();
+
+        /**
+         * The number of lines the function being validated or executed has moved
+         * since it was parsed (an incremental re-parse reuses the functions after an
+         * edit as they are). Set by {@link funcDef_Node}.
+         */
+        int line_shift = 0;
+
+        /**
+         * The number of characters the function being validated or executed has
+         * moved since it was parsed, like {@link #line_shift}. Set by {@link funcDef_Node}.
+         */
+        int offset_shift = 0;
+
+        /** The {@link #declaration_order} of the last function visible to calls */
+        int visible_functions = Integer.MAX_VALUE;
+
+        /**
+         * The frame stack of the execution: the values of the variables of every
+         * function invocation not returned yet, by the frame slots the validation
+         * resolved them to ({@link IdMap#getFrameSlot}), one frame after the other.
+         * The frame of the function being executed starts at {@link #frame}, and
+         * the frames of its calls at {@link #top}. The values are unboxed: a slot
+         * is in one of three parallel arrays, by the type of its variable
+         * (Integer and Boolean in {@link #ints}, Double in {@link #doubles}).
+         */
+        Object[] stack = new Object[64];
+        int[] ints = new int[64];
+        double[] doubles = new double[64];
+        int frame = 0;
+        int top = 0;
+
+        /** The function whose scope is private to this context (-1 if none), and the scope */
+        int private_function = -1;
+        IdMap private_scope = null;
+    }
+
+    private static FunctionContext main_context = new FunctionContext();
+    private static final ThreadLocal<FunctionContext> thread_context = new ThreadLocal<>();
+
+    /** True while function bodies are validated concurrently (each thread has its own context) */
+    private static boolean concurrent = false;
+
+    /**
+     * True if a function has a variable named like a declared function: reading such a
+     * variable reads the function's value, so variables are looked up as functions
+     * before they are read by frame slot ({@link #findShadowedVariables}).
+     */
+    private static boolean shadowed_variables = false;
+
+    /**
+     * The static call graph of the program: the (caller, callee) symbol pairs of
+     * the function calls validated ({@link #addCall}), used by dead-function
+     * elimination ({@link program_Node#eliminateDeadFunctions}).
+     */
+    private static int[] call_edges;
+    private static int call_edge_count;
+
+    /**
+     * The ids the validation of the current function looked up as functions
+     * ({@link #isFunction}), while they are recorded for an incremental
+     * re-validation ({@link #startRecordingLookups}), or null.
+     */
+    private static int[] recorded_lookups = null;
+    private static int recorded_lookup_count;
 
     /** The name of the source file containing the Jott code */
     public static String filename;
 
+    /**
+     * The source text of the program (null if the tokens had no source offsets),
+     * which the source spans of the nodes ({@link #getText}) are ranges of.
+     */
+    protected static String source;
+
+    /**
+     * Whether the parser shares one instance of structurally identical,
+     * side-effect-free subtrees (set by {@link provided.JottParser#setHashConsing}).
+     */
+    private static boolean hash_consing = false;
+
+    /**
+     * The canonical instances of the shared subtrees of the program being parsed,
+     * keyed by {@link #intern} keys (null if {@link #hash_consing} is off).
+     * Concurrent, for {@link program_Node#parseProgramNodeParallel}.
+     */
+    private static ConcurrentHashMap<Object, Jott_Node> canonical;
+
+    /**
+     * The constants of the literals of the program being parsed, which the literal
+     * nodes keep and refer to by index. A re-parse adds to the constants of the
+     * program it re-parses ({@link program_Node#reparseProgramNode}).
+     */
+    protected static ConstantPool constants = new ConstantPool();
+
+    /**
+     * The symbols of the ids of the program being parsed: the table of its tokens
+     * ({@link TokenStream#getSymbols}), which sizes the arrays indexed by function id.
+     */
+    protected static SymbolTable symbols = new SymbolTable();
+
     /** The line number of the referenced node in the Jott code. */
     protected final int linenum;
 
+    /** The source offset of the first token of this node (-1 if unknown, see {@link #span}) */
+    private int source_offset = -1;
+    /** The number of source characters from the first to the end of the last token of this node */
+    private int source_length = 0;
+
     /**
      * <h>
      * Initializes the static fields of this class. 
@@ -59,15 +184,525 @@ public abstract class Jott_Node implements JottTree{
      * tree is fully constructed. It (re-)sets the global environment for 
      * function declarations, function scopes, and the call stack.
      * </p>
+     * @param table the symbol table of the program ({@link TokenStream#getSymbols})
      * @implNote    Should only be implemented by the node validation process:
      *              currently this resides only in the parse function
      *              for {@link program_Node}
      */
-    protected static void init() {
+    protected static void init(SymbolTable table) {
+        symbols = table;
         declared_functions = new IdMap();
-        function_scope = new LinkedHashMap<>();
-        current_function_ID = new Stack<>();
+        function_scope = new IdMap[table.size()];
+        declaration_order = new int[table.size()];
+        declared_count = 0;
+        main_context = new FunctionContext();
+        concurrent = false;
+        shadowed_variables = false;
+        call_edges = new int[64];
+        call_edge_count = 0;
+        recorded_lookups = null;
         filename = null;
+        source = null;
+        canonical = hash_consing ? new ConcurrentHashMap<>() : null;
+        constants = new ConstantPool();
+    }
+
+    /** @return the constants of the literals of the last program parsed (or read) */
+    public static ConstantPool getConstants() {
+        return constants;
+    }
+
+    /**
+     * Starts the constants of a program read from a cache: its literal nodes add
+     * their constants again as they are read ({@link ProgramReader}), in the order
+     * they were parsed, so they get the indices they had.
+     */
+    static void resetConstants() {
+        constants = new ConstantPool();
+    }
+
+    /** @return the symbol table of the last program parsed (or read) */
+    public static SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Starts the symbols of a program read from a cache: its ids are interned
+     * again as they are read ({@link ProgramReader#readSymbol}).
+     */
+    static void resetSymbols() {
+        symbols = new SymbolTable();
+    }
+
+    /**
+     * Turns the sharing of identical side-effect-free subtrees ({@link #intern})
+     * on or off, for the programs parsed after the call.
+     * @param enabled true to share the subtrees
+     */
+    public static void setHashConsing(boolean enabled) {
+        hash_consing = enabled;
+    }
+
+    /** @return the number of canonical subtrees of the last program parsed (0 if hash-consing is off) */
+    public static int getCanonicalCount() {
+        return canonical == null ? 0 : canonical.size();
+    }
+
+    /**
+     * Hash-consing: returns the canonical instance of a side-effect-free subtree,
+     * making {@code node} the canonical instance if it is the first of its key.
+     * The key is the node's class and contents, with canonical children compared
+     * by identity (so identical subtrees have equal keys).
+     * <p>
+     * A canonical node has no source span ({@link #getText} converts it) and its
+     * line is the line of the first occurrence, so only nodes that never report
+     * an error (or write state while executing) should be interned.
+     * </p>
+     * @param node  the node just parsed
+     * @param key   the class and contents of the node
+     * @return {@code node}, or the canonical instance equal to it
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T extends Jott_Node> T intern(T node, Object... key) {
+        if(canonical == null) { return node; }
+        final Jott_Node shared = canonical.computeIfAbsent(Arrays.asList(key), (k) -> node);
+        if(shared == node) { shared.source_offset = -1; }
+        return (T)shared;
+    }
+
+    /** @return true if nodes are being interned ({@link #intern}) */
+    protected static boolean isHashConsing() {
+        return canonical != null;
+    }
+
+    /**
+     * Sets the source text the spans of the nodes being parsed refer to.
+     * @param tokens the stream the program is parsed from
+     */
+    protected static void setSource(TokenStream tokens) {
+        PackedTokenBuffer buffer = tokens.getBuffer();
+        source = buffer == null ? null : buffer.getSource();
+    }
+
+    /**
+     * Records the source span of a node just parsed: the tokens from {@code start}
+     * up to the current position of the stream. Nothing is recorded if the
+     * stream has no source offsets.
+     * @param node      the parsed node
+     * @param tokens    the stream the node was parsed from
+     * @param start     the position of the stream before parsing the node
+     * @return the node
+     */
+    public static <T extends Jott_Node> T span(T node, TokenStream tokens, int start) {
+        PackedTokenBuffer buffer = tokens.getBuffer();
+        if(buffer == null) { return node; }
+        final Jott_Node spanned = node;
+        int end = tokens.position();
+        if(end > start) {
+            spanned.source_offset = buffer.getOffset(start);
+            spanned.source_length = buffer.getOffset(end - 1) + buffer.getLength(end - 1) - spanned.source_offset;
+        } else { // empty node (no tokens): an empty span at the next token
+            spanned.source_offset = start < buffer.size() ? buffer.getOffset(start) : buffer.getSource().length();
+            spanned.source_length = 0;
+        }
+        return node;
+    }
+
+    /** @return the context of the current thread */
+    private static FunctionContext context() {
+        return concurrent ? thread_context.get() : main_context;
+    }
+
+    /**
+     * Gets the "Call Stack" of the execution tree (function id symbols): the function
+     * being validated or executed is on top (the functions being called are pushed
+     * by {@link jott_interpreter.nodes.function_nodes.funcCall_Node}).
+     * @return the call stack of the current thread
+     */
+    protected static Stack<Integer> callStack() {
+        return context().call_stack;
+    }
+
+    /** @return the number of lines the function being validated or executed has moved (see {@link #setShift}) */
+    protected static int getLineShift() {
+        return context().line_shift;
+    }
+
+    /** @return the number of characters the function being validated or executed has moved (see {@link #setShift}) */
+    protected static int getOffsetShift() {
+        return context().offset_shift;
+    }
+
+    /**
+     * Sets how much the function being validated or executed has moved since it was
+     * parsed (an incremental re-parse reuses the functions after an edit as they are).
+     * Set by {@link funcDef_Node}, for the line numbers and source text of its nodes.
+     * @param lines     the number of lines the function moved
+     * @param offset    the number of characters the function moved
+     */
+    protected static void setShift(int lines, int offset) {
+        FunctionContext context = context();
+        context.line_shift = lines;
+        context.offset_shift = offset;
+    }
+
+    /**
+     * Pushes the frame of a function invocation on the frame stack, after the
+     * frames of the invocations not returned yet. Its (object) values are null.
+     * @param size  the number of frame slots of the function ({@link IdMap#getFrameSize})
+     * @return the start of the frame, to pass the arguments ({@link #setArgument})
+     *         and enter it ({@link #enterFrame})
+     */
+    protected static int pushFrame(int size) {
+        FunctionContext context = context();
+        final int base = context.top;
+        if(base + size > context.stack.length) {
+            final int length = Math.max(context.stack.length * 2, base + size);
+            context.stack = Arrays.copyOf(context.stack, length);
+            context.ints = Arrays.copyOf(context.ints, length);
+            context.doubles = Arrays.copyOf(context.doubles, length);
+        }
+        Arrays.fill(context.stack, base, base + size, null); // (the values of a returned invocation)
+        context.top = base + size;
+        return base;
+    }
+
+    /**
+     * Makes a frame pushed by {@link #pushFrame} the frame of the function being
+     * executed: its variables are read and written there ({@link #getFrameValue}).
+     * @param base  the start of the frame
+     * @return the start of the frame of the caller, to restore with {@link #popFrame}
+     */
+    protected static int enterFrame(int base) {
+        FunctionContext context = context();
+        final int outer = context.frame;
+        context.frame = base;
+        return outer;
+    }
+
+    /**
+     * Pops the frame of a function invocation (and any frame after it), returning to the caller's.
+     * @param outer the start of the frame of the caller ({@link #enterFrame})
+     * @param base  the start of the frame popped ({@link #pushFrame})
+     */
+    protected static void popFrame(int outer, int base) {
+        FunctionContext context = context();
+        context.frame = outer;
+        context.top = base;
+    }
+
+    /**
+     * Passes an argument to a function invocation, before its frame is entered.
+     * @param base  the start of the frame of the invocation ({@link #pushFrame})
+     * @param slot  the frame slot of the parameter
+     * @param value the value of the argument
+     */
+    protected static void setArgument(int base, int slot, Object value) {
+        context().stack[base + slot] = value;
+    }
+
+    /** @return the start of the frame of the function being executed ({@link #enterFrame}) */
+    protected static int currentFrame() {
+        return context().frame;
+    }
+
+    /**
+     * Evaluates an expression into a slot of a frame, in the array of its type
+     * (an assignment, or an argument passed to a call), without boxing its value.
+     * @param base  the start of the frame ({@link #pushFrame})
+     * @param slot  the frame slot of the variable ({@link IdMap#getFrameSlot})
+     * @param type  the type of the variable
+     * @param expr  the expression, evaluated in the frame of the function being executed
+     * @throws SemanticError if the expression can not be evaluated
+     */
+    protected static void evalInto(int base, int slot, ReturnType type, Jott_Node expr) throws SemanticError {
+        // (the arrays are read after the expression: its calls may grow them)
+        switch(type) {
+            case Integer :
+                final int i = expr.evalInt();
+                context().ints[base + slot] = i;
+                break;
+            case Double :
+                final double d = expr.evalDouble();
+                context().doubles[base + slot] = d;
+                break;
+            case Boolean :
+                final int b = expr.evalBoolean() ? 1 : 0;
+                context().ints[base + slot] = b;
+                break;
+            default :
+                final Object value = expr.evalString();
+                context().stack[base + slot] = value;
+                break;
+        }
+    }
+
+    /**
+     * Gets the value of an Integer variable of the function being executed.
+     * @param slot the frame slot of the variable ({@link IdMap#getFrameSlot})
+     * @return the value of the variable
+     */
+    protected static int getFrameInt(int slot) {
+        FunctionContext context = context();
+        return context.ints[context.frame + slot];
+    }
+
+    /**
+     * Gets the value of a Double variable of the function being executed.
+     * @param slot the frame slot of the variable ({@link IdMap#getFrameSlot})
+     * @return the value of the variable
+     */
+    protected static double getFrameDouble(int slot) {
+        FunctionContext context = context();
+        return context.doubles[context.frame + slot];
+    }
+
+    /**
+     * Gets the value of a String variable of the function being executed (or of
+     * an input of a builtin function).
+     * @param slot the frame slot of the variable ({@link IdMap#getFrameSlot})
+     * @return the value of the variable (null if it was not assigned in this invocation)
+     */
+    protected static Object getFrameValue(int slot) {
+        FunctionContext context = context();
+        return context.stack[context.frame + slot];
+    }
+
+    /**
+     * Gets the value of a variable of the function being executed, boxed.
+     * @param slot the frame slot of the variable ({@link IdMap#getFrameSlot})
+     * @param type the type of the variable
+     * @return the value of the variable
+     */
+    protected static Object getFrameValue(int slot, ReturnType type) {
+        switch(type) {
+            case Integer :  return Integer.valueOf(getFrameInt(slot));
+            case Double :   return Double.valueOf(getFrameDouble(slot));
+            case Boolean :  return Boolean.valueOf(getFrameInt(slot) != 0);
+            default :       return getFrameValue(slot);
+        }
+    }
+
+    /** @return true if variables must be looked up as functions first ({@link #findShadowedVariables}) */
+    protected static boolean hasShadowedVariables() {
+        return shadowed_variables;
+    }
+
+    /**
+     * Checks, once the functions are declared, if a function has a variable named
+     * like a declared function, whose value is read instead of the variable's.
+     * Then every variable is looked up as a function first, as the program is rare and this is how it reads.
+     */
+    protected static void findShadowedVariables() {
+        shadowed_variables = false;
+        for(IdMap scope : function_scope) {
+            if(scope != null && scope.containsAny(declared_functions)) {
+                shadowed_variables = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Declares a function, after the functions already declared.
+     * @param function_id   the {@link SymbolTable} symbol of the function id
+     * @param function      the function definition node
+     */
+    protected static void declareFunction(int function_id, Jott_Node function) {
+        declared_functions.add(function_id, function);
+        if(function_id >= declaration_order.length) {
+            declaration_order = Arrays.copyOf(declaration_order, Math.max(symbols.size(), function_id + 1));
+        }
+        declaration_order[function_id] = ++declared_count;
+    }
+
+    /**
+     * Checks if an id is a function that can be called here: a declared function,
+     * declared before the function being validated if bodies are validated
+     * concurrently (all the signatures are declared first).
+     * @param id the {@link SymbolTable} symbol of the id
+     * @return true if the id is a callable function
+     */
+    protected static boolean isFunction(int id) {
+        if(recorded_lookups != null) {
+            if(recorded_lookup_count == recorded_lookups.length) {
+                recorded_lookups = Arrays.copyOf(recorded_lookups, recorded_lookup_count * 2);
+            }
+            recorded_lookups[recorded_lookup_count++] = id;
+        }
+        if(!declared_functions.contains(id)) { return false; }
+        return !concurrent || id >= declaration_order.length || declaration_order[id] <= context().visible_functions;
+    }
+
+    /**
+     * Starts recording the ids looked up as functions ({@link #isFunction}), which
+     * the validation of a function depends on (see {@link funcDef_Node#revalidate}).
+     * Only for a sequential validation.
+     */
+    protected static void startRecordingLookups() {
+        recorded_lookups = new int[16];
+        recorded_lookup_count = 0;
+    }
+
+    /**
+     * Stops recording the ids looked up as functions ({@link #startRecordingLookups}).
+     * @return the ids looked up, sorted, without duplicates
+     */
+    protected static int[] stopRecordingLookups() {
+        int[] lookups = Arrays.copyOf(recorded_lookups, recorded_lookup_count);
+        recorded_lookups = null;
+        Arrays.sort(lookups);
+        int distinct = 0;
+        for(int i = 0; i < lookups.length; i++) {
+            if(i == 0 || lookups[i] != lookups[i - 1]) { lookups[distinct++] = lookups[i]; }
+        }
+        return Arrays.copyOf(lookups, distinct);
+    }
+
+    /**
+     * Gets the signature a call of a function is checked against: its return type
+     * and the types of its parameters, as declared.
+     * @param id the {@link SymbolTable} symbol of the id
+     * @return the signature, or null if the id is not a declared function
+     */
+    protected static String getSignature(int id) {
+        if(!declared_functions.contains(id)) { return null; }
+        StringBuilder signature = new StringBuilder().append(declared_functions.getReturnType(id)).append('[');
+        IdMap scope = getScope(id);
+        if(scope != null) {
+            for(Jott_Node param : scope.getOrderedDynamicNodes()) { signature.append(param.getType()).append(','); }
+        }
+        return signature.append(']').toString();
+    }
+
+    /**
+     * Turns the concurrent validation of function bodies on or off. While it is
+     * on, each thread validates a function body in its own context ({@link #enterFunction}).
+     * @param enabled true before the bodies are validated concurrently, false after the threads joined
+     */
+    protected static void setConcurrent(boolean enabled) {
+        concurrent = enabled;
+    }
+
+    /**
+     * Gives the current thread its own context to validate the body of a function,
+     * while other threads validate other functions ({@link #setConcurrent}): its own
+     * call stack, the functions declared up to this one, and a private copy of the
+     * function's scope (the scope other threads see only holds its parameters).
+     * @param function_id   the {@link SymbolTable} symbol of the function id
+     * @return the private scope of the function, to publish ({@link #setScope}) after the threads joined
+     */
+    protected static IdMap enterFunction(int function_id) {
+        FunctionContext context = new FunctionContext();
+        context.visible_functions = declaration_order[function_id];
+        context.private_function = function_id;
+        context.private_scope = function_scope[function_id].copy();
+        thread_context.set(context);
+        return context.private_scope;
+    }
+
+    /** Removes the context of the current thread ({@link #enterFunction}) */
+    protected static void exitFunction() {
+        thread_context.remove();
+    }
+
+    /**
+     * Gets the variable scope of a function.
+     * @param function_id the {@link SymbolTable} symbol of the function id
+     * @return the {@link IdMap} of the function's variables, or null if the function has no scope
+     */
+    protected static IdMap getScope(int function_id) {
+        if(concurrent) {
+            FunctionContext context = thread_context.get();
+            if(context != null && function_id == context.private_function) { return context.private_scope; }
+        }
+        return function_id < function_scope.length ? function_scope[function_id] : null;
+    }
+
+    /**
+     * Sets (or replaces) the variable scope of a function.
+     * @param function_id   the {@link SymbolTable} symbol of the function id
+     * @param scope         the {@link IdMap} of the function's variables
+     */
+    protected static void setScope(int function_id, IdMap scope) {
+        if(function_id >= function_scope.length) {
+            function_scope = Arrays.copyOf(function_scope, Math.max(symbols.size(), function_id + 1));
+        }
+        function_scope[function_id] = scope;
+    }
+
+    /**
+     * Records a call of the static call graph, found by the validation of a function call.
+     * @param caller    the {@link SymbolTable} symbol of the calling function
+     * @param callee    the {@link SymbolTable} symbol of the called function
+     */
+    protected static synchronized void addCall(int caller, int callee) {
+        if(call_edge_count + 2 > call_edges.length) { call_edges = Arrays.copyOf(call_edges, call_edges.length * 2); }
+        call_edges[call_edge_count++] = caller;
+        call_edges[call_edge_count++] = callee;
+    }
+
+    /**
+     * Gets the static call graph of the program, recorded by its validation
+     * (empty for a program read from the cache, which is not validated again).
+     * @return the (caller, callee) symbol pairs of the validated calls, flattened
+     */
+    protected static int[] getCalls() {
+        return Arrays.copyOf(call_edges, call_edge_count);
+    }
+
+    /**
+     * Gets the calls recorded since an earlier point of the validation.
+     * @param first the number of calls recorded at that point ({@link #getCallCount})
+     * @return the (caller, callee) symbol pairs of the calls recorded since, flattened
+     */
+    protected static int[] getCalls(int first) {
+        return Arrays.copyOfRange(call_edges, first * 2, call_edge_count);
+    }
+
+    /** @return the number of calls recorded by the validation so far ({@link #addCall}) */
+    protected static int getCallCount() {
+        return call_edge_count / 2;
+    }
+
+    /**
+     * Writes the state validation left for the execution of the program (the
+     * declared functions and the variable scopes), after the program's tree was
+     * written by the same writer (so the nodes they reference are shared).
+     * @param out the writer of the cached program ({@link jott_interpreter.ProgramCache})
+     * @throws IOException if the stream can not be written
+     */
+    public static void writeState(ProgramWriter out) throws IOException {
+        declared_functions.write(out);
+        int scopes = 0;
+        for(IdMap scope : function_scope) { if(scope != null) { scopes++; } }
+        out.writeInt(scopes);
+        for(int function_id = 0; function_id < function_scope.length; function_id++) {
+            if(function_scope[function_id] == null) { continue; }
+            out.writeSymbol(function_id);
+            function_scope[function_id].write(out);
+        }
+    }
+
+    /**
+     * Reads the state written by {@link #writeState}, replacing the state of the
+     * last program parsed, so the program read before it can be executed without
+     * being validated.
+     * @param in        the reader of the cached program ({@link jott_interpreter.ProgramCache})
+     * @param filename  the name of the source file of the program
+     * @throws IOException if the stream can not be read
+     */
+    public static void readState(ProgramReader in, String filename) throws IOException {
+        final ConstantPool read = constants; // (of the program read before the state)
+        init(symbols);
+        constants = read;
+        Jott_Node.filename = filename;
+        declared_functions = IdMap.read(in);
+        for(int scopes = in.readInt(); scopes > 0; scopes--) {
+            int function_id = in.readSymbol();
+            setScope(function_id, IdMap.read(in));
+        }
+        findShadowedVariables();
     }
 
     /**
@@ -87,6 +722,29 @@ public abstract class Jott_Node implements JottTree{
         this.linenum = line_number;
     }
 
+    /**
+     * Gets the line number of this node in the current Jott code, for error messages.
+     * @return the line number the node was parsed at, moved by {@link #getLineShift}
+     */
+    protected int getLineNum() {
+        return this.linenum + getLineShift();
+    }
+
+    /**
+     * Gets the source text of this node, as written in the Jott file (the
+     * {@link #convertToJott} string is rebuilt from the children, with its
+     * own spacing). The text is a view of the source: no string is built,
+     * whatever the size of the node.
+     * @return the source text of this node, or its {@link #convertToJott} string
+     *         if the node was parsed without source offsets
+     * @implNote    The span of a function reused by an incremental re-parse is
+     *              only moved while the function is validated or executed ({@link #setShift}).
+     */
+    public CharSequence getText() {
+        if(this.source_offset < 0 || source == null) { return this.convertToJott(); }
+        return new SourceSlice(source, this.source_offset + getOffsetShift(), this.source_length);
+    }
+
     @Override
     abstract public String convertToJott(); // Public Docs in {@link JottTree}
 
@@ -96,6 +754,37 @@ public abstract class Jott_Node implements JottTree{
     @Override
     abstract public void execute() throws SemanticError; // Public Docs in {@link JottTree}
 
+    /**
+     * Writes this node for a cached program: its kind and line ({@link ProgramWriter#writeKind}),
+     * then its children and the fields it executes with. Every node class reads
+     * the same fields back with a static {@code read(ProgramReader in, int line)}.
+     * @param out the writer of the cached program
+     * @throws IOException if the stream can not be written
+     */
+    abstract public void write(ProgramWriter out) throws IOException;
+
+    /**
+     * Checks if this node (and its children) can be compiled to bytecode ({@link #compile}).
+     * A program the VM can not execute as the tree walker does is not compiled, and
+     * is executed by the tree walker instead (see {@link BytecodeWriter#compile}).
+     * @return true if the node can be compiled (false for the nodes without bytecode)
+     */
+    public boolean isCompilable() {
+        return false;
+    }
+
+    /**
+     * Compiles this node to bytecode, for the {@link jott_interpreter.BytecodeVM}: a
+     * statement emits the code executing it, an expression the code pushing its
+     * value on the operand stack of its type. Nodes without code of their own
+     * (such as declarations and operators) emit nothing: they are compiled by their parents.
+     * @param out the writer of the compiled program
+     * @implSpec    Only called on a node that can be compiled ({@link #isCompilable}).
+     */
+    public void compile(BytecodeWriter out) {
+        // no code of its own
+    }
+
     /**
      * <h>
      * Retrieves the type of value associated with this node, if applicable.
@@ -120,6 +809,48 @@ public abstract class Jott_Node implements JottTree{
         return null;
     }
 
+    /**
+     * Evaluates this node as an Integer expression: {@link #execute}, then
+     * {@link #getValue}. Nodes that can compute their value without boxing it
+     * override the evaluation methods of their types (selected by validation).
+     * @return the value of this node
+     * @throws SemanticError Runtime Exception (such as a division by zero)
+     */
+    public int evalInt() throws SemanticError {
+        this.execute();
+        return (Integer)this.getValue();
+    }
+
+    /**
+     * Evaluates this node as a Double expression (see {@link #evalInt}).
+     * @return the value of this node
+     * @throws SemanticError Runtime Exception (such as a division by zero)
+     */
+    public double evalDouble() throws SemanticError {
+        this.execute();
+        return (Double)this.getValue();
+    }
+
+    /**
+     * Evaluates this node as a Boolean expression (see {@link #evalInt}).
+     * @return the value of this node
+     * @throws SemanticError Runtime Exception (such as a division by zero)
+     */
+    public boolean evalBoolean() throws SemanticError {
+        this.execute();
+        return (Boolean)this.getValue();
+    }
+
+    /**
+     * Evaluates this node as a String expression (see {@link #evalInt}).
+     * @return the value of this node
+     * @throws SemanticError Runtime Exception (such as a division by zero)
+     */
+    public String evalString() throws SemanticError {
+        this.execute();
+        return (String)this.getValue();
+    }
+
     /**
      * Retrieves the value associated with this node, if applicable.
      * This method is used to fetch the value of a node <i> after </i> it has been executed.
@@ -0,0 +1,197 @@
+package jott_interpreter.nodes;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jott_interpreter.ReturnType;
+import jott_interpreter.nodes.function_nodes.*;
+import jott_interpreter.nodes.grammar_nodes.*;
+import jott_interpreter.nodes.token_nodes.*;
+import provided.Token;
+import provided.TokenType;
+
+/**
+ * <h1>ProgramReader</h1>
+ *
+ * <p>
+ * Reads a parse tree written by {@link ProgramWriter}. Each node class reads
+ * its own fields ({@code read(ProgramReader, int)}), after the reader read its
+ * kind and line number.
+ * </p>
+ */
+public final class ProgramReader {
+
+    private static final ReturnType[] TYPES = ReturnType.values();
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private final DataInputStream in;
+    /** The name of the source file, for the tokens */
+    private final String filename;
+    /** The nodes read (indexed as {@link ProgramWriter} indexed them) */
+    private final ArrayList<Jott_Node> nodes = new ArrayList<>();
+    /** The strings read (by index) */
+    private final ArrayList<String> strings = new ArrayList<>();
+
+    /**
+     * Constructs a reader of parse trees, starting the constants and the symbols
+     * of the program read ({@link Jott_Node#getConstants}, {@link Jott_Node#getSymbols}).
+     * @param in        the stream to read from
+     * @param filename  the name of the source file of the program
+     */
+    public ProgramReader(DataInputStream in, String filename) {
+        this.in = in;
+        this.filename = filename;
+        Jott_Node.resetConstants();
+        Jott_Node.resetSymbols();
+    }
+
+    /**
+     * Reads a node (and its children).
+     * @return the node read, or null
+     * @throws IOException if the stream can not be read
+     */
+    public Jott_Node readNode() throws IOException {
+        final byte kind = this.in.readByte();
+        if(kind == ProgramWriter.NULL) { return null; }
+        if(kind == ProgramWriter.REFERENCE) { return this.nodes.get(this.in.readInt()); }
+
+        final int line = this.in.readInt();
+        final int index = this.nodes.size();
+        this.nodes.add(null); // (indexed before its children, as the writer did)
+        final Jott_Node node;
+        switch(kind) {
+            case ProgramWriter.PROGRAM :            node = program_Node.read(this, line); break;
+            case ProgramWriter.FUNC_DEF :           node = funcDef_Node.read(this, line); break;
+            case ProgramWriter.FUNC_DEF_PARAMS :    node = funcDefParams_Node.read(this, line); break;
+            case ProgramWriter.FUNC_DEF_PARAMS_T :  node = funcDefParams_t_Node.read(this, line); break;
+            case ProgramWriter.FUNC_RETURN :        node = funcReturn_Node.read(this, line); break;
+            case ProgramWriter.FUNC_BODY :          node = funcBody_Node.read(this, line); break;
+            case ProgramWriter.FUNC_CALL :          node = funcCall_Node.read(this, line); break;
+            case ProgramWriter.CUSTOM_FUNC :        node = customFunc_Node.read(this, line); break;
+            case ProgramWriter.CUSTOM_PARAM :       node = customParam_Node.read(this, line); break;
+            case ProgramWriter.BODY :               node = body_Node.read(this, line); break;
+            case ProgramWriter.BODY_STMT :          node = bodyStmt_Node.read(this, line); break;
+            case ProgramWriter.IF_STMT :            node = ifStmt_Node.read(this, line); break;
+            case ProgramWriter.ELSEIF :             node = elseif_Node.read(this, line); break;
+            case ProgramWriter.ELSE :               node = else_Node.read(this, line); break;
+            case ProgramWriter.WHILE_LOOP :         node = whileLoop_Node.read(this, line); break;
+            case ProgramWriter.ASSIGNMENT :         node = assignment_Node.read(this, line); break;
+            case ProgramWriter.VAR_DEC :            node = varDec_Node.read(this, line); break;
+            case ProgramWriter.RETURN_STMT :        node = returnStatement_Node.read(this, line); break;
+            case ProgramWriter.EXPR :               node = expr_Node.read(this, line); break;
+            case ProgramWriter.OPERAND :            node = operand_Node.read(this, line); break;
+            case ProgramWriter.PARAMS :             node = params_Node.read(this, line); break;
+            case ProgramWriter.PARAMS_T :           node = params_t_Node.read(this, line); break;
+            case ProgramWriter.ID :                 node = id_Node.read(this, line); break;
+            case ProgramWriter.NUMBER :             node = number_Node.read(this, line); break;
+            case ProgramWriter.BOOL :               node = bool_Node.read(this, line); break;
+            case ProgramWriter.STRING_LITERAL :     node = stringLiteral_Node.read(this, line); break;
+            case ProgramWriter.TYPE :               node = type_Node.read(this, line); break;
+            case ProgramWriter.MATHOP :             node = mathop_Node.read(this, line); break;
+            case ProgramWriter.RELOP :              node = relop_Node.read(this, line); break;
+            default : throw new IOException("Unknown node kind: " + kind);
+        }
+        this.nodes.set(index, node);
+        return node;
+    }
+
+    /**
+     * Reads a node of a given class.
+     * @param type the class of the node
+     * @return the node read, or null
+     * @throws IOException if the stream can not be read, or the node is not a {@code type}
+     */
+    public <T extends Jott_Node> T readNode(Class<T> type) throws IOException {
+        Jott_Node node = this.readNode();
+        if(node != null && !type.isInstance(node)) {
+            throw new IOException("Expected a " + type.getSimpleName() + ", read a " + node.getClass().getSimpleName());
+        }
+        return type.cast(node);
+    }
+
+    /**
+     * Reads an array of nodes written by {@link ProgramWriter#writeNodes}.
+     * @param nodes an empty array of the class of the nodes
+     * @return the array of the nodes read
+     * @throws IOException if the stream can not be read
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Jott_Node> T[] readNodes(T[] nodes) throws IOException {
+        final int length = this.in.readInt();
+        T[] array = Arrays.copyOf(nodes, length);
+        for(int i = 0; i < length; i++) {
+            array[i] = this.readNode((Class<T>)nodes.getClass().getComponentType());
+        }
+        return array;
+    }
+
+    /**
+     * Reads a string written by {@link ProgramWriter#writeString}.
+     * @return the string read
+     * @throws IOException if the stream can not be read
+     */
+    public String readString() throws IOException {
+        final int index = this.in.readInt();
+        if(index < this.strings.size()) { return this.strings.get(index); }
+        String string = this.in.readUTF();
+        this.strings.add(string);
+        return string;
+    }
+
+    /**
+     * Reads a symbol written by {@link ProgramWriter#writeSymbol}.
+     * @return the symbol, interned in the table of the program read
+     * @throws IOException if the stream can not be read
+     */
+    public int readSymbol() throws IOException {
+        return Jott_Node.symbols.intern(this.readString());
+    }
+
+    /**
+     * Reads a token written by {@link ProgramWriter#writeToken}, as a standalone token.
+     * @return the token read
+     * @throws IOException if the stream can not be read
+     */
+    public Token readToken() throws IOException {
+        String lexeme = this.readString();
+        int line = this.in.readInt();
+        TokenType type = TOKEN_TYPES[this.in.readByte()];
+        return new Token(lexeme, this.filename, line, type);
+    }
+
+    /**
+     * Reads a type written by {@link ProgramWriter#writeType}.
+     * @return the type read, or null
+     * @throws IOException if the stream can not be read
+     */
+    public ReturnType readType() throws IOException {
+        final byte type = this.in.readByte();
+        return type < 0 ? null : TYPES[type];
+    }
+
+    /**
+     * Reads a value written by {@link ProgramWriter#writeValue}.
+     * @return the value read, or null
+     * @throws IOException if the stream can not be read
+     */
+    public Object readValue() throws IOException {
+        switch(this.in.readByte()) {
+            case ProgramWriter.NULL :           return null;
+            case ProgramWriter.VALUE_INT :      return Integer.valueOf(this.in.readInt());
+            case ProgramWriter.VALUE_DOUBLE :   return Double.valueOf(this.in.readDouble());
+            case ProgramWriter.VALUE_BOOLEAN :  return Boolean.valueOf(this.in.readBoolean());
+            case ProgramWriter.VALUE_STRING :   return this.readString();
+            default : throw new IOException("Unknown value type");
+        }
+    }
+
+    public int readInt() throws IOException {
+        return this.in.readInt();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return this.in.readBoolean();
+    }
+}
@@ -0,0 +1,233 @@
+package jott_interpreter.nodes;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+import jott_interpreter.ReturnType;
+import provided.Token;
+
+/**
+ * <h1>ProgramWriter</h1>
+ *
+ * <p>
+ * Writes a validated parse tree as a compact binary stream, read back by
+ * {@link ProgramReader} (for {@link jott_interpreter.ProgramCache}). Each node
+ * writes its kind and the fields it needs to execute ({@link Jott_Node#write}),
+ * children first. A node reached again (a shared node, or a node moved by the
+ * validation) is written as a reference to its index, so the tree read back
+ * shares the same nodes.
+ * </p>
+ *
+ * <p>
+ * Tokens are written as their lexeme, line and type (the keyword and symbol are
+ * found again when they are used). Strings are written once, then by index.
+ * </p>
+ */
+public final class ProgramWriter {
+
+    //* The kind of every node class (the first byte of a node)
+    static final byte NULL = 0;
+    static final byte REFERENCE = 1;
+    public static final byte PROGRAM = 2;
+    public static final byte FUNC_DEF = 3;
+    public static final byte FUNC_DEF_PARAMS = 4;
+    public static final byte FUNC_DEF_PARAMS_T = 5;
+    public static final byte FUNC_RETURN = 6;
+    public static final byte FUNC_BODY = 7;
+    public static final byte FUNC_CALL = 8;
+    public static final byte CUSTOM_FUNC = 9;
+    public static final byte CUSTOM_PARAM = 10;
+    public static final byte BODY = 11;
+    public static final byte BODY_STMT = 12;
+    public static final byte IF_STMT = 13;
+    public static final byte ELSEIF = 14;
+    public static final byte ELSE = 15;
+    public static final byte WHILE_LOOP = 16;
+    public static final byte ASSIGNMENT = 17;
+    public static final byte VAR_DEC = 18;
+    public static final byte RETURN_STMT = 19;
+    public static final byte EXPR = 20;
+    public static final byte OPERAND = 21;
+    public static final byte PARAMS = 22;
+    public static final byte PARAMS_T = 23;
+    public static final byte ID = 24;
+    public static final byte NUMBER = 25;
+    public static final byte BOOL = 26;
+    public static final byte STRING_LITERAL = 27;
+    public static final byte TYPE = 28;
+    public static final byte MATHOP = 29;
+    public static final byte RELOP = 30;
+
+    //* The type of a value (the first byte of a value)
+    static final byte VALUE_DOUBLE = 1;
+    static final byte VALUE_BOOLEAN = 2;
+    static final byte VALUE_STRING = 3;
+    static final byte VALUE_INT = 4;
+
+    private final DataOutputStream out;
+
+    /**
+     * The nodes written, in an open addressing table (linear probing) by identity,
+     * with the index of each node (in the order they were started) in the parallel
+     * array. (Programs have millions of nodes: no boxed indexes.)
+     */
+    private Jott_Node[] nodes = new Jott_Node[1024];
+    private int[] indexes = new int[1024];
+    private int node_count = 0;
+    /** The index of every string written */
+    private final HashMap<String, Integer> strings = new HashMap<>();
+
+    /**
+     * Constructs a writer of parse trees.
+     * @param out the stream to write to
+     */
+    public ProgramWriter(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a node (and its children), or a reference to it if it was already written.
+     * @param node the node to write, or null
+     * @throws IOException if the stream can not be written
+     */
+    public void writeNode(Jott_Node node) throws IOException {
+        if(node == null) {
+            this.out.writeByte(NULL);
+            return;
+        }
+        int slot = this.slotOf(node);
+        if(this.nodes[slot] == node) {
+            this.out.writeByte(REFERENCE);
+            this.out.writeInt(this.indexes[slot]);
+            return;
+        }
+        this.nodes[slot] = node;
+        this.indexes[slot] = this.node_count++;
+        if(this.node_count * 2 > this.nodes.length) { this.grow(); }
+        node.write(this);
+    }
+
+    /**
+     * Finds the slot of a node.
+     * @param node the node
+     * @return the slot of the node, or the empty slot it would be added to
+     */
+    private int slotOf(Jott_Node node) {
+        final int mask = this.nodes.length - 1;
+        int slot = System.identityHashCode(node) & mask; // (already random)
+        while(this.nodes[slot] != null && this.nodes[slot] != node) { slot = (slot + 1) & mask; }
+        return slot;
+    }
+
+    private void grow() {
+        Jott_Node[] oldNodes = this.nodes;
+        int[] oldIndexes = this.indexes;
+        this.nodes = new Jott_Node[oldNodes.length * 2];
+        this.indexes = new int[oldNodes.length * 2];
+        for(int i = 0; i < oldNodes.length; i++) {
+            if(oldNodes[i] == null) { continue; }
+            int slot = this.slotOf(oldNodes[i]);
+            this.nodes[slot] = oldNodes[i];
+            this.indexes[slot] = oldIndexes[i];
+        }
+    }
+
+    /**
+     * Writes an array of nodes (with its length).
+     * @param nodes the nodes to write
+     * @throws IOException if the stream can not be written
+     */
+    public void writeNodes(Jott_Node[] nodes) throws IOException {
+        this.out.writeInt(nodes.length);
+        for(Jott_Node node : nodes) { this.writeNode(node); }
+    }
+
+    /**
+     * Writes the kind of a node, the first field of every node ({@link Jott_Node#write}).
+     * @param kind the kind of the node (such as {@link #EXPR})
+     * @param line the line number of the node
+     * @throws IOException if the stream can not be written
+     */
+    public void writeKind(byte kind, int line) throws IOException {
+        this.out.writeByte(kind);
+        this.out.writeInt(line);
+    }
+
+    /**
+     * Writes a string, or its index if it was already written.
+     * @param string the string to write
+     * @throws IOException if the stream can not be written
+     */
+    public void writeString(String string) throws IOException {
+        Integer index = this.strings.get(string);
+        if(index != null) {
+            this.out.writeInt(index);
+            return;
+        }
+        this.out.writeInt(this.strings.size());
+        this.out.writeUTF(string);
+        this.strings.put(string, this.strings.size());
+    }
+
+    /**
+     * Writes a symbol, by its name (the symbols are numbered again by every
+     * program tokenized, see {@link jott_interpreter.SymbolTable}).
+     * @param symbol the symbol, in the table of the program written ({@link Jott_Node#getSymbols})
+     * @throws IOException if the stream can not be written
+     */
+    public void writeSymbol(int symbol) throws IOException {
+        this.writeString(Jott_Node.symbols.name(symbol));
+    }
+
+    /**
+     * Writes a token (its lexeme, line and type).
+     * @param token the token to write
+     * @throws IOException if the stream can not be written
+     */
+    public void writeToken(Token token) throws IOException {
+        this.writeString(token.getToken());
+        this.out.writeInt(token.getLineNum());
+        this.out.writeByte(token.getTokenType().ordinal());
+    }
+
+    /**
+     * Writes a type, which may be null.
+     * @param type the type to write
+     * @throws IOException if the stream can not be written
+     */
+    public void writeType(ReturnType type) throws IOException {
+        this.out.writeByte(type == null ? -1 : type.ordinal());
+    }
+
+    /**
+     * Writes a value computed before execution (see {@link jott_interpreter.nodes.grammar_nodes.expr_Node}).
+     * @param value an Integer, Double, Boolean or String, or null
+     * @throws IOException if the stream can not be written
+     */
+    public void writeValue(Object value) throws IOException {
+        if(value == null) {
+            this.out.writeByte(NULL);
+        } else if(value instanceof Integer) {
+            this.out.writeByte(VALUE_INT);
+            this.out.writeInt((Integer)value);
+        } else if(value instanceof Double) {
+            this.out.writeByte(VALUE_DOUBLE);
+            this.out.writeDouble((Double)value);
+        } else if(value instanceof Boolean) {
+            this.out.writeByte(VALUE_BOOLEAN);
+            this.out.writeBoolean((Boolean)value);
+        } else {
+            this.out.writeByte(VALUE_STRING);
+            this.writeString((String)value);
+        }
+    }
+
+    public void writeInt(int value) throws IOException {
+        this.out.writeInt(value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        this.out.writeBoolean(value);
+    }
+}
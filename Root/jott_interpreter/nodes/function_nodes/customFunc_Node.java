@@ -1,8 +1,13 @@
 package jott_interpreter.nodes.function_nodes;
 
+import java.io.IOException;
+
 import jott_interpreter.IdMap;
 import jott_interpreter.ReturnType;
+import jott_interpreter.SymbolTable;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 
 /**
  * <h2>customFunc_Node</h2>
@@ -17,8 +22,8 @@ import jott_interpreter.nodes.Jott_Node;
  */
 public class customFunc_Node extends Jott_Node{
     
-    /** The identifier for this function */
-    private final String ID;
+    /** The identifier for this function ({@link SymbolTable} symbol) */
+    private final int ID;
 
     /** The return value of this function */
     private Object value = null;
@@ -31,28 +36,23 @@ public class customFunc_Node extends Jott_Node{
      * @param method The method reference for the function's implementation
      * @param return_type The return type of the function
      */
-    public customFunc_Node(final String id) {
+    public customFunc_Node(final int id) {
         this.ID = id;
         // Adding custom parameters to the scope for each custom function
         // The id for each paramater is meaningless, and simply for differentiating between
         // custom functions with more than 1 input paramater
         IdMap params = new IdMap();
-        switch (this.ID) {
-            case "concat" :
-                params.addDynamicVar("input_b", new customParam_Node(ReturnType.String));
-            case "print" :
-            case "length" :
-                params.addDynamicVar("input_a", new customParam_Node(ReturnType.String));
-                break;
-            default:
-                assert (false); // function must be defined in switch case
+        if (this.ID == SymbolTable.CONCAT) {
+            params.addDynamicVar(SymbolTable.INPUT_B, new customParam_Node(ReturnType.String));
         }
-        Jott_Node.function_scope.put(this.ID, params);
+        assert (this.ID == SymbolTable.PRINT || this.ID == SymbolTable.CONCAT || this.ID == SymbolTable.LENGTH);
+        params.addDynamicVar(SymbolTable.INPUT_A, new customParam_Node(ReturnType.String));
+        Jott_Node.setScope(this.ID, params);
     }
 
     @Override
     public String convertToJott() {
-        return ID;
+        return Jott_Node.symbols.name(ID);
     }
 
     @Override
@@ -62,55 +62,54 @@ public class customFunc_Node extends Jott_Node{
 
     @Override
     public void execute() {
-        switch (this.ID) {
-            case "print" :
-                // Grabs the input of the function, converts to an integer if applicable, prints the input value
-                Jott_Node input = Jott_Node.function_scope.get("print").getNode("input_a");
-                this.value = input.getValue();
-                // Truncating value if it's an Integer (all numbers are doubles for expressions).
-                // This is only needed for print because doubles will always calculate the same as integers
-                // (except for integer division and that is handled in expr_Node).
-                if(input.getType() == ReturnType.Integer) {
-                    this.value = Integer.valueOf( ((Double)(this.value)).intValue() );
-                // Boolean changed to proper Jott types
-                } else if(input.getType() == ReturnType.Boolean) {
-                    this.value = (Boolean)(this.value) ? "True" : "False";
-                }
-                System.out.println(this.value);
-                break;
-            case "concat" :
-                IdMap scope = Jott_Node.function_scope.get("concat");
+        // The inputs are the first slots of the frame of the call
+        if (this.ID == SymbolTable.PRINT) {
+            // The input was converted when it was passed (toPrinted)
+            this.value = Jott_Node.getFrameValue(0);
+            System.out.println(this.value);
+        } else if (this.ID == SymbolTable.CONCAT) {
+            assert (Jott_Node.getFrameValue(0) instanceof String);
+            assert (Jott_Node.getFrameValue(1) instanceof String);
 
-                assert (scope.getNode("input_a").getValue() instanceof String);
-                assert (scope.getNode("input_b").getValue() instanceof String);
+            this.value = 
+                (String)(Jott_Node.getFrameValue(0)) + 
+                (String)(Jott_Node.getFrameValue(1));
+        } else if (this.ID == SymbolTable.LENGTH) {
+            assert (Jott_Node.getFrameValue(0) instanceof String);
+            this.value = Integer.valueOf((
+                (String)(Jott_Node.getFrameValue(0))
+            ).length());
+        } else {
+            assert (false); // function must be defined
+        }
+    }
 
-                this.value = 
-                    (String)(scope.getNode("input_b").getValue()) + 
-                    (String)(scope.getNode("input_a").getValue());
-                break;
-            case "length" :
-                assert (Jott_Node.function_scope.get("length").getNode("input_a").getValue() instanceof String);
-                this.value = Double.valueOf((
-                    (String)(Jott_Node.function_scope.get("length").getNode("input_a").getValue())
-                ).length());
-                break;
-            default:
-                assert (false); // function must be defined in switch case
+    /**
+     * Converts the input of print to the value printed: only print can
+     * typecast its input parameter.
+     * @param input the value of the input
+     * @param type  the type of the input expression
+     * @return the value printed
+     */
+    public static Object toPrinted(Object input, ReturnType type) {
+        // Boolean changed to proper Jott types
+        if(type == ReturnType.Boolean) {
+            return (Boolean)(input) ? "True" : "False";
         }
+        return input;
     }
 
     @Override
     public ReturnType getType() {
-        switch (this.ID) {
-            case "print" :
-                return ReturnType.Void;
-            case "concat" :
-                return ReturnType.String;
-            case "length" :
-                return ReturnType.Integer;
-            default:
-                assert (false); // function must be defined in switch case
-                return ReturnType.Void;
+        if (this.ID == SymbolTable.PRINT) {
+            return ReturnType.Void;
+        } else if (this.ID == SymbolTable.CONCAT) {
+            return ReturnType.String;
+        } else if (this.ID == SymbolTable.LENGTH) {
+            return ReturnType.Integer;
+        } else {
+            assert (false); // function must be defined
+            return ReturnType.Void;
         }
     }
 
@@ -118,4 +117,21 @@ public class customFunc_Node extends Jott_Node{
     public Object getValue() {
         return this.value;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.CUSTOM_FUNC, this.linenum);
+        out.writeSymbol(this.ID);
+    }
+
+    /**
+     * Reads a {@link customFunc_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static customFunc_Node read(ProgramReader in, int line) throws IOException {
+        return new customFunc_Node(in.readSymbol());
+    }
 }
@@ -1,7 +1,11 @@
 package jott_interpreter.nodes.function_nodes;
 
+import java.io.IOException;
+
 import jott_interpreter.ReturnType;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 
 public class customParam_Node extends Jott_Node {
 
@@ -32,4 +36,21 @@ public class customParam_Node extends Jott_Node {
     public ReturnType getType() {
         return this.TYPE;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.CUSTOM_PARAM, this.linenum);
+        out.writeType(this.TYPE);
+    }
+
+    /**
+     * Reads a {@link customParam_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static customParam_Node read(ProgramReader in, int line) throws IOException {
+        return new customParam_Node(in.readType());
+    }
 }
@@ -1,10 +1,12 @@
 package jott_interpreter.nodes.function_nodes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.grammar_nodes.body_Node;
 import jott_interpreter.nodes.grammar_nodes.varDec_Node;
@@ -14,28 +16,41 @@ public class funcBody_Node extends Jott_Node{
 
     private final varDec_Node[] vars;
     private final body_Node body;
+    /** The function calls in the body, in source order ({@link #link}) */
+    private final funcCall_Node[] calls;
 
-    private funcBody_Node(varDec_Node[] variableDeclarations, body_Node body) {
+    private funcBody_Node(varDec_Node[] variableDeclarations, body_Node body, funcCall_Node[] calls) {
         this.vars = variableDeclarations;
         this.body = body;
+        this.calls = calls;
     }
     
-    public static funcBody_Node parseFuncBodyNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
+    public static funcBody_Node parseFuncBodyNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
 
         ArrayList<varDec_Node> tempVars = new ArrayList<>();
 
-        while(  tokens.get(0).getToken().equals("Double")   ||
-                tokens.get(0).getToken().equals("Integer")  ||
-                tokens.get(0).getToken().equals("String")   ||
-                tokens.get(0).getToken().equals("Boolean")  ) {
+        while(tokens.peek().getKeyword().isVariableType()) {
             tempVars.add(varDec_Node.parseVarDecNode(tokens));
-            if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
+            if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
         }
 
-        body_Node body = body_Node.parseBodyNode(tokens);
+        body_Node body;
+        funcCall_Node[] calls;
+        funcCall_Node.startCollecting();
+        try {
+            body = body_Node.parseBodyNode(tokens);
+        } finally {
+            calls = funcCall_Node.stopCollecting();
+        }
+
+        return Jott_Node.span(new funcBody_Node(tempVars.toArray(new varDec_Node[tempVars.size()]), body, calls), tokens, start);
+    }
 
-        return new funcBody_Node(tempVars.toArray(new varDec_Node[tempVars.size()]), body);
+    /** Binds every function call in the body to the function it calls ({@link funcCall_Node#link}) */
+    public void link() {
+        for(funcCall_Node call : this.calls) { call.link(); }
     }
 
     @Override
@@ -76,7 +91,44 @@ public class funcBody_Node extends Jott_Node{
         return this.body.getValue();
     }
 
+    @Override
+    public boolean isCompilable() {
+        return this.body.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        this.body.compile(out); // (var decs have no code)
+    }
+
     public ReturnType[] getPossibleReturn() {
         return this.body.getPossibleReturn();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_BODY, this.linenum);
+        out.writeNodes(this.vars);
+        out.writeNode(this.body);
+    }
+
+    /**
+     * Reads a {@link funcBody_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcBody_Node read(ProgramReader in, int line) throws IOException {
+        varDec_Node[] vars = in.readNodes(new varDec_Node[0]);
+        body_Node body;
+        funcCall_Node[] calls;
+        funcCall_Node.startCollecting();
+        try {
+            body = in.readNode(body_Node.class);
+        } finally {
+            calls = funcCall_Node.stopCollecting();
+        }
+        return new funcBody_Node(vars, body, calls);
+    }
 }
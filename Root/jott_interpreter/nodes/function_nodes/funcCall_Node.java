@@ -1,11 +1,14 @@
 package jott_interpreter.nodes.function_nodes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
-import jott_interpreter.IdMap;
+import jott_interpreter.Bytecode;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SymbolTable;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.grammar_nodes.*;
 import jott_interpreter.nodes.token_nodes.*;
@@ -25,6 +28,20 @@ public class funcCall_Node extends Jott_Node{
     /** The return value of this function */
     private Object value = null;
 
+    /**
+     * The function this call executes, and the size of its frame, bound by the link
+     * step after validation ({@link #link}): a {@link funcDef_Node}, or the
+     * {@link customFunc_Node} of a builtin function. Null until linked.
+     */
+    private Jott_Node target = null;
+    private int frame_size = 0;
+
+    /**
+     * The calls parsed (or read) by this thread in the function body it is
+     * parsing ({@link #startCollecting}), or null
+     */
+    private static final ThreadLocal<ArrayList<funcCall_Node>> collected = new ThreadLocal<>();
+
     /**
      * Private Constructor 
      * (validation of the node done in {@link #parseFunctionCallNode})
@@ -41,7 +58,7 @@ public class funcCall_Node extends Jott_Node{
     /**
      * Static parse method returning an {@link functionCall_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A function call node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -49,30 +66,61 @@ public class funcCall_Node extends Jott_Node{
      *                      parsed is not a {@code TokenType.FC_HEADER}
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static funcCall_Node parseFunctionCallNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.FC_HEADER) { throw new SyntaxError("Token type not FC_HEADER"); }
-        int lineNum = tokens.remove(0).getLineNum();
+    public static funcCall_Node parseFunctionCallNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.FC_HEADER) { throw new SyntaxError("Token type not FC_HEADER"); }
+        int lineNum = tokens.advance().getLineNum();
 
         id_Node tempID = id_Node.parseIdNode(tokens);
 
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid Token: Expected ["); }
-        tokens.remove(0);
+        tokens.expect(TokenType.L_BRACKET, "Invalid Token: Expected [");
 
         params_Node tempParameters = params_Node.parseParamsNode(tokens);
         
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid Token: Expected ]"); }
-        tokens.remove(0);
+        tokens.expect(TokenType.R_BRACKET, "Invalid Token: Expected ]");
+
+        return collect(Jott_Node.span(new funcCall_Node(tempID, tempParameters, lineNum), tokens, start));
+    }
+
+    /**
+     * Collects the calls this thread parses (or reads), until {@link #stopCollecting},
+     * so a function body knows the calls it contains ({@link funcBody_Node#link}).
+     */
+    public static void startCollecting() {
+        collected.set(new ArrayList<>());
+    }
 
-        return new funcCall_Node(tempID, tempParameters, lineNum);
+    /**
+     * Stops collecting the calls this thread parses ({@link #startCollecting}).
+     * @return the calls collected, in the order they were parsed
+     */
+    public static funcCall_Node[] stopCollecting() {
+        ArrayList<funcCall_Node> calls = collected.get();
+        collected.remove();
+        return calls == null ? new funcCall_Node[0] : calls.toArray(new funcCall_Node[calls.size()]);
+    }
+
+    private static funcCall_Node collect(funcCall_Node call) {
+        ArrayList<funcCall_Node> calls = collected.get();
+        if(calls != null) { calls.add(call); }
+        return call;
+    }
+
+    /**
+     * Binds this call to the function it calls, once the program is validated: the
+     * function declared with its id, and the size of the function's frame.
+     * A call then executes its function directly, without looking up its id.
+     */
+    public void link() {
+        final int function_id = this.id.getSymbol();
+        this.target = Jott_Node.declared_functions.getNode(function_id);
+        this.frame_size = Jott_Node.getScope(function_id).getFrameSize();
     }
 
     @Override
@@ -85,12 +133,13 @@ public class funcCall_Node extends Jott_Node{
         boolean isValid = this.id.validateTree();
 
         // Checking if function has been defined/declared
-        if(Jott_Node.declared_functions.contains(this.id.toString())) {
-            Jott_Node.current_function_ID.push(this.id.toString()); // Popped by params validation
+        if(Jott_Node.isFunction(this.id.getSymbol())) {
+            Jott_Node.addCall(Jott_Node.callStack().peek(), this.id.getSymbol());
+            Jott_Node.callStack().push(this.id.getSymbol()); // Popped by params validation
             isValid = this.params.validateTree();
         // Else: function hasn't been defined/declared
         } else {
-            new SemanticError("Function id: {" + this.id.toString() + "} is not defined/declared", super.linenum)
+            new SemanticError("Function id: {" + this.id.getText() + "} is not defined/declared", this.getLineNum())
                 .print(Jott_Node.filename);
             isValid = false;
         }
@@ -100,16 +149,48 @@ public class funcCall_Node extends Jott_Node{
 
     @Override
     public void execute() throws SemanticError {
-        Jott_Node.current_function_ID.push(this.id.toString()); 
-        IdMap id_map_copy = Jott_Node.function_scope.get(Jott_Node.current_function_ID.peek()).copy();
-        
-        this.params.execute();
+        final int function_id = this.id.getSymbol();
+        if(this.target == null) { this.link(); } // (executed without the link step of its program)
+
+        // The frame of the call, after the caller's: the arguments are evaluated in
+        // the caller's frame (their own calls push their frames after this one)
+        final int frame = Jott_Node.pushFrame(this.frame_size);
+        this.params.execute(function_id, frame);
+
+        Jott_Node.callStack().push(function_id);
+        final int caller_frame = Jott_Node.enterFrame(frame);
+        try {
+            this.target.execute();
+            this.value = this.target.getValue();
+        } finally {
+            // Returning to the caller's frame, pop call stack
+            Jott_Node.popFrame(caller_frame, frame);
+            Jott_Node.callStack().pop();
+        }
+    }
 
-        this.id.execute(); // id only executes functions
-        this.value = this.id.getValue();
+    @Override
+    public boolean isCompilable() {
+        final int function_id = this.id.getSymbol();
+        // a builtin, or a declared function (compiled on its own, see BytecodeWriter#compile)
+        return this.params.isCompilable(function_id) && (function_id == SymbolTable.PRINT
+            || function_id == SymbolTable.CONCAT || function_id == SymbolTable.LENGTH
+            || Jott_Node.declared_functions.getNode(function_id) instanceof funcDef_Node);
+    }
 
-        // Reverting any changes made to variables, pop call stack
-        Jott_Node.function_scope.put(Jott_Node.current_function_ID.pop(), id_map_copy);
+    @Override
+    public void compile(BytecodeWriter out) {
+        final int function_id = this.id.getSymbol();
+        this.params.compile(out, function_id);
+        if(function_id == SymbolTable.PRINT) {
+            return; // (printed by the params)
+        } else if(function_id == SymbolTable.CONCAT) {
+            out.emit(Bytecode.CONCAT);
+        } else if(function_id == SymbolTable.LENGTH) {
+            out.emit(Bytecode.LENGTH);
+        } else {
+            out.emitCall(function_id);
+        }
     }
 
     @Override
@@ -121,4 +202,23 @@ public class funcCall_Node extends Jott_Node{
     public Object getValue() {
         return this.value;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_CALL, this.linenum);
+        out.writeNode(this.id);
+        out.writeNode(this.params);
+    }
+
+    /**
+     * Reads a {@link funcCall_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcCall_Node read(ProgramReader in, int line) throws IOException {
+        id_Node id = in.readNode(id_Node.class);
+        return collect(new funcCall_Node(id, in.readNode(params_Node.class), line));
+    }
 }
@@ -1,10 +1,12 @@
 package jott_interpreter.nodes.function_nodes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.token_nodes.*;
 import provided.*;
@@ -54,29 +56,27 @@ public class funcDefParams_Node extends Jott_Node {
     /**
      * Static parse method returning an {@link funcDefParams_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A function definition node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Token}: token being 
      *                      parsed is not a valid token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static funcDefParams_Node parseFuncDefParamsNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() == TokenType.ID_KEYWORD) {
-            int lineNum = tokens.get(0).getLineNum();
+    public static funcDefParams_Node parseFuncDefParamsNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() == TokenType.ID_KEYWORD) {
+            int lineNum = tokens.peek().getLineNum();
 
             // Get the ID
             id_Node id = id_Node.parseIdNode(tokens);
             
-            if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
-            if (tokens.get(0).getTokenType() != TokenType.COLON) {throw new SyntaxError("Invalid Token: expected ':'");}
-            else { tokens.remove(0); }
+            tokens.expect(TokenType.COLON, "Invalid Token: expected ':'");
             
             // Get the type
             type_Node type = type_Node.parseTypeNode(tokens);
@@ -84,19 +84,24 @@ public class funcDefParams_Node extends Jott_Node {
             // Get the rest of the parameters
             ArrayList<funcDefParams_t_Node> func_def_params_t = new ArrayList<funcDefParams_t_Node>();
 
-            if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
+            if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
 
             // Loop through the rest of the parameters
-            while(tokens.get(0).getTokenType() == TokenType.COMMA) {
+            while(tokens.peek().getTokenType() == TokenType.COMMA) {
                 func_def_params_t.add(funcDefParams_t_Node.parseFuncDefParamsTNode(tokens));
-                if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
+                if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
             }
 
             // Return the new node
-            return new funcDefParams_Node(id, type, func_def_params_t, lineNum);
+            return Jott_Node.span(new funcDefParams_Node(id, type, func_def_params_t, lineNum), tokens, start);
         }
 
-        return new funcDefParams_Node(); // no params in func def
+        return Jott_Node.span(new funcDefParams_Node(), tokens, start); // no params in func def
+    }
+
+    /** @return true if the function has no parameters (checked without converting the node) */
+    public boolean isEmpty() {
+        return this.id == null;
     }
 
     /**
@@ -129,14 +134,14 @@ public class funcDefParams_Node extends Jott_Node {
         boolean isValid = this.type.validateTree() && this.id.validateTree();
 
         // checking if variable already declared in function scope
-        if(Jott_Node.function_scope.get(current_function_ID.peek()).contains(this.id.toString())) {
-            new SemanticError("Function already contains variable id: " + this.id.toString(), super.linenum)
+        if(Jott_Node.getScope(callStack().peek()).contains(this.id.getSymbol())) {
+            new SemanticError("Function already contains variable id: " + this.id.getText(), this.getLineNum())
                 .print(Jott_Node.filename);
             isValid = false;
         } else {
             // Adding variable to current function scope
-            Jott_Node.function_scope.get(current_function_ID.peek())
-                .addDynamicVar(this.id.toString(), this);
+            Jott_Node.getScope(callStack().peek())
+                .addDynamicVar(this.id.getSymbol(), this);
         }
 
         for(funcDefParams_t_Node param_t : func_def_params_t) {
@@ -155,4 +160,30 @@ public class funcDefParams_Node extends Jott_Node {
     public ReturnType getType() {
         return this.type.getType();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_DEF_PARAMS, this.linenum);
+        out.writeBoolean(this.id != null);
+        if(this.id == null) { return; } // no parameters
+        out.writeNode(this.id);
+        out.writeNode(this.type);
+        out.writeNodes(this.func_def_params_t.toArray(new funcDefParams_t_Node[0]));
+    }
+
+    /**
+     * Reads a {@link funcDefParams_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcDefParams_Node read(ProgramReader in, int line) throws IOException {
+        if(!in.readBoolean()) { return new funcDefParams_Node(); }
+        id_Node id = in.readNode(id_Node.class);
+        type_Node type = in.readNode(type_Node.class);
+        ArrayList<funcDefParams_t_Node> params_t = new ArrayList<>();
+        for(funcDefParams_t_Node param_t : in.readNodes(new funcDefParams_t_Node[0])) { params_t.add(param_t); }
+        return new funcDefParams_Node(id, type, params_t, line);
+    }
 }
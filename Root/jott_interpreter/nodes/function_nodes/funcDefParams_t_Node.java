@@ -1,10 +1,11 @@
 package jott_interpreter.nodes.function_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.token_nodes.id_Node;
 import jott_interpreter.nodes.token_nodes.type_Node;
@@ -35,34 +36,32 @@ public class funcDefParams_t_Node extends Jott_Node {
     /**
      * Static parse method returning an {@link funcDefParams_t_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A function definition parameter node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Function Definition}: token being 
      *                      parsed is not a valid function definition
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static funcDefParams_t_Node parseFuncDefParamsTNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
+    public static funcDefParams_t_Node parseFuncDefParamsTNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)){ throw new SyntaxError("Unexpected EOF"); }
         // params_t should only be parsed when a param is followed by a comma
-        assert (tokens.get(0).getTokenType() == TokenType.COMMA); 
-        int lineNum = tokens.remove(0).getLineNum(); 
+        assert (tokens.peek().getTokenType() == TokenType.COMMA); 
+        int lineNum = tokens.advance().getLineNum(); 
         
         id_Node id = id_Node.parseIdNode(tokens);
 
         // Check for colon
-        if (tokens.size() < 1){ throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.COLON) { throw new SyntaxError("Invalid Token: expected ':'"); }
-        tokens.remove(0);
+        tokens.expect(TokenType.COLON, "Invalid Token: expected ':'");
         
         type_Node type = type_Node.parseTypeNode(tokens);
 
-        return new funcDefParams_t_Node(id, type, lineNum);
+        return Jott_Node.span(new funcDefParams_t_Node(id, type, lineNum), tokens, start);
     }
 
     /**
@@ -79,14 +78,14 @@ public class funcDefParams_t_Node extends Jott_Node {
         boolean isValid = this.type.validateTree() && this.id.validateTree();
 
         // checking if variable already declared in function scope
-        if(Jott_Node.function_scope.get(current_function_ID.peek()).contains(this.id.toString())) {
-            new SemanticError("Function already contains variable id: " + this.id.toString(), super.linenum)
+        if(Jott_Node.getScope(callStack().peek()).contains(this.id.getSymbol())) {
+            new SemanticError("Function already contains variable id: " + this.id.getText(), this.getLineNum())
                 .print(Jott_Node.filename);
             isValid = false;
         } else {
             // Adding variable to current function scope
-            Jott_Node.function_scope.get(current_function_ID.peek())
-                .addDynamicVar(this.id.toString(), this);
+            Jott_Node.getScope(callStack().peek())
+                .addDynamicVar(this.id.getSymbol(), this);
         }
 
         return isValid;
@@ -101,4 +100,23 @@ public class funcDefParams_t_Node extends Jott_Node {
     public ReturnType getType() {
         return this.type.getType();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_DEF_PARAMS_T, this.linenum);
+        out.writeNode(this.id);
+        out.writeNode(this.type);
+    }
+
+    /**
+     * Reads a {@link funcDefParams_t_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcDefParams_t_Node read(ProgramReader in, int line) throws IOException {
+        id_Node id = in.readNode(id_Node.class);
+        return new funcDefParams_t_Node(id, in.readNode(type_Node.class), line);
+    }
 }
@@ -1,10 +1,17 @@
 package jott_interpreter.nodes.function_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
+
 import jott_interpreter.IdMap;
+import jott_interpreter.Keyword;
+import jott_interpreter.ListTokenStream;
+import jott_interpreter.PackedTokenBuffer;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SymbolTable;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.token_nodes.id_Node;
 import provided.*;
@@ -24,9 +31,51 @@ public class funcDef_Node extends Jott_Node {
     // Colon (Doesn't need to be stored just checked if it's there)
     private final funcReturn_Node function_return;
     // OpenBrace (Doesn't need to be stored just checked if it's there)
-    private final funcBody_Node f_body;
+    /** The body of the function, or null until a lazily parsed function's body is parsed ({@link #parseBody}) */
+    private funcBody_Node f_body;
     // CloseBrace (Doesn't need to be stored just checked if it's there)
 
+    /** The tokens of a lazily parsed function ({@link #parseFunctionSignature}), or null */
+    private PackedTokenBuffer body_tokens = null;
+    /** The index of the first token of the body (after the '{'), and of the '}' matching the '{' */
+    private int body_start = -1;
+    private int body_end = -1;
+
+    /** True if the validation declared this function (false for a duplicate function) */
+    private boolean declared = false;
+    /** True if the validation found a valid id, return type and parameters ({@link #validateSignature}) */
+    private boolean valid_signature = false;
+
+    /** The number of lines this function moved since it was parsed (by edits before it) */
+    private int moved_lines = 0;
+    /** The number of characters this function moved since it was parsed (by edits before it) */
+    private int moved_offset = 0;
+
+    /** What the last validation of this function found, for {@link #revalidate} (null if there is none) */
+    private ValidationSummary summary = null;
+    /** True if the last {@link #revalidate} reused the last validation, instead of validating the function */
+    private boolean reused_validation = false;
+
+    /**
+     * The result of validating a function, and what it depends on: the functions it
+     * looked up, with the signatures it saw. The validation of an unchanged function
+     * is the same as long as those functions have the same signatures.
+     */
+    private static final class ValidationSummary {
+        /** The ids looked up as functions (the function's own id first), and the signature each had (null if undeclared) */
+        int[] dependencies;
+        String[] signatures;
+        /** The functions the validated calls called */
+        int[] callees;
+        /** A copy of the scope of the function after it was validated (null if it was not declared) */
+        IdMap scope;
+        /** The errors the validation printed, and the file and line shift they were printed with */
+        String errors;
+        String filename;
+        int moved_lines;
+        boolean valid;
+    }
+
     /**
      * Private Constructor 
      * (validation of the node done in {@link #parseFunctionDefNode})
@@ -54,64 +103,158 @@ public class funcDef_Node extends Jott_Node {
     /**
      * Static parse method returning a {@link functionDef_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A function definition node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Function Definition}: token being 
      *                      parsed is not a valid function definition
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static funcDef_Node parseFunctionDefNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+    public static funcDef_Node parseFunctionDefNode(final TokenStream tokens) throws SyntaxError {
+        return parseFunctionDefNode(tokens, -1);
+    }
+
+    /**
+     * Static parse method returning a {@link funcDef_Node} for the parse tree,
+     * without its body: the signature is parsed, and the tokens up to the '}'
+     * matching the '{' of the body are skipped. The body is parsed when it is
+     * needed ({@link #parseBody}).
+     *
+     * @param tokens    the stream of tokens being parsed into a parse tree
+     * @param end       the index after the '}' matching the first '{' from the
+     *                  current token (found by brace matching)
+     * @return  A function definition node with a validated signature
+     * @throws SyntaxError  the syntax errors of the signature ({@link #parseFunctionDefNode})
+     * @implNote    The input {@code TokenStream} will be advanced to {@code end}.
+     */
+    public static funcDef_Node parseFunctionSignature(final ListTokenStream tokens, int end) throws SyntaxError {
+        return parseFunctionDefNode(tokens, end);
+    }
+
+    /** Parses a function definition, or its signature if {@code end} is the index after its body */
+    private static funcDef_Node parseFunctionDefNode(final TokenStream tokens, int end) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
         // Check the type is Id/Keyword and is Def, if not throw an error
-        if (!(tokens.get(0).getTokenType() == TokenType.ID_KEYWORD && tokens.get(0).getToken().equals("Def"))) {
+        if (!(tokens.peek().getKeyword() == Keyword.DEF)) {
             throw new SyntaxError("Invalid Function Definition: Missing Keyword 'Def'");
         }
 
-        int line_number = tokens.get(0).getLineNum();
-        tokens.remove(0); // Removing the Def token from the list (Not storing)
+        int line_number = tokens.peek().getLineNum();
+        tokens.advance(); // Consuming the Def token (Not storing)
         
         // Saving the ID node
         id_Node id = id_Node.parseIdNode(tokens);
 
         // Check the type is OpenBracket and if not throw an error
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.L_BRACKET) {throw new SyntaxError("Invalid Function Definition: Missing a '[' Token");}
-        tokens.remove(0); // Removing the OpenBracket token from the list (Not storing)
+        tokens.expect(TokenType.L_BRACKET, "Invalid Function Definition: Missing a '[' Token"); // Consuming the OpenBracket token (Not storing)
 
         // Saving the func_def_params node
         funcDefParams_Node func_def_params = funcDefParams_Node.parseFuncDefParamsNode(tokens);
 
         // Check the type is CloseBracket and if not throw an error
-        if (tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.R_BRACKET) {throw new SyntaxError("Invalid Function Definition: Missing a ']' Token");}
-        tokens.remove(0); // Removing the CloseBracket token from the list (Not storing)
+        if (!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        if (tokens.peek().getTokenType() != TokenType.R_BRACKET) {throw new SyntaxError("Invalid Function Definition: Missing a ']' Token");}
+        tokens.advance(); // Consuming the CloseBracket token (Not storing)
         // Check the type is Colon and if not throw an error
-        if (tokens.get(0).getTokenType() != TokenType.COLON) {throw new SyntaxError("Invalid Function Definition: Missing a ':' Token");}
-        tokens.remove(0); // Removing the Colon token from the list (Not storing)
+        if (tokens.peek().getTokenType() != TokenType.COLON) {throw new SyntaxError("Invalid Function Definition: Missing a ':' Token");}
+        tokens.advance(); // Consuming the Colon token (Not storing)
 
         // Saving the function_return node
         funcReturn_Node function_return = funcReturn_Node.parseFunctionReturnNode(tokens);
 
         // Check the type is OpenBrace and if not throw an error
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.L_BRACE) {throw new SyntaxError("Invalid Function Definition: Missing a '{' Token");}
-        tokens.remove(0); // Removing the OpenBrace token
+        tokens.expect(TokenType.L_BRACE, "Invalid Function Definition: Missing a '{' Token"); // Consuming the OpenBrace token
+
+        // Lazy: skipping the body (parsed by parseBody)
+        if(end >= 0) {
+            funcDef_Node function = new funcDef_Node(line_number, id, func_def_params, function_return, null);
+            function.body_tokens = tokens.getBuffer();
+            function.body_start = tokens.position();
+            function.body_end = end - 1;
+            ((ListTokenStream)tokens).seek(end);
+            return Jott_Node.span(function, tokens, start);
+        }
     
+        // Saving the f_body node
+        funcBody_Node f_body = parseFunctionBody(tokens);
+        
+        return Jott_Node.span(new funcDef_Node(line_number, id, func_def_params, function_return, f_body), tokens, start);
+    }
+
+    /** Parses a body, from the token after its '{' to its '}' (consumed) */
+    private static funcBody_Node parseFunctionBody(final TokenStream tokens) throws SyntaxError {
         // Saving the f_body node
         funcBody_Node f_body = funcBody_Node.parseFuncBodyNode(tokens);
 
         // Check the type is CloseBrace and if not throw an error
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.R_BRACE) {throw new SyntaxError("Invalid Function Definition: Missing a '}' Token");}
-        tokens.remove(0); // Removing the CloseBrace token
-        
-        return new funcDef_Node(line_number, id, func_def_params, function_return, f_body);
+        tokens.expect(TokenType.R_BRACE, "Invalid Function Definition: Missing a '}' Token"); // Consuming the CloseBrace token
+        return f_body;
+    }
+
+    /**
+     * Parses the body of a function parsed by {@link #parseFunctionSignature},
+     * if it was not parsed yet. A syntax error is printed as {@link provided.JottParser}
+     * prints it, at the same token as parsing the whole program.
+     * @return false if the body has a syntax error
+     */
+    public boolean parseBody() {
+        if(this.f_body != null) { return true; }
+        ListTokenStream tokens = new ListTokenStream(this.body_tokens);
+        tokens.seek(this.body_start);
+        try {
+            funcBody_Node body = parseFunctionBody(tokens);
+            // The body ended before the matching '}': the rest is parsed as the next function
+            if(tokens.position() != this.body_end + 1) {
+                throw new SyntaxError("Invalid Function Definition: Missing Keyword 'Def'");
+            }
+            this.f_body = body;
+            return true;
+        } catch(SyntaxError E) {
+            E.print(Jott_Node.filename, tokens.isEmpty() ? 0 : tokens.peek().getLineNum());
+            return false;
+        }
+    }
+
+    /**
+     * Binds the function calls in the body to the functions they call
+     * ({@link funcCall_Node#link}), once the program is validated.
+     */
+    public void link() {
+        if(this.f_body != null) { this.f_body.link(); } // (a lazily parsed body is parsed if reachable)
+    }
+
+    /** @return the {@link SymbolTable} symbol of the function's id */
+    public int getSymbol() {
+        return this.id.getSymbol();
+    }
+
+    /** @return true if the body of the function was parsed (see {@link #parseFunctionSignature}) */
+    public boolean isBodyParsed() {
+        return this.f_body != null;
+    }
+
+    /**
+     * Finds the functions called in the body of a function parsed by
+     * {@link #parseFunctionSignature}, from the tokens of the body (so without
+     * parsing it): the id after each {@code ::}.
+     * @return the symbols of the called functions (in order, with repeats)
+     */
+    public int[] getCalledFunctions() {
+        if(this.body_tokens == null) { return new int[0]; }
+        int[] calls = new int[8];
+        int count = 0;
+        for(int i = this.body_start; i < this.body_end - 1; i++) {
+            if(this.body_tokens.getTokenType(i) != TokenType.FC_HEADER) { continue; }
+            if(this.body_tokens.getTokenType(i + 1) != TokenType.ID_KEYWORD) { continue; }
+            if(count == calls.length) { calls = Arrays.copyOf(calls, count * 2); }
+            calls[count++] = this.body_tokens.getSymbol(i + 1);
+        }
+        return Arrays.copyOf(calls, count);
     }
 
     /**
@@ -121,6 +264,7 @@ public class funcDef_Node extends Jott_Node {
      */
     @Override
     public String convertToJott() {
+        if(!this.parseBody()) { return this.getText().toString(); } // (syntax error printed)
         StringBuilder jott = new StringBuilder();
         jott.append( "Def " )
             .append( this.id.convertToJott() )
@@ -130,70 +274,233 @@ public class funcDef_Node extends Jott_Node {
         return jott.toString();
     }
 
+    /**
+     * Moves this function (and every node in it) by a number of lines, for an
+     * incremental re-parse that reuses the function after an edit.
+     * @param lines the number of lines added (or removed, if negative) before the function
+     */
+    public void moveLines(int lines) {
+        this.moved_lines += lines;
+    }
+
+    /**
+     * Moves the source span of this function (and every node in it) by a number
+     * of characters, like {@link #moveLines}.
+     * @param chars the number of characters added (or removed, if negative) before the function
+     */
+    public void moveOffset(int chars) {
+        this.moved_offset += chars;
+    }
+
     @Override
     public boolean validateTree() {
-        boolean isValid = this.id.validateTree() && this.function_return.validateTree();
+        boolean isValid = this.validateSignature();
+        if(!this.declared) { return false; } // Ignores rest of checks in case of duplicate function
+        isValid &= this.validateBody();
+        isValid &= this.validateMain();
+        return isValid;
+    }
 
-        // Duplicate function check
-        if(declared_functions.contains(this.id.toString())) {
-            new SemanticError("Duplicate Function: {" + this.id.toString() + "}", super.linenum)
-                .print(Jott_Node.filename);
-            return false; // Ignores rest of checks in case of duplicate function
+    /**
+     * Validates the function again, after an incremental re-parse ({@link
+     * jott_interpreter.nodes.grammar_nodes.program_Node#reparseProgramNode}): if this
+     * function was validated before, and every function its validation looked up
+     * (through {@link Jott_Node#isFunction}, such as the callees of its calls, whose
+     * parameters were checked against its arguments) has the same signature as then,
+     * the function is declared and its errors are printed again as they were,
+     * without validating it. Otherwise it is validated like {@link #validateTree},
+     * recording what it depends on. The functions must be re-validated in source
+     * order, like they are validated.
+     * @return true if the function is valid
+     */
+    public boolean revalidate() {
+        final int symbol = this.id.getSymbol();
+        final ValidationSummary last = this.summary;
+        this.reused_validation = last != null && this.isUnchanged(last);
+        if(this.reused_validation) {
+            if(last.scope != null) {
+                Jott_Node.declareFunction(symbol, this);
+                Jott_Node.setScope(symbol, last.scope.copy());
+            }
+            for(int callee : last.callees) { Jott_Node.addCall(symbol, callee); }
+            System.err.print(last.errors);
+            return last.valid;
+        }
+
+        this.summary = null;
+        ValidationSummary current = new ValidationSummary();
+        final int first_call = Jott_Node.getCallCount();
+        Jott_Node.startRecordingLookups();
+        SemanticError.startCollecting();
+        int[] lookups;
+        try {
+            current.valid = this.validateTree();
+        } finally {
+            lookups = Jott_Node.stopRecordingLookups();
+            current.errors = SemanticError.stopCollecting();
+            System.err.print(current.errors);
+        }
+
+        // The function's own id: the function declared before it with the same id (a duplicate), if any
+        current.dependencies = new int[lookups.length + 1];
+        current.signatures = new String[lookups.length + 1];
+        current.dependencies[0] = symbol;
+        current.signatures[0] = this.declared ? null : Jott_Node.getSignature(symbol);
+        int count = 1;
+        for(int lookup : lookups) {
+            if(lookup == symbol) { continue; } // (a recursive call: this function)
+            current.dependencies[count] = lookup;
+            current.signatures[count++] = Jott_Node.getSignature(lookup);
+        }
+        current.dependencies = Arrays.copyOf(current.dependencies, count);
+        current.signatures = Arrays.copyOf(current.signatures, count);
+
+        int[] calls = Jott_Node.getCalls(first_call);
+        current.callees = new int[calls.length / 2];
+        for(int i = 0; i < current.callees.length; i++) { current.callees[i] = calls[2 * i + 1]; }
+        current.scope = this.declared ? Jott_Node.getScope(symbol).copy() : null;
+        current.filename = Jott_Node.filename;
+        current.moved_lines = this.moved_lines;
+        this.summary = current;
+        return current.valid;
+    }
+
+    /** @return true if the last {@link #revalidate} printed the errors of the previous validation, without validating */
+    public boolean isValidationReused() {
+        return this.reused_validation;
+    }
+
+    /** @return true if validating this function again would give the same result as its last validation */
+    private boolean isUnchanged(ValidationSummary last) {
+        if(!last.errors.isEmpty() && (last.moved_lines != this.moved_lines || !last.filename.equals(Jott_Node.filename))) {
+            return false; // the errors would be printed with other lines
         }
-            
-        // Adding this function to function id map
-        Jott_Node.declared_functions.add(this.id.toString(), this);
-        Jott_Node.current_function_ID.push(this.id.toString());
-        Jott_Node.function_scope.put(current_function_ID.peek(), new IdMap());
+        for(int i = 0; i < last.dependencies.length; i++) {
+            String signature = Jott_Node.getSignature(last.dependencies[i]);
+            if(signature == null ? last.signatures[i] != null : !signature.equals(last.signatures[i])) { return false; }
+        }
+        return true;
+    }
 
-        isValid &= this.func_def_params.validateTree();
+    /**
+     * Validates the signature of the function, and declares it: the first phase of
+     * {@link #validateTree}, which validates the functions that call it (with
+     * {@link #validateBody}, possibly concurrently, see
+     * {@link jott_interpreter.nodes.grammar_nodes.program_Node#validateTree}).
+     * @return true if the id, return type and parameters are valid (and the function is not a duplicate)
+     */
+    public boolean validateSignature() {
+        final int outer_shift = Jott_Node.getLineShift();
+        final int outer_offset = Jott_Node.getOffsetShift();
+        Jott_Node.setShift(this.moved_lines, this.moved_offset);
+        try {
+            boolean isValid = this.id.validateTree() && this.function_return.validateTree();
+
+            // Duplicate function check
+            this.declared = false;
+            if(declared_functions.contains(this.id.getSymbol())) {
+                new SemanticError("Duplicate Function: {" + this.id.getText() + "}", this.getLineNum())
+                    .print(Jott_Node.filename);
+                return false;
+            }
 
+            // Adding this function to function id map
+            Jott_Node.declareFunction(this.id.getSymbol(), this);
+            this.declared = true;
+            Jott_Node.callStack().push(this.id.getSymbol());
+            Jott_Node.setScope(this.id.getSymbol(), new IdMap());
+
+            isValid &= this.func_def_params.validateTree();
+            this.valid_signature = isValid;
+
+            // Forced current func pop off the call stack
+            Jott_Node.callStack().pop();
+            return isValid;
+        } finally {
+            Jott_Node.setShift(outer_shift, outer_offset);
+        }
+    }
+
+    /**
+     * Validates the body of the function (after {@link #validateSignature}), and its
+     * returns against the return type: the second phase of {@link #validateTree}.
+     * @return true if the body is valid, or was not validated (a duplicate function,
+     *         invalid parameters, or a lazily parsed function not reachable from main)
+     */
+    public boolean validateBody() {
         // Checking for valid parameters before validating body (in case of undefined parameters)
-        if(isValid) { 
-            isValid &= this.f_body.validateTree();
+        // (a lazily parsed function not reachable from main has no body: only its signature is validated)
+        if(!this.declared || !this.valid_signature || this.f_body == null) { return true; }
+
+        final int outer_shift = Jott_Node.getLineShift();
+        final int outer_offset = Jott_Node.getOffsetShift();
+        Jott_Node.setShift(this.moved_lines, this.moved_offset);
+        Jott_Node.callStack().push(this.id.getSymbol());
+        try {
+            boolean isValid = this.f_body.validateTree();
             // Function body return validation
             if(f_body.getType() != function_return.getType()) {
-                new SemanticError("Function Returns: '" + f_body.getType() + "', Expected: '" + function_return.getType() + "'", super.linenum)
+                new SemanticError("Function Returns: '" + f_body.getType() + "', Expected: '" + function_return.getType() + "'", this.getLineNum())
                     .print(Jott_Node.filename);
                 isValid = false;
             } else { 
                 // Checking any possible returns (in if stmts) to validate against function return type
                 for (ReturnType possibleReturn : f_body.getPossibleReturn()) {
                     if(possibleReturn != ReturnType.Void && possibleReturn != function_return.getType()) {
-                        new SemanticError("Function Can Return: '" + possibleReturn + "', Expected: '" + function_return.getType() + "'", super.linenum)
+                        new SemanticError("Function Can Return: '" + possibleReturn + "', Expected: '" + function_return.getType() + "'", this.getLineNum())
                             .print(Jott_Node.filename);
                         isValid = false;
                     }
                 }
             }
+            return isValid;
+        } finally {
+            Jott_Node.callStack().pop();
+            Jott_Node.setShift(outer_shift, outer_offset);
         }
+    }
 
-        // Main function checks
-        if(this.id.toString().equals("main")) {
+    /**
+     * Validates the signature of main (no parameters, Void return), the last checks of {@link #validateTree}.
+     * @return true if the function is not main, or a valid main
+     */
+    public boolean validateMain() {
+        if(!this.declared || this.id.getSymbol() != SymbolTable.MAIN) { return true; }
+
+        final int outer_shift = Jott_Node.getLineShift();
+        final int outer_offset = Jott_Node.getOffsetShift();
+        Jott_Node.setShift(this.moved_lines, this.moved_offset);
+        try {
+            boolean isValid = true;
             // Parameter check (main has no params)
-            if(!func_def_params.toString().equals("")) {
-                new SemanticError("Invalid {main} definition: main expects no parameters", super.linenum)
+            if(!func_def_params.isEmpty()) {
+                new SemanticError("Invalid {main} definition: main expects no parameters", this.getLineNum())
                     .print(Jott_Node.filename);
                 isValid = false;
             }
 
             // Return check (main must return Void)
             if(function_return.getType() != ReturnType.Void) {
-                new SemanticError("Invalid {main} return type: '" + function_return.getType() + "', expected: 'Void'", super.linenum)
+                new SemanticError("Invalid {main} return type: '" + function_return.getType() + "', expected: 'Void'", this.getLineNum())
                     .print(Jott_Node.filename);
                 isValid = false;
             }
+            return isValid;
+        } finally {
+            Jott_Node.setShift(outer_shift, outer_offset);
         }
-
-        // Forced current func pop off the call stack
-        Jott_Node.current_function_ID.pop();
-
-        return isValid;
     }
 
     @Override
     public void execute() throws SemanticError {
-        this.f_body.execute();
+        final int outer_shift = Jott_Node.getLineShift();
+        final int outer_offset = Jott_Node.getOffsetShift();
+        Jott_Node.setShift(this.moved_lines, this.moved_offset);
+        try {
+            this.f_body.execute();
+        } finally {
+            Jott_Node.setShift(outer_shift, outer_offset);
+        }
     }
 
     @Override
@@ -205,4 +512,56 @@ public class funcDef_Node extends Jott_Node {
     public Object getValue() {
         return this.f_body.getValue();
     }
+
+    @Override
+    public boolean isCompilable() {
+        if(this.f_body == null) { return false; } // (not parsed)
+        Jott_Node.callStack().push(this.id.getSymbol()); // (for the types of the variables)
+        try {
+            return this.f_body.isCompilable();
+        } finally {
+            Jott_Node.callStack().pop();
+        }
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        final int outer_shift = Jott_Node.getLineShift();
+        final int outer_offset = Jott_Node.getOffsetShift();
+        Jott_Node.setShift(this.moved_lines, this.moved_offset); // (for the lines of the runtime errors)
+        Jott_Node.callStack().push(this.id.getSymbol()); // (for the types of the variables)
+        try {
+            this.f_body.compile(out);
+        } finally {
+            Jott_Node.callStack().pop();
+            Jott_Node.setShift(outer_shift, outer_offset);
+        }
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_DEF, this.linenum);
+        out.writeNode(this.id);
+        out.writeNode(this.func_def_params);
+        out.writeNode(this.function_return);
+        out.writeNode(this.f_body);
+        out.writeInt(this.moved_lines);
+    }
+
+    /**
+     * Reads a {@link funcDef_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcDef_Node read(ProgramReader in, int line) throws IOException {
+        id_Node id = in.readNode(id_Node.class);
+        funcDefParams_Node func_def_params = in.readNode(funcDefParams_Node.class);
+        funcReturn_Node function_return = in.readNode(funcReturn_Node.class);
+        funcBody_Node f_body = in.readNode(funcBody_Node.class);
+        funcDef_Node function = new funcDef_Node(line, id, func_def_params, function_return, f_body);
+        function.moved_lines = in.readInt(); // (the source text is not cached: no moved_offset)
+        return function;
+    }
 }
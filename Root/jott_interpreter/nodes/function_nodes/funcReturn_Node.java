@@ -1,9 +1,11 @@
 package jott_interpreter.nodes.function_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.token_nodes.type_Node;
 import provided.*;
@@ -20,21 +22,22 @@ public class funcReturn_Node extends Jott_Node{
         this.type = type;
     }
 
-    public static funcReturn_Node parseFunctionReturnNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) {
+    public static funcReturn_Node parseFunctionReturnNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) {
             throw new SyntaxError("Unexpected EOF");
         }
-        if (tokens.get(0).getTokenType() != TokenType.ID_KEYWORD) {
+        if (tokens.peek().getTokenType() != TokenType.ID_KEYWORD) {
             throw new SyntaxError("Unexpected token type, expected ID_KEYWORD");
         }
-        if (!Character.isUpperCase(tokens.get(0).getToken().charAt(0))) {
+        if (tokens.peek().getKeyword() == Keyword.NONE) {
             throw new SyntaxError("Token is ID, expected Keyword");
         }
-        if (tokens.get(0).getToken().equals("Void")) {
-            tokens.remove(0);
-            return new funcReturn_Node();
+        if (tokens.peek().getKeyword() == Keyword.VOID) {
+            tokens.advance();
+            return Jott_Node.span(new funcReturn_Node(), tokens, start);
         } else {
-            return new funcReturn_Node(type_Node.parseTypeNode(tokens));
+            return Jott_Node.span(new funcReturn_Node(type_Node.parseTypeNode(tokens)), tokens, start);
         }
     }
 
@@ -62,4 +65,22 @@ public class funcReturn_Node extends Jott_Node{
         return this.type == null ? 
             ReturnType.Void : this.type.getType();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.FUNC_RETURN, this.linenum);
+        out.writeNode(this.type);
+    }
+
+    /**
+     * Reads a {@link funcReturn_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static funcReturn_Node read(ProgramReader in, int line) throws IOException {
+        type_Node type = in.readNode(type_Node.class);
+        return type == null ? new funcReturn_Node() : new funcReturn_Node(type);
+    }
 }
@@ -0,0 +1,293 @@
+package jott_interpreter.nodes.grammar_nodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import jott_interpreter.Keyword;
+import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
+import jott_interpreter.nodes.*;
+import provided.*;
+
+/**
+ * <h1>BlockStack</h1>
+ *
+ * <p>
+ * Parses, validates and converts nested blocks ({@code If}, {@code Elseif},
+ * {@code Else} and {@code While} bodies) with an explicit stack instead of the
+ * Java call stack, so the nesting depth of a Jott program is only limited by
+ * the heap. A body nested {@code n} deep used to take {@code 3n} to {@code 4n}
+ * Java frames ({@link body_Node} -> {@link bodyStmt_Node} -> {@link ifStmt_Node}
+ * -> {@link body_Node}), which overflowed the stack for machine generated code.
+ * </p>
+ *
+ * <p>
+ * The grammar, the nodes built and the (syntax and semantic) errors are the
+ * same as the recursive methods of each node, which are still used for
+ * everything inside a statement (expressions, function calls, ...).
+ * </p>
+ *
+ * @see {@link body_Node#parseBodyNode}
+ */
+final class BlockStack {
+
+    private BlockStack() {}
+
+    /**
+     * A node containing nested blocks, validated and converted by a {@link BlockStack}.
+     * The node's own {@code validateTree} and {@code convertToJott} just run the stack.
+     */
+    interface Block {
+        /**
+         * Adds the Jott string of this node to the conversion stack, as the
+         * strings and nodes it is made of (last part first).
+         * @param parts the stack of string parts and nodes still to convert
+         */
+        void pushJott(ArrayDeque<Object> parts);
+
+        /**
+         * Runs the validation of this node up to the next child node to validate.
+         * The result of validating the child is in {@code frame.result} the next
+         * time this method is called for the same frame.
+         * @param frame the validation state of this node
+         * @return the child node to validate next, or null if done ({@code frame.valid} is the result)
+         */
+        Jott_Node validateStep(Frame frame);
+    }
+
+    /** The validation state of a {@link Block} */
+    static final class Frame {
+        final Block node;
+        /** The step of the validation (node specific, starts at 0) */
+        int step = 0;
+        /** The index of the current child (node specific) */
+        int index = 0;
+        /** The validation result so far */
+        boolean valid = true;
+        /** The result of validating the last returned child */
+        boolean result;
+        /** Node specific flag */
+        boolean flag = false;
+
+        Frame(Block node) {
+            this.node = node;
+        }
+    }
+
+    //* ------------------------------------------------------------------ *//
+    //* Conversion                                                         *//
+    //* ------------------------------------------------------------------ *//
+
+    /**
+     * Converts a block node into a Jott string (see {@link Jott_Node#convertToJott}).
+     * @param root the node to convert
+     * @return the Jott string representation of the node
+     */
+    static String convertToJott(Block root) {
+        StringBuilder str = new StringBuilder();
+        ArrayDeque<Object> parts = new ArrayDeque<>();
+        root.pushJott(parts);
+        while(!parts.isEmpty()) {
+            Object part = parts.pop();
+            if(part instanceof String) { str.append((String)part); }
+            else if(part instanceof Block) { ((Block)part).pushJott(parts); }
+            else { str.append(((Jott_Node)part).convertToJott()); }
+        }
+        return str.toString();
+    }
+
+    //* ------------------------------------------------------------------ *//
+    //* Validation                                                         *//
+    //* ------------------------------------------------------------------ *//
+
+    /**
+     * Validates a block node (see {@link Jott_Node#validateTree}).
+     * @param root the node to validate
+     * @return true if the node is semantically valid
+     */
+    static boolean validateTree(Block root) {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(root));
+        boolean result = true;
+        while(!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            Jott_Node child = frame.node.validateStep(frame);
+            if(child == null) {
+                stack.pop();
+                result = frame.valid;
+                if(!stack.isEmpty()) { stack.peek().result = result; }
+            } else if(child instanceof Block) {
+                stack.push(new Frame((Block)child));
+            } else {
+                frame.result = child.validateTree();
+            }
+        }
+        return result;
+    }
+
+    //* ------------------------------------------------------------------ *//
+    //* Parsing                                                            *//
+    //* ------------------------------------------------------------------ *//
+
+    //* What an open body is the body of
+    private static final int ROOT = 0;
+    private static final int IF = 1;
+    private static final int ELSEIF = 2;
+    private static final int ELSE = 3;
+    private static final int WHILE = 4;
+
+    /** An if statement being parsed (its elseif and else bodies are parsed one after another) */
+    private static final class OpenIf {
+        /** The position of the If keyword in the token stream */
+        final int start;
+        final int line;
+        final expr_Node expr;
+        body_Node body;
+        final ArrayList<elseif_Node> elseifs = new ArrayList<>();
+
+        OpenIf(int start, int line, expr_Node expr) {
+            this.start = start;
+            this.line = line;
+            this.expr = expr;
+        }
+    }
+
+    /** A body being parsed, and the statement it is the body of */
+    private static final class OpenBody {
+        final int kind;
+        /** The body containing the statement this body belongs to (null for {@link #ROOT}) */
+        final OpenBody parent;
+        /** The position (in the token stream) and line of the first token of the body */
+        final int start;
+        final int line;
+        final ArrayList<bodyStmt_Node> stmts = new ArrayList<>();
+
+        /** The position of the If, Elseif, Else or While keyword */
+        final int stmt_start;
+        /** The line of the If, Elseif or While keyword */
+        final int stmt_line;
+        /** The condition of the If, Elseif or While */
+        final expr_Node expr;
+        /** The if statement of an If, Elseif or Else body */
+        final OpenIf chain;
+
+        /**
+         * Opens a body, right after its '{'.
+         * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
+         */
+        OpenBody(TokenStream tokens, int kind, OpenBody parent,
+                int stmt_start, int stmt_line, expr_Node expr, OpenIf chain) throws SyntaxError {
+            if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+            this.kind = kind;
+            this.parent = parent;
+            this.start = tokens.position();
+            this.line = tokens.peek().getLineNum();
+            this.stmt_start = stmt_start;
+            this.stmt_line = stmt_line;
+            this.expr = expr;
+            this.chain = chain;
+        }
+
+        body_Node close(TokenStream tokens, returnStatement_Node returnStmt) {
+            body_Node body = new body_Node(this.stmts.toArray(new bodyStmt_Node[this.stmts.size()]), returnStmt, this.line);
+            return Jott_Node.span(body, tokens, this.start);
+        }
+
+        /** Adds a parsed statement to the body */
+        void add(TokenStream tokens, bodyStmt_Node stmt) throws SyntaxError {
+            this.stmts.add(stmt);
+            if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        }
+    }
+
+    /**
+     * Parses a body (see {@link body_Node#parseBodyNode}), parsing the bodies of
+     * the if statements and while loops in it without recursion.
+     * @param tokens the stream of tokens being parsed into a parse tree
+     * @return the body node
+     * @throws SyntaxError the first syntax error in the body (same as the recursive parser)
+     */
+    static body_Node parseBody(final TokenStream tokens) throws SyntaxError {
+        OpenBody open = new OpenBody(tokens, ROOT, null, 0, 0, null, null);
+
+        while(true) {
+            //* Statements of the innermost open body, until its end or a nested body
+            body_Node body = null;
+            while(body == null) {
+                if(tokens.peek().getTokenType() == TokenType.R_BRACE) {
+                    body = open.close(tokens, returnStatement_Node.parseReturnStatementNode(tokens));
+                    break;
+                }
+                returnStatement_Node returnStmt = returnStatement_Node.parseReturnStatementNode(tokens);
+                if(!returnStmt.isVoid()) {
+                    body = open.close(tokens, returnStmt);
+                    break;
+                }
+
+                Keyword keyword = tokens.peek().getKeyword(); // NONE for a function call
+                int start = tokens.position();
+                int line = tokens.peek().getLineNum();
+                if(keyword == Keyword.IF) {
+                    expr_Node expr = ifStmt_Node.parseHead(tokens);
+                    open = new OpenBody(tokens, IF, open, start, line, expr, new OpenIf(start, line, expr));
+                } else if(keyword == Keyword.WHILE) {
+                    expr_Node expr = whileLoop_Node.parseHead(tokens);
+                    open = new OpenBody(tokens, WHILE, open, start, line, expr, null);
+                } else {
+                    open.add(tokens, bodyStmt_Node.parseBodyStmtNode(tokens));
+                }
+            }
+
+            //* The body is done: finishing the statement(s) it ends
+            OpenBody done = open;
+            open = done.parent;
+            switch(done.kind) {
+                case ROOT :
+                    return body;
+                case WHILE :
+                    whileLoop_Node.parseClose(tokens);
+                    whileLoop_Node loop = Jott_Node.span(new whileLoop_Node(done.expr, body, done.stmt_line), tokens, done.stmt_start);
+                    open.add(tokens, Jott_Node.span(new bodyStmt_Node(loop, false, false), tokens, done.stmt_start));
+                    continue;
+                case IF :
+                    ifStmt_Node.parseClose(tokens);
+                    done.chain.body = body;
+                    break;
+                case ELSEIF :
+                    elseif_Node.parseClose(tokens);
+                    done.chain.elseifs.add(Jott_Node.span(new elseif_Node(done.expr, body, done.stmt_line), tokens, done.stmt_start));
+                    break;
+                default : // ELSE
+                    else_Node.parseClose(tokens);
+                    open.add(tokens, finishIf(tokens, done.chain, Jott_Node.span(new else_Node(body), tokens, done.stmt_start)));
+                    continue;
+            }
+
+            //* After an If or Elseif body: the next Elseif, the Else, or the end of the if statement
+            OpenIf chain = done.chain;
+            if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+            int start = tokens.position();
+            if(tokens.peek().getKeyword() == Keyword.ELSEIF) {
+                int line = tokens.peek().getLineNum();
+                expr_Node expr = elseif_Node.parseHead(tokens);
+                open = new OpenBody(tokens, ELSEIF, open, start, line, expr, chain);
+            } else if(else_Node.parseHead(tokens)) {
+                open = new OpenBody(tokens, ELSE, open, start, 0, null, chain);
+            } else {
+                open.add(tokens, finishIf(tokens, chain, Jott_Node.span(new else_Node(null), tokens, start)));
+            }
+        }
+    }
+
+    private static bodyStmt_Node finishIf(TokenStream tokens, OpenIf chain, else_Node elseNode) {
+        ifStmt_Node ifStmt = new ifStmt_Node(
+            chain.expr,
+            chain.body,
+            chain.elseifs.toArray(new elseif_Node[chain.elseifs.size()]),
+            elseNode,
+            chain.line
+        );
+        Jott_Node.span(ifStmt, tokens, chain.start);
+        return Jott_Node.span(new bodyStmt_Node(ifStmt, false, true), tokens, chain.start);
+    }
+}
@@ -1,9 +1,10 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.token_nodes.*;
 import provided.*;
@@ -36,7 +37,7 @@ public class assignment_Node extends Jott_Node {
     /**
      * Static parse method returning an {@link assignment_Node} for the parse tree.
      * 
-     * @param Tokens -  the list of tokens being parsed into a parse tree
+     * @param Tokens -  the stream of tokens being parsed into a parse tree
      * @return  An assignment node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -44,33 +45,29 @@ public class assignment_Node extends Jott_Node {
      *                      parsed is not an assignment operator
      * @throws SyntaxError  {@code Invalid Token: Expected ;}: token being 
      *                      parsed is not a semicolon
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static assignment_Node parseAssignmentNode(ArrayList<Token> tokens) throws SyntaxError {
-        int lineNum = tokens.get(0).getLineNum();
+    public static assignment_Node parseAssignmentNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        int lineNum = tokens.peek().getLineNum();
 
         // Check for ID
         id_Node tempID = id_Node.parseIdNode(tokens);
         
         // Check for assignment operator. If it's not '=' then error
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.ASSIGN) { throw new SyntaxError("Invalid Token: Expected '='"); }
-        tokens.remove(0);
+        tokens.expect(TokenType.ASSIGN, "Invalid Token: Expected '='");
 
         // Check for expression
         expr_Node tempExpr = expr_Node.parseExprNode(tokens);
 
         // Check for semicolon. If it's not ';' then error
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.SEMICOLON) { throw new SyntaxError("Invalid Token: Expected ';'"); }
-        tokens.remove(0);
+        tokens.expect(TokenType.SEMICOLON, "Invalid Token: Expected ';'");
 
         // Return the assignment node
-        return new assignment_Node(tempID, tempExpr, lineNum);
+        return Jott_Node.span(new assignment_Node(tempID, tempExpr, lineNum), tokens, start);
     }
 
     /**
@@ -92,20 +89,22 @@ public class assignment_Node extends Jott_Node {
         boolean isValid = id.validateTree() && expr.validateTree();
 
         // Id must be defined in scope
-        if(!Jott_Node.function_scope.get(current_function_ID.peek()).contains(this.id.toString())) {
-            new SemanticError("Variable id: {" + this.id.toString() + "} not declared.", super.linenum)
+        if(!Jott_Node.getScope(callStack().peek()).contains(this.id.getSymbol())) {
+            new SemanticError("Variable id: {" + this.id.getText() + "} not declared.", this.getLineNum())
                 .print(Jott_Node.filename);
             return false;
         } 
 
         // Defining variable as expression
-        Jott_Node.function_scope.get(current_function_ID.peek())
-            .define_var(this.id.toString());
+        Jott_Node.getScope(callStack().peek())
+            .define_var(this.id.getSymbol());
+        this.id.resolveFrameSlot(Jott_Node.getScope(callStack().peek()).getFrameSlot(this.id.getSymbol()),
+            Jott_Node.getScope(callStack().peek()).getReturnType(this.id.getSymbol()));
         if(!isValid) { return false; } // forced early function exit (bad expression)
 
         // Expression type must match id type
         if(id.getType() != expr.getType()) {
-            new SemanticError("Expression return does not match id type for assignment: " + this.id.toString(), super.linenum)
+            new SemanticError("Expression return does not match id type for assignment: " + this.id.getText(), this.getLineNum())
                 .print(Jott_Node.filename);
             return false;
         }
@@ -115,8 +114,37 @@ public class assignment_Node extends Jott_Node {
 
     @Override
     public void execute() throws SemanticError {
-        this.expr.execute();
-        Jott_Node.function_scope.get(current_function_ID.peek())
-            .assign_var(this.id.toString(), this.expr);
+        // (the value, as the expression is executed again by a recursive call)
+        Jott_Node.evalInto(Jott_Node.currentFrame(), this.id.getFrameSlot(), this.id.getFrameType(), this.expr);
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return this.id.getFrameSlot() >= 0 && this.expr.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        this.expr.compile(out);
+        out.emitStore(this.id.getFrameType(), this.id.getFrameSlot());
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.ASSIGNMENT, this.linenum);
+        out.writeNode(this.id);
+        out.writeNode(this.expr);
+    }
+
+    /**
+     * Reads a {@link assignment_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static assignment_Node read(ProgramReader in, int line) throws IOException {
+        id_Node id = in.readNode(id_Node.class);
+        return new assignment_Node(id, in.readNode(expr_Node.class), line);
     }
 }
@@ -1,10 +1,12 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.ArrayDeque;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.function_nodes.*;
 import provided.*;
@@ -23,7 +25,7 @@ import provided.*;
  *  The logic for determining node type is built into the 
  *  {@link #parseBodyStmtNode} function.
  */
-public class bodyStmt_Node extends Jott_Node {
+public class bodyStmt_Node extends Jott_Node implements BlockStack.Block {
 
     /** Abstracted {@code Jott_Node} representation of the body statement. */
     private final Jott_Node statement;
@@ -31,11 +33,11 @@ public class bodyStmt_Node extends Jott_Node {
     private final boolean isIfStmt;
 
     /**
-     * Private Constructor 
-     * (validation of the node done in {@link #parseBodyStmtNode})
+     * Package Constructor 
+     * (validation of the node done in {@link #parseBodyStmtNode} and {@link BlockStack})
      * @param body_statement - an abstract {@link Jott_Node} decided by the parse grammar
      */
-    private bodyStmt_Node(
+    bodyStmt_Node(
         Jott_Node body_statement, 
         boolean contains_semicolon, 
         boolean if_statement
@@ -48,20 +50,20 @@ public class bodyStmt_Node extends Jott_Node {
     /**
      * Static parse method returning an {@link bodyStmt_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A statement built and validated according to the 
      *          parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static bodyStmt_Node parseBodyStmtNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+    public static bodyStmt_Node parseBodyStmtNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
 
         // Initial token validation and evaluation
 
@@ -70,39 +72,54 @@ public class bodyStmt_Node extends Jott_Node {
         boolean ifStmt = false;
 
         // < func_call >
-        if(tokens.get(0).getTokenType() == TokenType.FC_HEADER) {
+        if(tokens.peek().getTokenType() == TokenType.FC_HEADER) {
             tempStmt = funcCall_Node.parseFunctionCallNode(tokens);
 
             // Semicolon check - just after a func_call
-            if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-            if(tokens.get(0).getTokenType() != TokenType.SEMICOLON) { throw new SyntaxError("Invalid Token: Expected \";\""); }
-            tokens.remove(0);
+            tokens.expect(TokenType.SEMICOLON, "Invalid Token: Expected \";\"");
             containsSemicolon = true;
         } else {
-            // < if_stmt >
-            if(tokens.get(0).getToken().equals("If")) {
-                ifStmt = true;
-                tempStmt = ifStmt_Node.parseIfStmtNode(tokens);
-            // < while_loop >
-            } else if(tokens.get(0).getToken().equals("While")) {
-                tempStmt = whileLoop_Node.parseWhileLoopNode(tokens);
-            // < assignment >
-            } else {
-                tempStmt = assignment_Node.parseAssignmentNode(tokens);
+            switch(tokens.peek().getKeyword()) {
+                // < if_stmt >
+                case IF :
+                    ifStmt = true;
+                    tempStmt = ifStmt_Node.parseIfStmtNode(tokens);
+                    break;
+                // < while_loop >
+                case WHILE :
+                    tempStmt = whileLoop_Node.parseWhileLoopNode(tokens);
+                    break;
+                // < assignment >
+                default :
+                    tempStmt = assignment_Node.parseAssignmentNode(tokens);
+                    break;
             }
         }
 
-        return new bodyStmt_Node(tempStmt, containsSemicolon, ifStmt);
+        return Jott_Node.span(new bodyStmt_Node(tempStmt, containsSemicolon, ifStmt), tokens, start);
     }
 
     @Override
     public String convertToJott() {
-        return statement.convertToJott() + (this.hasSemicolon ? ";" : "");
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        if(this.hasSemicolon) { parts.push(";"); }
+        parts.push(this.statement);
     }
 
     @Override
     public boolean validateTree() {
-        return statement.validateTree();
+        return BlockStack.validateTree(this);
+    }
+
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        if(frame.step++ == 0) { return this.statement; }
+        frame.valid = frame.result;
+        return null;
     }
 
     @Override
@@ -122,7 +139,40 @@ public class bodyStmt_Node extends Jott_Node {
         else { return null; }
     }
 
+    @Override
+    public boolean isCompilable() {
+        return this.statement.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        this.statement.compile(out);
+        // The value of a function call statement is not used
+        if(this.hasSemicolon) { out.emitPop(this.statement.getType()); }
+    }
+
     public ReturnType getPossibleReturn() {
         return isIfStmt ? ((ifStmt_Node)(statement)).getPossibleReturn() : ReturnType.Void;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.BODY_STMT, this.linenum);
+        out.writeNode(this.statement);
+        out.writeBoolean(this.hasSemicolon);
+        out.writeBoolean(this.isIfStmt);
+    }
+
+    /**
+     * Reads a {@link bodyStmt_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static bodyStmt_Node read(ProgramReader in, int line) throws IOException {
+        Jott_Node statement = in.readNode();
+        boolean hasSemicolon = in.readBoolean();
+        return new bodyStmt_Node(statement, hasSemicolon, in.readBoolean());
+    }
 }
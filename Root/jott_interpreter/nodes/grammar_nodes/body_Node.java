@@ -1,10 +1,13 @@
 package jott_interpreter.nodes.grammar_nodes;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -12,7 +15,7 @@ import provided.*;
  * The body of some function expressed as a node, which has been validated 
  * according to the parse tree's grammar.
  */
-public class body_Node extends Jott_Node{
+public class body_Node extends Jott_Node implements BlockStack.Block {
 
     /** an array of {@link bodyStmt_Node} nodes */
     private final bodyStmt_Node[] stmts;
@@ -22,12 +25,12 @@ public class body_Node extends Jott_Node{
     private Object value = null;
 
     /**
-     * Private Constructor 
-     * (validation of the node done in {@link #parseBodyNode})
+     * Package Constructor 
+     * (validation of the node done in {@link #parseBodyNode} and {@link BlockStack})
      * @param statements        - an array of body statement nodes
      * @param returnStatement   - the return statement for the body
      */
-    private body_Node(
+    body_Node(
             bodyStmt_Node[] statements, 
             returnStatement_Node returnStatement, 
             int line_number
@@ -40,77 +43,95 @@ public class body_Node extends Jott_Node{
     /**
      * Static parse method returning an {@link assignment_Node} for the parse tree.
      * 
-     * @param Tokens -  the list of tokens being parsed into a parse tree
+     * @param Tokens -  the stream of tokens being parsed into a parse tree
      * @return  A body node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static body_Node parseBodyNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-
-        int lineNum = tokens.get(0).getLineNum();
-        ArrayList<bodyStmt_Node> stmt = new ArrayList<>();
-        returnStatement_Node tempReturn = null;
-        
-        // checks for either a '}' or a return and otherwise parses a body statement
-        while(tokens.get(0).getTokenType() != TokenType.R_BRACE) {
-            if((tempReturn = returnStatement_Node.parseReturnStatementNode(tokens)).isVoid()) {
-                stmt.add(bodyStmt_Node.parseBodyStmtNode(tokens));
-                if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-            } else { break; }
-        }
-
-        // empty body check -> void return
-        if(tempReturn == null) {
-            tempReturn = returnStatement_Node.parseReturnStatementNode(tokens);
-            assert tempReturn.isVoid();
-        }
-
-        return new body_Node(stmt.toArray(new bodyStmt_Node[stmt.size()]), tempReturn, lineNum);
+    public static body_Node parseBodyNode(final TokenStream tokens) throws SyntaxError {
+        // checks for either a '}' or a return and otherwise parses a body statement,
+        // parsing nested bodies with an explicit stack (no recursion)
+        return BlockStack.parseBody(tokens);
     }
 
     @Override
     public String convertToJott() {
-        StringBuilder str = new StringBuilder();
-        for(bodyStmt_Node stmt : stmts) { str.append(stmt.convertToJott()); }
-        return str.append(returnStmt.convertToJott()).toString();
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        int count = this.stmts.length;
+        Jott_Node last = this.returnStmt;
+        // a validated body moves its returning last statement into the return statement
+        if(count > 0 && this.stmts[count - 1] == null) {
+            count--;
+            last = this.returnStmt.getExpression();
+        }
+        parts.push(last);
+        for(int i = count - 1; i >= 0; i--) { parts.push(this.stmts[i]); }
     }
     
     @Override
     public boolean validateTree() {
-        boolean valid = true;
-        boolean early_exit = false;
-
-        for (bodyStmt_Node bodyStmt : this.stmts) {
-            if(early_exit) {
-                new SemanticError("Body with unreachable code", super.linenum)
-                    .print(Jott_Node.filename);
-                return false;
-            }
-            valid &= bodyStmt.validateTree();
-            if(bodyStmt.getType() != ReturnType.Void) {
-                if(returnStmt.isVoid()) {
-                    returnStmt.SetExpression(bodyStmt);
-                    early_exit = true;
-                } else {
-                    new SemanticError("Body with unreachable return statement", super.linenum)
-                        .print(Jott_Node.filename);
-                    valid = false;
-                }
+        return BlockStack.validateTree(this);
+    }
+
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        // frame.index: the current statement, frame.flag: early exit (a statement returns)
+        while(true) {
+            switch(frame.step) {
+                case 0 : // before the statement at frame.index
+                    while(frame.index < this.stmts.length && this.stmts[frame.index] == null) {
+                        frame.index++; // removed by a previous validation (now the return stmt)
+                    }
+                    if(frame.index < this.stmts.length) {
+                        if(frame.flag) {
+                            new SemanticError("Body with unreachable code", this.getLineNum())
+                                .print(Jott_Node.filename);
+                            frame.valid = false;
+                            return null;
+                        }
+                        frame.step = 1;
+                        return this.stmts[frame.index];
+                    }
+
+                    // Validating return stmt if return stmt has not been validated already.
+                    // Otherwise, removing duplicate (return) expressions from tree.
+                    if(frame.flag) {
+                        this.stmts[this.stmts.length-1] = null;
+                        return null;
+                    }
+                    if(this.returnStmt.isVoid()) { return null; }
+                    frame.step = 2;
+                    return this.returnStmt.getExpression();
+
+                case 1 : // after the statement at frame.index
+                    bodyStmt_Node bodyStmt = this.stmts[frame.index++];
+                    frame.valid &= frame.result;
+                    if(bodyStmt.getType() != ReturnType.Void) {
+                        if(returnStmt.isVoid()) {
+                            returnStmt.SetExpression(bodyStmt);
+                            frame.flag = true;
+                        } else {
+                            new SemanticError("Body with unreachable return statement", this.getLineNum())
+                                .print(Jott_Node.filename);
+                            frame.valid = false;
+                        }
+                    }
+                    frame.step = 0;
+                    continue;
+
+                default : // after the return statement
+                    frame.valid &= frame.result;
+                    return null;
             }
         }
-
-        // Validating return stmt if return stmt has not been validated already.
-        // Otherwise, removing duplicate (return) expressions from tree.
-        if(!early_exit) { valid &= returnStmt.validateTree(); }
-        else { this.stmts[this.stmts.length-1] = null; } 
-
-        return valid;
     }
 
     @Override
@@ -136,6 +157,22 @@ public class body_Node extends Jott_Node{
         return this.value;
     }
 
+    @Override
+    public boolean isCompilable() {
+        for(bodyStmt_Node stmt : this.stmts) {
+            if(stmt != null && !stmt.isCompilable()) { return false; }
+        }
+        return this.returnStmt.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        for(bodyStmt_Node stmt : this.stmts) {
+            if(stmt != null) { stmt.compile(out); }
+        }
+        this.returnStmt.compile(out);
+    }
+
     public ReturnType[] getPossibleReturn() {
         ArrayList<ReturnType> types = new ArrayList<>();
         for(int i = 0; i < this.stmts.length; i++) {
@@ -143,4 +180,23 @@ public class body_Node extends Jott_Node{
         }
         return types.toArray(new ReturnType[types.size()]);
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.BODY, this.linenum);
+        out.writeNodes(this.stmts); // (validation may have removed statements: null)
+        out.writeNode(this.returnStmt);
+    }
+
+    /**
+     * Reads a {@link body_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static body_Node read(ProgramReader in, int line) throws IOException {
+        bodyStmt_Node[] stmts = in.readNodes(new bodyStmt_Node[0]);
+        return new body_Node(stmts, in.readNode(returnStatement_Node.class), line);
+    }
 }
@@ -1,10 +1,13 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.ArrayDeque;
 
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -12,45 +15,65 @@ import provided.*;
   * A function that represents an else node in the parse tree.
     * parse tree grammar: Else { < body > }
   */
-public class else_Node extends Jott_Node{
+public class else_Node extends Jott_Node implements BlockStack.Block {
 
     private final body_Node body;
 
     private Object value = null;
 
     /**
-     * Private Constructor
-     * (validation of the node done in {@link #parseElseNode})
-     * @param body a body node
+     * Package Constructor
+     * (validation of the node done in {@link #parseElseNode} and {@link BlockStack})
+     * @param body a body node (null for no else)
      */
-    private else_Node(body_Node body){
+    else_Node(body_Node body){
         this.body = body;
     }
 
     /**
     * 
-    * @param tokens -  the list of tokens being parsed into a parse tree
+    * @param tokens -  the stream of tokens being parsed into a parse tree
     * @return An else node which has been validated in accordance
     * @throws SyntaxError {@code Unexpected EOF}: no token to parse
     */
-    public static else_Node parseElseNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() > 2) {
-            if(tokens.get(0).getToken().equals("Else")) {
-                tokens.remove(0);
-                if(tokens.get(0).getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
-                tokens.remove(0);
+    public static else_Node parseElseNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (parseHead(tokens)) {
+            body_Node body = body_Node.parseBodyNode(tokens);
 
-                body_Node body = body_Node.parseBodyNode(tokens);
+            parseClose(tokens);
 
-                if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-                if(tokens.get(0).getTokenType() != TokenType.R_BRACE) { throw new SyntaxError("Invalid token: expected '}'"); }
-                tokens.remove(0);
+            return Jott_Node.span(new else_Node(body), tokens, start);
+        }
+
+        return Jott_Node.span(new else_Node(null), tokens, start);
+    }
 
-                return new else_Node(body);
+    /**
+     * Parses the head of an else ({@code Else {}), if there is one.
+     * @param tokens -  the stream of tokens being parsed into a parse tree
+     * @return true if an else was parsed, false if the next token is not an else
+     * @throws SyntaxError {@code Invalid Token}: token being parsed is not the expected token
+     */
+    static boolean parseHead(final TokenStream tokens) throws SyntaxError {
+        if (tokens.hasRemaining(3)) {
+            if(tokens.peek().getKeyword() == Keyword.ELSE) {
+                tokens.advance();
+                if(tokens.peek().getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
+                tokens.advance();
+                return true;
             }
         }
+        return false;
+    }
 
-        return new else_Node(null);
+    /**
+     * Parses the '}' closing the body of an else.
+     * @param tokens -  the stream of tokens being parsed into a parse tree
+     * @throws SyntaxError {@code Invalid Token}: token being parsed is not '}'
+     */
+    static void parseClose(final TokenStream tokens) throws SyntaxError {
+        tokens.expect(TokenType.R_BRACE, "Invalid token: expected '}'");
     }
 
     private boolean isVoid() {
@@ -62,14 +85,28 @@ public class else_Node extends Jott_Node{
      */
     @Override
     public String convertToJott() {
-        return isVoid() ?
-            "" : "Else" + "{" + this.body.convertToJott() + "}";
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        if(this.isVoid()) { return; }
+        parts.push("}");
+        parts.push(this.body);
+        parts.push("Else{");
     }
 
     @Override
     public boolean validateTree(){
-        if(this.isVoid()) { return true; }
-        else { return this.body.validateTree(); }
+        return BlockStack.validateTree(this);
+    }
+
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        if(this.isVoid()) { return null; }
+        if(frame.step++ == 0) { return this.body; }
+        frame.valid = frame.result;
+        return null;
     }
 
     @Override
@@ -90,4 +127,31 @@ public class else_Node extends Jott_Node{
     public Object getValue() {
         return this.value;
     }
+
+    @Override
+    public boolean isCompilable() {
+        return this.isVoid() || this.body.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        if(!this.isVoid()) { this.body.compile(out); }
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.ELSE, this.linenum);
+        out.writeNode(this.body);
+    }
+
+    /**
+     * Reads a {@link else_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static else_Node read(ProgramReader in, int line) throws IOException {
+        return new else_Node(in.readNode(body_Node.class));
+    }
 }
@@ -1,10 +1,14 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.ArrayDeque;
 
+import jott_interpreter.Bytecode;
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -12,19 +16,19 @@ import provided.*;
  * A function that represents an elseif node in the parse tree.
  * parse tree grammar: Elseif < expr > < body >
  */
-public class elseif_Node extends Jott_Node{
+public class elseif_Node extends Jott_Node implements BlockStack.Block {
     private final expr_Node expression;
     private final body_Node body;
 
     private Object value = null;
 
     /**
-     * Private Constructor
-     * (validation of the node done in {@link #parseElseifNode})
+     * Package Constructor
+     * (validation of the node done in {@link #parseElseifNode} and {@link BlockStack})
      * @param expression    an expression node
      * @param body         a body node
      */
-    private elseif_Node(expr_Node expression, body_Node body, int line_number) {
+    elseif_Node(expr_Node expression, body_Node body, int line_number) {
         super(line_number);
         this.expression = expression;
         this.body = body;
@@ -32,39 +36,59 @@ public class elseif_Node extends Jott_Node{
 
     /**
      * Static parse method returning an {@link elseif_Node} for the parse tree.
-     * @param tokens    the list of tokens being parsed into a parse tree
+     * @param tokens    the stream of tokens being parsed into a parse tree
      * @return        An elseif node which has been validated in accordance
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not
      *                     the expected token
-     * @implNote    The token(s) in the input array list of {@code Token}
-     *             objects will be removed from the list given validation
-     *            success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *             consumed token(s) given validation success.
      * @see {@link Token}
      * @see {@link TokenType}
      */
-    public static elseif_Node parseElseifNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        assert (tokens.get(0).getToken().equals("Elseif")); // not syntax error
-        int lineNum = tokens.remove(0).getLineNum();
-        if(tokens.get(0).getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token: expected '['"); }
-        tokens.remove(0);
-
-        expr_Node expression = expr_Node.parseExprNode(tokens);
-        
-        if(tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token: expected ']'"); }
-        tokens.remove(0);
-        if(tokens.get(0).getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
-        tokens.remove(0);
+    public static elseif_Node parseElseifNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        int lineNum = tokens.peek().getLineNum();
+        expr_Node expression = parseHead(tokens);
 
         body_Node body = body_Node.parseBodyNode(tokens);
 
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.R_BRACE) { throw new SyntaxError("Invalid token: expected '}'"); }
-        tokens.remove(0);
+        parseClose(tokens);
 
-        return new elseif_Node(expression, body, lineNum);
+        return Jott_Node.span(new elseif_Node(expression, body, lineNum), tokens, start);
+    }
+
+    /**
+     * Parses the head of an elseif: {@code Elseif [< expr >] {}
+     * @param tokens    the stream of tokens being parsed into a parse tree
+     * @return the condition of the elseif
+     * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
+     * @throws SyntaxError  {@code Invalid Token}: token being parsed is not the expected token
+     */
+    static expr_Node parseHead(final TokenStream tokens) throws SyntaxError {
+        if (!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        assert (tokens.peek().getKeyword() == Keyword.ELSEIF); // not syntax error
+        tokens.advance();
+        if(tokens.peek().getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token: expected '['"); }
+        tokens.advance();
+
+        expr_Node expression = expr_Node.parseExprNode(tokens);
+        
+        if(!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token: expected ']'"); }
+        tokens.advance();
+        if(tokens.peek().getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
+        tokens.advance();
+        return expression;
+    }
+
+    /**
+     * Parses the '}' closing the body of an elseif.
+     * @param tokens    the stream of tokens being parsed into a parse tree
+     * @throws SyntaxError  {@code Invalid Token}: token being parsed is not '}'
+     */
+    static void parseClose(final TokenStream tokens) throws SyntaxError {
+        tokens.expect(TokenType.R_BRACE, "Invalid token: expected '}'");
     }
 
     /**
@@ -76,33 +100,51 @@ public class elseif_Node extends Jott_Node{
      */
     @Override
     public String convertToJott() {
-        return "Elseif [" + this.expression.convertToJott() + "] {" + this.body.convertToJott() + "}";
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        parts.push("}");
+        parts.push(this.body);
+        parts.push("] {");
+        parts.push(this.expression);
+        parts.push("Elseif [");
     }
 
     @Override
     public boolean validateTree() {
-        boolean valid = this.expression.validateTree();
+        return BlockStack.validateTree(this);
+    }
 
-        if(!valid) { return false; } // forced early function exit
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        if(frame.step++ > 0) { // after the body
+            frame.valid = frame.result;
+            return null;
+        }
+
+        frame.valid = this.expression.validateTree();
+
+        if(!frame.valid) { return null; } // forced early function exit
         
         if(this.expression.getType() != ReturnType.Boolean) {
-            new SemanticError("Expression in elseif statement not of type: boolean", super.linenum)
+            new SemanticError("Expression in elseif statement not of type: boolean", this.getLineNum())
                 .print(Jott_Node.filename);
-            valid = false;
+            frame.valid = false;
+            return null;
         }
 
-        return valid && this.body.validateTree();
+        return this.body;
     }
 
     @Override
     public void execute() throws SemanticError {
-        this.expression.execute();
-        Object exprVal = this.expression.getValue();
-        assert (exprVal instanceof Boolean);
-
-        if((Boolean)(exprVal)) {
+        if(this.expression.evalBoolean()) {
             this.body.execute();
             this.value = this.body.getValue();
+        } else {
+            this.value = null; // (not the value of an earlier execution)
         }
     }
 
@@ -115,4 +157,36 @@ public class elseif_Node extends Jott_Node{
     public Object getValue() {
         return this.value;
     }
+
+    @Override
+    public boolean isCompilable() {
+        return this.expression.isCompilable() && this.body.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        this.expression.compile(out);
+        final int next = out.emitJump(Bytecode.JUMP_IF_FALSE);
+        this.body.compile(out);
+        out.patch(next);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.ELSEIF, this.linenum);
+        out.writeNode(this.expression);
+        out.writeNode(this.body);
+    }
+
+    /**
+     * Reads a {@link elseif_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static elseif_Node read(ProgramReader in, int line) throws IOException {
+        expr_Node expression = in.readNode(expr_Node.class);
+        return new elseif_Node(expression, in.readNode(body_Node.class), line);
+    }
 }
@@ -1,6 +1,6 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.*;
 import jott_interpreter.nodes.*;
@@ -33,6 +33,25 @@ public class expr_Node extends Jott_Node{
     private ReturnType type = null;
     /** The value of this expression. */
     private Object value = null;
+    /**
+     * True if the {@link #value} of this (constant) expression was computed when
+     * it was parsed: the node is shared by hash-consing, so execution never writes it.
+     */
+    private boolean folded = false;
+
+    /**
+     * The operations of a binary expression, by operator and operand type: each one
+     * computes its result unboxed (Integer arithmetic is exact 32-bit arithmetic).
+     */
+    private enum Operation {
+        INT_ADD, INT_SUB, INT_MUL, INT_DIV, INT_GT, INT_GE, INT_LT, INT_LE, INT_EQ,
+        DOUBLE_ADD, DOUBLE_SUB, DOUBLE_MUL, DOUBLE_DIV, DOUBLE_GT, DOUBLE_GE, DOUBLE_LT, DOUBLE_LE, DOUBLE_EQ,
+        /** An operator the interpreter has no operation for ({@code !=}): the value is left unchanged */
+        NONE
+    }
+
+    /** The operation of this binary expression, selected once it is validated ({@link #operation}), or null */
+    private Operation operation = null;
 
     /**
      * Private Constructor 
@@ -48,31 +67,29 @@ public class expr_Node extends Jott_Node{
     /**
      * Static parse method returning an {@link expr_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  An expression built and validated according to the 
      *          parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static expr_Node parseExprNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+    public static expr_Node parseExprNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
 
-        int lineNum = tokens.get(0).getLineNum();
+        int lineNum = tokens.peek().getLineNum();
         Jott_Node[] Expression = new Jott_Node[1];
 
         // <( string_literal )>
-        if(tokens.get(0).getTokenType() == TokenType.STRING) {
+        if(tokens.peek().getTokenType() == TokenType.STRING) {
             Expression[0] = stringLiteral_Node.parseStringLiteralNode(tokens);
 
         // < bool >
-        } else if(tokens.get(0).getTokenType() == TokenType.ID_KEYWORD &&
-                // checking the token is a boolean
-                ("True".equals(tokens.get(0).getToken()) ||
-                "False".equals(tokens.get(0).getToken())) ) {
+        } else if(tokens.peek().getKeyword() == Keyword.TRUE ||
+                tokens.peek().getKeyword() == Keyword.FALSE) {
             Expression[0] = bool_Node.parseBoolNode(tokens);
 
         // < operand >
@@ -81,8 +98,8 @@ public class expr_Node extends Jott_Node{
 
             // Checking for an operation 
             // < operand ><( mathop | relop )>< operand >
-            if(tokens.size() > 1) {
-                TokenType operationType = tokens.get(0).getTokenType();
+            if(tokens.hasRemaining(2)) {
+                TokenType operationType = tokens.peek().getTokenType();
                 if(operationType == TokenType.REL_OP || operationType == TokenType.MATH_OP) {
                     Expression = new Jott_Node[3];
 
@@ -103,7 +120,41 @@ public class expr_Node extends Jott_Node{
             Expression[0] = temp;
         }
         
-        return new expr_Node(Expression, lineNum);
+        expr_Node expr = Jott_Node.span(new expr_Node(Expression, lineNum), tokens, start);
+        if(Jott_Node.isHashConsing() && expr.isConstant()) {
+            expr.fold();
+            Object[] key = new Object[Expression.length + 1];
+            key[0] = expr_Node.class;
+            System.arraycopy(Expression, 0, key, 1, Expression.length);
+            return Jott_Node.intern(expr, key);
+        }
+        return expr;
+    }
+
+    /**
+     * Checks if the expression is over literals only, and always validates and
+     * executes without an error (so it can be shared by hash-consing, whatever its line).
+     * @return true if the expression can be computed when it is parsed
+     */
+    private boolean isConstant() {
+        if(this.expr.length == 1) {
+            return !(this.expr[0] instanceof operand_Node) || ((operand_Node)this.expr[0]).isNumber();
+        }
+        if(!((operand_Node)this.expr[0]).isNumber() || !((operand_Node)this.expr[2]).isNumber()) { return false; }
+        if(this.expr[0].getType() != this.expr[2].getType()) { return false; } // Unmatched types error
+        String operator = this.expr[1].convertToJott();
+        if(operator.equals("/") && isZero(this.expr[2].convertToJott())) { return false; } // Division by zero error
+        return !operator.equals("!="); // not an operation (Operation.NONE)
+    }
+
+    /** Computes the value of a constant expression ({@link #isConstant}) once, for every use of the node */
+    private void fold() {
+        try {
+            this.execute();
+        } catch(SemanticError E) {
+            assert (false); // unreachable: isConstant excludes division by zero
+        }
+        this.folded = true;
     }
 
     @Override
@@ -122,27 +173,25 @@ public class expr_Node extends Jott_Node{
             // Math-ops and Rel-ops can only support Ints or Doubles. 
             // Syntax only checks for operands.
             if(this.expr[0].getType() != ReturnType.Integer && this.expr[0].getType() != ReturnType.Double) {
-                new SemanticError("Invalid types in expression: must be double our int.", super.linenum)
+                new SemanticError("Invalid types in expression: must be double our int.", this.getLineNum())
                     .print(Jott_Node.filename);
                 valid = false;
             } else if (this.expr[0].getType() != this.expr[2].getType()) {
-                new SemanticError("Unmatched types in expression", super.linenum)
+                new SemanticError("Unmatched types in expression", this.getLineNum())
                     .print(Jott_Node.filename);
                 valid = false;
             } else if(
                 (this.expr[1].getType() == ReturnType.Integer) &&
-                (this.expr[1].toString().equals("/"))
+                "/".contentEquals(this.expr[1].getText())
             ) {
                 // expr[2] needs to be a number, variables or function calls are dynamic
-                if(this.expr[2].toString().chars().allMatch( 
-                        (c) -> ((c == '-') || (c == '.') || (c == '0'))
-                    )
-                ) {
-                    new SemanticError("Division by zero", super.linenum)
+                if(isZero(this.expr[2].getText())) {
+                    new SemanticError("Division by zero", this.getLineNum())
                         .print(Jott_Node.filename);
                     valid = false;
                 }
             }
+            if(valid) { this.operation = this.selectOperation(); }
         } else {
             valid = this.expr[0].validateTree();
         }
@@ -150,93 +199,201 @@ public class expr_Node extends Jott_Node{
     }
 
     /**
-     * <h>
-     * Performs arithmetic and relational operations on two operands, 
-     * {@code x} and {@code y}, based on the specified operator.
-     * </h>
-     * <p>
-     * The result of the operation is stored in the {@code value} field of the class. 
-     * The method supports mathematical operations (addition, subtraction, multiplication, division) 
-     * and relational operations (greater-than, less-than, equality, etc.).
-     * </p>
-     * 
-     * @param x         - The first operand for the operation
-     * @param operator  - The operator that determines the operation to be performed. Valid operators are:
-     *              <p> arithmetic: {@code "+"}, {@code "-"}, {@code "*"}, {@code "/"} </p>
-     *              <p> relational: {@code ">"}, {@code ">="}, {@code "<"}, {@code "<="}, {@code "=="} </p>
-     * @param y         - The second operand for the operation
-     * @throws SemanticError Runtime Exception: Division by Zero
+     * Checks the source text of an operand for a literal zero ({@code 0}, {@code -0.0}, ...),
+     * ignoring the whitespace between a '-' and its number.
+     * @param text the source text of the operand ({@link Jott_Node#getText})
+     * @return true if the text is only '-', '.' and '0' characters
      */
-    private void operate(double x, String operator, double y) throws SemanticError{
-        switch (operator) {
-            //! MATH OPERATIONS
-            case "/" :
-                // Runtime exception: Division by zero
-                //  ( Validation catches static values and variables, 
-                //    runtime catches dynamic variables and function calls )
-                if(y == 0) { throw new SemanticError("Division by zero", super.linenum); }
-                this.value = Double.valueOf(x / y);
-                if(this.getType() == ReturnType.Integer) {
-                    // Truncating value if it's an Integer (Truncation needed for int division)
-                    this.value = Integer.valueOf( ((Double)(this.value)).intValue() );
-                    // Reverting to double for any further calculations
-                    this.value = Double.valueOf( ((Integer)(this.value)).doubleValue() );
-                }
-                break;
-            case "*" :
-                this.value = Double.valueOf(x * y);
-                break;
-            case "+" :
-                this.value = Double.valueOf(x + y);
-                break;
-            case "-" :
-                this.value = Double.valueOf(x - y);
-                break;
+    private static boolean isZero(CharSequence text) {
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if(c != '-' && c != '.' && c != '0' && !Character.isWhitespace(c)) { return false; }
+        }
+        return true;
+    }
 
+    /**
+     * Selects the operation of this binary expression, by its operator and the
+     * type of its operands (validated to be the same Integer or Double type).
+     * @return the operation
+     */
+    private Operation selectOperation() {
+        final boolean ints = this.expr[0].getType() == ReturnType.Integer;
+        switch(this.expr[1].convertToJott()) {
+            //! MATH OPERATIONS
+            case "+" :  return ints ? Operation.INT_ADD : Operation.DOUBLE_ADD;
+            case "-" :  return ints ? Operation.INT_SUB : Operation.DOUBLE_SUB;
+            case "*" :  return ints ? Operation.INT_MUL : Operation.DOUBLE_MUL;
+            case "/" :  return ints ? Operation.INT_DIV : Operation.DOUBLE_DIV;
             //! RELATIVE OPERATIONS
-            case ">" :
-                this.value = Boolean.valueOf(x > y);
-                break;
-            case ">=" :
-                this.value = Boolean.valueOf(x >= y);
-                break;
-            case "<" :
-                this.value = Boolean.valueOf(x < y);
-                break;
-            case "<=" :
-                this.value = Boolean.valueOf(x <= y);
-                break;
-            case "==" :
-                this.value = Boolean.valueOf(x == y);
-                break;
-
+            case ">" :  return ints ? Operation.INT_GT : Operation.DOUBLE_GT;
+            case ">=" : return ints ? Operation.INT_GE : Operation.DOUBLE_GE;
+            case "<" :  return ints ? Operation.INT_LT : Operation.DOUBLE_LT;
+            case "<=" : return ints ? Operation.INT_LE : Operation.DOUBLE_LE;
+            case "==" : return ints ? Operation.INT_EQ : Operation.DOUBLE_EQ;
             // Invalid Operation
-            default :
-                assert (false);
-                break;
+            default :   return Operation.NONE;
+        }
+    }
+
+    /**
+     * @return the operation of this binary expression, selected now if it was
+     *         not validated (a constant folded when parsed, or a cached program)
+     */
+    private Operation operation() {
+        if(this.operation == null) { this.operation = this.selectOperation(); }
+        return this.operation;
+    }
+
+    /**
+     * Executes the operands of an operator without an operation ({@link Operation#NONE}).
+     * @return the value of this expression, unchanged
+     * @throws SemanticError if an operand can not be executed
+     */
+    private Object executeNone() throws SemanticError {
+        this.expr[0].execute();
+        this.expr[2].execute();
+        assert (false);
+        return this.value;
+    }
+
+    /**
+     * Runtime exception: Division by zero
+     * ( Validation catches static values and variables,
+     *   runtime catches dynamic variables and function calls )
+     */
+    private SemanticError divisionByZero() {
+        return new SemanticError("Division by zero", this.getLineNum());
+    }
+
+    // (the left operand is evaluated first, and both are kept in locals: the right
+    // one may call the function being executed, which evaluates this node again)
+
+    @Override
+    public int evalInt() throws SemanticError {
+        if(this.folded) { return (Integer)this.value; }
+        if(this.expr.length == 1) { return this.expr[0].evalInt(); }
+        switch(this.operation()) {
+            case INT_ADD : return this.expr[0].evalInt() + this.expr[2].evalInt();
+            case INT_SUB : return this.expr[0].evalInt() - this.expr[2].evalInt();
+            case INT_MUL : return this.expr[0].evalInt() * this.expr[2].evalInt();
+            case INT_DIV : {
+                final int x = this.expr[0].evalInt();
+                final int y = this.expr[2].evalInt();
+                if(y == 0) { throw this.divisionByZero(); }
+                return x / y;
+            }
+            default : return (Integer)this.executeNone();
         }
     }
 
     @Override
-    public void execute() throws SemanticError{
-        this.getType(); // IMPORTANT: edge case type assignment to this.type
-        if(this.expr.length == 3) {
+    public double evalDouble() throws SemanticError {
+        if(this.folded) { return (Double)this.value; }
+        if(this.expr.length == 1) { return this.expr[0].evalDouble(); }
+        switch(this.operation()) {
+            case DOUBLE_ADD : return this.expr[0].evalDouble() + this.expr[2].evalDouble();
+            case DOUBLE_SUB : return this.expr[0].evalDouble() - this.expr[2].evalDouble();
+            case DOUBLE_MUL : return this.expr[0].evalDouble() * this.expr[2].evalDouble();
+            case DOUBLE_DIV : {
+                final double x = this.expr[0].evalDouble();
+                final double y = this.expr[2].evalDouble();
+                if(y == 0) { throw this.divisionByZero(); }
+                return x / y;
+            }
+            default : return (Double)this.executeNone();
+        }
+    }
 
-            this.expr[0].execute();
-            this.expr[1].execute();
-            this.expr[2].execute();
+    @Override
+    public boolean evalBoolean() throws SemanticError {
+        if(this.folded) { return (Boolean)this.value; }
+        if(this.expr.length == 1) { return this.expr[0].evalBoolean(); }
+        switch(this.operation()) {
+            case INT_GT :       return this.expr[0].evalInt() > this.expr[2].evalInt();
+            case INT_GE :       return this.expr[0].evalInt() >= this.expr[2].evalInt();
+            case INT_LT :       return this.expr[0].evalInt() < this.expr[2].evalInt();
+            case INT_LE :       return this.expr[0].evalInt() <= this.expr[2].evalInt();
+            case INT_EQ :       return this.expr[0].evalInt() == this.expr[2].evalInt();
+            case DOUBLE_GT :    return this.expr[0].evalDouble() > this.expr[2].evalDouble();
+            case DOUBLE_GE :    return this.expr[0].evalDouble() >= this.expr[2].evalDouble();
+            case DOUBLE_LT :    return this.expr[0].evalDouble() < this.expr[2].evalDouble();
+            case DOUBLE_LE :    return this.expr[0].evalDouble() <= this.expr[2].evalDouble();
+            case DOUBLE_EQ :    return this.expr[0].evalDouble() == this.expr[2].evalDouble();
+            default :           return (Boolean)this.executeNone();
+        }
+    }
 
-            double operand1 = (Double)(this.expr[0].getValue());
-            String operator = this.expr[1].toString();
-            double operand2 = (Double)(this.expr[2].getValue());
+    @Override
+    public String evalString() throws SemanticError {
+        if(this.folded) { return (String)this.value; }
+        return this.expr[0].evalString(); // (only single operand expressions are Strings)
+    }
 
-            operate(operand1, operator, operand2);
+    @Override
+    public void execute() throws SemanticError{
+        if(this.folded) { return; } // constant value (shared node)
+        this.getType(); // IMPORTANT: edge case type assignment to this.type
+        if(this.expr.length == 3) {
+            if(this.operation() == Operation.NONE) {
+                this.executeNone();
+            } else if(this.type == ReturnType.Integer) {
+                this.value = Integer.valueOf(this.evalInt());
+            } else if(this.type == ReturnType.Double) {
+                this.value = Double.valueOf(this.evalDouble());
+            } else {
+                this.value = Boolean.valueOf(this.evalBoolean());
+            }
         } else {
             this.expr[0].execute();
             this.value = this.expr[0].getValue();
         }
     }
 
+    @Override
+    public boolean isCompilable() {
+        if(this.folded) { return true; }
+        if(this.expr.length == 1) { return this.expr[0].isCompilable(); }
+        // (an operator without an operation, !=, has no bytecode)
+        return this.operation() != Operation.NONE && this.expr[0].isCompilable() && this.expr[2].isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        if(this.folded) { // constant value (shared node)
+            out.emitConstant(this.value);
+            return;
+        }
+        if(this.expr.length == 1) {
+            this.expr[0].compile(out);
+            return;
+        }
+        final Operation operation = this.operation();
+        assert (operation != Operation.NONE); // (see isCompilable)
+        this.expr[0].compile(out);
+        this.expr[2].compile(out);
+        switch(operation) {
+            case INT_ADD :      out.emit(Bytecode.IADD); break;
+            case INT_SUB :      out.emit(Bytecode.ISUB); break;
+            case INT_MUL :      out.emit(Bytecode.IMUL); break;
+            case INT_DIV :      out.emit(Bytecode.IDIV, this.getLineNum()); break;
+            case INT_GT :       out.emit(Bytecode.IGT); break;
+            case INT_GE :       out.emit(Bytecode.IGE); break;
+            case INT_LT :       out.emit(Bytecode.ILT); break;
+            case INT_LE :       out.emit(Bytecode.ILE); break;
+            case INT_EQ :       out.emit(Bytecode.IEQ); break;
+            case DOUBLE_ADD :   out.emit(Bytecode.DADD); break;
+            case DOUBLE_SUB :   out.emit(Bytecode.DSUB); break;
+            case DOUBLE_MUL :   out.emit(Bytecode.DMUL); break;
+            case DOUBLE_DIV :   out.emit(Bytecode.DDIV, this.getLineNum()); break;
+            case DOUBLE_GT :    out.emit(Bytecode.DGT); break;
+            case DOUBLE_GE :    out.emit(Bytecode.DGE); break;
+            case DOUBLE_LT :    out.emit(Bytecode.DLT); break;
+            case DOUBLE_LE :    out.emit(Bytecode.DLE); break;
+            default :           out.emit(Bytecode.DEQ); break;
+        }
+    }
+
     @Override
     public ReturnType getType() {
         // Rel-ops are booleans working against numbers, 
@@ -262,4 +419,28 @@ public class expr_Node extends Jott_Node{
         assert (this.value != null);
         return this.value;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.EXPR, this.linenum);
+        out.writeNodes(this.expr);
+        out.writeType(this.type);
+        out.writeBoolean(this.folded);
+        out.writeValue(this.folded ? this.value : null); // (values computed by execution are not cached)
+    }
+
+    /**
+     * Reads a {@link expr_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static expr_Node read(ProgramReader in, int line) throws IOException {
+        expr_Node expr = new expr_Node(in.readNodes(new Jott_Node[0]), line);
+        expr.type = in.readType();
+        expr.folded = in.readBoolean();
+        expr.value = in.readValue();
+        return expr;
+    }
 }
@@ -1,10 +1,15 @@
 package jott_interpreter.nodes.grammar_nodes;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
+import jott_interpreter.Bytecode;
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -12,7 +17,7 @@ import provided.*;
   * A function that represents an if statement node in the parse tree.
     * parse tree grammar: If [< expr >]{< body >} < elseif >⋆ < else >
   */
-public class ifStmt_Node extends Jott_Node{
+public class ifStmt_Node extends Jott_Node implements BlockStack.Block {
 
     private final expr_Node expressionN;
     private final body_Node bodyN;
@@ -24,8 +29,8 @@ public class ifStmt_Node extends Jott_Node{
     private Object value = null;
 
     /**
-     * Private Constructor
-     * (validation of the node done in {@link #parseIfStmtNode})
+     * Public Constructor
+     * (validation of the node done in {@link #parseIfStmtNode} and {@link BlockStack})
      * @param expression    an expression node
      * @param body          a body node
      * @param elseif        an elseif node
@@ -47,49 +52,71 @@ public class ifStmt_Node extends Jott_Node{
 
     /**
      * Static parse method returning an {@link ifStmt_Node} for the parse tree.
-     * @param tokens   the list of tokens being parsed into a parse tree
+     * @param tokens   the stream of tokens being parsed into a parse tree
      * @return An if statement node which has been validated in accordance
      * @throws SyntaxError {@code Unexpected EOF}: no token to parse
      */
-    public static ifStmt_Node parseIfStmtNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        assert (tokens.get(0).getToken().equals("If")); // not syntax error
-        int lineNum = tokens.remove(0).getLineNum();
-        if(tokens.get(0).getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token: expected '['"); }
-        tokens.remove(0);
-
-        expr_Node expression = expr_Node.parseExprNode(tokens);
-
-        if(tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token: expected ']'"); }
-        tokens.remove(0);
-        if(tokens.get(0).getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
-        tokens.remove(0);
+    public static ifStmt_Node parseIfStmtNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        int lineNum = tokens.peek().getLineNum();
+        expr_Node expression = parseHead(tokens);
 
         body_Node body = body_Node.parseBodyNode(tokens);
 
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.R_BRACE) { throw new SyntaxError("Invalid token: expected '}'"); }
-        tokens.remove(0);
+        parseClose(tokens);
 
         ArrayList<elseif_Node> elseifNodes = new ArrayList<>();
         else_Node elseNode = null;
 
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        while(tokens.get(0).getToken().equals("Elseif")) {
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        while(tokens.peek().getKeyword() == Keyword.ELSEIF) {
             elseifNodes.add(elseif_Node.parseElseifNode(tokens));
-            if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+            if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
         }
 
         elseNode = else_Node.parseElseNode(tokens);
 
-        return new ifStmt_Node(
+        ifStmt_Node ifStmt = new ifStmt_Node(
             expression, 
             body, 
             elseifNodes.toArray(new elseif_Node[elseifNodes.size()]), 
             elseNode,
             lineNum
         );
+        return Jott_Node.span(ifStmt, tokens, start);
+    }
+
+    /**
+     * Parses the head of an if statement: {@code If [< expr >] {}
+     * @param tokens    the stream of tokens being parsed into a parse tree
+     * @return the condition of the if statement
+     * @throws SyntaxError {@code Unexpected EOF}: no token to parse
+     * @throws SyntaxError {@code Invalid Token}: token being parsed is not the expected token
+     */
+    static expr_Node parseHead(final TokenStream tokens) throws SyntaxError {
+        if (!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        assert (tokens.peek().getKeyword() == Keyword.IF); // not syntax error
+        tokens.advance();
+        if(tokens.peek().getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token: expected '['"); }
+        tokens.advance();
+
+        expr_Node expression = expr_Node.parseExprNode(tokens);
+
+        if(!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token: expected ']'"); }
+        tokens.advance();
+        if(tokens.peek().getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token: expected '{'"); }
+        tokens.advance();
+        return expression;
+    }
+
+    /**
+     * Parses the '}' closing the body of an if statement.
+     * @param tokens    the stream of tokens being parsed into a parse tree
+     * @throws SyntaxError {@code Invalid Token}: token being parsed is not '}'
+     */
+    static void parseClose(final TokenStream tokens) throws SyntaxError {
+        tokens.expect(TokenType.R_BRACE, "Invalid token: expected '}'");
     }
 
     /**
@@ -98,17 +125,18 @@ public class ifStmt_Node extends Jott_Node{
      */
     @Override
     public String convertToJott() {
-        StringBuilder str = new StringBuilder();
-
-        str.append("If[")
-           .append(this.expressionN.convertToJott())
-           .append("]{")
-           .append(this.bodyN.convertToJott())
-           .append("}");
-        for(elseif_Node elseif : this.elseifN) { str.append(elseif); }
-        str.append(this.elseN.convertToJott());
-        
-        return str.toString();
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        parts.push(this.elseN);
+        for(int i = this.elseifN.length - 1; i >= 0; i--) { parts.push(this.elseifN[i]); }
+        parts.push("}");
+        parts.push(this.bodyN);
+        parts.push("]{");
+        parts.push(this.expressionN);
+        parts.push("If[");
     }
 
     /**
@@ -171,47 +199,55 @@ public class ifStmt_Node extends Jott_Node{
 
     @Override
     public boolean validateTree() {
-        boolean valid = this.expressionN.validateTree();
-
-        // Expression must return a boolean
-        if(this.expressionN.getType() != ReturnType.Boolean) {
-            new SemanticError("Expression in if statement not of type: boolean", super.linenum)
-                .print(Jott_Node.filename);
-            valid = false;
-        }
-
-        // Validating paths
-        valid &= this.bodyN.validateTree();
-        for (elseif_Node elseIf : this.elseifN) { valid &= elseIf.validateTree(); }
-        valid &= this.elseN.validateTree();
-
-        if(!valid) { return false; } // forced early function exit
+        return BlockStack.validateTree(this);
+    }
 
-        // Validates all nodes in the if-else chain return the same type, or ReturnType.VOID
-        if(!checkReturn()) {
-            new SemanticError("Invalid if-else chain return type", super.linenum)
-                .print(Jott_Node.filename);
-            valid = false;
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        switch(frame.step) {
+            case 0 :
+                frame.valid = this.expressionN.validateTree();
+
+                // Expression must return a boolean
+                if(this.expressionN.getType() != ReturnType.Boolean) {
+                    new SemanticError("Expression in if statement not of type: boolean", this.getLineNum())
+                        .print(Jott_Node.filename);
+                    frame.valid = false;
+                }
+
+                // Validating paths
+                frame.step = 1;
+                return this.bodyN;
+            case 1 : // after the body or an elseif: the next elseif
+                frame.valid &= frame.result;
+                if(frame.index < this.elseifN.length) { return this.elseifN[frame.index++]; }
+                frame.step = 2;
+                return this.elseN;
+            default : // after the else
+                frame.valid &= frame.result;
+                if(!frame.valid) { return null; } // forced early function exit
+
+                // Validates all nodes in the if-else chain return the same type, or ReturnType.VOID
+                if(!checkReturn()) {
+                    new SemanticError("Invalid if-else chain return type", this.getLineNum())
+                        .print(Jott_Node.filename);
+                    frame.valid = false;
+                }
+                return null;
         }
-
-        return valid;
     }
 
     @Override
     public void execute() throws SemanticError {
-        this.expressionN.execute();
-        Object exprVal = this.expressionN.getValue();
-        assert (exprVal instanceof Boolean);
-
         // IF
-        if((Boolean)(exprVal)) {
+        if(this.expressionN.evalBoolean()) {
             this.bodyN.execute();
             this.value = this.bodyN.getValue();
         } else {
             // ELSE IF
             for(elseif_Node elif : this.elseifN) {
                 elif.execute();
-                exprVal = elif.getValue();
+                Object exprVal = elif.getValue();
                 if(exprVal != null) { // Early exit
                     this.value = exprVal;
                     return; 
@@ -233,7 +269,59 @@ public class ifStmt_Node extends Jott_Node{
         return this.value; // If-Else logic in execute() method
     }
 
+    @Override
+    public boolean isCompilable() {
+        if(!this.expressionN.isCompilable() || !this.bodyN.isCompilable()) { return false; }
+        for(elseif_Node elif : this.elseifN) {
+            if(!elif.isCompilable()) { return false; }
+        }
+        return this.elseN.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        // IF
+        this.expressionN.compile(out);
+        final int elseifs = out.emitJump(Bytecode.JUMP_IF_FALSE);
+        this.bodyN.compile(out);
+        final int end = out.emitJump(Bytecode.JUMP);
+        out.patch(elseifs);
+        // ELSE IF (an Elseif taken without returning goes on with the next one, as in execute)
+        for(elseif_Node elif : this.elseifN) { elif.compile(out); }
+        // ELSE
+        this.elseN.compile(out);
+        out.patch(end);
+    }
+
     public ReturnType getPossibleReturn() {
         return this.possibleReturn;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.IF_STMT, this.linenum);
+        out.writeNode(this.expressionN);
+        out.writeNode(this.bodyN);
+        out.writeNodes(this.elseifN);
+        out.writeNode(this.elseN);
+        out.writeType(this.returnType);
+        out.writeType(this.possibleReturn);
+    }
+
+    /**
+     * Reads a {@link ifStmt_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static ifStmt_Node read(ProgramReader in, int line) throws IOException {
+        expr_Node expression = in.readNode(expr_Node.class);
+        body_Node body = in.readNode(body_Node.class);
+        elseif_Node[] elseifNodes = in.readNodes(new elseif_Node[0]);
+        ifStmt_Node ifStmt = new ifStmt_Node(expression, body, elseifNodes, in.readNode(else_Node.class), line);
+        ifStmt.returnType = in.readType();
+        ifStmt.possibleReturn = in.readType();
+        return ifStmt;
+    }
 }
@@ -1,11 +1,12 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.IdMap;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.function_nodes.*;
 import jott_interpreter.nodes.token_nodes.*;
@@ -23,33 +24,42 @@ public class operand_Node extends Jott_Node{
         this.isIdNode = idNode;
     }
 
-    public static operand_Node parseOperandNode(ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+    public static operand_Node parseOperandNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
 
         Jott_Node temp;
         boolean is_id = false;
         boolean neg_num = false;
-        int lineNum = tokens.get(0).getLineNum();
+        int lineNum = tokens.peek().getLineNum();
 
-        if (tokens.get(0).getTokenType() == TokenType.ID_KEYWORD) {
+        if (tokens.peek().getTokenType() == TokenType.ID_KEYWORD) {
             temp = id_Node.parseIdNode(tokens);
             is_id = true;
-        } else if (tokens.get(0).getTokenType() == TokenType.NUMBER) {
+        } else if (tokens.peek().getTokenType() == TokenType.NUMBER) {
             temp = number_Node.parseNumberNode(tokens);
-        } else if (tokens.get(0).getTokenType() == TokenType.FC_HEADER) {
+        } else if (tokens.peek().getTokenType() == TokenType.FC_HEADER) {
             temp = funcCall_Node.parseFunctionCallNode(tokens);
-        } else if (tokens.get(0).getTokenType() == TokenType.MATH_OP) {
-            if (tokens.get(0).getToken().equals("-")) {
-                tokens.remove(0);
+        } else if (tokens.peek().getTokenType() == TokenType.MATH_OP) {
+            if (tokens.peek().getToken().equals("-")) {
+                tokens.advance();
                 temp = number_Node.parseNumberNode(tokens);
                 neg_num = true;
             } else {
-                throw new SyntaxError("Invalid MATH_OP operator \"" + tokens.get(0).getToken() + "\", expected \"-\"");
+                throw new SyntaxError("Invalid MATH_OP operator \"" + tokens.peek().getToken() + "\", expected \"-\"");
             }
         } else {
             throw new SyntaxError("Invalid token type");
         }
-        return new operand_Node(temp, neg_num, is_id, lineNum);
+        operand_Node operand = Jott_Node.span(new operand_Node(temp, neg_num, is_id, lineNum), tokens, start);
+        // Number literals are shared (ids and function calls are not side-effect free)
+        if(operand.isNumber()) { return Jott_Node.intern(operand, operand_Node.class, neg_num, temp); }
+        return operand;
+    }
+
+    /** @return true if the operand is a (possibly negative) number literal */
+    public boolean isNumber() {
+        return this.child instanceof number_Node;
     }
 
     @Override
@@ -66,22 +76,24 @@ public class operand_Node extends Jott_Node{
         boolean valid = child.validateTree();
         if(!valid) { return false; } // forced early function exit (invalid child node)
 
-        IdMap scope = Jott_Node.function_scope.get(current_function_ID.peek());
+        IdMap scope = Jott_Node.getScope(callStack().peek());
         // Preferring flags over instanceof
         if(this.isIdNode) {
-            if(scope.contains(this.child.toString())) {
+            int id = ((id_Node)(this.child)).getSymbol();
+            if(scope.contains(id)) {
+                ((id_Node)(this.child)).resolveFrameSlot(scope.getFrameSlot(id), scope.getReturnType(id));
                 // The variable needs to be not defined yet to error
                 if( !(
-                    scope.isDynamic(this.child.toString()) || 
-                    scope.isDefined(this.child.toString())
+                    scope.isDynamic(id) || 
+                    scope.isDefined(id)
                     ) 
                 ) {
-                    new SemanticError("Variable id: {" + this.child.toString() + "} was declared but never defined", super.linenum)
+                    new SemanticError("Variable id: {" + this.child.getText() + "} was declared but never defined", this.getLineNum())
                         .print(Jott_Node.filename);
                     valid = false;
                 }
             } else {
-                new SemanticError("Variable id: {" + this.child.toString() + "} not declared", super.linenum)
+                new SemanticError("Variable id: {" + this.child.getText() + "} not declared", this.getLineNum())
                     .print(Jott_Node.filename);
                 valid = false;
             }
@@ -104,9 +116,67 @@ public class operand_Node extends Jott_Node{
     public Object getValue() {
         if(this.neg) {
             assert (this.child.getType() == ReturnType.Integer || this.child.getType() == ReturnType.Double);
+            if(this.child.getType() == ReturnType.Integer) {
+                return -((Integer)(this.child.getValue()));
+            }
             return -((Double)(this.child.getValue()));
         } else {
             return this.child.getValue();
         }
     }
+
+    @Override
+    public boolean isCompilable() {
+        return this.neg || this.child.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        if(this.neg) {
+            out.emitConstant(this.getValue()); // (the negative number)
+        } else {
+            this.child.compile(out);
+        }
+    }
+
+    @Override
+    public int evalInt() throws SemanticError {
+        return this.neg ? -this.child.evalInt() : this.child.evalInt();
+    }
+
+    @Override
+    public double evalDouble() throws SemanticError {
+        return this.neg ? -this.child.evalDouble() : this.child.evalDouble();
+    }
+
+    @Override
+    public boolean evalBoolean() throws SemanticError {
+        return this.child.evalBoolean();
+    }
+
+    @Override
+    public String evalString() throws SemanticError {
+        return this.child.evalString();
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.OPERAND, this.linenum);
+        out.writeNode(this.child);
+        out.writeBoolean(this.neg);
+        out.writeBoolean(this.isIdNode);
+    }
+
+    /**
+     * Reads a {@link operand_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static operand_Node read(ProgramReader in, int line) throws IOException {
+        Jott_Node child = in.readNode();
+        boolean neg = in.readBoolean();
+        return new operand_Node(child, neg, in.readBoolean(), line);
+    }
 }
@@ -1,13 +1,15 @@
 package jott_interpreter.nodes.grammar_nodes;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.Queue;
 
+import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SymbolTable;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
+import jott_interpreter.nodes.function_nodes.customFunc_Node;
 import provided.*;
 
 public class params_Node extends Jott_Node {
@@ -32,24 +34,25 @@ public class params_Node extends Jott_Node {
         this.followingNodes = following;
     }
 
-    public static params_Node parseParamsNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+    public static params_Node parseParamsNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
 
-        int lineNum = tokens.get(0).getLineNum();
+        int lineNum = tokens.peek().getLineNum();
         expr_Node tempExpr;
         ArrayList<params_t_Node> tempArr = new ArrayList<>();
 
-        if (tokens.get(0).getTokenType() != TokenType.R_BRACKET) {
+        if (tokens.peek().getTokenType() != TokenType.R_BRACKET) {
             tempExpr = expr_Node.parseExprNode(tokens);
-            if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-            while (tokens.get(0).getTokenType() != TokenType.R_BRACKET) {
+            if (!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+            while (tokens.peek().getTokenType() != TokenType.R_BRACKET) {
                 tempArr.add(params_t_Node.parseParamsTNode(tokens));
-                if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
+                if (!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
             }
 
-            if (tempArr.isEmpty()) { return new params_Node(lineNum, tempExpr); } 
-            else { return new params_Node(lineNum, tempExpr, tempArr); }
-        } else { return new params_Node(lineNum); }
+            if (tempArr.isEmpty()) { return Jott_Node.span(new params_Node(lineNum, tempExpr), tokens, start); } 
+            else { return Jott_Node.span(new params_Node(lineNum, tempExpr, tempArr), tokens, start); }
+        } else { return Jott_Node.span(new params_Node(lineNum), tokens, start); }
     }
 
     @Override
@@ -71,16 +74,15 @@ public class params_Node extends Jott_Node {
 
     @Override
     public boolean validateTree() {
-        String function_id = Jott_Node.current_function_ID.pop();
+        int function_id = Jott_Node.callStack().pop();
         // list of declared params needed for the function
-        Jott_Node[] orderedParamNodes = Jott_Node.function_scope
-            .get(function_id).getOrderedDynamicNodes();
+        Jott_Node[] orderedParamNodes = Jott_Node.getScope(function_id).getOrderedDynamicNodes();
         // moved pop() from function call node to allow variables from previous scope into params
 
         // Empty parameter check
         if (this.firstNode == null) {
             if (orderedParamNodes.length != 0) {
-                new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length, super.linenum)
+                new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length, this.getLineNum())
                     .print(Jott_Node.filename);
                 return false;
             } else { return true; }
@@ -90,12 +92,12 @@ public class params_Node extends Jott_Node {
 
         if (followingNodes == null) {
             if (orderedParamNodes.length != 1) {
-                new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length + 1, super.linenum)
+                new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length + 1, this.getLineNum())
                     .print(Jott_Node.filename);
                 valid = false;
             }
         } else if (orderedParamNodes.length != followingNodes.size() + 1) {
-            new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length + 1, super.linenum)
+            new SemanticError("Invalid number of parameters, expected: " + orderedParamNodes.length + 1, this.getLineNum())
                 .print(Jott_Node.filename);
             valid = false;
         }
@@ -103,14 +105,14 @@ public class params_Node extends Jott_Node {
         if (!valid) { return false; } // forced early function exit
 
         // Only the print function can typecast it's input parameter
-        if(!function_id.equals("print")) {
+        if(function_id != SymbolTable.PRINT) {
             if (firstNode.getType() != orderedParamNodes[0].getType()) {
                 new SemanticError(
                     "Invalid Parameter type: " + 
                     firstNode.getType() + 
                     ", expected: " + 
                     orderedParamNodes[0].getType(),
-                    super.linenum
+                    this.getLineNum()
                 ).print(Jott_Node.filename);
                 valid = false;
             }
@@ -120,14 +122,14 @@ public class params_Node extends Jott_Node {
             for (int i = 0; i < followingNodes.size(); i++) {
                 valid &= followingNodes.get(i).validateTree();
                 // Only the print function can typecast it's input parameter
-                if(!function_id.equals("print")) {
+                if(function_id != SymbolTable.PRINT) {
                     if (followingNodes.get(i).getType() != orderedParamNodes[i+1].getType()) {
                         new SemanticError(
                             "Invalid Parameter type: " + 
                             followingNodes.get(i).getType() + 
                             ", expected: " + 
                             orderedParamNodes[i+1].getType(), 
-                            super.linenum
+                            this.getLineNum()
                         ).print(Jott_Node.filename);
                         valid = false;
                     }
@@ -138,36 +140,108 @@ public class params_Node extends Jott_Node {
         return valid;
     }
 
+    /**
+     * Evaluates the arguments, in the current frame, without passing them to a
+     * function: a call passes them to its frame with {@link #execute(int, int)},
+     * so this is only reached by a generic walk of the tree.
+     */
     @Override
     public void execute() throws SemanticError {
-        // Early function exit given no parameters
         if(this.firstNode == null) { return; }
+        this.firstNode.execute();
+        if(this.followingNodes != null) {
+            for(params_t_Node following : this.followingNodes) { following.execute(); }
+        }
+    }
 
-        String function_id = Jott_Node.current_function_ID.pop();
-        LinkedHashMap<String, Jott_Node> param_map = Jott_Node.function_scope
-            .get(function_id).getDynamicVars();
-        // temporary call stack pop, re-introduce at end of function
+    /**
+     * Evaluates the arguments of a call, in the frame of the caller, and passes
+     * their values to the parameters of the function: the first slots of the
+     * frame of the call, in order ({@link Jott_Node#evalInto}).
+     * @param function_id   the symbol of the function called
+     * @param frame         the frame of the call ({@link Jott_Node#pushFrame}), not entered yet
+     * @throws SemanticError if an argument can not be evaluated
+     */
+    public void execute(int function_id, int frame) throws SemanticError {
+        if(this.firstNode == null) { return; }
 
-        this.firstNode.execute();
-        Queue<expr_Node> expressions = new LinkedList<>();
-        expressions.add(firstNode);
-        
-        Object temp_param;
+        if(function_id == SymbolTable.PRINT) { // Only print typecasts its input (passed as printed)
+            this.firstNode.execute();
+            Jott_Node.setArgument(frame, 0, customFunc_Node.toPrinted(this.firstNode.getValue(), this.firstNode.getType()));
+            return;
+        }
+        // (each argument unboxed, in the array of its type)
+        Jott_Node.evalInto(frame, 0, this.firstNode.getType(), this.firstNode);
         if(this.followingNodes != null) {
-            for(params_t_Node param : this.followingNodes) { 
-                param.execute(); 
-                temp_param = param.getValue();
-                // getValue here should get entire expression node, not just the value
-                assert (temp_param instanceof expr_Node);
-                expressions.add((expr_Node)(temp_param));
+            for(int i = 0; i < this.followingNodes.size(); i++) {
+                // getValue here gets the entire expression node, not just the value
+                expr_Node param = (expr_Node)(this.followingNodes.get(i).getValue());
+                Jott_Node.evalInto(frame, i + 1, param.getType(), param);
             }
         }
+    }
 
-        assert (expressions.size() == param_map.size());
-        param_map.forEach((String var_id, @SuppressWarnings("unused") Jott_Node var_node) -> 
-            Jott_Node.function_scope.get(function_id).assign_var(var_id, expressions.poll())
-        );
+    /**
+     * Checks if the arguments of a call can be compiled ({@link #compile(BytecodeWriter, int)}).
+     * @param function_id the symbol of the function called
+     * @return true if every argument can be compiled (and printed, for print)
+     */
+    public boolean isCompilable(int function_id) {
+        if(this.firstNode == null) { return true; }
+        if(!this.firstNode.isCompilable()) { return false; }
+        if(function_id == SymbolTable.PRINT) { return this.firstNode.getType() != ReturnType.Void; }
+        if(this.followingNodes != null) {
+            for(params_t_Node following : this.followingNodes) {
+                if(!((expr_Node)(following.getValue())).isCompilable()) { return false; }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compiles the arguments of a call, pushed on the operand stacks left to right
+     * (see {@link #execute(int, int)}): print's input is printed here, as only
+     * print typecasts its input.
+     * @param out           the writer of the compiled program
+     * @param function_id   the id (symbol) of the function called
+     */
+    public void compile(BytecodeWriter out, int function_id) {
+        if(this.firstNode == null) { return; }
+
+        this.firstNode.compile(out);
+        if(function_id == SymbolTable.PRINT) {
+            out.emitPrint(this.firstNode.getType());
+            return;
+        }
+        if(this.followingNodes != null) {
+            for(params_t_Node following : this.followingNodes) {
+                ((expr_Node)(following.getValue())).compile(out);
+            }
+        }
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.PARAMS, this.linenum);
+        out.writeNode(this.firstNode);
+        out.writeBoolean(this.followingNodes != null);
+        if(this.followingNodes != null) { out.writeNodes(this.followingNodes.toArray(new params_t_Node[0])); }
+    }
 
-        Jott_Node.current_function_ID.push(function_id); // callstack reversion
+    /**
+     * Reads a {@link params_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static params_Node read(ProgramReader in, int line) throws IOException {
+        expr_Node first = in.readNode(expr_Node.class);
+        boolean hasFollowing = in.readBoolean();
+        if(first == null) { return new params_Node(line); }
+        if(!hasFollowing) { return new params_Node(line, first); }
+        ArrayList<params_t_Node> following = new ArrayList<>();
+        for(params_t_Node param : in.readNodes(new params_t_Node[0])) { following.add(param); }
+        return new params_Node(line, first, following);
     }
 }
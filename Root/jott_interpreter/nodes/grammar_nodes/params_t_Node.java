@@ -1,10 +1,11 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -15,11 +16,10 @@ public class params_t_Node extends Jott_Node {
         this.expr = expr;
     }
 
-    public static params_t_Node parseParamsTNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.COMMA) { throw new SyntaxError("Invalid token type, expected \",\""); }
-        tokens.remove(0);
-        return new params_t_Node(expr_Node.parseExprNode(tokens));
+    public static params_t_Node parseParamsTNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        tokens.expect(TokenType.COMMA, "Invalid token type, expected \",\"");
+        return Jott_Node.span(new params_t_Node(expr_Node.parseExprNode(tokens)), tokens, start);
     }
 
     @Override
@@ -49,4 +49,21 @@ public class params_t_Node extends Jott_Node {
         //  Used by param node for function parameter logic
         return this.expr;
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.PARAMS_T, this.linenum);
+        out.writeNode(this.expr);
+    }
+
+    /**
+     * Reads a {@link params_t_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static params_t_Node read(ProgramReader in, int line) throws IOException {
+        return new params_t_Node(in.readNode(expr_Node.class));
+    }
 }
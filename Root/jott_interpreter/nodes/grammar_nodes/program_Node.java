@@ -1,9 +1,22 @@
 package jott_interpreter.nodes.grammar_nodes;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.RecursiveAction;
 
+import jott_interpreter.ConstantPool;
+import jott_interpreter.IdMap;
+import jott_interpreter.Keyword;
+import jott_interpreter.ListTokenStream;
+import jott_interpreter.PackedTokenBuffer;
 import jott_interpreter.SyntaxError;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SymbolTable;
+import jott_interpreter.TokenEdit;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import jott_interpreter.nodes.function_nodes.*;
 import provided.*;
@@ -15,47 +28,464 @@ import provided.*;
  */
 public class program_Node extends Jott_Node{
 
+    /** The default (minimum) number of tokens parsed by a fork/join task ({@link #parseProgramNodeParallel}) */
+    public static final int BATCH_TOKENS = 4096;
+
     /** An array of valid function nodes */
-    private final funcDef_Node[] func;
+    private funcDef_Node[] func;
+
+    /**
+     * The index of the first token of each function, followed by the index after
+     * the last token of the last function (functions have no tokens between them).
+     * Used to find the functions an edit touched ({@link #reparseProgramNode}).
+     * Null once functions were removed ({@link #eliminateDeadFunctions}).
+     */
+    private int[] token_starts;
+
+    /** The names of the functions removed ({@link #eliminateDeadFunctions}), in source order */
+    private String[] removed_functions = new String[0];
+
+    /**
+     * True if the bodies of the functions are parsed when they are reachable from
+     * main ({@link #parseProgramNodeLazy}), before the program is validated.
+     */
+    private boolean lazy = false;
+
+    /**
+     * The minimum number of tokens of the function bodies validated by a fork/join
+     * task ({@link #validateFunctionsConcurrently}), or 0 to validate the functions
+     * one at a time. Set for the programs parsed in parallel.
+     */
+    private int validation_batch = 0;
+
+    /**
+     * True if the functions are validated again only when what they depend on changed
+     * ({@link funcDef_Node#revalidate}). Set for the programs re-parsed after an edit.
+     */
+    private boolean incremental = false;
+
+    /**
+     * The validation that ran while the program was parsed ({@link #parseProgramNodePipelined}),
+     * reported by {@link #validateTree}, or null.
+     */
+    private ValidationPipeline pipeline = null;
+
+    /** True once the calls are bound to their functions ({@link #link}) */
+    private boolean linked = false;
+
+    /** The constants the literals of the functions refer to ({@link Jott_Node#getConstants}) */
+    private final ConstantPool pool;
+    /** The symbol table of the ids of the functions ({@link Jott_Node#getSymbols}) */
+    private final SymbolTable symbols;
 
     /**
      * Private Constructor 
      * (validation of the node done in {@link #parseProgramNode})
-     * @param functions - an array of function nodes
+     * @param functions     - an array of function nodes
+     * @param token_starts  - the index of the first token of each function, and the end index
      */
-    private program_Node(funcDef_Node[] functions, int line_number) {
+    private program_Node(funcDef_Node[] functions, int[] token_starts, int line_number) {
         super(line_number);
         func = functions;
+        this.token_starts = token_starts;
+        this.pool = Jott_Node.constants;
+        this.symbols = Jott_Node.symbols;
     }
 
     /**
      * Static parse method returning the {@link program_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A program node which has been validated in accordance 
      *          with the parse tree grammar
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static program_Node parseProgramNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.isEmpty()) { return new program_Node(null, 0); }
+    public static program_Node parseProgramNode(final TokenStream tokens) throws SyntaxError {
+        if(tokens.isEmpty()) { return new program_Node(null, null, 0); }
 
         //! Initializes the static elements of Jott_Node
         //  all of these are Jott program-specific objects,
         //  and are used on a program-by-program basis
-        Jott_Node.init();
+        Jott_Node.init(tokens.getSymbols());
 
-        Jott_Node.filename = tokens.get(0).getFilename();
-        int lineNum = tokens.get(0).getLineNum();
+        Jott_Node.filename = tokens.peek().getFilename();
+        Jott_Node.setSource(tokens);
+        int lineNum = tokens.peek().getLineNum();
         ArrayList<funcDef_Node> functions = new ArrayList<>();
+        ArrayList<Integer> starts = new ArrayList<>();
 
         do {
+            starts.add(tokens.position());
+            functions.add(funcDef_Node.parseFunctionDefNode(tokens));
+        } while(!tokens.isEmpty());
+        starts.add(tokens.position());
+        return new program_Node(functions.toArray(new funcDef_Node[functions.size()]), toArray(starts), lineNum);
+    }
+
+    /**
+     * Static parse method returning the {@link program_Node} for the parse tree,
+     * parsing the functions in parallel.
+     * 
+     * <p>
+     * The functions are found with a prescan of the tokens: a function starts at a
+     * {@code Def} and ends at the '}' matching its first '{'. Batches of functions
+     * are parsed on the common {@link java.util.concurrent.ForkJoinPool}. A function
+     * that fails to parse, or does not end where the prescan expected, is parsed
+     * again sequentially, along with everything after it, so syntax errors are the
+     * same as {@link #parseProgramNode} (the first error in source order).
+     * </p>
+     * 
+     * @param buffer        the tokens being parsed into a parse tree
+     * @param tokens        the stream over {@code buffer}, used for the sequential part
+     * @param batchTokens   the minimum number of tokens parsed by a single task
+     * @return  A program node which has been validated in accordance 
+     *          with the parse tree grammar
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
+     */
+    public static program_Node parseProgramNodeParallel(
+            final PackedTokenBuffer buffer,
+            final ListTokenStream tokens,
+            final int batchTokens
+        ) throws SyntaxError {
+        if(tokens.isEmpty()) { return new program_Node(null, null, 0); }
+
+        Jott_Node.init(tokens.getSymbols());
+        Jott_Node.filename = tokens.peek().getFilename();
+        Jott_Node.setSource(tokens);
+        int lineNum = tokens.peek().getLineNum();
+
+        // Prescan: the token span of each function, up to the first span the braces do not close
+        ArrayList<Integer> spans = new ArrayList<>();
+        int end = 0;
+        while(end < buffer.size() && buffer.getKeyword(end) == Keyword.DEF) {
+            int close = matchBraces(buffer, end);
+            if(close < 0) { break; }
+            spans.add(end);
+            end = close;
+        }
+        spans.add(end);
+
+        // Parsing the spans in batches of about batchTokens tokens
+        final int count = spans.size() - 1;
+        final int[] span_starts = toArray(spans);
+        final funcDef_Node[] parsed = new funcDef_Node[count];
+        ArrayList<FunctionBatch> batches = new ArrayList<>();
+        for(int first = 0; first < count; ) {
+            int last = first + 1;
+            while(last < count && span_starts[last] - span_starts[first] < batchTokens) { last++; }
+            batches.add(new FunctionBatch(buffer, span_starts, parsed, first, last));
+            first = last;
+        }
+        for(FunctionBatch batch : batches) { batch.fork(); }
+
+        // Joining in source order, up to the first function that did not parse as prescanned
+        int failed = count;
+        for(FunctionBatch batch : batches) {
+            if(failed < count) { batch.cancel(false); continue; }
+            batch.join();
+            if(batch.failed < batch.last) { failed = batch.failed; }
+        }
+
+        ArrayList<funcDef_Node> functions = new ArrayList<>(count);
+        ArrayList<Integer> starts = new ArrayList<>(count + 1);
+        for(int i = 0; i < failed; i++) {
+            functions.add(parsed[i]);
+            starts.add(span_starts[i]);
+        }
+
+        // Sequential from the first failed function (or the rest the prescan could not split)
+        tokens.seek(span_starts[failed]);
+        while(!tokens.isEmpty()) {
+            starts.add(tokens.position());
             functions.add(funcDef_Node.parseFunctionDefNode(tokens));
+        }
+        starts.add(tokens.position());
+        program_Node program = new program_Node(functions.toArray(new funcDef_Node[functions.size()]), toArray(starts), lineNum);
+        program.validation_batch = Math.max(batchTokens, 1);
+        return program;
+    }
+
+    /**
+     * Static parse method returning the {@link program_Node} for the parse tree,
+     * parsing only the signatures of the functions.
+     *
+     * <p>
+     * The body of each function is skipped to the '}' matching its first '{'
+     * ({@link funcDef_Node#parseFunctionSignature}). The bodies of the functions
+     * reachable from main are parsed when the program is validated
+     * ({@link #validateTree}), so the time to start a program depends on the
+     * code it can run, not the size of the file. Errors in the signatures are
+     * the same as {@link #parseProgramNode}, and the errors of the bodies are
+     * only reported for the functions reachable from main.
+     * </p>
+     *
+     * @param buffer    the tokens being parsed into a parse tree
+     * @param tokens    the stream over {@code buffer}
+     * @return  A program node with validated function signatures
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
+     */
+    public static program_Node parseProgramNodeLazy(
+            final PackedTokenBuffer buffer,
+            final ListTokenStream tokens
+        ) throws SyntaxError {
+        if(tokens.isEmpty()) { return new program_Node(null, null, 0); }
+
+        Jott_Node.init(tokens.getSymbols());
+        Jott_Node.filename = tokens.peek().getFilename();
+        Jott_Node.setSource(tokens);
+        int lineNum = tokens.peek().getLineNum();
+        ArrayList<funcDef_Node> functions = new ArrayList<>();
+        ArrayList<Integer> starts = new ArrayList<>();
+
+        do {
+            starts.add(tokens.position());
+            int end = matchBraces(buffer, tokens.position());
+            // Unclosed braces: the whole function is parsed (for its syntax error)
+            functions.add(end < 0 ?
+                funcDef_Node.parseFunctionDefNode(tokens) :
+                funcDef_Node.parseFunctionSignature(tokens, end));
         } while(!tokens.isEmpty());
-        return new program_Node(functions.toArray(new funcDef_Node[functions.size()]), lineNum);
+        starts.add(tokens.position());
+
+        program_Node program = new program_Node(functions.toArray(new funcDef_Node[functions.size()]), toArray(starts), lineNum);
+        program.lazy = true;
+        return program;
+    }
+
+    /**
+     * Static parse method returning the {@link program_Node} for the parse tree,
+     * validating the functions while the rest of the program is parsed.
+     *
+     * <p>
+     * Each function is handed to a validation thread as soon as it is parsed
+     * ({@link ValidationPipeline}), which validates the functions one at a time,
+     * in source order, while the parser reads the next ones. A function may only
+     * call the functions declared before it, so a function never waits for more
+     * than its own parse. The errors of the validation are held until the program
+     * is validated ({@link #validateTree}), and dropped if the parse fails, so the
+     * errors are the same as {@link #parseProgramNode} then {@link #validateTree}.
+     * </p>
+     *
+     * @param tokens -  the stream of tokens being parsed into a parse tree
+     * @return  A program node which has been validated in accordance 
+     *          with the parse tree grammar
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success. The validation
+     *              thread has finished when this method returns.
+     */
+    public static program_Node parseProgramNodePipelined(final TokenStream tokens) throws SyntaxError {
+        if(tokens.isEmpty()) { return new program_Node(null, null, 0); }
+
+        Jott_Node.init(tokens.getSymbols());
+        Jott_Node.filename = tokens.peek().getFilename();
+        Jott_Node.setSource(tokens);
+        int lineNum = tokens.peek().getLineNum();
+        ArrayList<funcDef_Node> functions = new ArrayList<>();
+        ArrayList<Integer> starts = new ArrayList<>();
+
+        ValidationPipeline pipeline = new ValidationPipeline();
+        pipeline.start();
+        boolean parsed = false;
+        try {
+            do {
+                starts.add(tokens.position());
+                funcDef_Node function = funcDef_Node.parseFunctionDefNode(tokens);
+                functions.add(function);
+                pipeline.add(function);
+            } while(!tokens.isEmpty());
+            starts.add(tokens.position());
+            parsed = true;
+        } finally {
+            pipeline.finish(!parsed); // (a program with a syntax error is not validated)
+        }
+
+        program_Node program = new program_Node(functions.toArray(new funcDef_Node[functions.size()]), toArray(starts), lineNum);
+        program.pipeline = pipeline;
+        return program;
+    }
+
+    /**
+     * Finds the end of the function starting at {@code start}: the token after the
+     * '}' that closes the first '{'.
+     * @return the index after the closing '}', or -1 if the braces are not closed
+     */
+    private static int matchBraces(PackedTokenBuffer buffer, int start) {
+        int depth = 0;
+        for(int i = start; i < buffer.size(); i++) {
+            TokenType type = buffer.getTokenType(i);
+            if(type == TokenType.L_BRACE) {
+                depth++;
+            } else if(type == TokenType.R_BRACE) {
+                if(--depth == 0) { return i + 1; }
+                if(depth < 0) { return -1; }
+            }
+        }
+        return -1;
+    }
+
+    /** A run of prescanned functions parsed by a single fork/join task */
+    private static class FunctionBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PackedTokenBuffer buffer;
+        private final int[] span_starts;
+        private final funcDef_Node[] parsed;
+        private final int first;
+        private final int last;
+        /** The first function that did not parse as prescanned ({@link #last} if none) */
+        private int failed;
+
+        FunctionBatch(PackedTokenBuffer buffer, int[] span_starts, funcDef_Node[] parsed, int first, int last) {
+            this.buffer = buffer;
+            this.span_starts = span_starts;
+            this.parsed = parsed;
+            this.first = first;
+            this.last = last;
+            this.failed = last;
+        }
+
+        @Override
+        protected void compute() {
+            ListTokenStream tokens = new ListTokenStream(this.buffer);
+            for(int i = this.first; i < this.last; i++) {
+                tokens.seek(this.span_starts[i]);
+                try {
+                    this.parsed[i] = funcDef_Node.parseFunctionDefNode(tokens);
+                } catch(SyntaxError | RuntimeException E) { // re-parsed sequentially
+                    this.failed = i;
+                    return;
+                }
+                if(tokens.position() != this.span_starts[i + 1]) {
+                    this.failed = i;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Static parse method returning the {@link program_Node} of an edited program,
+     * re-parsing only the functions whose tokens were re-lexed ({@link TokenEdit}).
+     * The other functions are reused from the previous tree, so only the edited
+     * functions are parsed. Reused functions after the edit are moved by the
+     * lines and characters the edit added or removed ({@link funcDef_Node#moveLines},
+     * {@link funcDef_Node#moveOffset}). The re-parsed program is validated
+     * incrementally: a reused function is only validated again if a function it
+     * calls changed its signature ({@link funcDef_Node#revalidate}).
+     *
+     * @param previous  the parse tree of the program before the edit
+     * @param edit      the re-tokenized program
+     * @param tokens    the stream over the edited tokens ({@code edit.getTokens()})
+     * @return  A program node which has been validated in accordance 
+     *          with the parse tree grammar (sharing the unchanged functions with {@code previous})
+     * @implNote    The functions are shared (a reused function can be validated
+     *              again), so {@code previous} should not be used after the re-parse.
+     * @see {@link jott_interpreter.SourceTokenizer#retokenize}
+     */
+    public static program_Node reparseProgramNode(
+            final program_Node previous,
+            final TokenEdit edit,
+            final ListTokenStream tokens
+        ) throws SyntaxError {
+        // (the reused functions keep the symbols of the previous program's table, which its edits share)
+        if(previous.func == null || previous.token_starts == null || tokens.isEmpty()
+                || previous.symbols != tokens.getSymbols()) { return parseProgramNode(tokens); }
+
+        Jott_Node.init(tokens.getSymbols());
+        Jott_Node.constants = previous.pool; // (the literals of the reused functions refer to them)
+        Jott_Node.filename = tokens.peek().getFilename();
+        Jott_Node.setSource(tokens);
+
+        final int[] oldStarts = previous.token_starts;
+        final int count = previous.func.length;
+        final int delta = edit.getTokenDelta();
+
+        // Functions ending before the first re-lexed token are unchanged
+        int kept = 0;
+        while(kept < count && oldStarts[kept + 1] <= edit.getFirst()) { kept++; }
+
+        // Functions starting after the replaced tokens are unchanged (but may have moved lines)
+        int next = kept;
+        while(next < count && oldStarts[next] < edit.getOldEnd()) { next++; }
+
+        ArrayList<funcDef_Node> functions = new ArrayList<>(count + 1);
+        ArrayList<Integer> starts = new ArrayList<>(count + 2);
+        for(int i = 0; i < kept; i++) {
+            functions.add(previous.func[i]);
+            starts.add(oldStarts[i]);
+        }
+
+        // Re-parsing until the next unchanged function (or the end of the tokens)
+        tokens.seek(oldStarts[kept]);
+        while(!tokens.isEmpty()) {
+            // unchanged functions the re-parsed functions ran into are re-parsed too
+            while(next < count && oldStarts[next] + delta < tokens.position()) { next++; }
+            if(next < count && oldStarts[next] + delta == tokens.position()) { break; }
+
+            starts.add(tokens.position());
+            functions.add(funcDef_Node.parseFunctionDefNode(tokens));
+        }
+        if(tokens.isEmpty()) { next = count; }
+
+        for(int i = next; i < count; i++) {
+            if(edit.getLineDelta() != 0) { previous.func[i].moveLines(edit.getLineDelta()); }
+            if(edit.getOffsetDelta() != 0) { previous.func[i].moveOffset(edit.getOffsetDelta()); }
+            functions.add(previous.func[i]);
+            starts.add(oldStarts[i] + delta);
+        }
+        starts.add(next < count ? oldStarts[count] + delta : tokens.position());
+
+        int lineNum = kept > 0 ? previous.linenum : edit.getTokens().getLineNum(0);
+        program_Node program = new program_Node(functions.toArray(new funcDef_Node[functions.size()]), toArray(starts), lineNum);
+        program.incremental = true;
+        return program;
+    }
+
+    private static int[] toArray(ArrayList<Integer> values) {
+        int[] array = new int[values.size()];
+        for(int i = 0; i < array.length; i++) { array[i] = values.get(i); }
+        return array;
+    }
+
+    /** @return the number of functions in the program */
+    public int getFunctionCount() {
+        return this.func == null ? 0 : this.func.length;
+    }
+
+    /** @return the constants of the literals of the program */
+    public ConstantPool getConstantPool() {
+        return this.pool;
+    }
+
+    /** @return the symbol table of the ids of the functions */
+    public SymbolTable getSymbolTable() {
+        return this.symbols;
+    }
+
+    /**
+     * Gets a function of the program.
+     * @param index the index of the function (in source order)
+     * @return the function definition node
+     */
+    public funcDef_Node getFunction(int index) {
+        return this.func[index];
+    }
+
+    /**
+     * @return the number of functions the last validation of a re-parsed program
+     *         validated, instead of reusing their previous validation ({@link funcDef_Node#revalidate})
+     */
+    public int getRevalidatedCount() {
+        int count = 0;
+        for(int i = 0; i < this.getFunctionCount(); i++) {
+            if(!this.func[i].isValidationReused()) { count++; }
+        }
+        return count;
     }
 
     @Override
@@ -66,29 +496,390 @@ public class program_Node extends Jott_Node{
         return str.toString();
     }
 
+    /**
+     * Finds the functions reachable from main: through the calls in the bodies of
+     * the functions reached before them ({@link funcDef_Node#getCalledFunctions},
+     * from the tokens of the bodies). A name reaches its first definition (the
+     * one declared by validation).
+     * @return for each function (in source order), true if it is reachable from main
+     */
+    public boolean[] findReachableFunctions() {
+        HashMap<Integer, Integer> first_definition = new HashMap<>();
+        for(int i = this.func.length - 1; i >= 0; i--) { first_definition.put(this.func[i].getSymbol(), i); }
+
+        boolean[] reachable = new boolean[this.func.length];
+        ArrayDeque<Integer> calls = new ArrayDeque<>();
+        Integer main = first_definition.get(SymbolTable.MAIN);
+        if(main != null) {
+            reachable[main] = true;
+            calls.push(main);
+        }
+        while(!calls.isEmpty()) {
+            for(int callee : this.func[calls.pop()].getCalledFunctions()) {
+                Integer index = first_definition.get(callee);
+                if(index != null && !reachable[index]) {
+                    reachable[index] = true;
+                    calls.push(index);
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Parses the bodies of the functions reachable from main (see {@link #parseProgramNodeLazy}),
+     * in source order, so the syntax error reported is the first one of the reachable code.
+     * @return false if a reachable body has a syntax error (printed)
+     */
+    private boolean parseReachableBodies() {
+        boolean[] reachable = this.findReachableFunctions();
+        for(int i = 0; i < this.func.length; i++) {
+            if(reachable[i] && !this.func[i].parseBody()) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Dead-function elimination: removes the functions main can never call from
+     * the validated program, along with their declarations and variable scopes.
+     * The call graph is the function calls the validation found ({@link Jott_Node#getCalls}),
+     * so a call in code that never runs (after a Return, or in an If that is
+     * never true) still keeps its function.
+     * @return the names of the removed functions, in source order
+     * @implNote    Only for a program that was just validated without errors
+     *              (every function name is declared once). The functions can no
+     *              longer be re-parsed incrementally ({@link #reparseProgramNode}
+     *              parses the whole program again).
+     */
+    public String[] eliminateDeadFunctions() {
+        if(this.func == null) { return this.removed_functions; }
+
+        // The callees of each caller (symbols), from the (caller, callee) pairs
+        final int[] calls = Jott_Node.getCalls();
+        final int symbols = this.symbols.size();
+        int[] first_callee = new int[symbols + 1];
+        for(int i = 0; i < calls.length; i += 2) { first_callee[calls[i] + 1]++; }
+        for(int symbol = 0; symbol < symbols; symbol++) { first_callee[symbol + 1] += first_callee[symbol]; }
+        int[] callees = new int[calls.length / 2];
+        int[] next = Arrays.copyOf(first_callee, symbols);
+        for(int i = 0; i < calls.length; i += 2) { callees[next[calls[i]]++] = calls[i + 1]; }
+
+        boolean[] reachable = new boolean[symbols];
+        ArrayDeque<Integer> pending = new ArrayDeque<>();
+        reachable[SymbolTable.MAIN] = true;
+        pending.push(SymbolTable.MAIN);
+        while(!pending.isEmpty()) {
+            final int caller = pending.pop();
+            for(int i = first_callee[caller]; i < first_callee[caller + 1]; i++) {
+                if(!reachable[callees[i]]) {
+                    reachable[callees[i]] = true;
+                    pending.push(callees[i]);
+                }
+            }
+        }
+
+        ArrayList<funcDef_Node> kept = new ArrayList<>(this.func.length);
+        ArrayList<String> removed = new ArrayList<>();
+        for(funcDef_Node function : this.func) {
+            final int symbol = function.getSymbol();
+            if(reachable[symbol]) {
+                kept.add(function);
+                continue;
+            }
+            Jott_Node.declared_functions.remove(symbol);
+            Jott_Node.setScope(symbol, null);
+            removed.add(this.symbols.name(symbol));
+        }
+        if(removed.isEmpty()) { return this.removed_functions; }
+
+        this.func = kept.toArray(new funcDef_Node[kept.size()]);
+        this.token_starts = null;
+        Jott_Node.findShadowedVariables();
+        this.removed_functions = removed.toArray(new String[removed.size()]);
+        return this.removed_functions;
+    }
+
+    /**
+     * Gets the functions removed from this program ({@link #eliminateDeadFunctions}),
+     * also for a program read from a cache.
+     * @return the names of the removed functions, in source order (empty if none were removed)
+     */
+    public String[] getRemovedFunctions() {
+        return this.removed_functions;
+    }
+
     @Override
     public boolean validateTree() {
-        Jott_Node.declared_functions.declareBuiltinFunctions();
+        if(this.lazy && !this.parseReachableBodies()) { return false; }
 
         boolean isValid = true;
 
-        for(funcDef_Node function : func) {
-            isValid &= function.validateTree();
+        if(this.pipeline != null) {
+            // validated while parsed (the built-in functions were declared first)
+            ValidationPipeline pipeline = this.pipeline;
+            this.pipeline = null;
+            isValid = pipeline.report();
+        } else {
+            Jott_Node.declared_functions.declareBuiltinFunctions();
+            if(this.validation_batch > 0) {
+                isValid = this.validateFunctionsConcurrently();
+            } else {
+                for(funcDef_Node function : func) {
+                    isValid &= this.incremental ? function.revalidate() : function.validateTree();
+                }
+            }
         }
 
-        if(!declared_functions.contains("main")) {
+        if(!declared_functions.contains(SymbolTable.MAIN)) {
             new SemanticError("Expected function 'Def main[]:Void' not present", 0)
                 .print(Jott_Node.filename);
             isValid = false;
         } 
 
+        Jott_Node.findShadowedVariables();
+        if(isValid) { this.link(); }
+
         return isValid;
     }
 
+    /**
+     * The link step, after the validation: binds every function call to the
+     * function it calls ({@link funcCall_Node#link}), so the execution does not
+     * look functions up by id. A program read from the cache is linked when executed.
+     */
+    public void link() {
+        for(funcDef_Node function : this.func) { function.link(); }
+        this.linked = true;
+    }
+
+    /**
+     * Validates the functions in two phases: the signatures in source order, declaring
+     * every function ({@link funcDef_Node#validateSignature}), then the bodies concurrently,
+     * on the common {@link java.util.concurrent.ForkJoinPool}, in batches of about
+     * {@link #validation_batch} tokens. Each body is validated in its own context
+     * ({@link Jott_Node#enterFunction}): it only sees the functions declared before it,
+     * and its variables go to a private copy of its scope, published after the tasks
+     * joined. The errors of each function are collected, and printed in source order,
+     * so they are the same as validating the functions one at a time.
+     * @return true if every function is valid
+     */
+    private boolean validateFunctionsConcurrently() {
+        final int count = this.func.length;
+        boolean[] valid = new boolean[count];
+        String[] signature_errors = new String[count];
+        for(int i = 0; i < count; i++) {
+            SemanticError.startCollecting();
+            try {
+                valid[i] = this.func[i].validateSignature();
+            } finally {
+                signature_errors[i] = SemanticError.stopCollecting();
+            }
+        }
+
+        BodyBatch[] batches = new BodyBatch[count];
+        int batch_count = 0;
+        for(int first = 0; first < count; ) {
+            int last = first + 1;
+            while(last < count && this.token_starts[last] - this.token_starts[first] < this.validation_batch) { last++; }
+            batches[batch_count++] = new BodyBatch(this.func, valid, first, last);
+            first = last;
+        }
+        Jott_Node.setConcurrent(true);
+        try {
+            for(int i = 0; i < batch_count; i++) { batches[i].fork(); }
+            for(int i = 0; i < batch_count; i++) { batches[i].join(); }
+        } finally {
+            Jott_Node.setConcurrent(false);
+        }
+
+        boolean isValid = true;
+        for(int b = 0; b < batch_count; b++) {
+            BodyBatch batch = batches[b];
+            for(int i = batch.first; i < batch.last; i++) {
+                System.err.print(signature_errors[i]);
+                System.err.print(batch.errors[i - batch.first]);
+                if(batch.scopes[i - batch.first] != null) {
+                    Jott_Node.setScope(this.func[i].getSymbol(), batch.scopes[i - batch.first]);
+                }
+                isValid &= valid[i];
+                isValid &= this.func[i].validateMain();
+            }
+        }
+        return isValid;
+    }
+
+    /** A run of function bodies validated by a single fork/join task ({@link #validateFunctionsConcurrently}) */
+    private static class BodyBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final funcDef_Node[] functions;
+        /** The validity of each function: of its signature, then of its body */
+        private final boolean[] valid;
+        private final int first;
+        private final int last;
+        /** The errors printed by each body, and its private scope (null if the body was not validated) */
+        private final String[] errors;
+        private final IdMap[] scopes;
+
+        BodyBatch(funcDef_Node[] functions, boolean[] valid, int first, int last) {
+            this.functions = functions;
+            this.valid = valid;
+            this.first = first;
+            this.last = last;
+            this.errors = new String[last - first];
+            this.scopes = new IdMap[last - first];
+        }
+
+        @Override
+        protected void compute() {
+            for(int i = this.first; i < this.last; i++) {
+                final funcDef_Node function = this.functions[i];
+                final boolean declared = Jott_Node.declared_functions.getNode(function.getSymbol()) == function;
+                SemanticError.startCollecting();
+                try {
+                    if(declared) { this.scopes[i - this.first] = Jott_Node.enterFunction(function.getSymbol()); }
+                    this.valid[i] &= function.validateBody();
+                } finally {
+                    if(declared) { Jott_Node.exitFunction(); }
+                    this.errors[i - this.first] = SemanticError.stopCollecting();
+                }
+            }
+        }
+    }
+
+    /**
+     * The thread validating the functions of a program while it is parsed
+     * ({@link #parseProgramNodePipelined}): the parser adds each function it
+     * parsed, and the thread validates them in source order, collecting the
+     * errors they print, until the parse is finished.
+     */
+    private static final class ValidationPipeline extends Thread {
+        /** The functions parsed so far, in source order (guarded by this) */
+        private final ArrayList<funcDef_Node> parsed = new ArrayList<>();
+        /** True once the parser added every function, or stopped on a syntax error (guarded by this) */
+        private boolean finished = false;
+        /** True if the parse failed: the functions not validated yet are skipped (guarded by this) */
+        private boolean cancelled = false;
+
+        /** The results of the validation, read after the thread ended */
+        private boolean valid = true;
+        private String errors = "";
+        /** The exception that stopped the validation (rethrown by {@link #report}), or null */
+        private Throwable failure = null;
+
+        ValidationPipeline() {
+            super("jott-validation");
+            this.setDaemon(true);
+        }
+
+        /** Hands a parsed function to the validation */
+        synchronized void add(funcDef_Node function) {
+            this.parsed.add(function);
+            this.notifyAll();
+        }
+
+        /**
+         * Ends the parse, and waits for the validation of the functions parsed.
+         * @param cancel true if the parse failed (the validation stops after the current function)
+         */
+        void finish(boolean cancel) {
+            synchronized(this) {
+                this.finished = true;
+                this.cancelled = cancel;
+                this.notifyAll();
+            }
+            boolean interrupted = false;
+            while(this.isAlive()) {
+                try {
+                    this.join();
+                } catch(InterruptedException E) {
+                    interrupted = true;
+                }
+            }
+            if(interrupted) { Thread.currentThread().interrupt(); }
+        }
+
+        /** @return the function at {@code index}, once parsed, or null if there is none (or the parse failed) */
+        private synchronized funcDef_Node next(int index) throws InterruptedException {
+            while(index >= this.parsed.size() && !this.finished) { this.wait(); }
+            if(this.cancelled || index >= this.parsed.size()) { return null; }
+            return this.parsed.get(index);
+        }
+
+        @Override
+        public void run() {
+            SemanticError.startCollecting();
+            try {
+                Jott_Node.declared_functions.declareBuiltinFunctions();
+                funcDef_Node function;
+                for(int i = 0; (function = this.next(i)) != null; i++) {
+                    this.valid &= function.validateTree();
+                }
+            } catch(Throwable E) { // (reported by the validation, unless the parse fails)
+                this.failure = E;
+            } finally {
+                this.errors = SemanticError.stopCollecting();
+            }
+        }
+
+        /**
+         * Prints the errors of the validation, as the functions printed them.
+         * @return true if every function is valid
+         * @throws RuntimeException the exception that stopped the validation, if any
+         */
+        boolean report() {
+            System.err.print(this.errors);
+            if(this.failure instanceof RuntimeException) { throw (RuntimeException)this.failure; }
+            if(this.failure instanceof Error) { throw (Error)this.failure; }
+            return this.valid;
+        }
+    }
+
     @Override
     public void execute() throws SemanticError {
-        Jott_Node.current_function_ID.push("main");
-        Jott_Node.declared_functions.getNode(Jott_Node.current_function_ID.peek()).execute();
-        Jott_Node.current_function_ID.pop();
+        if(!this.linked) { this.link(); }
+        Jott_Node.callStack().push(SymbolTable.MAIN);
+        final int frame = Jott_Node.pushFrame(Jott_Node.getScope(SymbolTable.MAIN).getFrameSize());
+        final int outer_frame = Jott_Node.enterFrame(frame);
+        Jott_Node.declared_functions.getNode(Jott_Node.callStack().peek()).execute();
+        Jott_Node.popFrame(outer_frame, frame);
+        Jott_Node.callStack().pop();
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.PROGRAM, this.linenum);
+        out.writeBoolean(this.func != null);
+        if(this.func == null) { return; } // empty Jott file
+        out.writeNodes(this.func);
+        out.writeInt(this.token_starts == null ? -1 : this.token_starts.length);
+        if(this.token_starts == null) { // dead functions removed (their names, for the report)
+            out.writeInt(this.removed_functions.length);
+            for(String name : this.removed_functions) { out.writeString(name); }
+            return;
+        }
+        for(int token_start : this.token_starts) { out.writeInt(token_start); }
+    }
+
+    /**
+     * Reads a {@link program_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static program_Node read(ProgramReader in, int line) throws IOException {
+        if(!in.readBoolean()) { return new program_Node(null, null, line); }
+        funcDef_Node[] functions = in.readNodes(new funcDef_Node[0]);
+        int count = in.readInt();
+        if(count < 0) {
+            program_Node program = new program_Node(functions, null, line);
+            program.removed_functions = new String[in.readInt()];
+            for(int i = 0; i < program.removed_functions.length; i++) { program.removed_functions[i] = in.readString(); }
+            return program;
+        }
+        int[] token_starts = new int[count];
+        for(int i = 0; i < token_starts.length; i++) { token_starts[i] = in.readInt(); }
+        return new program_Node(functions, token_starts, line);
     }
 }
@@ -1,10 +1,12 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -32,43 +34,57 @@ public class returnStatement_Node extends Jott_Node{
 
     /**
      * Static parse method returning a {@link returnStatement_Node} for the parse tree.
-     * @param tokens - the list of tokens being parsed into a parse tree
+     * @param tokens - the stream of tokens being parsed into a parse tree
      * @return  A return statement node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static returnStatement_Node parseReturnStatementNode(final ArrayList<Token> tokens) throws SyntaxError {
+    public static returnStatement_Node parseReturnStatementNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
         // void check, determines if there is an actual return statement
-        if(tokens.size() > 0) { 
-            if(tokens.get(0).getTokenType() == TokenType.ID_KEYWORD &&
-                    tokens.get(0).getToken().equals("Return")) {
-                tokens.remove(0);
+        if(tokens.hasRemaining(1)) { 
+            if(tokens.peek().getKeyword() == Keyword.RETURN) {
+                tokens.advance();
                 expr_Node expression = expr_Node.parseExprNode(tokens);
                 
-                if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-                if(tokens.get(0).getTokenType() != TokenType.SEMICOLON) { throw new SyntaxError("Invalid Token: Expected ;"); }
-                tokens.remove(0);
+                tokens.expect(TokenType.SEMICOLON, "Invalid Token: Expected ;");
 
-                return new returnStatement_Node(expression);
+                return Jott_Node.span(new returnStatement_Node(expression), tokens, start);
             }
         }
         
         // Void 
         // (actual function return type should be checked by the semantic analyzer)
-        return new returnStatement_Node(null);
+        return Jott_Node.span(new returnStatement_Node(null), tokens, start);
     }
 
     public boolean isVoid() {
         return this.returnExpr == null;
     }
 
+    @Override
+    public boolean isCompilable() {
+        return this.isVoid() || this.returnExpr.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        if(this.isVoid()) { return; } // (a Void function returns at its end)
+        this.returnExpr.compile(out);
+        out.emitReturn(this.returnExpr.getType());
+    }
+
+    /** @return the expression being returned (null for a void return) */
+    public Jott_Node getExpression() {
+        return this.returnExpr;
+    }
+
     public void SetExpression(Jott_Node validReturnExpr) {
         assert (validReturnExpr.getType() != ReturnType.Void); // function should only be called with a non-void expression
         this.returnExpr = validReturnExpr;
@@ -106,4 +122,23 @@ public class returnStatement_Node extends Jott_Node{
     public Object getValue() {
         return this.isVoid() ? null : this.returnExpr.getValue();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.RETURN_STMT, this.linenum);
+        out.writeNode(this.returnExpr); // (an expression, or the statement validation set)
+    }
+
+    /**
+     * Reads a {@link returnStatement_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static returnStatement_Node read(ProgramReader in, int line) throws IOException {
+        returnStatement_Node returnStmt = new returnStatement_Node(null);
+        returnStmt.returnExpr = in.readNode();
+        return returnStmt;
+    }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import jott_interpreter.nodes.token_nodes.*;
 import provided.*;
 
@@ -33,7 +36,7 @@ public class varDec_Node extends Jott_Node {
     /**
      * Static parse method returning a {@link varDec_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A variable declaration node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -41,23 +44,21 @@ public class varDec_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.STRING}
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static varDec_Node parseVarDecNode(ArrayList<Token> tokens) throws SyntaxError {
-        int lineNum = tokens.get(0).getLineNum();
+    public static varDec_Node parseVarDecNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        int lineNum = tokens.peek().getLineNum();
         type_Node tempType = type_Node.parseTypeNode(tokens);
         id_Node tempID = id_Node.parseIdNode(tokens);
 
         // check semi colon
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.SEMICOLON) { throw new SyntaxError("Invalid Token: Expected ';'"); }
-        tokens.remove(0);
+        tokens.expect(TokenType.SEMICOLON, "Invalid Token: Expected ';'");
         
-        return new varDec_Node(tempType, tempID, lineNum);
+        return Jott_Node.span(new varDec_Node(tempType, tempID, lineNum), tokens, start);
     }
 
     /**
@@ -75,14 +76,14 @@ public class varDec_Node extends Jott_Node {
         boolean isValid = this.type.validateTree() && this.id.validateTree();
 
         // checking if variable already declared in function scope
-        if(Jott_Node.function_scope.get(current_function_ID.peek()).contains(this.id.toString())) {
-            new SemanticError("Function already contains variable id: " + this.id.toString(), super.linenum)
+        if(Jott_Node.getScope(callStack().peek()).contains(this.id.getSymbol())) {
+            new SemanticError("Function already contains variable id: " + this.id.getText(), this.getLineNum())
                 .print(Jott_Node.filename);
             isValid = false;
         } else {
             // Adding variable to current function scope
-            Jott_Node.function_scope.get(current_function_ID.peek())
-                .add(this.id.toString(), this);
+            Jott_Node.getScope(callStack().peek())
+                .add(this.id.getSymbol(), this);
         }
 
         return isValid;
@@ -95,4 +96,23 @@ public class varDec_Node extends Jott_Node {
     public ReturnType getType() {
         return this.type.getType();
     }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.VAR_DEC, this.linenum);
+        out.writeNode(this.type);
+        out.writeNode(this.id);
+    }
+
+    /**
+     * Reads a {@link varDec_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static varDec_Node read(ProgramReader in, int line) throws IOException {
+        type_Node type = in.readNode(type_Node.class);
+        return new varDec_Node(type, in.readNode(id_Node.class), line);
+    }
 }
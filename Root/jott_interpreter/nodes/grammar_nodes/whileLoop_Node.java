@@ -1,76 +1,143 @@
 package jott_interpreter.nodes.grammar_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.ArrayDeque;
 
+import jott_interpreter.Bytecode;
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
-public class whileLoop_Node extends Jott_Node{
+public class whileLoop_Node extends Jott_Node implements BlockStack.Block {
     private final expr_Node expr;
     private final body_Node body;
 
-    private whileLoop_Node(expr_Node expr, body_Node body, int line_number) {
+    whileLoop_Node(expr_Node expr, body_Node body, int line_number) {
         super(line_number);
         this.expr = expr;
         this.body = body;
     }
 
-    public static whileLoop_Node parseWhileLoopNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.ID_KEYWORD) { throw new SyntaxError("Unexpected token type, expected ID_KEYWORD"); }
-        if (!tokens.get(0).getToken().equals("While")) { throw new SyntaxError("Invalid token, expected \"While\""); }
-        int lineNum = tokens.remove(0).getLineNum();
-        if (tokens.get(0).getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token, expected \"[\""); }
-        tokens.remove(0);
-
-        expr_Node tempExpr = expr_Node.parseExprNode(tokens);
-        
-        if (tokens.size() < 2) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token, expected \"]\""); }
-        tokens.remove(0);
-        if (tokens.get(0).getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token, expected \"{\""); }
-        tokens.remove(0);
+    public static whileLoop_Node parseWhileLoopNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        int lineNum = tokens.peek().getLineNum();
+        expr_Node tempExpr = parseHead(tokens);
 
         body_Node tempBody = body_Node.parseBodyNode(tokens);
 
-        if (tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if (tokens.get(0).getTokenType() != TokenType.R_BRACE) { throw new SyntaxError("Invalid token, expected \"}\""); }
-        tokens.remove(0);
+        parseClose(tokens);
+
+        return Jott_Node.span(new whileLoop_Node(tempExpr, tempBody, lineNum), tokens, start);
+    }
+
+    /** Parses the head of a while loop ({@code While [< expr >] {}), returning the condition */
+    static expr_Node parseHead(final TokenStream tokens) throws SyntaxError {
+        if (!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        if (tokens.peek().getTokenType() != TokenType.ID_KEYWORD) { throw new SyntaxError("Unexpected token type, expected ID_KEYWORD"); }
+        if (tokens.peek().getKeyword() != Keyword.WHILE) { throw new SyntaxError("Invalid token, expected \"While\""); }
+        tokens.advance();
+        if (tokens.peek().getTokenType() != TokenType.L_BRACKET) { throw new SyntaxError("Invalid token, expected \"[\""); }
+        tokens.advance();
 
-        return new whileLoop_Node(tempExpr, tempBody, lineNum);
+        expr_Node tempExpr = expr_Node.parseExprNode(tokens);
+        
+        if (!tokens.hasRemaining(2)) { throw new SyntaxError("Unexpected EOF"); }
+        if (tokens.peek().getTokenType() != TokenType.R_BRACKET) { throw new SyntaxError("Invalid token, expected \"]\""); }
+        tokens.advance();
+        if (tokens.peek().getTokenType() != TokenType.L_BRACE) { throw new SyntaxError("Invalid token, expected \"{\""); }
+        tokens.advance();
+        return tempExpr;
+    }
+
+    /** Parses the '}' closing the body of a while loop */
+    static void parseClose(final TokenStream tokens) throws SyntaxError {
+        tokens.expect(TokenType.R_BRACE, "Invalid token, expected \"}\"");
     }
 
     @Override
     public String convertToJott() {
-        return "While[" + this.expr.convertToJott() + "]{" + this.body.convertToJott() + "}";
+        return BlockStack.convertToJott(this);
+    }
+
+    @Override
+    public void pushJott(ArrayDeque<Object> parts) {
+        parts.push("}");
+        parts.push(this.body);
+        parts.push("]{");
+        parts.push(this.expr);
+        parts.push("While[");
     }
 
     @Override
     public boolean validateTree() {
-        boolean valid = this.expr.validateTree();
+        return BlockStack.validateTree(this);
+    }
 
-        if(!valid) { return false; } // forced early function exit
+    @Override
+    public Jott_Node validateStep(BlockStack.Frame frame) {
+        if(frame.step++ > 0) { // after the body
+            frame.valid = frame.result;
+            return null;
+        }
+
+        frame.valid = this.expr.validateTree();
+
+        if(!frame.valid) { return null; } // forced early function exit
         
         if(this.expr.getType() != ReturnType.Boolean) {
-            new SemanticError("Expression in while statement not of type: boolean", super.linenum)
+            new SemanticError("Expression in while statement not of type: boolean", this.getLineNum())
                 .print(Jott_Node.filename);
-            valid = false;
+            frame.valid = false;
+            return null;
         }
 
-        return valid && this.body.validateTree();
+        return this.body;
     }
 
     @Override
     public void execute() throws SemanticError{
-        this.expr.execute();
-        Boolean bool = (Boolean)(this.expr.getValue());
-        while(bool) {
+        while(this.expr.evalBoolean()) {
             this.body.execute();
-            this.expr.execute();
-            bool = (Boolean)(this.expr.getValue());
         }
     }
+
+    @Override
+    public boolean isCompilable() {
+        return this.expr.isCompilable() && this.body.isCompilable();
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        final int head = out.position();
+        this.expr.compile(out);
+        final int exit = out.emitJump(Bytecode.JUMP_IF_FALSE);
+        out.startLoop(head);
+        this.body.compile(out);
+        out.endLoop();
+        out.emitJump(Bytecode.JUMP, head);
+        out.patch(exit);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.WHILE_LOOP, this.linenum);
+        out.writeNode(this.expr);
+        out.writeNode(this.body);
+    }
+
+    /**
+     * Reads a {@link whileLoop_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static whileLoop_Node read(ProgramReader in, int line) throws IOException {
+        expr_Node expr = in.readNode(expr_Node.class);
+        return new whileLoop_Node(expr, in.readNode(body_Node.class), line);
+    }
 }
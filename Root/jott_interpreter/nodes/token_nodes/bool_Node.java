@@ -1,9 +1,16 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
+import jott_interpreter.ConstantPool;
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
+import jott_interpreter.nodes.BytecodeWriter;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import provided.Token;
 import provided.TokenType;
 
@@ -12,8 +19,10 @@ import provided.TokenType;
  */
 public class bool_Node extends Jott_Node {
 
-    /** Valid {@code boolean} reference from token list */
-    private final boolean bool;
+    /** The index of the {@code boolean} value from the token list in the {@link #pool} */
+    private final int constant;
+    /** The constant pool of the program the node was parsed in ({@link #getConstants}) */
+    private final ConstantPool pool;
 
     /**
      * Private Constructor 
@@ -21,14 +30,20 @@ public class bool_Node extends Jott_Node {
      * @param boolToken a validated {@code ID_KEYWORD} token reference
      */
     private bool_Node(Token boolToken) {
-        super(boolToken.getLineNum());
-        this.bool = boolToken.getToken().equals("True");
+        this(boolToken.getKeyword() == Keyword.TRUE, boolToken.getLineNum());
+    }
+
+    /** Constructor of a node parsed, or read from a cached program ({@link #read}) */
+    private bool_Node(boolean bool, int line_number) {
+        super(line_number);
+        this.pool = Jott_Node.getConstants();
+        this.constant = this.pool.addBoolean(bool);
     }
 
     /**
      * Static parse method returning a {@link bool_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A bool node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -36,24 +51,25 @@ public class bool_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.ID_KEYWORD}
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static bool_Node parseBoolNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) {
+    public static bool_Node parseBoolNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) {
             throw new SyntaxError("Unexpected EOF");
         }
-        if (tokens.get(0).getTokenType() != TokenType.ID_KEYWORD) {
+        if (tokens.peek().getTokenType() != TokenType.ID_KEYWORD) {
             throw new SyntaxError("Token type not Valid bool");
         }
-        if (!tokens.get(0).getToken().equals("True") && !tokens.get(0).getToken().equals("False")) {
+        if (tokens.peek().getKeyword() != Keyword.TRUE && tokens.peek().getKeyword() != Keyword.FALSE) {
             throw new SyntaxError("Invalid Token: Expected 'True' or 'False'");
         }
         
-        return new bool_Node(tokens.remove(0));
+        bool_Node bool = Jott_Node.span(new bool_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(bool, bool_Node.class, bool.evalBoolean());
     }
 
     /**
@@ -63,7 +79,7 @@ public class bool_Node extends Jott_Node {
      */
     @Override
     public String convertToJott() {
-        return this.bool ? "True" : "False";
+        return this.evalBoolean() ? "True" : "False";
     }
 
     @Override
@@ -81,6 +97,38 @@ public class bool_Node extends Jott_Node {
 
     @Override
     public Object getValue() {
-        return Boolean.valueOf(this.bool);
+        return Boolean.valueOf(this.evalBoolean());
+    }
+
+    @Override
+    public boolean evalBoolean() {
+        return this.pool.getBoolean(this.constant);
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        out.emitConstant(this.pool, this.constant, ReturnType.Boolean);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.BOOL, this.linenum);
+        out.writeBoolean(this.evalBoolean());
+    }
+
+    /**
+     * Reads a {@link bool_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static bool_Node read(ProgramReader in, int line) throws IOException {
+        return new bool_Node(in.readBoolean(), line);
     }
 }
@@ -1,10 +1,13 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SemanticError;
+import jott_interpreter.SymbolTable;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -15,6 +18,16 @@ public class id_Node extends Jott_Node {
 
     /** Valid {@code ID_KEYWORD} token reference */
     private final Token id;
+    /** The symbol of the id, in the symbol table of its program ({@link Jott_Node#getSymbols}) */
+    private final int symbol;
+
+    /**
+     * The frame slot of the variable this id reads or writes, resolved by the
+     * validation ({@link #resolveFrameSlot}), or -1 (a function, or not resolved)
+     */
+    private int frame_slot = -1;
+    /** The type of the variable of {@link #frame_slot} (the array of the frame it is in) */
+    private ReturnType frame_type = null;
 
     /**
      * Private Constructor 
@@ -24,12 +37,13 @@ public class id_Node extends Jott_Node {
     private id_Node(Token idToken) {
         super(idToken.getLineNum());
         this.id = idToken;
+        this.symbol = idToken.getSymbol(Jott_Node.symbols);
     }
 
     /**
      * Static parse method returning an {@link id_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  An ID node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -37,18 +51,18 @@ public class id_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.ID_KEYWORD}
      * @throws SyntaxError  {@code Token is a Keyword, expected an ID}: token
      *                      being parsed is a {@code Keyword}, not an id
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static id_Node parseIdNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.ID_KEYWORD) { throw new SyntaxError("Token type not ID_KEYWORD"); }
-        if(Character.isUpperCase(tokens.get(0).getToken().charAt(0))) { throw new SyntaxError("Token is a Keyword, expected an ID"); }
+    public static id_Node parseIdNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.ID_KEYWORD) { throw new SyntaxError("Token type not ID_KEYWORD"); }
+        if(tokens.peek().getKeyword() != Keyword.NONE) { throw new SyntaxError("Token is a Keyword, expected an ID"); }
 
-        return new id_Node(tokens.remove(0));
+        return Jott_Node.span(new id_Node(tokens.advance()), tokens, start);
     }
 
     @Override
@@ -56,6 +70,35 @@ public class id_Node extends Jott_Node {
         return this.id.getToken();
     }
 
+    /**
+     * Gets the interned identifier of this id.
+     * @return the {@link SymbolTable} symbol of the id
+     */
+    public int getSymbol() {
+        return this.symbol;
+    }
+
+    /**
+     * Resolves this id to a variable of the function being validated, so the
+     * execution reads and writes it in the function's frame ({@link Jott_Node#getFrameValue}).
+     * @param slot the frame slot of the variable in the function's scope ({@link jott_interpreter.IdMap#getFrameSlot})
+     * @param type the type of the variable
+     */
+    public void resolveFrameSlot(int slot, ReturnType type) {
+        this.frame_slot = slot;
+        this.frame_type = type;
+    }
+
+    /** @return the frame slot of the variable of this id, or -1 if it was not resolved ({@link #resolveFrameSlot}) */
+    public int getFrameSlot() {
+        return this.frame_slot;
+    }
+
+    /** @return the type of the variable of this id, or null if it was not resolved ({@link #resolveFrameSlot}) */
+    public ReturnType getFrameType() {
+        return this.frame_type;
+    }
+
     @Override
     public boolean validateTree() {
         return true;
@@ -64,33 +107,101 @@ public class id_Node extends Jott_Node {
     @Override
     public ReturnType getType() {
         // if id is a function, return function ReturnType
-        if(Jott_Node.declared_functions.contains(this.toString())) {
-            return Jott_Node.declared_functions.getReturnType(this.toString());
+        if(Jott_Node.isFunction(this.getSymbol())) {
+            return Jott_Node.declared_functions.getReturnType(this.getSymbol());
         // if id is a variable reference, return variable type
         } else {
-            assert (current_function_ID != null); // if cf_id == null, following line will error
-            return Jott_Node.function_scope.get(current_function_ID.peek())
-                .getReturnType(this.toString());
+            assert (!callStack().isEmpty()); // if no function is on the call stack, following line will error
+            return Jott_Node.getScope(callStack().peek())
+                .getReturnType(this.getSymbol());
         }
     }
 
     @Override
     public void execute() throws SemanticError{ 
         // if id is a function, execute the function
-        if(Jott_Node.declared_functions.contains(this.toString())) {
-            Jott_Node.declared_functions.getNode(this.toString()).execute();
+        if(Jott_Node.declared_functions.contains(this.getSymbol())) {
+            Jott_Node.declared_functions.getNode(this.getSymbol()).execute();
         } // else, do nothing
     }
 
     @Override
     public Object getValue() {
+        // a variable resolved by validation (unless some variable is named like a function)
+        if(this.frame_slot >= 0 && !Jott_Node.hasShadowedVariables()) {
+            return Jott_Node.getFrameValue(this.frame_slot, this.frame_type);
+        }
         // if id is a function, return function ReturnType
-        if(Jott_Node.declared_functions.contains(this.toString())) {
-            return Jott_Node.declared_functions.getNode(this.toString()).getValue();
+        if(Jott_Node.declared_functions.contains(this.getSymbol())) {
+            return Jott_Node.declared_functions.getNode(this.getSymbol()).getValue();
         // if id is a variable reference, return variable type
         } else {
-            return Jott_Node.function_scope.get(current_function_ID.peek())
-                .getNode(this.toString()).getValue();
+            return Jott_Node.getFrameValue(this.frame_slot, this.frame_type);
         }
     }
+
+    @Override
+    public int evalInt() {
+        if(this.frame_slot >= 0 && !Jott_Node.hasShadowedVariables()) {
+            return Jott_Node.getFrameInt(this.frame_slot);
+        }
+        return (Integer)this.getValue();
+    }
+
+    @Override
+    public double evalDouble() {
+        if(this.frame_slot >= 0 && !Jott_Node.hasShadowedVariables()) {
+            return Jott_Node.getFrameDouble(this.frame_slot);
+        }
+        return (Double)this.getValue();
+    }
+
+    @Override
+    public boolean evalBoolean() {
+        if(this.frame_slot >= 0 && !Jott_Node.hasShadowedVariables()) {
+            return Jott_Node.getFrameInt(this.frame_slot) != 0;
+        }
+        return (Boolean)this.getValue();
+    }
+
+    @Override
+    public String evalString() {
+        if(this.frame_slot >= 0 && !Jott_Node.hasShadowedVariables()) {
+            return (String)Jott_Node.getFrameValue(this.frame_slot);
+        }
+        return (String)this.getValue();
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return this.frame_slot >= 0; // (variables only, resolved by validation)
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        // (variables only: a function id is compiled by its call)
+        out.emitLoad(this.frame_type, this.frame_slot);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.ID, this.linenum);
+        out.writeToken(this.id);
+        out.writeInt(this.frame_slot);
+        out.writeType(this.frame_type);
+    }
+
+    /**
+     * Reads a {@link id_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static id_Node read(ProgramReader in, int line) throws IOException {
+        id_Node id = new id_Node(in.readToken());
+        id.frame_slot = in.readInt();
+        id.frame_type = in.readType();
+        return id;
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import provided.*;
 
 /**
@@ -27,7 +31,7 @@ public class mathop_Node extends Jott_Node {
     /**
      * Static parse method returning a {@link mathop_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A mathop node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -35,17 +39,18 @@ public class mathop_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.MATH_OP}
      * @throws SyntaxError  {@code Invalid Mathop}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static mathop_Node parseMathopNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.MATH_OP) { throw new SyntaxError("Token type not MATH_OP"); }
-        assert ("+-*/".contains(tokens.get(0).getToken())); // not a syntax error (would be a problem in our code)
-        return new mathop_Node(tokens.remove(0));
+    public static mathop_Node parseMathopNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.MATH_OP) { throw new SyntaxError("Token type not MATH_OP"); }
+        assert ("+-*/".contains(tokens.peek().getToken())); // not a syntax error (would be a problem in our code)
+        mathop_Node mathop = Jott_Node.span(new mathop_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(mathop, mathop_Node.class, mathop.mathop.getToken());
     }
 
     /**
@@ -72,4 +77,21 @@ public class mathop_Node extends Jott_Node {
 
     @Override
     public void execute() { /* Do Nothing */ }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.MATHOP, this.linenum);
+        out.writeToken(this.mathop);
+    }
+
+    /**
+     * Reads a {@link mathop_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static mathop_Node read(ProgramReader in, int line) throws IOException {
+        return new mathop_Node(in.readToken());
+    }
 }
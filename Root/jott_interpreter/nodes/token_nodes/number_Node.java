@@ -1,8 +1,11 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
+import jott_interpreter.ConstantPool;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.*;
 import provided.*;
 
@@ -14,6 +17,14 @@ public class number_Node extends Jott_Node {
     /** valid {@code NUMBER} token reference */
     private Token num;  
 
+    /** Double if the number has a decimal point, else Integer */
+    private final ReturnType type;
+
+    /** The index of the value of the number in the {@link #pool} (of its type) */
+    private final int constant;
+    /** The constant pool of the program the node was parsed in ({@link #getConstants}) */
+    private final ConstantPool pool;
+
     /**
      * Private Constructor 
      * (validation of the node done in {@link #parseNumberNode})
@@ -22,27 +33,40 @@ public class number_Node extends Jott_Node {
     private number_Node(Token numberToken) {
         super(numberToken.getLineNum());
         this.num = numberToken;
+        this.pool = Jott_Node.getConstants();
+        // Check if number is integer or double
+        final String token = numberToken.getToken();
+        if (token.contains(".")) {
+            this.type = ReturnType.Double;
+            this.constant = this.pool.addDouble(Double.parseDouble(token));
+        } else {
+            this.type = ReturnType.Integer;
+            // (saturated, as a literal beyond 32 bits was printed)
+            this.constant = this.pool.addInt((int)Double.parseDouble(token));
+        }
     }
 
     /**
      * Static parse method returning a {@link number_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A number node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
      * @throws SyntaxError  {@code Token type not NUMBER}: token being parsed 
      *                      is not a {@code TokenType.NUMBER}
-     * @implNote    The first element in the input array list of {@code Token} 
-     *              objects will be removed given validation success
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              first token given validation success
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static number_Node parseNumberNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.NUMBER) { throw new SyntaxError("Token type not NUMBER"); }
+    public static number_Node parseNumberNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.NUMBER) { throw new SyntaxError("Token type not NUMBER"); }
 
-        return new number_Node(tokens.remove(0));
+        number_Node number = Jott_Node.span(new number_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(number, number_Node.class, number.num.getToken());
     }
 
     @Override
@@ -57,12 +81,7 @@ public class number_Node extends Jott_Node {
 
     @Override
     public ReturnType getType() {
-        // Check if number is integer or double
-        if (this.num.getToken().contains(".")) {
-            return ReturnType.Double;
-        } else {
-            return ReturnType.Integer;
-        }
+        return this.type;
     }
 
     @Override
@@ -70,6 +89,48 @@ public class number_Node extends Jott_Node {
 
     @Override
     public Object getValue() {
-        return Double.parseDouble(this.num.getToken());
+        if(this.type == ReturnType.Integer) {
+            return Integer.valueOf(this.evalInt());
+        }
+        return Double.valueOf(this.evalDouble());
+    }
+
+    @Override
+    public int evalInt() {
+        assert (this.type == ReturnType.Integer);
+        return this.pool.getInt(this.constant);
+    }
+
+    @Override
+    public double evalDouble() {
+        assert (this.type == ReturnType.Double);
+        return this.pool.getDouble(this.constant);
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        out.emitConstant(this.pool, this.constant, this.type);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.NUMBER, this.linenum);
+        out.writeToken(this.num);
+    }
+
+    /**
+     * Reads a {@link number_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static number_Node read(ProgramReader in, int line) throws IOException {
+        return new number_Node(in.readToken());
     }
 }
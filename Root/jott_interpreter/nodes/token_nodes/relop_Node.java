@@ -1,9 +1,13 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import provided.Token;
 import provided.TokenType;
 
@@ -28,7 +32,7 @@ public class relop_Node extends Jott_Node {
     /**
      * Static parse method returning a {@link relop_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A relop node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -36,17 +40,18 @@ public class relop_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.RELOP}
      * @throws SyntaxError  {@code Invalid Relop}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static relop_Node parseRelopNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if(tokens.size() < 1) { throw new SyntaxError("Unexpected EOF"); }
-        if(tokens.get(0).getTokenType() != TokenType.REL_OP) { throw new SyntaxError("Token type not RELOP"); }
-        assert ("<=>=!==".contains(tokens.get(0).getToken())); // not a syntax error (would be a problem with our code)
-        return new relop_Node(tokens.remove(0));
+    public static relop_Node parseRelopNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if(!tokens.hasRemaining(1)) { throw new SyntaxError("Unexpected EOF"); }
+        if(tokens.peek().getTokenType() != TokenType.REL_OP) { throw new SyntaxError("Token type not RELOP"); }
+        assert ("<=>=!==".contains(tokens.peek().getToken())); // not a syntax error (would be a problem with our code)
+        relop_Node relop = Jott_Node.span(new relop_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(relop, relop_Node.class, relop.relop.getToken());
     }
 
     /**
@@ -71,4 +76,21 @@ public class relop_Node extends Jott_Node {
 
     @Override
     public void execute() { /* Do Nothing */ }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.RELOP, this.linenum);
+        out.writeToken(this.relop);
+    }
+
+    /**
+     * Reads a {@link relop_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static relop_Node read(ProgramReader in, int line) throws IOException {
+        return new relop_Node(in.readToken());
+    }
 }
\ No newline at end of file
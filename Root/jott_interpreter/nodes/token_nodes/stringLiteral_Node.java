@@ -1,9 +1,15 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
+import jott_interpreter.ConstantPool;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
+import jott_interpreter.nodes.BytecodeWriter;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import provided.Token;
 import provided.TokenType;
 
@@ -12,8 +18,10 @@ import provided.TokenType;
  */
 public class stringLiteral_Node extends Jott_Node {
 
-    /** Valid {@code STRING} token reference */
-    private String stringLiteral;
+    /** The index of the {@code STRING} token's text (unquoted) in the {@link #pool} */
+    private final int constant;
+    /** The constant pool of the program the node was parsed in ({@link #getConstants}) */
+    private final ConstantPool pool;
 
     /**
      * Private Constructor 
@@ -21,16 +29,21 @@ public class stringLiteral_Node extends Jott_Node {
      * @param stringLiteral a validated {@code STRING} token reference
      */
     public stringLiteral_Node(Token stringLiteral) {
-        super(stringLiteral.getLineNum());
-        this.stringLiteral = stringLiteral.getToken();
         // Removing quotation marks {["..."] -> [...]}
-        this.stringLiteral = this.stringLiteral.substring(1, this.stringLiteral.length()-1);
+        this(stringLiteral.getToken().substring(1, stringLiteral.getToken().length()-1), stringLiteral.getLineNum());
+    }
+
+    /** Constructor of a node parsed, or read from a cached program ({@link #read}) */
+    private stringLiteral_Node(String stringLiteral, int line_number) {
+        super(line_number);
+        this.pool = Jott_Node.getConstants();
+        this.constant = this.pool.addString(stringLiteral);
     }
 
     /**
      * Static parse method returning a {@link stringLiteral_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A string literal node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -38,24 +51,25 @@ public class stringLiteral_Node extends Jott_Node {
      *                      parsed is not a {@code TokenType.STRING}
      * @throws SyntaxError  {@code Invalid Token}: token being parsed is not 
      *                      the expected token
-     * @implNote    The token(s) in the input array list of {@code Token} 
-     *              objects will be removed from the list given validation 
-     *              success.
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              consumed token(s) given validation success.
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static stringLiteral_Node parseStringLiteralNode(final ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) {
+    public static stringLiteral_Node parseStringLiteralNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) {
             throw new SyntaxError("Unexpected EOF");
         }
-        if (tokens.get(0).getTokenType() != TokenType.STRING) {
+        if (tokens.peek().getTokenType() != TokenType.STRING) {
             throw new SyntaxError("Token type not Valid String");
         }
         assert(
-            tokens.get(0).getToken().startsWith("\"") && 
-            tokens.get(0).getToken().endsWith("\"")
+            tokens.peek().getToken().startsWith("\"") && 
+            tokens.peek().getToken().endsWith("\"")
         ); // not a syntax error (would be problem in our code)
-        return new stringLiteral_Node(tokens.remove(0));
+        stringLiteral_Node string = Jott_Node.span(new stringLiteral_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(string, stringLiteral_Node.class, string.evalString());
     }
 
     /**
@@ -65,7 +79,7 @@ public class stringLiteral_Node extends Jott_Node {
      */
     @Override
     public String convertToJott() {
-        return '\"' + stringLiteral + '\"';
+        return '\"' + this.evalString() + '\"';
     }
 
     @Override
@@ -83,6 +97,38 @@ public class stringLiteral_Node extends Jott_Node {
 
     @Override
     public Object getValue() {
-        return this.stringLiteral;
+        return this.evalString();
+    }
+
+    @Override
+    public String evalString() {
+        return this.pool.getString(this.constant);
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public void compile(BytecodeWriter out) {
+        out.emitConstant(this.pool, this.constant, ReturnType.String);
+    }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.STRING_LITERAL, this.linenum);
+        out.writeString(this.evalString());
+    }
+
+    /**
+     * Reads a {@link stringLiteral_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static stringLiteral_Node read(ProgramReader in, int line) throws IOException {
+        return new stringLiteral_Node(in.readString(), line);
     }
 }
\ No newline at end of file
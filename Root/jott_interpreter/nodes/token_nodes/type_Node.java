@@ -1,9 +1,14 @@
 package jott_interpreter.nodes.token_nodes;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
+import jott_interpreter.Keyword;
 import jott_interpreter.ReturnType;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.Jott_Node;
+import jott_interpreter.nodes.ProgramReader;
+import jott_interpreter.nodes.ProgramWriter;
 import provided.Token;
 import provided.TokenType;
 
@@ -42,10 +47,16 @@ public class type_Node extends Jott_Node {
         }
     }
 
+    /** Constructor of a node read from a cached program ({@link #read}) */
+    private type_Node(ReturnType type, int line_number) {
+        super(line_number);
+        this.type = type;
+    }
+
     /**
      * Static parse method returning a {@link type_Node} for the parse tree.
      * 
-     * @param tokens -  the list of tokens being parsed into a parse tree
+     * @param tokens -  the stream of tokens being parsed into a parse tree
      * @return  A type node which has been validated in accordance 
      *          with the parse tree grammar
      * @throws SyntaxError  {@code Unexpected EOF}: no token to parse
@@ -53,32 +64,27 @@ public class type_Node extends Jott_Node {
      *                      is not a {@code TokenType.ID_KEYWORD}
      * @throws SyntaxError  {@code Invalid variable type}: token being parsed
      *                      is not one of the following: Double, Integer, String, Boolean
-     * @implNote    The first element in the input array list of {@code Token} 
-     *              objects will be removed given validation success
+     * @implNote    The input {@code TokenStream} will be advanced past the
+     *              first token given validation success
      * @see {@link Token} 
      * @see {@link TokenType}
      */
-    public static type_Node parseTypeNode(ArrayList<Token> tokens) throws SyntaxError {
-        if (tokens.size() < 1) {
+    public static type_Node parseTypeNode(final TokenStream tokens) throws SyntaxError {
+        int start = tokens.position();
+        if (!tokens.hasRemaining(1)) {
             throw new SyntaxError("Unexpected EOF");
         }
-        if (tokens.get(0).getTokenType() != TokenType.ID_KEYWORD) {
+        if (tokens.peek().getTokenType() != TokenType.ID_KEYWORD) {
             throw new SyntaxError("Token Type not ID_KEYWORD");
         }
-        if (!Character.isUpperCase(tokens.get(0).getToken().charAt(0))) {
+        if (tokens.peek().getKeyword() == Keyword.NONE) {
             throw new SyntaxError("Token is an ID, expected KEYWORD");
         }
-        if (
-            !(
-                tokens.get(0).getToken().equals("Double") ||
-                tokens.get(0).getToken().equals("Integer") ||
-                tokens.get(0).getToken().equals("String") ||
-                tokens.get(0).getToken().equals("Boolean")
-            )
-        ) {
+        if (!tokens.peek().getKeyword().isVariableType()) {
             throw new SyntaxError("Invalid variable type");
         }
-        return new type_Node(tokens.remove(0));
+        type_Node type = Jott_Node.span(new type_Node(tokens.advance()), tokens, start);
+        return Jott_Node.intern(type, type_Node.class, type.type);
     }
 
     @Override
@@ -112,4 +118,21 @@ public class type_Node extends Jott_Node {
 
     @Override
     public void execute() { /* Do Nothing */ }
+
+    @Override
+    public void write(ProgramWriter out) throws IOException {
+        out.writeKind(ProgramWriter.TYPE, this.linenum);
+        out.writeType(this.type);
+    }
+
+    /**
+     * Reads a {@link type_Node} written by {@link #write} (see {@link ProgramReader#readNode}).
+     * @param in    the reader of the cached program
+     * @param line  the line number of the node
+     * @return the node read
+     * @throws IOException if the stream can not be read
+     */
+    public static type_Node read(ProgramReader in, int line) throws IOException {
+        return new type_Node(in.readType(), line);
+    }
 }
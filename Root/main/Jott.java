@@ -1,41 +1,136 @@
 package main;
-import java.util.ArrayList;
+import java.io.File;
 
+import jott_interpreter.Bytecode;
+import jott_interpreter.BytecodeVM;
 import jott_interpreter.Interpreter;
+import jott_interpreter.ListTokenStream;
+import jott_interpreter.PackedTokenBuffer;
+import jott_interpreter.ProgramCache;
 import jott_interpreter.SemanticError;
+import jott_interpreter.TokenStream;
 import provided.JottParser;
 import provided.JottTree;
-import provided.Token;
 
 public class Jott {
     
-    public static void main(String[] args) {
-        String filename;
-        ArrayList<Token> tokens;
-        JottTree root = null;
-        boolean valid_semantics = false;
-
-        if(args.length != 1) {
+    /** Tokenize the file while it is parsed, instead of before */
+    private static boolean streaming = false;
+    /** Parse the functions of the file in parallel */
+    private static boolean parallel = false;
+    /** Validate the functions of the file while it is parsed */
+    private static boolean pipelined = false;
+    /** Parse the function bodies only when they are reachable from main */
+    private static boolean lazy = false;
+    /** Share the identical constant subtrees of the parse tree */
+    private static boolean hashConsing = false;
+    /** Remove the functions main can never call, after validation */
+    private static boolean eliminateDead = false;
+    /** The directory of the validated programs to reuse ({@link ProgramCache}), or null */
+    private static String cacheDirectory = null;
+    /** Execute the program compiled to bytecode, instead of walking its tree */
+    private static boolean vm = false;
+
+    /**
+     * Reads the command line options, and returns the filename argument.
+     * Usage: main.Jott [--stream] [--pipeline] [--parallel | --lazy] [--hash-cons] [--eliminate-dead] [--cache={directory}] [--vm] {filename}
+     */
+    private static String parseArguments(String[] args) {
+        streaming = false;
+        parallel = false;
+        pipelined = false;
+        lazy = false;
+        hashConsing = false;
+        eliminateDead = false;
+        cacheDirectory = null;
+        vm = false;
+        String filename = null;
+        for(String arg : args) {
+            if(arg.equals("--stream")) {
+                streaming = true;
+            } else if(arg.equals("--parallel")) {
+                parallel = true;
+            } else if(arg.equals("--pipeline")) {
+                pipelined = true;
+            } else if(arg.equals("--lazy")) {
+                lazy = true;
+            } else if(arg.equals("--hash-cons")) {
+                hashConsing = true;
+            } else if(arg.equals("--eliminate-dead")) {
+                eliminateDead = true;
+            } else if(arg.equals("--vm")) {
+                vm = true;
+            } else if(arg.startsWith("--cache=")) {
+                cacheDirectory = arg.substring("--cache=".length());
+            } else if(arg.startsWith("--")) {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            } else if(filename == null) {
+                filename = arg;
+            } else {
+                filename = null;
+                break;
+            }
+        }
+        if(filename == null) {
             System.err.println("Main function in Jott.java requires a filename argument.");
             System.exit(1);
         }
+        if(streaming && parallel) {
+            System.err.println("Options --stream and --parallel can not be used together.");
+            System.exit(1);
+        }
+        if(pipelined && (parallel || lazy)) {
+            System.err.println("Option --pipeline can not be used with --parallel or --lazy.");
+            System.exit(1);
+        }
+        if(lazy && (streaming || parallel)) {
+            System.err.println("Option --lazy can not be used with --stream or --parallel.");
+            System.exit(1);
+        }
+        return filename;
+    }
 
-        /** Get the filename from the command line arguments */
-        filename = args[0];
+    /**
+     * Tokenizes, parses and validates a Jott file (PHASE 1 to 3).
+     * @param filename the path of the Jott file
+     * @return the validated root of the JottTree, or null if the file has errors (printed)
+     */
+    private static JottTree compile(String filename) {
+        TokenStream tokens;
+        PackedTokenBuffer packed = null;
+        JottTree root = null;
+        boolean valid_semantics = false;
 
         //< PHASE 1
         /** Tokenize the file */
-        tokens = Interpreter.tokenize(filename);
+        if(streaming) {
+            // tokenized by the parser (syntax errors reported in PHASE 2)
+            tokens = Interpreter.stream(filename);
+        } else {
+            packed = Interpreter.tokenizePacked(filename);
 
-        //! Prematurely End Program: 
-        //  Invalid Syntax 
-        if(tokens == null) { return; }
+            //! Prematurely End Program: 
+            //  Invalid Syntax 
+            if(packed == null) { return null; }
+
+            tokens = new ListTokenStream(packed);
+        }
 
         //< PHASE 2
         /** Parse the tokens into a root node of the JottTree */
         try{
 
-            root = JottParser.parse(tokens);
+            JottParser.setHashConsing(hashConsing);
+            if(parallel) {
+                root = JottParser.parseParallel(packed);
+            } else if(lazy) {
+                root = JottParser.parseLazy(packed);
+            } else if(pipelined) {
+                root = JottParser.parsePipelined(tokens);
+            } else {
+                root = JottParser.parse(tokens);
+            }
 
         } catch (Exception e) {
             System.err.println("Error Parsing Tokens: \n");
@@ -45,7 +140,7 @@ public class Jott {
 
         //! Prematurely End Program: 
         //  Incorrect Parse Grammar
-        if(root == null) { return; }
+        if(root == null) { return null; }
 
         //< PHASE 3
         /** Validate the ParseTree */
@@ -61,13 +156,65 @@ public class Jott {
         
         //! Prematurely End Program: 
         //  Invalid Jott Semantics
-        if(!valid_semantics) { return; }
+        if(!valid_semantics) { return null; }
+
+        /** Remove the dead functions (reported by main) */
+        if(eliminateDead) { Interpreter.eliminateDeadFunctions(root); }
+        return root;
+    }
+
+    /**
+     * The options that change the program stored in the cache (each is a separate entry).
+     * @return the variant of the cached program, or null
+     */
+    private static String cacheVariant() {
+        if(lazy && eliminateDead) { return "lazy-dead"; }
+        if(lazy) { return "lazy"; }
+        if(eliminateDead) { return "dead"; }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        String filename;
+        JottTree root = null;
+
+        /** Get the filename from the command line arguments */
+        filename = parseArguments(args);
+
+        /** Get the validated program from the cache (skipping PHASE 1 to 3), or compile it */
+        ProgramCache cache = null;
+        if(cacheDirectory != null) {
+            cache = new ProgramCache(new File(cacheDirectory), filename, cacheVariant());
+            root = cache.load();
+        }
+        if(root == null) {
+            root = compile(filename);
+
+            //! Prematurely End Program: 
+            //  Invalid Syntax or Semantics
+            if(root == null) { return; }
+
+            if(cache != null) { cache.store(root); }
+        }
+
+        /** Report the dead functions removed (also from a cached program) on System.err */
+        if(eliminateDead) {
+            String[] removed = Interpreter.getRemovedFunctions(root);
+            if(removed.length > 0) {
+                System.err.println("Removed " + removed.length + " dead function(s): " + String.join(", ", removed));
+            }
+        }
 
         //< PHASE 4
-        /** Evaluate the JottTree */
+        /** Evaluate the JottTree (compiled to bytecode, if it can be) */
         try {
 
-            root.execute();
+            Bytecode code = vm ? Interpreter.compileBytecode(root) : null;
+            if(code != null) {
+                BytecodeVM.execute(code);
+            } else {
+                root.execute();
+            }
 
         } catch (SemanticError error) { 
             // Runtime Exception
@@ -2,7 +2,11 @@ package provided;
 
 import java.util.ArrayList;
 
+import jott_interpreter.ListTokenStream;
+import jott_interpreter.PackedTokenBuffer;
 import jott_interpreter.SyntaxError;
+import jott_interpreter.TokenEdit;
+import jott_interpreter.TokenStream;
 import jott_interpreter.nodes.Jott_Node;
 import jott_interpreter.nodes.grammar_nodes.program_Node;
 
@@ -12,6 +16,17 @@ import jott_interpreter.nodes.grammar_nodes.program_Node;
  */
 public class JottParser {
 
+    /**
+     * Turns hash-consing on or off for the following parses: structurally identical,
+     * side-effect-free subtrees (literals, types, operators and expressions over
+     * literals) share one instance, which lowers the memory of large programs.
+     * The parse trees behave the same either way.
+     * @param enabled true to share the subtrees
+     */
+    public static void setHashConsing(boolean enabled){
+      Jott_Node.setHashConsing(enabled);
+    }
+
     /**
      * Parses an ArrayList of Jott tokens into a Jott Parse Tree.
      * @param tokens the ArrayList of Jott tokens to parse
@@ -19,21 +34,138 @@ public class JottParser {
      *         or null upon an error in parsing.
      */
     public static JottTree parse(ArrayList<Token> tokens){
+      return parse(new ListTokenStream(tokens));
+    }
+
+    /**
+     * Parses a stream of Jott tokens into a Jott Parse Tree.
+     * A tokenizer syntax error hit by the stream (while parsing) is reported
+     * instead of the parse error it caused.
+     * @param tokens the stream of Jott tokens to parse
+     * @return the root of the Jott Parse Tree represented by the tokens.
+     *         or null upon an error in parsing.
+     */
+    public static JottTree parse(TokenStream tokens){
       JottTree root;
 
       try {
         root = program_Node.parseProgramNode(tokens);
       } catch (SyntaxError Error) {
         // Error.printStackTrace(); // Debugging
-        if(tokens.size() != 0) {
-          Token errorToken = tokens.get(0);
-          Error.print(errorToken.getFilename(), errorToken.getLineNum());
-        } else {
-          Error.print(Jott_Node.filename, 0);
-        }
+        if(!tokens.reportTokenizerError()) { printError(Error, tokens); }
+        return null;
+      }
+
+      //! Only a prefix of the file was valid tokens
+      if(tokens.reportTokenizerError()) { return null; }
+
+      return root;
+    }
+
+    /**
+     * Parses a stream of Jott tokens into a Jott Parse Tree, validating each
+     * function while the next ones are parsed. {@link JottTree#validateTree}
+     * then reports the validation (the errors are the same as {@link #parse}).
+     * @param tokens the stream of Jott tokens to parse
+     * @return the root of the Jott Parse Tree represented by the tokens.
+     *         or null upon an error in parsing.
+     */
+    public static JottTree parsePipelined(TokenStream tokens){
+      JottTree root;
+
+      try {
+        root = program_Node.parseProgramNodePipelined(tokens);
+      } catch (SyntaxError Error) {
+        if(!tokens.reportTokenizerError()) { printError(Error, tokens); }
         return null;
       }
 
+      //! Only a prefix of the file was valid tokens
+      if(tokens.reportTokenizerError()) { return null; }
+
       return root;
     }
+
+    /**
+     * Re-parses an edited Jott program, parsing only the functions whose tokens
+     * changed and reusing the other functions of the previous parse tree.
+     * Errors are reported the same as {@link #parse}. When the returned tree is
+     * validated, the reused functions are only validated again if a function they
+     * call changed its signature (their errors are reported again as they were).
+     * @param previous  the parse tree of the program before the edit (from {@link #parse} or {@code reparse})
+     * @param edit      the re-tokenized program (see {@link jott_interpreter.SourceTokenizer#retokenize})
+     * @return the root of the Jott Parse Tree of the edited program,
+     *         or null upon an error in parsing.
+     */
+    public static JottTree reparse(JottTree previous, TokenEdit edit){
+      ListTokenStream tokens = new ListTokenStream(edit.getTokens().standaloneTokens(), edit.getTokens());
+
+      try {
+        return program_Node.reparseProgramNode((program_Node)previous, edit, tokens);
+      } catch (SyntaxError Error) {
+        printError(Error, tokens);
+        return null;
+      }
+    }
+
+    /**
+     * Parses packed Jott tokens into a Jott Parse Tree, parsing the functions
+     * in parallel. The tree and errors are the same as {@link #parse}.
+     * @param tokens the packed Jott tokens to parse
+     * @return the root of the Jott Parse Tree represented by the tokens.
+     *         or null upon an error in parsing.
+     */
+    public static JottTree parseParallel(PackedTokenBuffer tokens){
+      return parseParallel(tokens, program_Node.BATCH_TOKENS);
+    }
+
+    /**
+     * Parses packed Jott tokens into a Jott Parse Tree, parsing the functions
+     * in parallel, in batches of (about) {@code batchTokens} tokens.
+     * @param tokens the packed Jott tokens to parse
+     * @param batchTokens the minimum number of tokens parsed by a single task
+     * @return the root of the Jott Parse Tree represented by the tokens.
+     *         or null upon an error in parsing.
+     */
+    public static JottTree parseParallel(PackedTokenBuffer tokens, int batchTokens){
+      ListTokenStream stream = new ListTokenStream(tokens);
+
+      try {
+        return program_Node.parseProgramNodeParallel(tokens, stream, batchTokens);
+      } catch (SyntaxError Error) {
+        printError(Error, stream);
+        return null;
+      }
+    }
+
+    /**
+     * Parses packed Jott tokens into a Jott Parse Tree, parsing only the signatures
+     * of the functions. The bodies of the functions reachable from main are parsed
+     * when the tree is validated, which reports their syntax errors (the first one
+     * in source order, as {@link #parse} would). Errors in functions that are not
+     * reachable from main are not reported.
+     * @param tokens the packed Jott tokens to parse
+     * @return the root of the Jott Parse Tree represented by the tokens.
+     *         or null upon an error in parsing.
+     */
+    public static JottTree parseLazy(PackedTokenBuffer tokens){
+      ListTokenStream stream = new ListTokenStream(tokens);
+
+      try {
+        return program_Node.parseProgramNodeLazy(tokens, stream);
+      } catch (SyntaxError Error) {
+        printError(Error, stream);
+        return null;
+      }
+    }
+
+    /** Prints a syntax error at the line of the token the parser stopped at */
+    private static void printError(SyntaxError Error, TokenStream tokens){
+      if(!tokens.isEmpty()) {
+        Token errorToken = tokens.peek();
+        Error.print(errorToken.getFilename(), errorToken.getLineNum());
+      } else {
+        Error.print(Jott_Node.filename, 0);
+      }
+    }
 }
@@ -9,39 +9,65 @@ import jott_interpreter.nodes.Jott_Node;
 
 /**
  * Tokenization class containing Jott Tokenizer
+ *
+ * The tokenizer reads its file one token at a time ({@link #next}), holding only
+ * the reader's buffer: {@link #tokenize} reads every token, and the --stream
+ * option (jott_interpreter.LazyTokenStream) reads them while they are parsed.
  */
-public class JottTokenizer {
+public class JottTokenizer implements Closeable {
+  private static final int EOF = -1; // for use by BufferedReader
+
+  /** The name of the file being tokenized */
+  private final String filename;
+  /** Input Stream Wrapper */
+  private final BufferedReader reader;
+  /** The line of the last token read (or of the syntax error) */
+  private int linenum;
 
   /**
-   * Takes in a filename and tokenizes that file into Tokens
-   * based on the rules of the Jott Language
-   * 
+   * Opens a file to be tokenized, one token at a time.
+   * Exits the program if the file can not be found.
+   *
    * @param filename the name of the file to tokenize; can be relative or absolute
    *                 path
-   * @exception SyntaxError Exception caught in method; Error output to System.err
-   *          Error format: Syntax Error
-   *                        {Error Message}
-   *                        {filename}:{linenum}
-   * @return an ArrayList of Jott Tokens
    */
-  public static ArrayList<Token> tokenize(String filename) {
-    final int EOF = -1; // for use by BufferedReader
+  public JottTokenizer(String filename) {
+    this.filename = filename;
+    this.linenum = 1;
+    Jott_Node.filename = filename;
 
-    // Output ArrayList, final to prevent accidental deletion
-    final ArrayList<Token> tokens = new ArrayList<>();
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new InputStreamReader(
+          new FileInputStream(filename), Charset.forName("UTF-8")));
+    } catch (FileNotFoundException fnfE) {
+      // Buffered Exception: possible future need
+      System.err.println("File: '" + filename + "' not found.");
+      System.exit(1);
+    }
+    this.reader = reader;
+  }
 
-    int linenum = 1;
-    Jott_Node.filename = filename;
+  /** @return the name of the file being tokenized */
+  public String getFilename() { return this.filename; }
+
+  /** @return the line of the last token read, or of the syntax error thrown */
+  public int getLineNum() { return this.linenum; }
 
-    // Input Stream Wrapper
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-        new FileInputStream(filename), Charset.forName("UTF-8")))) {
+  /**
+   * Reads the next token of the file, based on the rules of the Jott Language
+   *
+   * @exception SyntaxError on an invalid token; {@link #getLineNum} is its line
+   * @return the next Jott Token, or null at the end of the file
+   */
+  public Token next() throws SyntaxError {
+    try {
       int c;
       char character;
       String tokenString;
       Token token = null; // Explicit initialization
 
-      //! Main While Loop
+      //! Main While Loop (until a token is generated)
       while ((c = reader.read()) != EOF) {
         character = (char) (c);
 
@@ -229,24 +255,53 @@ public class JottTokenizer {
           throw new SyntaxError("Invalid Token: " + character);
         }
         
-        tokens.add(token);  // Adds token generated to ArrayList
-
-        token = null;       // Explicit variable reset for debugging
-        tokenString = null; // Explicit variable reset for debugging
+        return token; // the token generated
       }
-    } catch (FileNotFoundException fnfE) {
-      // Buffered Exception: possible future need
-      System.err.println("File: '" + filename + "' not found.");
-      System.exit(1);
     } catch (IOException ioE) {
       // Buffered Exception: possible future need
       System.err.println("IO Operation Failed/Interrupted");
       System.exit(1);
-    } catch(SyntaxError E) {
-      E.print(filename, linenum);
-      return null;
+    }
+    return null; // EOF
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.reader.close();
+    } catch (IOException ioE) {
+      // Nothing left to read: the file is no longer needed
+    }
+  }
+
+  /**
+   * Takes in a filename and tokenizes that file into Tokens
+   * based on the rules of the Jott Language
+   * 
+   * @param filename the name of the file to tokenize; can be relative or absolute
+   *                 path
+   * @exception SyntaxError Exception caught in method; Error output to System.err
+   *          Error format: Syntax Error
+   *                        {Error Message}
+   *                        {filename}:{linenum}
+   * @return an ArrayList of Jott Tokens
+   */
+  public static ArrayList<Token> tokenize(String filename) {
+    // Output ArrayList, final to prevent accidental deletion
+    final ArrayList<Token> tokens = new ArrayList<>();
+
+    try (JottTokenizer tokenizer = new JottTokenizer(filename)) {
+      try {
+        Token token;
+        while ((token = tokenizer.next()) != null) {
+          tokens.add(token); // Adds token generated to ArrayList
+        }
+      } catch (SyntaxError E) {
+        E.print(filename, tokenizer.getLineNum());
+        return null;
+      }
     }
 
     return tokens;
   }
-}
\ No newline at end of file
+}
@@ -1,4 +1,9 @@
 package provided;
+
+import jott_interpreter.Keyword;
+import jott_interpreter.PackedTokenBuffer;
+import jott_interpreter.SymbolTable;
+
 /**
  * Class representing a token string for the Jott translator
  *
@@ -6,10 +11,18 @@ package provided;
  */
 public class Token {
 
-    private final String token;
+    // (the fields of a standalone token: a view reads them from its buffer)
+    private String token;
     private final String filename;
     private final int lineNum;
     private final TokenType type;
+    /** The keyword of the token, identified on first use for a standalone token */
+    private Keyword keyword;
+
+    /** The buffer this token is a view of (null for a standalone token, append-only) */
+    private final PackedTokenBuffer buffer;
+    /** The index of this token in {@link #buffer} */
+    private final int index;
 
     /**
      * Creates an instance of a token
@@ -23,6 +36,37 @@ public class Token {
         this.filename = filename;
         this.lineNum = lineNum;
         this.type = type;
+        this.buffer = null;
+        this.index = -1;
+    }
+
+    /**
+     * Creates a standalone token whose keyword is already known.
+     * @param token the token string
+     * @param filename the name of the file the token came from
+     * @param lineNum the number of the line in the file that the token appears on
+     * @param type the type of this token
+     * @param keyword the keyword of the token
+     */
+    public Token(String token, String filename, int lineNum, TokenType type, Keyword keyword) {
+        this(token, filename, lineNum, type);
+        this.keyword = keyword;
+    }
+
+    /**
+     * Creates a lightweight view of a token stored in a {@link PackedTokenBuffer}:
+     * the getters read the token from the buffer when they are called, and the
+     * token string is only created the first time it is requested.
+     * @param buffer the buffer holding the token
+     * @param index the index of the token in the buffer
+     */
+    public Token(PackedTokenBuffer buffer, int index) {
+        this.token = null;
+        this.filename = null;
+        this.lineNum = 0;
+        this.type = null;
+        this.buffer = buffer;
+        this.index = index;
     }
 
     /**
@@ -30,6 +74,9 @@ public class Token {
      * @return the token string
      */
     public String getToken() {
+        if (token == null) {
+            token = buffer.getLexeme(index);
+        }
         return token;
     }
 
@@ -37,14 +84,14 @@ public class Token {
      * Getter for the token file name
      * @return the token file name
      */
-    public String getFilename() { return filename; }
+    public String getFilename() { return buffer != null ? buffer.getFilename() : filename; }
 
     /**
      * Getter for the token line number
      * @return the line number of the token
      */
     public int getLineNum() {
-        return lineNum;
+        return buffer != null ? buffer.getLineNum(index) : lineNum;
     }
 
     /**
@@ -52,6 +99,37 @@ public class Token {
      * @return the line number of the token
      */
     public TokenType getTokenType() {
-        return type;
+        return buffer != null ? buffer.getTokenType(index) : type;
+    }
+
+    /**
+     * Getter for the token keyword
+     * @return the keyword of an ID_KEYWORD token; {@link Keyword#NONE} if
+     *         the token is an id or not of type ID_KEYWORD
+     */
+    public Keyword getKeyword() {
+        if (buffer != null) {
+            return buffer.getKeyword(index);
+        }
+        if (keyword == null) {
+            keyword = (type == TokenType.ID_KEYWORD) ? Keyword.of(getToken()) : Keyword.NONE;
+        }
+        return keyword;
+    }
+
+    /**
+     * Getter for the token symbol in the symbol table of a program: the symbol
+     * interned by the tokenizer for a view of a buffer of that table, otherwise
+     * the token string interned in the table
+     * @param symbols the symbol table of the program
+     * @return the symbol of an id token; {@link SymbolTable#NONE}
+     *         if the token is a keyword or not of type ID_KEYWORD
+     */
+    public int getSymbol(SymbolTable symbols) {
+        if (buffer != null && buffer.getSymbols() == symbols) {
+            return buffer.getSymbol(index);
+        }
+        return (getKeyword() == Keyword.NONE && getTokenType() == TokenType.ID_KEYWORD)
+            ? symbols.intern(getToken()) : SymbolTable.NONE;
     }
 }
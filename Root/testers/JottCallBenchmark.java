@@ -0,0 +1,78 @@
+package testers;
+
+/*
+  Jott function call benchmark. Times the execution of call-heavy programs, with
+  the calls bound to their functions by the link step after validation.
+
+  Each program is parsed and validated once, then executed several times (after
+  warm-up runs): the best time is reported, per call.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottCallBenchmark {
+    private static final int ITERATIONS = 1_000_000;
+    private static final int FIB = 22;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    /** The number of calls of fib(n), counting the call itself */
+    private static long fibCalls(int n) {
+        return n < 2 ? 1 : 1 + fibCalls(n - 1) + fibCalls(n - 2);
+    }
+
+    private static String loop(String call) {
+        return "Def main[]:Void{\n    Integer i;\n    Integer x;\n    i = 0;\n"
+            + "    While[i < " + ITERATIONS + "]{\n        x = " + call + ";\n        i = i + 1;\n    }\n"
+            + "    ::print[x];\n}\n";
+    }
+
+    private static JottTree parse(File file, String program) throws IOException {
+        Files.write(file.toPath(), program.getBytes());
+        JottTree tree = JottParser.parse(JottTokenizer.tokenize(file.getPath()));
+        if(tree == null || !tree.validateTree()) {
+            throw new IllegalStateException("Generated program failed to validate");
+        }
+        return tree;
+    }
+
+    private static long timeExecute(JottTree tree) throws SemanticError {
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(new ByteArrayOutputStream()));
+            long start = System.nanoTime();
+            tree.execute();
+            return System.nanoTime() - start;
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    private static void run(File file, String name, String program, long calls) throws IOException, SemanticError {
+        JottTree tree = parse(file, program);
+        for(int run = 0; run < WARMUP; run++) { timeExecute(tree); }
+        long best = Long.MAX_VALUE;
+        for(int run = 0; run < RUNS; run++) { best = Math.min(best, timeExecute(tree)); }
+        System.out.printf("%-10s %12d %12.1f%n", name, calls, (double)(best) / calls);
+    }
+
+    public static void main(String[] args) throws IOException, SemanticError {
+        File file = File.createTempFile("calls", ".jott");
+        file.deleteOnExit();
+        System.out.printf("%-10s %12s %12s%n", "program", "calls", "ns/call");
+
+        run(file, "add", "Def add[a:Integer, b:Integer]:Integer{\n    Return a + b;\n}\n"
+            + loop("::add[i, 1]"), ITERATIONS);
+        run(file, "length", loop("::length[\"abc\"]"), ITERATIONS);
+        run(file, "fib", "Def fib[n:Integer]:Integer{\n    If[n < 2]{\n        Return n;\n    }\n"
+            + "    Return ::fib[n - 1] + ::fib[n - 2];\n}\n"
+            + "Def main[]:Void{\n    ::print[::fib[" + FIB + "]];\n}\n", fibCalls(FIB));
+    }
+}
@@ -0,0 +1,169 @@
+package testers;
+
+/*
+  Checks the constant pool of the literals (jott_interpreter.ConstantPool): each
+  distinct constant of a program is stored once (Booleans as the Integers 1 and 0),
+  generated programs printing random literals in a loop print the values computed
+  here (alone, with --hash-cons, --parallel, and with the program stored in and then
+  loaded from a cache), and a re-parsed program (after another program was parsed)
+  keeps the constants of the functions it reuses.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+import jott_interpreter.nodes.Jott_Node;
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class JottConstantPoolTester {
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static String execute(JottTree tree) throws SemanticError {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(output));
+            if(tree == null || !tree.validateTree()) { return "invalid"; }
+            tree.execute();
+        } finally {
+            System.setOut(stdout);
+        }
+        return output.toString();
+    }
+
+    private static boolean compare(String name, String expected, String actual) {
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + name);
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    /** Repeated literals of every type: 3 Integers (1, 2, and 0 for False), 1 Double and 1 String */
+    private static boolean testDistinct(File copy) throws IOException, SemanticError {
+        Files.write(copy.toPath(), ("Def main[]:Void{\n    Integer i;\n    Boolean b;\n    i = 1;\n"
+            + "    While[i < 2]{\n        ::print[1];\n        ::print[1.5];\n        ::print[1.50];\n"
+            + "        ::print[\"a\"];\n        ::print[\"a\"];\n        b = True;\n        ::print[b];\n"
+            + "        b = False;\n        ::print[b];\n        i = i + 1;\n    }\n    ::print[True];\n}\n").getBytes());
+        JottTree tree = JottParser.parse(JottTokenizer.tokenize(copy.getPath()));
+        int size = Jott_Node.getConstants().size();
+        return compare("distinct (size)", "5", String.valueOf(size))
+            & compare("distinct", "1\n1.5\n1.5\na\na\nTrue\nFalse\nTrue\n", execute(tree));
+    }
+
+    /** A literal of a random value, and the value printed */
+    private static String[] randomLiteral(Random random) {
+        switch(random.nextInt(4)) {
+            case 0 : {
+                int value = random.nextInt(3) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(50);
+                return new String[] { String.valueOf(value), String.valueOf(value) };
+            }
+            case 1 : {
+                double value = random.nextInt(2000) / 8.0;
+                return new String[] { String.valueOf(value), String.valueOf(value) };
+            }
+            case 2 : {
+                String value = "s" + random.nextInt(20) + " x";
+                return new String[] { '"' + value + '"', value };
+            }
+            default : {
+                boolean value = random.nextBoolean();
+                return new String[] { value ? "True" : "False", value ? "True" : "False" };
+            }
+        }
+    }
+
+    /** Random literals printed in a loop (and a literal beyond 32 bits, saturated) */
+    private static boolean testValues(File copy, File cache, Random random) throws IOException {
+        StringBuilder program = new StringBuilder();
+        StringBuilder once = new StringBuilder();
+        program.append("Def main[]:Void{\n    Integer i;\n    i = 0;\n    While[i < 3]{\n");
+        for(int n = 0; n < 60; n++) {
+            String[] literal = randomLiteral(random);
+            program.append("        ::print[").append(literal[0]).append("];\n");
+            once.append(literal[1]).append('\n');
+        }
+        program.append("        ::print[99999999999];\n        i = i + 1;\n    }\n}\n");
+        once.append(Integer.MAX_VALUE).append('\n');
+        String expected = once.toString() + once + once;
+        Files.write(copy.toPath(), program.toString().getBytes());
+
+        boolean passed = true;
+        for(String[] args : new String[][] {
+                { copy.getPath() }, { "--hash-cons", copy.getPath() }, { "--parallel", copy.getPath() },
+                { "--cache=" + cache.getPath(), copy.getPath() }, { "--cache=" + cache.getPath(), copy.getPath() } }) {
+            passed &= compare("values " + args[0], expected, run(args));
+        }
+        return passed;
+    }
+
+    /** A function reused by a re-parse keeps its constants (another program was parsed in between) */
+    private static boolean testReparse(File copy, File other) throws IOException, SemanticError {
+        String source = "Def f[]:Void{\n    ::print[\"kept\"];\n    ::print[2.5];\n    ::print[7];\n}\n"
+            + "Def main[]:Void{\n    ::f[];\n}\n";
+        Files.write(copy.toPath(), source.getBytes());
+        PackedTokenBuffer tokens = SourceTokenizer.tokenizePacked(copy.getPath());
+        JottTree tree = JottParser.parse(new ListTokenStream(tokens));
+        boolean passed = compare("reparse (before)", "kept\n2.5\n7\n", execute(tree));
+
+        Files.write(other.toPath(), "Def main[]:Void{\n    ::print[\"other\"];\n    ::print[9.75];\n}\n".getBytes());
+        passed &= compare("reparse (other)", "other\n9.75\n", execute(JottParser.parse(JottTokenizer.tokenize(other.getPath()))));
+
+        String inserted = "    ::print[\"new\"];\n    ::print[7];\n";
+        int offset = source.indexOf("    ::f[];");
+        TokenEdit edit = SourceTokenizer.retokenize(tokens, offset, 0, inserted);
+        JottTree reparsed = JottParser.reparse(tree, edit);
+        return passed & compare("reparse", "new\n7\nkept\n2.5\n7\n", execute(reparsed));
+    }
+
+    public static void main(String[] args) throws IOException, SemanticError {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File copy = File.createTempFile("constants", ".jott");
+        File other = File.createTempFile("constants", ".jott");
+        File cache = Files.createTempDirectory("jottcache").toFile();
+        copy.deleteOnExit();
+        other.deleteOnExit();
+        int numTests = 0;
+        int passedTests = 0;
+
+        numTests++;
+        if(testDistinct(copy)) { passedTests++; }
+
+        Random random = new Random(24);
+        for(int i = 0; i < 5; i++) {
+            numTests++;
+            if(testValues(copy, cache, random)) { passedTests++; }
+        }
+
+        numTests++;
+        if(testReparse(copy, other)) { passedTests++; }
+
+        File[] entries = cache.listFiles();
+        if(entries != null) { for(File entry : entries) { entry.delete(); } }
+        cache.delete();
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,147 @@
+package testers;
+
+/*
+  Runs every file in the test case folders with and without dead-function elimination
+  (main.Jott --eliminate-dead), alone, with --lazy (compared with --lazy alone), and with
+  a new cache directory twice (storing, then running the stored program). Removing the
+  functions main can never call must not change the output: everything printed to
+  System.out and System.err must be the same, apart from the report of the removed functions,
+  which the cached program must print too. Then a generated program, where main calls a
+  chain of functions among dead ones, must report exactly the dead functions (also cached).
+ */
+
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottDeadFunctionTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static final String REPORT = "Removed ";
+
+    private static int removed = 0;
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    /** The output without the report of the removed functions (counted) */
+    private static String withoutReport(String output, boolean count) {
+        StringBuilder str = new StringBuilder();
+        for(String line : output.split("(?<=\n)")) {
+            if(line.startsWith(REPORT)) {
+                if(count) { removed += Integer.parseInt(line.substring(REPORT.length(), line.indexOf(' ', REPORT.length()))); }
+                continue;
+            }
+            str.append(line);
+        }
+        return str.toString();
+    }
+
+    private static boolean compare(String path, String expected, String actual) {
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + path);
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean compare(String path, File cache) {
+        String expected = run(path);
+        String eliminated = run("--eliminate-dead", path);
+        return compare(path, expected, withoutReport(eliminated, true))
+            && compare(path, run("--lazy", path), withoutReport(run("--eliminate-dead", "--lazy", path), false))
+            && compareCached(path, eliminated, cache);
+    }
+
+    /** Runs a file with --eliminate-dead twice with a cache (stored, then read): the report included */
+    private static boolean compareCached(String path, String expected, File cache) {
+        return compare(path, expected, run("--eliminate-dead", "--cache=" + cache.getPath(), path))
+            && compare(path, expected, run("--eliminate-dead", "--cache=" + cache.getPath(), path));
+    }
+
+    /**
+     * A program of {@code count} functions where main calls f0, which calls every
+     * third function after it (f0 -> f3 -> f6 ...): the others are dead, and the
+     * dead ones call live ones (which must not keep them).
+     */
+    private static boolean compareGenerated(File copy, int count, File cache) throws IOException {
+        StringBuilder program = new StringBuilder();
+        StringBuilder dead = new StringBuilder();
+        StringBuilder output = new StringBuilder();
+        for(int i = count - 1; i >= 0; i--) {
+            program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+            if(i % 3 == 0 && i + 3 < count) {
+                program.append("    Return ::f").append(i + 3).append("[x + 1];\n");
+            } else if(i % 3 != 0 && i - i % 3 + 3 < count) {
+                program.append("    Return ::f").append(i - i % 3 + 3).append("[x];\n");
+            } else {
+                program.append("    Return x;\n");
+            }
+            program.append("}\n");
+        }
+        program.append("Def main[]:Void{\n    ::print[::f0[0]];\n}\n");
+        for(int i = count - 1; i >= 0; i--) {
+            if(i % 3 == 0) { continue; }
+            dead.append(dead.length() == 0 ? "" : ", ").append('f').append(i);
+        }
+        output.append((count - 1) / 3).append('\n');
+        Files.write(copy.toPath(), program.toString().getBytes());
+
+        int deadCount = count - (count + 2) / 3;
+        removed += deadCount;
+        String expected = (deadCount == 0 ? "" : REPORT + deadCount + " dead function(s): " + dead + "\n") + output;
+        return compare(copy.getPath(), expected, run("--eliminate-dead", copy.getPath()))
+            && compareCached(copy.getPath(), expected, cache)
+            && compare(copy.getPath(), output.toString(), run(copy.getPath()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File cache = Files.createTempDirectory("jottdead").toFile();
+        int numTests = 0;
+        int passedTests = 0;
+        File copy = File.createTempFile("dead", ".jott");
+        copy.deleteOnExit();
+        try {
+            for(String folder : TEST_FOLDERS) {
+                File[] files = new File(folder).listFiles();
+                if(files == null) { continue; }
+                for(File file : files) {
+                    numTests++;
+                    if(compare(file.getPath(), cache)) { passedTests++; }
+                }
+            }
+            for(int count : new int[] { 1, 2, 10, 1000 }) {
+                numTests++;
+                if(compareGenerated(copy, count, cache)) { passedTests++; }
+            }
+        } finally {
+            File[] entries = cache.listFiles();
+            if(entries != null) { for(File entry : entries) { entry.delete(); } }
+            cache.delete();
+        }
+        System.out.printf("Removed functions: %d%n", removed);
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,89 @@
+package testers;
+
+/*
+  Parses, validates and converts generated programs with deeply nested If,
+  Elseif, Else and While bodies (up to 100k deep). The work is done on a thread
+  with a small (256 KB) stack, so any recursion per nesting level overflows.
+  The converted Jott string must parse again into the same string.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class JottDeepNestingTester {
+    private static final int[] DEPTHS = { 10, 1_000, 100_000 };
+    private static final long STACK_SIZE = 256 * 1024;
+
+    /**
+     * Generates a program nesting the following blocks {@code depth} deep,
+     * alternating between an if-else chain and a while loop:
+     *
+     *  If[x < 1]{ ... }Elseif[x > 1]{ x = 1; }Else{ x = 2; }
+     *  While[x < 0]{ ... }
+     */
+    private static String generate(int depth) {
+        StringBuilder str = new StringBuilder("Def main[]:Void{\nInteger x;\nx = 0;\n");
+        for(int i = 0; i < depth; i++) {
+            str.append(i % 2 == 0 ? "If[x < 1]{\n" : "While[x < 0]{\n");
+        }
+        str.append("x = x + 1;\n");
+        for(int i = depth - 1; i >= 0; i--) {
+            str.append(i % 2 == 0 ? "}Elseif[x > 1]{\nx = 1;\n}Else{\nx = 2;\n}\n" : "}\n");
+        }
+        return str.append("}\n").toString();
+    }
+
+    private static JottTree parse(File file, String source) throws IOException {
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.ISO_8859_1));
+        PackedTokenBuffer tokens = SourceTokenizer.tokenizePacked(file.getPath());
+        return tokens == null ? null : JottParser.parse(new ListTokenStream(tokens));
+    }
+
+    private static String test(File file, int depth) throws IOException {
+        JottTree tree = parse(file, generate(depth));
+        if(tree == null) { return "parse failed"; }
+        String jott = tree.convertToJott();
+
+        JottTree again = parse(file, jott);
+        if(again == null) { return "converted program failed to parse"; }
+        if(!jott.equals(again.convertToJott())) { return "converted programs differ"; }
+
+        if(!again.validateTree()) { return "validation failed"; }
+        return null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File file = File.createTempFile("nesting", ".jott");
+        file.deleteOnExit();
+
+        int passedTests = 0;
+        for(int depth : DEPTHS) {
+            String[] error = new String[1];
+            Thread thread = new Thread(null, () -> {
+                PrintStream stderr = System.err;
+                try {
+                    System.setErr(new PrintStream(new ByteArrayOutputStream()));
+                    error[0] = test(file, depth);
+                } catch(IOException | StackOverflowError E) {
+                    error[0] = E.getClass().getSimpleName();
+                } finally {
+                    System.setErr(stderr);
+                }
+            }, "nesting", STACK_SIZE);
+            thread.start();
+            thread.join();
+
+            if(error[0] == null) { passedTests++; }
+            else { System.err.println("\tFailed Test: depth " + depth + ": " + error[0]); }
+        }
+        System.out.printf("Passed: %d/%d%n", passedTests, DEPTHS.length);
+    }
+}
@@ -0,0 +1,126 @@
+package testers;
+
+/*
+  Runs generated programs of recursive functions (fib, factorial, a sum keeping locals
+  across its recursive call), nested calls in arguments, and a function returning from
+  an Elseif called again with other arguments, with and without --hash-cons. Each call
+  has its own frame on the frame stack, so every printed value must match the value
+  computed here.
+ */
+
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottFrameTester {
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static int fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    private static boolean compare(File copy, String name, String program, String expected) throws IOException {
+        Files.write(copy.toPath(), program.getBytes());
+        for(String[] args : new String[][] { { copy.getPath() }, { "--hash-cons", copy.getPath() } }) {
+            String actual = run(args);
+            if(!expected.equals(actual)) {
+                System.err.println("\tFailed Test: " + name + (args.length > 1 ? " " + args[0] : ""));
+                System.err.println("\t\tExpected: " + expected);
+                System.err.println("\t\tGot:      " + actual);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File copy = File.createTempFile("frames", ".jott");
+        copy.deleteOnExit();
+        int numTests = 0;
+        int passedTests = 0;
+
+        // fib: both operands of the expression are recursive calls
+        StringBuilder main = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for(int n = 0; n <= 20; n++) {
+            main.append("    ::print[::fib[").append(n).append("]];\n");
+            expected.append(fib(n)).append('\n');
+        }
+        numTests++;
+        if(compare(copy, "fib",
+            "Def fib[n:Integer]:Integer{\n    If[n < 2]{\n        Return n;\n    }\n"
+            + "    Return ::fib[n - 1] + ::fib[n - 2];\n}\n"
+            + "Def main[]:Void{\n" + main + "}\n", expected.toString())) { passedTests++; }
+
+        // factorial: the parameter is read after the recursive call
+        main.setLength(0);
+        expected.setLength(0);
+        long factorial = 1;
+        for(int n = 1; n <= 12; n++) {
+            factorial *= n;
+            main.append("    ::print[::fact[").append(n).append("]];\n");
+            expected.append(factorial).append('\n');
+        }
+        numTests++;
+        if(compare(copy, "fact",
+            "Def fact[n:Integer]:Integer{\n    If[n < 2]{\n        Return 1;\n    }\n"
+            + "    Return ::fact[n - 1] * n;\n}\n"
+            + "Def main[]:Void{\n" + main + "}\n", expected.toString())) { passedTests++; }
+
+        // locals assigned before the recursive call, read after it (deep recursion)
+        main.setLength(0);
+        expected.setLength(0);
+        for(int n : new int[] { 0, 1, 10, 500 }) {
+            main.append("    ::print[::sum[").append(n).append("]];\n");
+            expected.append(n * (n + 1)).append('\n');
+        }
+        numTests++;
+        if(compare(copy, "sum",
+            "Def sum[n:Integer]:Integer{\n    Integer m;\n    Integer r;\n"
+            + "    If[n < 1]{\n        Return 0;\n    }\n"
+            + "    m = n * 2;\n    r = ::sum[n - 1];\n    Return r + m;\n}\n"
+            + "Def main[]:Void{\n" + main + "}\n", expected.toString())) { passedTests++; }
+
+        // calls in the arguments of calls (of the same function)
+        numTests++;
+        if(compare(copy, "nested",
+            "Def add[a:Integer, b:Integer]:Integer{\n    Integer c;\n    c = a + b;\n    Return c;\n}\n"
+            + "Def twice[s:String]:String{\n    Return ::concat[s, s];\n}\n"
+            + "Def main[]:Void{\n"
+            + "    ::print[::add[::add[1, 2], ::add[::add[10, 20], 100]]];\n"
+            + "    ::print[::concat[::twice[\"ab\"], ::twice[::concat[\"c\", \"d\"]]]];\n"
+            + "    ::print[::length[::twice[::twice[\"xyz\"]]]];\n}\n",
+            "133\nababcdcd\n12\n")) { passedTests++; }
+
+        // returning from an Elseif, then calling the function with other arguments
+        numTests++;
+        if(compare(copy, "elseif",
+            "Def classify[x:Integer]:Integer{\n    If[x == 1]{\n        Return 10;\n    }\n"
+            + "    Elseif[x == 2]{\n        Return 20;\n    }\n    Return 30;\n}\n"
+            + "Def main[]:Void{\n    ::print[::classify[2]];\n    ::print[::classify[3]];\n"
+            + "    ::print[::classify[1]];\n    ::print[::classify[3]];\n}\n",
+            "20\n30\n10\n30\n")) { passedTests++; }
+
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,78 @@
+package testers;
+
+/*
+  Runs every file in the test case folders with and without hash-consing
+  (main.Jott --hash-cons), sequentially, streamed (--stream) and in parallel (--parallel), and
+  compares everything printed to System.out and System.err. Shared subtrees
+  must not change the errors (or their lines) or the program output.
+ */
+
+import jott_interpreter.nodes.Jott_Node;
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+public class JottHashConsingTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+    private static final String[][] OPTIONS = { {}, { "--stream" }, { "--parallel" } };
+
+    private static long shared = 0;
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static String[] arguments(String[] options, String... args) {
+        String[] all = new String[options.length + args.length];
+        System.arraycopy(options, 0, all, 0, options.length);
+        System.arraycopy(args, 0, all, options.length, args.length);
+        return all;
+    }
+
+    private static boolean compare(String path, String[] options) {
+        String expected = run(arguments(options, path));
+        String actual = run(arguments(options, "--hash-cons", path));
+        shared += Jott_Node.getCanonicalCount();
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + path + " " + String.join(" ", options));
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                for(String[] options : OPTIONS) {
+                    numTests++;
+                    if(compare(file.getPath(), options)) { passedTests++; }
+                }
+            }
+        }
+        System.out.printf("Canonical subtrees: %d%n", shared);
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,291 @@
+package testers;
+
+/*
+  Applies random text edits to every file in the test case folders and checks
+  that incremental re-tokenizing (jott_interpreter.SourceTokenizer.retokenize)
+  and re-parsing (provided.JottParser.reparse) give the same tokens, parse tree,
+  validation result and errors as tokenizing and parsing the edited file from
+  scratch. Each edit starts from the result of the previous (successful) edit,
+  after the previous tree was validated, so reused functions are validated again
+  (incrementally: only when a function they call changed its signature).
+ */
+
+import provided.*;
+import jott_interpreter.*;
+import jott_interpreter.nodes.grammar_nodes.program_Node;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class JottIncrementalTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+    private static final int EDITS_PER_FILE = 12;
+
+    /** Text inserted by the edits (valid and invalid Jott fragments) */
+    private static final String[] SNIPPETS = {
+        "", " ", "\n", "x", "1", "1.5", ";", "}", "{", "[", "]", ",", "::", "#note\n", "\"ab c\"",
+        "Def f[]:Void{\n}\n", "::print[1];\n", "Integer y = 3;\n", "!", "?", "\r\n", "\n\n",
+        "Def g[a:Integer]:Integer{\n Return a;\n}\n"
+    };
+
+    private static int reused = 0;
+    private static int functions = 0;
+    private static int revalidated = 0;
+
+    private static class Result<T> {
+        T value;
+        String errors;
+    }
+
+    private static <T> Result<T> run(Supplier<T> action) {
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Result<T> result = new Result<>();
+        try {
+            System.setErr(new PrintStream(errors));
+            result.value = action.get();
+        } finally {
+            System.setErr(stderr);
+        }
+        result.errors = errors.toString();
+        return result;
+    }
+
+    private static boolean tokensEqual(Token t1, Token t2){
+        return t1.getTokenType() == t2.getTokenType() &&
+                t1.getToken().equals(t2.getToken()) &&
+                t1.getFilename().equals(t2.getFilename()) &&
+                t1.getLineNum() == t2.getLineNum() &&
+                t1.getKeyword() == t2.getKeyword();
+    }
+
+    /** @return the name of the symbol of a token, or null if it is not an id */
+    private static String symbolName(PackedTokenBuffer tokens, int index) {
+        final int symbol = tokens.getSymbol(index);
+        return symbol == SymbolTable.NONE ? null : tokens.getSymbols().name(symbol);
+    }
+
+    private static boolean fail(String filename, String edit, String message) {
+        System.err.println("\tFailed Test: " + filename + " " + edit);
+        System.err.println("\t\t" + message);
+        return false;
+    }
+
+    /** Validates a non-empty tree, returning the result as a string ("" for no tree) */
+    private static String validate(JottTree tree) {
+        if(tree == null || ((program_Node)tree).getFunctionCount() == 0) { return ""; }
+        try {
+            return String.valueOf(tree.validateTree());
+        } catch(RuntimeException E) { // some invalid programs crash the validator
+            return E.getClass().getSimpleName();
+        }
+    }
+
+    private static void write(File file, String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean isAscii(String text) {
+        for(int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) >= 128) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Compares one edit of the current tokens and tree with tokenizing and parsing
+     * the edited file from scratch.
+     * @return the (incremental) tokens and tree after the edit, or null on a mismatch
+     */
+    private static Object[] compare(File file, PackedTokenBuffer tokens, JottTree tree,
+            int offset, int removed, String inserted) throws IOException {
+        String filename = file.getPath();
+        String edit = "[" + offset + "+" + removed + " -> " + inserted.replace("\n", "\\n").replace("\r", "\\r") + "]";
+        String source = tokens.getSource();
+        String edited = source.substring(0, offset) + inserted + source.substring(offset + removed);
+        write(file, edited);
+
+        Result<PackedTokenBuffer> expectedTokens = run(() -> SourceTokenizer.tokenizePacked(filename));
+        Result<TokenEdit> actualTokens = run(() -> SourceTokenizer.retokenize(tokens, offset, removed, inserted));
+        if(!expectedTokens.errors.equals(actualTokens.errors)) {
+            fail(filename, edit, "Tokenizer errors: expected " + expectedTokens.errors + ", got " + actualTokens.errors);
+            return null;
+        }
+        if(expectedTokens.value == null || actualTokens.value == null) {
+            if(expectedTokens.value != null || actualTokens.value != null) {
+                fail(filename, edit, "Only one tokenizer returned null");
+                return null;
+            }
+            return new Object[] { tokens, tree }; // edit rejected, the next edit starts from the same tokens
+        }
+
+        PackedTokenBuffer actual = actualTokens.value.getTokens();
+        if(actual.getSymbols() != tokens.getSymbols()) {
+            fail(filename, edit, "The edited tokens do not share the symbol table of the previous tokens");
+            return null;
+        }
+        if(!actual.getSource().equals(edited) || actual.size() != expectedTokens.value.size()) {
+            fail(filename, edit, "Expected " + expectedTokens.value.size() + " tokens, got " + actual.size());
+            return null;
+        }
+        for(int i = 0; i < actual.size(); i++) {
+            if(!tokensEqual(expectedTokens.value.get(i), actual.get(i))
+                    || !Objects.equals(symbolName(expectedTokens.value, i), symbolName(actual, i))) {
+                fail(filename, edit, "Token mismatch at index " + i);
+                return null;
+            }
+        }
+
+        Result<JottTree> expectedTree = run(() -> JottParser.parse(new ListTokenStream(expectedTokens.value)));
+        Result<String> expectedValid = run(() -> validate(expectedTree.value));
+        Result<JottTree> actualTree = run(() -> JottParser.reparse(tree, actualTokens.value));
+        Result<String> actualValid = run(() -> validate(actualTree.value));
+
+        if(!expectedTree.errors.equals(actualTree.errors)) {
+            fail(filename, edit, "Parser errors: expected " + expectedTree.errors + ", got " + actualTree.errors);
+            return null;
+        }
+        if(expectedTree.value == null || actualTree.value == null) {
+            if(expectedTree.value != null || actualTree.value != null) {
+                fail(filename, edit, "Only one parser returned null");
+                return null;
+            }
+            return new Object[] { tokens, tree };
+        }
+        if(!expectedTree.value.convertToJott().equals(actualTree.value.convertToJott())) {
+            fail(filename, edit, "Parse trees differ");
+            return null;
+        }
+        if(!expectedValid.value.equals(actualValid.value) || !expectedValid.errors.equals(actualValid.errors)) {
+            fail(filename, edit, "Validation: expected " + expectedValid.value + " " + expectedValid.errors +
+                ", got " + actualValid.value + " " + actualValid.errors);
+            return null;
+        }
+
+        program_Node before = (program_Node)tree;
+        program_Node after = (program_Node)actualTree.value;
+        revalidated += after.getRevalidatedCount();
+        for(int i = 0; i < after.getFunctionCount(); i++) {
+            functions++;
+            for(int j = 0; j < before.getFunctionCount(); j++) {
+                if(after.getFunction(i) == before.getFunction(j)) { reused++; break; }
+            }
+        }
+        return new Object[] { actual, actualTree.value };
+    }
+
+    /** @return the number of edits that passed, or -1 if the file is not a valid program to start from */
+    private static int testFile(File original, File copy, Random random) throws IOException {
+        String source = new String(Files.readAllBytes(original.toPath()), StandardCharsets.ISO_8859_1);
+        if(!isAscii(source)) { return -1; }
+        write(copy, source);
+
+        Result<PackedTokenBuffer> start = run(() -> SourceTokenizer.tokenizePacked(copy.getPath()));
+        if(start.value == null) { return -1; }
+        Result<JottTree> startTree = run(() -> JottParser.parse(new ListTokenStream(start.value)));
+        if(startTree.value == null) { return -1; }
+        run(() -> validate(startTree.value));
+
+        PackedTokenBuffer tokens = start.value;
+        JottTree tree = startTree.value;
+        int passed = 0;
+        for(int i = 0; i < EDITS_PER_FILE; i++) {
+            int length = tokens.getSource().length();
+            int offset = random.nextInt(length + 1);
+            int removed = random.nextInt(3) == 0 ? 0 : random.nextInt(Math.min(length - offset, 12) + 1);
+            String inserted = SNIPPETS[random.nextInt(SNIPPETS.length)];
+
+            Object[] next = compare(copy, tokens, tree, offset, removed, inserted);
+            if(next == null) {
+                System.err.println("\t\t(from " + original.getPath() + ")");
+                break;
+            }
+            passed++;
+            tokens = (PackedTokenBuffer)next[0];
+            tree = (JottTree)next[1];
+        }
+        return passed;
+    }
+
+    /**
+     * Edits a generated chain of functions (each calling the one before it), and checks
+     * that the incremental validation only validates the edited function, and the
+     * callers of a function whose signature changed (their parameters are checked again).
+     * @return the number of edits that passed
+     */
+    private static int testSignatureEdits(File copy) throws IOException {
+        StringBuilder program = new StringBuilder("Def f0[x:Integer]:Integer{\n    Return x;\n}\n");
+        for(int i = 1; i < 10; i++) {
+            program.append("Def f").append(i).append("[x:Integer]:Integer{\n    Return ::f").append(i - 1).append("[x] + 1;\n}\n");
+        }
+        program.append("Def main[]:Void{\n    ::print[::f9[1]];\n}\n");
+        write(copy, program.toString());
+
+        PackedTokenBuffer tokens = SourceTokenizer.tokenizePacked(copy.getPath());
+        JottTree tree = JottParser.parse(new ListTokenStream(tokens));
+        run(() -> validate(tree));
+
+        // (the text replaced, its replacement, and the number of functions validated again)
+        String[][] edits = {
+            { "::f4[x] + 1", "::f4[x] + 2", "11" },         // the first re-validation validates every function
+            { "::f4[x] + 2", "::f4[x] + 3", "1" },          // a body: only its function
+            { "f0[x:Integer]", "f0[x:Double]", "2" },       // a signature: f0 and its caller f1 (now an error)
+            { "f0[x:Double]", "f0[x:Integer]", "2" },
+            { "f3[x:Integer]:Integer", "f3[x:Integer, y:Integer]:Integer", "2" }, // the number of parameters
+            { "f3[x:Integer, y:Integer]:Integer", "f3[x:Integer]:Integer", "2" },
+            { "Def f0", "#moved\nDef f0", "1" },           // the functions after the edit move, without errors
+            { "::f0[x] + 1", "\"x\"", "1" },                // f1 returns a String: an error, its signature is unchanged
+            { "Def f0", "#moved\nDef f0", "2" },           // f0, and f1 moved with its error (printed with its new line)
+        };
+        Object[] current = { tokens, tree };
+        int passed = 0;
+        for(String[] edit : edits) {
+            PackedTokenBuffer before = (PackedTokenBuffer)current[0];
+            int offset = before.getSource().indexOf(edit[0]);
+            Object[] next = compare(copy, before, (JottTree)current[1], offset, edit[0].length(), edit[1]);
+            if(next == null) { break; }
+            int count = ((program_Node)next[1]).getRevalidatedCount();
+            if(count != Integer.parseInt(edit[2])) {
+                fail(copy.getPath(), edit[1], "Validated again: expected " + edit[2] + " functions, got " + count);
+                break;
+            }
+            passed++;
+            current = next;
+        }
+        return passed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        Random random = new Random(2383);
+        File copy = File.createTempFile("incremental", ".jott");
+        copy.deleteOnExit();
+
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                int passed = testFile(file, copy, random);
+                if(passed < 0) { continue; }
+                numTests += EDITS_PER_FILE;
+                passedTests += passed;
+            }
+        }
+        numTests += 9;
+        passedTests += testSignatureEdits(copy);
+        System.out.printf("Reused functions: %d/%d%n", reused, functions);
+        System.out.printf("Re-validated functions: %d/%d%n", revalidated, functions);
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,158 @@
+package testers;
+
+/*
+  Runs every file in the test case folders with lazy function bodies (main.Jott --lazy),
+  and compares everything printed to System.out and System.err with running (without
+  --lazy) a copy of the file where the body of every function not reachable from main
+  is replaced by a stub (an empty body, or a Return of a literal of the function's
+  type, on the same lines). Lazy parsing must only skip the unreachable bodies: the
+  errors (and their lines) and the output of the reachable code must not change.
+  (If a signature has a syntax error, no body is parsed: every body before it is a stub.)
+ */
+
+import jott_interpreter.*;
+import jott_interpreter.nodes.function_nodes.funcDef_Node;
+import jott_interpreter.nodes.grammar_nodes.program_Node;
+import main.Jott;
+import provided.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class JottLazyTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static int skipped = 0;
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    /** A body of the type, with the line breaks of the replaced body */
+    private static String stub(ReturnType type, CharSequence body) {
+        StringBuilder str = new StringBuilder();
+        switch(type) {
+            case Integer : str.append("Return 0;"); break;
+            case Double : str.append("Return 0.0;"); break;
+            case String : str.append("Return \"\";"); break;
+            case Boolean : str.append("Return True;"); break;
+            default : break;
+        }
+        for(int i = 0; i < body.length(); i++) {
+            if(body.charAt(i) == '\n') { str.append('\n'); }
+        }
+        return str.toString();
+    }
+
+    /**
+     * Writes the copy of the file with stubs for the bodies lazy parsing skips: the
+     * bodies of the functions not reachable from main, or every body before the
+     * syntax error of a signature (found by matching braces, as the parser does).
+     * @return true if a body was replaced, false if the copy would be the same file
+     */
+    private static boolean writeStubbed(String path, File copy) throws IOException {
+        PrintStream stderr = System.err;
+        PackedTokenBuffer tokens;
+        program_Node program;
+        try {
+            System.setErr(new PrintStream(new ByteArrayOutputStream()));
+            tokens = SourceTokenizer.tokenizePacked(path);
+            if(tokens == null) { return false; }
+            program = (program_Node)JottParser.parseLazy(tokens);
+        } finally {
+            System.setErr(stderr);
+        }
+
+        String source = tokens.getSource();
+        StringBuilder stubbed = new StringBuilder();
+        int copied = 0;
+        boolean replaced = false;
+        if(program != null) {
+            if(program.getFunctionCount() == 0) { return false; }
+            boolean[] reachable = program.findReachableFunctions();
+            for(int i = 0; i < program.getFunctionCount(); i++) {
+                if(reachable[i]) { continue; }
+                funcDef_Node function = program.getFunction(i);
+                String text = function.getText().toString();
+                int offset = source.indexOf(text, copied);
+                int start = offset + text.indexOf('{') + 1;
+                int end = offset + text.lastIndexOf('}');
+                stubbed.append(source, copied, start).append(stub(function.getType(), source.subSequence(start, end)));
+                copied = end;
+                replaced = true;
+                skipped++;
+            }
+        } else {
+            int depth = 0;
+            int open = -1;
+            for(int i = 0; i < tokens.size(); i++) {
+                if(tokens.getTokenType(i) == TokenType.L_BRACE && depth++ == 0) {
+                    open = i;
+                } else if(tokens.getTokenType(i) == TokenType.R_BRACE && depth > 0 && --depth == 0) {
+                    ReturnType type = ReturnType.Void;
+                    for(ReturnType t : ReturnType.values()) {
+                        if(open > 0 && tokens.lexemeEquals(open - 1, t.toString())) { type = t; }
+                    }
+                    int start = tokens.getOffset(open) + 1;
+                    int end = tokens.getOffset(i);
+                    stubbed.append(source, copied, start).append(stub(type, source.subSequence(start, end)));
+                    copied = end;
+                    replaced = true;
+                }
+            }
+        }
+        stubbed.append(source.substring(copied));
+        Files.write(copy.toPath(), stubbed.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return replaced;
+    }
+
+    private static boolean compare(String path, File copy) throws IOException {
+        String expected = writeStubbed(path, copy) ?
+            run(copy.getPath()).replace(copy.getPath(), path) :
+            run(path);
+        String actual = run("--lazy", path);
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + path);
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File copy = File.createTempFile("lazy", ".jott");
+        copy.deleteOnExit();
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                numTests++;
+                if(compare(file.getPath(), copy)) { passedTests++; }
+            }
+        }
+        System.out.printf("Skipped bodies: %d%n", skipped);
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
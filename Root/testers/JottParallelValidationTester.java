@@ -0,0 +1,139 @@
+package testers;
+
+/*
+  Compares the concurrent validation of the function bodies (programs parsed with
+  provided.JottParser.parseParallel, here with one function per task) against the
+  sequential validation (provided.JottParser.parse) on every file in the test case
+  folders, and on generated programs with errors in many functions (calls to functions
+  declared later, variables named like later functions, duplicate functions, ...).
+  Everything printed to System.out and System.err while validating and executing must
+  match exactly: the errors of concurrently validated bodies are printed in source order.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.function.Function;
+
+public class JottParallelValidationTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    /** The number of times a program is validated concurrently (the tasks may run in any order) */
+    private static final int RUNS = 3;
+
+    private static String run(Function<PackedTokenBuffer, JottTree> parser, PackedTokenBuffer tokens, String filename) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            JottTree tree = parser.apply(tokens);
+            if(tree != null && tree.validateTree()) {
+                try {
+                    tree.execute();
+                } catch(SemanticError error) {
+                    error.print(filename);
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static boolean compare(String filename, PackedTokenBuffer tokens) {
+        String expected = run(buffer -> JottParser.parse(new ListTokenStream(buffer)), tokens, filename);
+        for(int i = 0; i < RUNS; i++) {
+            String actual = run(buffer -> JottParser.parseParallel(buffer, 1), tokens, filename);
+            if(!expected.equals(actual)) {
+                System.err.println("\tFailed Test: " + filename);
+                System.err.println("\t\tExpected: " + expected);
+                System.err.println("\t\tGot:      " + actual);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A program of {@code count} functions, with an error (or a valid twist) in most of them */
+    private static String generate(int count) {
+        StringBuilder program = new StringBuilder();
+        for(int i = 0; i < count; i++) {
+            switch(i % 6) {
+                case 0 : // valid, calling the function before it
+                    program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+                    program.append(i > 0 ? "    Return ::f" + (i - 1) + "[x] + 1;\n" : "    Return x;\n");
+                    break;
+                case 1 : // calling a function declared later
+                    program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+                    program.append("    ::f").append(i + 1).append("[x];\n");
+                    program.append("    Return x;\n");
+                    break;
+                case 2 : // a variable named like a function declared later (valid)
+                    program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+                    program.append("    Integer f").append(i + 3).append(";\n");
+                    program.append("    f").append(i + 3).append(" = x;\n");
+                    program.append("    Return f").append(i + 3).append(";\n");
+                    break;
+                case 3 : // wrong return type
+                    program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+                    program.append("    Return \"x\";\n");
+                    break;
+                case 4 : // duplicate function (of the valid function before)
+                    program.append("Def f").append(i - 4).append("[x:Integer]:Integer{\n");
+                    program.append("    Return x;\n");
+                    break;
+                default : // a variable never defined, and a call of the valid function before
+                    program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+                    program.append("    Integer y;\n");
+                    program.append("    Integer z;\n");
+                    program.append("    y = ::f").append(i - 5).append("[x] + z;\n");
+                    program.append("    Return y;\n");
+                    break;
+            }
+            program.append("}\n");
+        }
+        program.append("Def main[]:Void{\n    ::print[::f0[1]];\n}\n");
+        return program.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                PrintStream stderr = System.err;
+                PackedTokenBuffer tokens;
+                try {
+                    System.setErr(new PrintStream(new ByteArrayOutputStream()));
+                    tokens = SourceTokenizer.tokenizePacked(file.getPath());
+                } finally {
+                    System.setErr(stderr);
+                }
+                if(tokens == null) { continue; } // (tokenizer errors, compared by JottTokenizerComparisonTester)
+                numTests++;
+                if(compare(file.getPath(), tokens)) { passedTests++; }
+            }
+        }
+
+        File copy = File.createTempFile("validation", ".jott");
+        copy.deleteOnExit();
+        for(int count : new int[] { 6, 60, 600 }) {
+            java.nio.file.Files.write(copy.toPath(), generate(count).getBytes());
+            numTests++;
+            if(compare(copy.getPath(), SourceTokenizer.tokenizePacked(copy.getPath()))) { passedTests++; }
+        }
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,111 @@
+package testers;
+
+/*
+  Jott parser benchmark. Times the parsing phase of the Jott project on
+  generated token streams from 1k to 1M tokens.
+
+  Parsing should scale linearly: the reported ns/token should stay roughly
+  constant as the number of tokens grows.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.util.ArrayList;
+
+public class JottParserBenchmark {
+    private static final String FILENAME = "generated.jott";
+    private static final int[] SIZES = { 1_000, 10_000, 100_000, 1_000_000 };
+    private static final int RUNS = 5;
+
+    private static void add(ArrayList<Token> tokens, String token, TokenType type, int line) {
+        tokens.add(new Token(token, FILENAME, line, type));
+    }
+
+    /**
+     * Generates the tokens of a program made of copies of the following function,
+     * until the program contains at least {@code minTokens} tokens:
+     *
+     *  Def f0[a:Integer]:Integer{
+     *      Integer x;
+     *      x = a + 1;
+     *      While[x < 10]{ x = x * 2; }
+     *      ::print[x];
+     *      Return x;
+     *  }
+     */
+    private static ArrayList<Token> generateTokens(int minTokens) {
+        ArrayList<Token> tokens = new ArrayList<>(minTokens + 64);
+        int line = 1;
+        int function = 0;
+        while(tokens.size() < minTokens) {
+            add(tokens, "Def", TokenType.ID_KEYWORD, line);
+            add(tokens, "f" + function++, TokenType.ID_KEYWORD, line);
+            add(tokens, "[", TokenType.L_BRACKET, line);
+            add(tokens, "a", TokenType.ID_KEYWORD, line);
+            add(tokens, ":", TokenType.COLON, line);
+            add(tokens, "Integer", TokenType.ID_KEYWORD, line);
+            add(tokens, "]", TokenType.R_BRACKET, line);
+            add(tokens, ":", TokenType.COLON, line);
+            add(tokens, "Integer", TokenType.ID_KEYWORD, line);
+            add(tokens, "{", TokenType.L_BRACE, line++);
+            add(tokens, "Integer", TokenType.ID_KEYWORD, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, ";", TokenType.SEMICOLON, line++);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, "=", TokenType.ASSIGN, line);
+            add(tokens, "a", TokenType.ID_KEYWORD, line);
+            add(tokens, "+", TokenType.MATH_OP, line);
+            add(tokens, "1", TokenType.NUMBER, line);
+            add(tokens, ";", TokenType.SEMICOLON, line++);
+            add(tokens, "While", TokenType.ID_KEYWORD, line);
+            add(tokens, "[", TokenType.L_BRACKET, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, "<", TokenType.REL_OP, line);
+            add(tokens, "10", TokenType.NUMBER, line);
+            add(tokens, "]", TokenType.R_BRACKET, line);
+            add(tokens, "{", TokenType.L_BRACE, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, "=", TokenType.ASSIGN, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, "*", TokenType.MATH_OP, line);
+            add(tokens, "2", TokenType.NUMBER, line);
+            add(tokens, ";", TokenType.SEMICOLON, line);
+            add(tokens, "}", TokenType.R_BRACE, line++);
+            add(tokens, "::", TokenType.FC_HEADER, line);
+            add(tokens, "print", TokenType.ID_KEYWORD, line);
+            add(tokens, "[", TokenType.L_BRACKET, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, "]", TokenType.R_BRACKET, line);
+            add(tokens, ";", TokenType.SEMICOLON, line++);
+            add(tokens, "Return", TokenType.ID_KEYWORD, line);
+            add(tokens, "x", TokenType.ID_KEYWORD, line);
+            add(tokens, ";", TokenType.SEMICOLON, line++);
+            add(tokens, "}", TokenType.R_BRACE, line++);
+        }
+        return tokens;
+    }
+
+    private static long timeParse(ArrayList<Token> tokens) {
+        long start = System.nanoTime();
+        JottTree root = JottParser.parse(new ListTokenStream(tokens));
+        long elapsed = System.nanoTime() - start;
+        if(root == null) {
+            throw new IllegalStateException("Generated program failed to parse");
+        }
+        return elapsed;
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%12s %12s %12s%n", "tokens", "best ms", "ns/token");
+        for(int size : SIZES) {
+            ArrayList<Token> tokens = generateTokens(size);
+            long best = Long.MAX_VALUE;
+            for(int run = 0; run < RUNS; run++) {
+                best = Math.min(best, timeParse(tokens));
+            }
+            System.out.printf("%12d %12.2f %12.1f%n",
+                tokens.size(), best / 1e6, (double)(best) / tokens.size());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package testers;
+
+/*
+  Compares the parallel parser (provided.JottParser.parseParallel) against the
+  sequential parser (provided.JottParser.parse) on every file in the test case
+  folders. The parallel parser is run with one function per task (so every
+  file is split), and with the default batch size. Both the parse trees and
+  the syntax errors printed to System.err must match exactly.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.function.Function;
+
+public class JottParserComparisonTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static class Result {
+        JottTree tree;
+        String errors;
+    }
+
+    private static Result run(Function<PackedTokenBuffer, JottTree> parser, PackedTokenBuffer tokens) {
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Result result = new Result();
+        try {
+            System.setErr(new PrintStream(errors));
+            result.tree = parser.apply(tokens);
+        } finally {
+            System.setErr(stderr);
+        }
+        result.errors = errors.toString();
+        return result;
+    }
+
+    private static boolean compare(String filename, PackedTokenBuffer tokens,
+            Function<PackedTokenBuffer, JottTree> parser) {
+        Result expected = run(buffer -> JottParser.parse(new ListTokenStream(buffer)), tokens);
+        Result actual = run(parser, tokens);
+
+        if(!expected.errors.equals(actual.errors)) {
+            System.err.println("\tFailed Test: " + filename);
+            System.err.println("\t\tExpected errors: " + expected.errors);
+            System.err.println("\t\tGot errors:      " + actual.errors);
+            return false;
+        }
+        if(expected.tree == null || actual.tree == null) {
+            if(expected.tree != actual.tree) {
+                System.err.println("\tFailed Test: " + filename);
+                System.err.println("\t\tOnly one parser returned null");
+                return false;
+            }
+            return true;
+        }
+        if(!expected.tree.convertToJott().equals(actual.tree.convertToJott())) {
+            System.err.println("\tFailed Test: " + filename);
+            System.err.println("\t\tExpected: " + expected.tree.convertToJott());
+            System.err.println("\t\tGot:      " + actual.tree.convertToJott());
+            return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                PrintStream stderr = System.err;
+                PackedTokenBuffer tokens;
+                try {
+                    System.setErr(new PrintStream(new ByteArrayOutputStream()));
+                    tokens = SourceTokenizer.tokenizePacked(file.getPath());
+                } finally {
+                    System.setErr(stderr);
+                }
+                if(tokens == null) { continue; } // tokenizer error, nothing to parse
+
+                numTests += 2;
+                if(compare(file.getPath(), tokens, buffer -> JottParser.parseParallel(buffer, 1))) { passedTests++; }
+                if(compare(file.getPath(), tokens, JottParser::parseParallel)) { passedTests++; }
+            }
+        }
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
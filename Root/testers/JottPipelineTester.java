@@ -0,0 +1,107 @@
+package testers;
+
+/*
+  Runs every file in the test case folders with and without the pipelined front end
+  (main.Jott --pipeline, alone and with --stream), where each function is validated on a
+  second thread while the next ones are parsed. Everything printed to System.out and
+  System.err must be the same. Then generated programs with errors in many functions, and
+  the same programs with a syntax error at the end (the validation errors must not be
+  printed, only the syntax error).
+ */
+
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottPipelineTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static boolean compare(String path, String expected, String actual) {
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + path);
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean compare(String path) {
+        String expected = run(path);
+        return compare(path, expected, run("--pipeline", path))
+            && compare(path, run("--stream", path), run("--stream", "--pipeline", path));
+    }
+
+    /** A program of {@code count} functions, with an error in every other one (and a syntax error at the end) */
+    private static String generate(int count, boolean syntaxError) {
+        StringBuilder program = new StringBuilder();
+        for(int i = 0; i < count; i++) {
+            program.append("Def f").append(i).append("[x:Integer]:Integer{\n");
+            switch(i % 4) {
+                case 0 : // valid, calling the function before it
+                    program.append(i > 0 ? "    Return ::f" + (i - 1) + "[x] + 1;\n" : "    Return x;\n");
+                    break;
+                case 1 : // wrong return type
+                    program.append("    Return \"x\";\n");
+                    break;
+                case 2 : // valid, with a variable
+                    program.append("    Integer y;\n    y = x * 2;\n    Return y;\n");
+                    break;
+                default : // calling a function declared later
+                    program.append("    ::f").append(i + 1).append("[x];\n    Return x;\n");
+                    break;
+            }
+            program.append("}\n");
+        }
+        program.append("Def main[]:Void{\n    ::print[::f0[1]];\n}\n");
+        if(syntaxError) { program.append("Def broken[:Void{\n}\n"); }
+        return program.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                numTests++;
+                if(compare(file.getPath())) { passedTests++; }
+            }
+        }
+
+        File copy = File.createTempFile("pipeline", ".jott");
+        copy.deleteOnExit();
+        for(int count : new int[] { 4, 40, 4000 }) {
+            for(boolean syntaxError : new boolean[] { false, true }) {
+                Files.write(copy.toPath(), generate(count, syntaxError).getBytes());
+                numTests++;
+                if(compare(copy.getPath())) { passedTests++; }
+            }
+        }
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
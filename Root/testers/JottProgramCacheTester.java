@@ -0,0 +1,79 @@
+package testers;
+
+/*
+  Runs every file in the test case folders without the program cache, then with
+  a new cache directory (main.Jott --cache=...) twice: the first run compiles and
+  stores the program, the second runs the stored program. Everything printed to
+  System.out and System.err must be the same for the three runs.
+ */
+
+import jott_interpreter.ProgramCache;
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottProgramCacheTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static int hits = 0;
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static boolean compare(String path, File cache) {
+        String expected = run(path);
+        String stored = run("--cache=" + cache.getPath(), path);
+        if(new ProgramCache(cache, path).load() != null) { hits++; } // only valid programs are stored
+        String loaded = run("--cache=" + cache.getPath(), path);
+        if(!expected.equals(stored) || !expected.equals(loaded)) {
+            System.err.println("\tFailed Test: " + path);
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tStored:   " + stored);
+            System.err.println("\t\tLoaded:   " + loaded);
+            return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File cache = Files.createTempDirectory("jottcache").toFile();
+        int numTests = 0;
+        int passedTests = 0;
+        try {
+            for(String folder : TEST_FOLDERS) {
+                File[] files = new File(folder).listFiles();
+                if(files == null) { continue; }
+                for(File file : files) {
+                    numTests++;
+                    if(compare(file.getPath(), cache)) { passedTests++; }
+                }
+            }
+        } finally {
+            File[] entries = cache.listFiles();
+            if(entries != null) { for(File entry : entries) { entry.delete(); } }
+            cache.delete();
+        }
+        System.out.printf("Cached programs: %d%n", hits);
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,159 @@
+package testers;
+
+/*
+  Compares the byte-array tokenizer (jott_interpreter.SourceTokenizer), its
+  parallel chunked mode (with tiny chunks, so every file is split), and the
+  tokens pulled while parsing by --stream (jott_interpreter.LazyTokenStream)
+  against the original reader based tokenizer (provided.JottTokenizer) on every
+  file in the test case folders. Both the tokens (including their keywords) and the
+  syntax errors printed to System.err must match exactly. The symbols of the
+  chunks, interned in tables of their own and merged, must be the symbols the
+  sequential tokenizer interns.
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+public class JottTokenizerComparisonTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+
+    private static class Result {
+        ArrayList<Token> tokens;
+        String errors;
+    }
+
+    private interface Tokenizer {
+        ArrayList<Token> tokenize(String filename);
+    }
+
+    private static Result run(Tokenizer tokenizer, String filename) {
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Result result = new Result();
+        try {
+            System.setErr(new PrintStream(errors));
+            result.tokens = tokenizer.tokenize(filename);
+        } finally {
+            System.setErr(stderr);
+        }
+        result.errors = errors.toString();
+        return result;
+    }
+
+    private static boolean tokensEqual(Token t1, Token t2){
+        return t1.getTokenType() == t2.getTokenType() &&
+                t1.getToken().equals(t2.getToken()) &&
+                t1.getFilename().equals(t2.getFilename()) &&
+                t1.getLineNum() == t2.getLineNum() &&
+                t1.getKeyword() == t2.getKeyword();
+    }
+
+    /**
+     * Consumes every token of a LazyTokenStream (as the parser does, looking
+     * ahead first), printing a syntax error the same way JottTokenizer does.
+     */
+    private static ArrayList<Token> streamTokenize(String filename) {
+        ArrayList<Token> tokens = new ArrayList<>();
+        LazyTokenStream stream = new LazyTokenStream(filename);
+        while(stream.hasRemaining(3)) { stream.peek(2); tokens.add(stream.advance()); }
+        while(stream.hasRemaining(1)) { tokens.add(stream.advance()); }
+        if(stream.reportTokenizerError()) { return null; }
+        return tokens;
+    }
+
+    /** Tokenizes a file in chunks of a few lines (at least 8 bytes each) */
+    private static ArrayList<Token> parallelTokenize(String filename) {
+        PackedTokenBuffer tokens = SourceTokenizer.tokenizeParallel(filename, 8);
+        return tokens == null ? null : new ArrayList<>(tokens);
+    }
+
+    /** Compares the symbols of the parallel chunked mode with the sequential mode's */
+    private static boolean compareSymbols(String filename) {
+        PrintStream stderr = System.err;
+        PackedTokenBuffer expected;
+        PackedTokenBuffer actual;
+        try {
+            System.setErr(new PrintStream(new ByteArrayOutputStream())); // (compared by compare)
+            expected = SourceTokenizer.tokenizePacked(filename);
+            actual = SourceTokenizer.tokenizeParallel(filename, 8);
+        } finally {
+            System.setErr(stderr);
+        }
+        if(expected == null || actual == null) { return expected == actual; }
+        if(expected.getSymbols().size() != actual.getSymbols().size()) {
+            System.err.println("\tFailed Test: " + filename);
+            System.err.println("\t\tExpected " + expected.getSymbols().size() + " symbols");
+            System.err.println("\t\tGot " + actual.getSymbols().size() + " symbols");
+            return false;
+        }
+        for(int i = 0; i < expected.size(); i++) {
+            final int symbol = expected.getSymbol(i);
+            if(actual.getSymbol(i) != symbol || (symbol != SymbolTable.NONE
+                    && !expected.getSymbols().name(symbol).equals(actual.getSymbols().name(symbol)))) {
+                System.err.println("\tFailed Test: " + filename);
+                System.err.println("\t\tSymbol mismatch at index " + i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean compare(String filename, Tokenizer tokenizer) {
+        Result expected = run(JottTokenizer::tokenize, filename);
+        Result actual = run(tokenizer, filename);
+
+        if(!expected.errors.equals(actual.errors)) {
+            System.err.println("\tFailed Test: " + filename);
+            System.err.println("\t\tExpected errors: " + expected.errors);
+            System.err.println("\t\tGot errors:      " + actual.errors);
+            return false;
+        }
+        if(expected.tokens == null || actual.tokens == null) {
+            if(expected.tokens != actual.tokens) {
+                System.err.println("\tFailed Test: " + filename);
+                System.err.println("\t\tOnly one tokenizer returned null");
+                return false;
+            }
+            return true;
+        }
+        if(expected.tokens.size() != actual.tokens.size()) {
+            System.err.println("\tFailed Test: " + filename);
+            System.err.println("\t\tExpected " + expected.tokens.size() + " tokens");
+            System.err.println("\t\tGot " + actual.tokens.size() + " tokens");
+            return false;
+        }
+        for(int i = 0; i < expected.tokens.size(); i++) {
+            if(!tokensEqual(expected.tokens.get(i), actual.tokens.get(i))) {
+                System.err.println("\tFailed Test: " + filename);
+                System.err.println("\t\tToken mismatch at index " + i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        int numTests = 0;
+        int passedTests = 0;
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                numTests += 4;
+                if(compare(file.getPath(), SourceTokenizer::tokenize)) { passedTests++; }
+                if(compare(file.getPath(), JottTokenizerComparisonTester::parallelTokenize)) { passedTests++; }
+                if(compare(file.getPath(), JottTokenizerComparisonTester::streamTokenize)) { passedTests++; }
+                if(compareSymbols(file.getPath())) { passedTests++; }
+            }
+        }
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,187 @@
+package testers;
+
+/*
+  Runs generated programs of every operation on random Integer and Double values
+  (variables, negative literals and function results), with and without
+  --hash-cons (where the expressions over literals are computed when parsed), and
+  compares each printed value with the value computed here: Integer arithmetic is
+  exact 32-bit arithmetic (overflow wraps around), Double arithmetic is IEEE 754.
+ */
+
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class JottTypedEvalTester {
+
+    private static final String[] MATH_OPS = { "+", "-", "*", "/" };
+    private static final String[] REL_OPS = { ">", ">=", "<", "<=", "==" };
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static int operate(int x, String operator, int y) {
+        switch(operator) {
+            case "+" : return x + y;
+            case "-" : return x - y;
+            case "*" : return x * y;
+            default :  return x / y;
+        }
+    }
+
+    private static double operate(double x, String operator, double y) {
+        switch(operator) {
+            case "+" : return x + y;
+            case "-" : return x - y;
+            case "*" : return x * y;
+            default :  return x / y;
+        }
+    }
+
+    private static boolean compare(double x, String operator, double y) {
+        switch(operator) {
+            case ">" :  return x > y;
+            case ">=" : return x >= y;
+            case "<" :  return x < y;
+            case "<=" : return x <= y;
+            default :   return x == y;
+        }
+    }
+
+    private static String print(boolean value) {
+        return value ? "True" : "False";
+    }
+
+    /** A random Integer: small, or anywhere in 32 bits (nonzero, with a literal: not -2^31) */
+    private static int randomInt(Random random) {
+        int value = random.nextInt(4) == 0 ? random.nextInt() : random.nextInt(200) - 100;
+        return value == 0 || value == Integer.MIN_VALUE ? 1 : value;
+    }
+
+    /** A random Double with a short decimal literal (nonzero) */
+    private static double randomDouble(Random random) {
+        double value = (random.nextInt(20000) - 10000) / 100.0;
+        return value == 0 ? 0.5 : value;
+    }
+
+    /** A Jott literal operand of a value (negative values as a negated literal) */
+    private static String literal(int value) {
+        return value < 0 ? "-" + (-value) : String.valueOf(value);
+    }
+
+    private static String literal(double value) {
+        return value < 0 ? "-" + (-value) : String.valueOf(value);
+    }
+
+    private static boolean compare(File copy, String name, String program, String expected) throws IOException {
+        Files.write(copy.toPath(), program.getBytes());
+        for(String[] args : new String[][] { { copy.getPath() }, { "--hash-cons", copy.getPath() } }) {
+            String actual = run(args);
+            if(!expected.equals(actual)) {
+                System.err.println("\tFailed Test: " + name + (args.length > 1 ? " " + args[0] : ""));
+                System.err.println("\t\tExpected: " + expected);
+                System.err.println("\t\tGot:      " + actual);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Every operation on Integer values: x op y, x op literal, literal op literal, literal op f(y) */
+    private static boolean testIntegers(File copy, Random random) throws IOException {
+        StringBuilder program = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        program.append("Def id[v:Integer]:Integer{\n    Return v;\n}\n");
+        program.append("Def main[]:Void{\n    Integer x;\n    Integer y;\n    Integer r;\n    Boolean b;\n");
+        for(int i = 0; i < 40; i++) {
+            int x = randomInt(random);
+            int y = randomInt(random);
+            program.append("    x = ").append(literal(x)).append(";\n    y = ").append(literal(y)).append(";\n");
+            for(String operator : MATH_OPS) {
+                program.append("    r = x ").append(operator).append(" y;\n    ::print[r];\n");
+                program.append("    ::print[x ").append(operator).append(' ').append(literal(y)).append("];\n");
+                program.append("    ::print[").append(literal(x)).append(' ').append(operator).append(' ').append(literal(y)).append("];\n");
+                program.append("    ::print[").append(literal(x)).append(' ').append(operator).append(" ::id[y]];\n");
+                int result = operate(x, operator, y);
+                expected.append(result).append('\n').append(result).append('\n').append(result).append('\n').append(result).append('\n');
+            }
+            for(String operator : REL_OPS) {
+                program.append("    b = x ").append(operator).append(" y;\n    ::print[b];\n");
+                program.append("    ::print[x ").append(operator).append(" x];\n");
+                expected.append(print(compare(x, operator, y))).append('\n');
+                expected.append(print(compare(x, operator, x))).append('\n');
+            }
+        }
+        program.append("}\n");
+        return compare(copy, "integers", program.toString(), expected.toString());
+    }
+
+    /** Every operation on Double values: x op y, x op literal, literal op literal, literal op f(y) */
+    private static boolean testDoubles(File copy, Random random) throws IOException {
+        StringBuilder program = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        program.append("Def id[v:Double]:Double{\n    Return v;\n}\n");
+        program.append("Def main[]:Void{\n    Double x;\n    Double y;\n    Double r;\n    Boolean b;\n");
+        for(int i = 0; i < 40; i++) {
+            double x = randomDouble(random);
+            double y = randomDouble(random);
+            program.append("    x = ").append(literal(x)).append(";\n    y = ").append(literal(y)).append(";\n");
+            for(String operator : MATH_OPS) {
+                program.append("    r = x ").append(operator).append(" y;\n    ::print[r];\n");
+                program.append("    ::print[x ").append(operator).append(' ').append(literal(y)).append("];\n");
+                program.append("    ::print[").append(literal(x)).append(' ').append(operator).append(' ').append(literal(y)).append("];\n");
+                program.append("    ::print[").append(literal(x)).append(' ').append(operator).append(" ::id[y]];\n");
+                double result = operate(x, operator, y);
+                expected.append(result).append('\n').append(result).append('\n').append(result).append('\n').append(result).append('\n');
+            }
+            for(String operator : REL_OPS) {
+                program.append("    b = x ").append(operator).append(" y;\n    ::print[b];\n");
+                expected.append(print(compare(x, operator, y))).append('\n');
+            }
+        }
+        program.append("}\n");
+        return compare(copy, "doubles", program.toString(), expected.toString());
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File copy = File.createTempFile("typed", ".jott");
+        copy.deleteOnExit();
+        Random random = new Random(22);
+        int numTests = 0;
+        int passedTests = 0;
+        for(int i = 0; i < 5; i++) {
+            numTests += 2;
+            if(testIntegers(copy, random)) { passedTests++; }
+            if(testDoubles(copy, random)) { passedTests++; }
+        }
+
+        // a loop counting past the 32-bit limit wraps around
+        numTests++;
+        if(compare(copy, "overflow",
+            "Def main[]:Void{\n    Integer i;\n    Integer x;\n    i = 0;\n    x = 2147483640;\n"
+            + "    While[i < 10]{\n        x = x + 1;\n        i = i + 1;\n    }\n"
+            + "    ::print[x];\n    ::print[x < 0];\n    ::print[::length[\"abc\"] * 1000000000];\n}\n",
+            (2147483640 + 10) + "\nTrue\n" + (3 * 1000000000) + "\n")) { passedTests++; }
+
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}
@@ -0,0 +1,98 @@
+package testers;
+
+/*
+  Jott bytecode VM benchmark. Times the execution of loop-heavy and call-heavy
+  programs by the tree walker (JottTree.execute) and by the bytecode VM
+  (main.Jott --vm: the program compiled by Interpreter.compileBytecode, run by
+  BytecodeVM.execute).
+
+  Each program is parsed, validated and compiled once, then executed several times
+  in each mode (alternating, after warm-up runs): the best time of each is reported.
+  The compile time is reported separately (it is paid once per run of main.Jott).
+ */
+
+import provided.*;
+import jott_interpreter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+public class JottVmBenchmark {
+    private static final int ITERATIONS = 1_000_000;
+    private static final int FIB = 27;
+    private static final int WARMUP = 10;
+    private static final int RUNS = 5;
+
+    private static JottTree parse(File file, String program) throws IOException {
+        Files.write(file.toPath(), program.getBytes());
+        JottTree tree = JottParser.parse(JottTokenizer.tokenize(file.getPath()));
+        if(tree == null || !tree.validateTree()) {
+            throw new IllegalStateException("Generated program failed to validate");
+        }
+        return tree;
+    }
+
+    private static long timeExecute(JottTree tree, Bytecode code) throws SemanticError {
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(new ByteArrayOutputStream()));
+            long start = System.nanoTime();
+            if(code != null) {
+                BytecodeVM.execute(code);
+            } else {
+                tree.execute();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    private static void run(File file, String name, String program) throws IOException, SemanticError {
+        JottTree tree = parse(file, program);
+        long start = System.nanoTime();
+        Bytecode code = Interpreter.compileBytecode(tree);
+        long compile = System.nanoTime() - start;
+        if(code == null) {
+            throw new IllegalStateException("Generated program failed to compile");
+        }
+        for(int run = 0; run < WARMUP; run++) {
+            timeExecute(tree, null);
+            timeExecute(tree, code);
+        }
+        long walker = Long.MAX_VALUE;
+        long vm = Long.MAX_VALUE;
+        for(int run = 0; run < RUNS; run++) {
+            walker = Math.min(walker, timeExecute(tree, null));
+            vm = Math.min(vm, timeExecute(tree, code));
+        }
+        System.out.printf("%-10s %10d %12.2f %12.2f %12.2f %10.2f%n", name, code.size(),
+            compile / 1e6, walker / 1e6, vm / 1e6, (double)(walker) / vm);
+    }
+
+    public static void main(String[] args) throws IOException, SemanticError {
+        File file = File.createTempFile("bytecode", ".jott");
+        file.deleteOnExit();
+        System.out.printf("%-10s %10s %12s %12s %12s %10s%n", "program", "code ints", "compile ms", "tree ms", "vm ms", "speedup");
+
+        run(file, "loop", "Def main[]:Void{\n    Integer i;\n    Integer x;\n    Double d;\n    i = 0;\n    x = 0;\n    d = 0.0;\n"
+            + "    While[i < " + ITERATIONS + "]{\n        x = x + i;\n        d = d + 0.5;\n"
+            + "        If[x > 1000000]{\n            x = x - 1000000;\n        }Else{\n            x = x + 1;\n        }\n"
+            + "        i = i + 1;\n    }\n    ::print[x];\n    ::print[d];\n}\n");
+        run(file, "nested", "Def main[]:Void{\n    Integer i;\n    Integer j;\n    Integer x;\n    i = 0;\n    x = 0;\n"
+            + "    While[i < 1000]{\n        j = 0;\n        While[j < " + (ITERATIONS / 1000) + "]{\n"
+            + "            x = x + j;\n            j = j + 1;\n        }\n        i = i + 1;\n    }\n    ::print[x];\n}\n");
+        run(file, "calls", "Def add[a:Integer, b:Integer]:Integer{\n    Return a + b;\n}\n"
+            + "Def main[]:Void{\n    Integer i;\n    Integer x;\n    i = 0;\n    x = 0;\n"
+            + "    While[i < " + ITERATIONS + "]{\n        x = ::add[x, i];\n        i = ::add[i, 1];\n    }\n    ::print[x];\n}\n");
+        run(file, "fib", "Def fib[n:Integer]:Integer{\n    If[n < 2]{\n        Return n;\n    }\n"
+            + "    Return ::fib[n - 1] + ::fib[n - 2];\n}\n"
+            + "Def main[]:Void{\n    ::print[::fib[" + FIB + "]];\n}\n");
+        run(file, "strings", "Def main[]:Void{\n    Integer i;\n    Integer n;\n    String s;\n    i = 0;\n    n = 0;\n"
+            + "    While[i < " + (ITERATIONS / 10) + "]{\n        s = ::concat[\"ab\", \"cd\"];\n"
+            + "        n = n + ::length[s];\n        i = i + 1;\n    }\n    ::print[n];\n}\n");
+    }
+}
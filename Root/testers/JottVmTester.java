@@ -0,0 +1,270 @@
+package testers;
+
+/*
+  Runs every file in the test case folders with and without the bytecode VM
+  (main.Jott --vm, alone and with --hash-cons), and generated programs of nested
+  If/Elseif/Else/While bodies with Returns at random places, recursive calls,
+  builtins and runtime errors, and compares everything printed: the VM must print
+  what the tree walker prints. It also checks which programs are compiled (the
+  programs with a != operator, or a variable named like a function, are executed
+  by the tree walker).
+ */
+
+import provided.*;
+import jott_interpreter.*;
+import main.Jott;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class JottVmTester {
+    private static final String[] TEST_FOLDERS = {
+        "tokenizerTestCases", "parserTestCases", "phase3testcases", "phase4testcases"
+    };
+    private static final String[][] OPTIONS = { {}, { "--hash-cons" } };
+
+    private static String run(String... args) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            PrintStream print = new PrintStream(output);
+            System.setOut(print);
+            System.setErr(print);
+            Jott.main(args);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        return output.toString();
+    }
+
+    private static String[] arguments(String[] options, String... args) {
+        String[] all = new String[options.length + args.length];
+        System.arraycopy(options, 0, all, 0, options.length);
+        System.arraycopy(args, 0, all, options.length, args.length);
+        return all;
+    }
+
+    private static boolean compare(String name, String path, String[] options) {
+        String expected = run(arguments(options, path));
+        String actual = run(arguments(options, "--vm", path));
+        if(!expected.equals(actual)) {
+            System.err.println("\tFailed Test: " + name + " " + String.join(" ", options));
+            System.err.println("\t\tExpected: " + expected);
+            System.err.println("\t\tGot:      " + actual);
+            return false;
+        }
+        return true;
+    }
+
+    /** @return the validated program of a file, or null if it has errors */
+    private static JottTree validate(File copy) {
+        PrintStream stderr = System.err;
+        try {
+            System.setErr(new PrintStream(new ByteArrayOutputStream()));
+            JottTree tree = JottParser.parse(JottTokenizer.tokenize(copy.getPath()));
+            return tree != null && tree.validateTree() ? tree : null;
+        } finally {
+            System.setErr(stderr);
+        }
+    }
+
+    /** @return whether the (valid) program is compiled to bytecode */
+    private static boolean compiles(File copy) {
+        JottTree tree = validate(copy);
+        return tree != null && Interpreter.compileBytecode(tree) != null;
+    }
+
+    /**
+     * Runs a generated program with and without --vm.
+     * @param expected  the output expected (or null to only compare with the tree walker)
+     * @param compiled  whether the program must be compiled to bytecode
+     */
+    private static boolean testProgram(File copy, String name, String program, String expected, boolean compiled) throws IOException {
+        Files.write(copy.toPath(), program.getBytes());
+        boolean passed = true;
+        for(String[] options : OPTIONS) {
+            passed &= compare(name, copy.getPath(), options);
+        }
+        if(expected != null) {
+            String actual = run("--vm", copy.getPath());
+            if(!expected.equals(actual)) {
+                System.err.println("\tFailed Test: " + name + " (output)");
+                System.err.println("\t\tExpected: " + expected);
+                System.err.println("\t\tGot:      " + actual);
+                passed = false;
+            }
+        }
+        if(compiles(copy) != compiled) {
+            System.err.println("\tFailed Test: " + name + (compiled ? " (not compiled)" : " (compiled)"));
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static void indent(StringBuilder program, int depth) {
+        for(int i = 0; i < depth; i++) { program.append("    "); }
+    }
+
+    /** A random Boolean condition on the variables of f */
+    private static String condition(Random random) {
+        String[] operators = { "<", "<=", ">", ">=", "==" };
+        return (random.nextBoolean() ? "x" : "y") + " " + operators[random.nextInt(operators.length)] + " " + random.nextInt(6);
+    }
+
+    /** Random statements of f (the loop counter of each nesting depth is c{depth}) */
+    private static void statements(StringBuilder program, Random random, int depth) {
+        int count = 1 + random.nextInt(3);
+        for(int n = 0; n < count; n++) {
+            // (a Return ends a body: not in the body of f, which ends with its own)
+            int kind = depth >= 4 ? random.nextInt(3) : random.nextInt(depth == 1 ? 5 : 7);
+            indent(program, depth);
+            switch(kind) {
+                case 0 :
+                    program.append("x = x + ").append(1 + random.nextInt(3)).append(";\n");
+                    break;
+                case 1 :
+                    program.append(random.nextBoolean() ? "y = y - x;\n" : "y = y * 2;\n");
+                    break;
+                case 2 :
+                    program.append("::print[x * y];\n");
+                    break;
+                case 3 : { // (the counter first: a Return in the body only ends the iteration)
+                    program.append("c").append(depth).append(" = 0;\n");
+                    indent(program, depth);
+                    program.append("While[c").append(depth).append(" < 3]{\n");
+                    indent(program, depth + 1);
+                    program.append("c").append(depth).append(" = c").append(depth).append(" + 1;\n");
+                    statements(program, random, depth + 1);
+                    indent(program, depth);
+                    program.append("}\n");
+                    break;
+                }
+                case 4 : {
+                    program.append("If[").append(condition(random)).append("]{\n");
+                    statements(program, random, depth + 1);
+                    indent(program, depth);
+                    program.append("}");
+                    int elseifs = random.nextInt(3);
+                    for(int i = 0; i < elseifs; i++) {
+                        program.append("Elseif[").append(condition(random)).append("]{\n");
+                        statements(program, random, depth + 1);
+                        indent(program, depth);
+                        program.append("}");
+                    }
+                    if(random.nextBoolean()) {
+                        program.append("Else{\n");
+                        statements(program, random, depth + 1);
+                        indent(program, depth);
+                        program.append("}");
+                    }
+                    program.append("\n");
+                    break;
+                }
+                default :
+                    program.append("Return x - y;\n");
+                    return;
+            }
+        }
+    }
+
+    /** A function f of random nested bodies, called with every argument from 0 to 5 */
+    private static String randomProgram(Random random) {
+        StringBuilder program = new StringBuilder();
+        program.append("Def f[x:Integer]:Integer{\n    Integer y;\n");
+        for(int depth = 1; depth <= 5; depth++) { program.append("    Integer c").append(depth).append(";\n"); }
+        program.append("    y = 1;\n");
+        statements(program, random, 1);
+        program.append("    Return x + y;\n}\n");
+        program.append("Def main[]:Void{\n    Integer i;\n    i = 0;\n    While[i < 6]{\n"
+            + "        ::print[::f[i]];\n        i = i + 1;\n    }\n}\n");
+        return program.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("NOTE: System.err may print at the end. This is fine.");
+        File copy = File.createTempFile("bytecode", ".jott");
+        copy.deleteOnExit();
+        int numTests = 0;
+        int passedTests = 0;
+
+        for(String folder : TEST_FOLDERS) {
+            File[] files = new File(folder).listFiles();
+            if(files == null) { continue; }
+            for(File file : files) {
+                for(String[] options : OPTIONS) {
+                    numTests++;
+                    if(compare(file.getPath(), file.getPath(), options)) { passedTests++; }
+                }
+            }
+        }
+
+        // a Return in a While body only ends the iteration (as in the tree walker)
+        numTests++;
+        if(testProgram(copy, "return in while",
+            "Def f[]:Integer{\n    Integer i;\n    i = 0;\n    While[i < 3]{\n        i = i + 1;\n"
+            + "        ::print[i];\n        If[i == 2]{\n            Return i;\n        }\n    }\n    Return 10;\n}\n"
+            + "Def main[]:Void{\n    ::print[::f[]];\n}\n",
+            "1\n2\n3\n10\n", true)) { passedTests++; }
+
+        // an Elseif taken without returning falls through to the next Elseif and the Else
+        numTests++;
+        if(testProgram(copy, "elseif",
+            "Def main[]:Void{\n    Integer x;\n    x = 1;\n    If[x > 5]{\n        ::print[\"if\"];\n"
+            + "    }Elseif[x > 0]{\n        ::print[\"first\"];\n    }Elseif[x > 0]{\n        ::print[\"second\"];\n"
+            + "    }Else{\n        ::print[\"else\"];\n    }\n}\n",
+            null, true)) { passedTests++; }
+
+        // recursion, and every parameter type
+        numTests++;
+        if(testProgram(copy, "recursion",
+            "Def fib[n:Integer]:Integer{\n    If[n < 2]{\n        Return n;\n    }\n"
+            + "    Return ::fib[n - 1] + ::fib[n - 2];\n}\n"
+            + "Def even[n:Integer]:Boolean{\n    If[n == 0]{\n        Return True;\n    }Elseif[n == 1]{\n        Return False;\n    }\n"
+            + "    Return ::even[n - 2];\n}\n"
+            + "Def mix[a:Integer, d:Double, s:String, b:Boolean]:String{\n    ::print[a];\n    ::print[d];\n"
+            + "    ::print[b];\n    Return ::concat[s, \"z\"];\n}\n"
+            + "Def main[]:Void{\n    ::print[::fib[15]];\n    ::print[::even[7]];\n    ::print[::even[8]];\n"
+            + "    ::print[::mix[-3, 2.5 / 2.0, \"abc\", 1.5 > 2.5]];\n    ::print[::length[::mix[1, 0.5, \"x\", True]]];\n}\n",
+            "610\nFalse\nTrue\n-3\n1.25\nFalse\nabcz\n1\n0.5\nTrue\n2\n", true)) { passedTests++; }
+
+        // a division by zero stops the program at its line (Integer and Double)
+        numTests++;
+        if(testProgram(copy, "division by zero",
+            "Def main[]:Void{\n    Integer x;\n    ::print[1];\n    x = 0;\n    ::print[5 / x];\n    ::print[2];\n}\n",
+            null, true)) { passedTests++; }
+        numTests++;
+        if(testProgram(copy, "double division by zero",
+            "Def main[]:Void{\n    Double x;\n    x = 0.0;\n    ::print[1.5 / x];\n}\n",
+            null, true)) { passedTests++; }
+
+        // not compiled: a != operator (never executed), a variable named like a function
+        numTests++;
+        if(testProgram(copy, "not equal",
+            "Def main[]:Void{\n    Integer x;\n    x = 1;\n    If[x > 5]{\n        ::print[x != 2];\n    }\n    ::print[x];\n}\n",
+            "1\n", false)) { passedTests++; }
+        numTests++;
+        if(testProgram(copy, "shadowed",
+            "Def f[]:Integer{\n    Return 1;\n}\n"
+            + "Def main[]:Void{\n    Integer f;\n    f = 2;\n    ::print[f];\n    ::print[::f[]];\n}\n",
+            null, false)) { passedTests++; }
+
+        Random random = new Random(25);
+        for(int i = 0; i < 40; i++) {
+            numTests++;
+            String program;
+            do { // (a body after an If returning in every branch is unreachable)
+                program = randomProgram(random);
+                Files.write(copy.toPath(), program.getBytes());
+            } while(validate(copy) == null);
+            if(testProgram(copy, "random " + i, program, null, true)) { passedTests++; }
+        }
+
+        System.out.printf("Passed: %d/%d%n", passedTests, numTests);
+    }
+}